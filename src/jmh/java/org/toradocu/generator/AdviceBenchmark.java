@@ -0,0 +1,436 @@
+package org.toradocu.generator;
+
+import com.beust.jcommander.JCommander;
+import com.github.javaparser.JavaParser;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.translator.CommentTranslator;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Measures time and allocation rate (run with {@code -prof gc}, the default of the {@code jmh}
+ * Gradle task) of a call of {@code CollectionUtils.addIgnoreNull(Collection, Object)} advised by
+ * the aspect that Toradocu generates for it, compared to the same call without advice. The aspect
+ * is generated and compiled during the setup, and its advice is invoked with a join point that
+ * directly calls the method: the benchmark measures the code of the generated advice, not the join
+ * point machinery of AspectJ. Requires the sources and binaries of Apache Commons Collections
+ * downloaded by {@code ./gradlew extractSources extractBinaries}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdviceBenchmark {
+
+  private static final String SOURCE_DIR =
+      "src/test/resources/src/commons-collections4-4.1-src/src/main/java/";
+  private static final String BIN_DIR = "src/test/resources/bin/commons-collections4-4.1.jar";
+  private static final String TARGET_CLASS = "org.apache.commons.collections4.CollectionUtils";
+  private static final String TARGET_METHOD = "addIgnoreNull";
+
+  /** The advice of the generated aspect, bound to an instance of the aspect. */
+  private MethodHandle advice;
+
+  /** The join point of the advised call. */
+  private ProceedingJoinPoint joinPoint;
+
+  @Setup
+  public void setUp() throws Throwable {
+    final Configuration configuration = Configuration.INSTANCE;
+    JCommander.newBuilder()
+        .addObject(configuration)
+        .build()
+        .parse(
+            "--target-class", TARGET_CLASS,
+            "--class-dir", BIN_DIR,
+            "--source-dir", SOURCE_DIR,
+            "--disable-semantics", "true");
+    configuration.initialize();
+    Toradocu.configuration = configuration;
+    final List<DocumentedExecutable> members =
+        new JavadocExtractor().extract(TARGET_CLASS, SOURCE_DIR).getDocumentedExecutables();
+    final ExecutableMap<OperationSpecification> specifications =
+        CommentTranslator.createIndexedSpecifications(members);
+    DocumentedExecutable method = null;
+    for (DocumentedExecutable member : specifications.keys()) {
+      if (member.getName().equals(TARGET_METHOD)) {
+        method = member;
+      }
+    }
+    final String aspect;
+    try (InputStream template =
+        OracleGenerator.class.getResourceAsStream("/" + configuration.getAspectTemplate())) {
+      aspect =
+          OracleGenerator.createAspectSource(
+              JavaParser.parse(template), method, specifications.get(method), "Aspect_1");
+    }
+    setUp(aspect);
+  }
+
+  /**
+   * Compiles and loads the given aspect for {@code addIgnoreNull}, and prepares the join point.
+   *
+   * @param aspect the source code of the aspect class {@code Aspect_1}
+   * @throws Throwable if the aspect cannot be compiled or loaded
+   */
+  void setUp(String aspect) throws Throwable {
+    final ClassLoader loader = compile(aspect);
+    final Class<?> aspectClass = loader.loadClass("Aspect_1");
+    final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    advice =
+        lookup
+            .findVirtual(
+                aspectClass,
+                "advice",
+                MethodType.methodType(Object.class, ProceedingJoinPoint.class))
+            .bindTo(aspectClass.getDeclaredConstructor().newInstance());
+    final Class<?> targetClass = loader.loadClass(TARGET_CLASS);
+    final Method method =
+        targetClass.getMethod(TARGET_METHOD, java.util.Collection.class, Object.class);
+    final MethodHandle addIgnoreNull =
+        lookup
+            .unreflect(method)
+            .asType(MethodType.methodType(Object.class, java.util.Collection.class, Object.class))
+            .asSpreader(Object[].class, 2);
+    joinPoint = new DirectJoinPoint(method, addIgnoreNull, new Object[] {new ArrayList<>(), null});
+  }
+
+  /**
+   * Calls {@code addIgnoreNull} without advice.
+   *
+   * @return the result of the call
+   * @throws Throwable if the call fails
+   */
+  @Benchmark
+  public Object unadvised() throws Throwable {
+    return joinPoint.proceed(joinPoint.getArgs());
+  }
+
+  /**
+   * Calls {@code addIgnoreNull} through the advice of the generated aspect.
+   *
+   * @return the result of the call
+   * @throws Throwable if the call fails
+   */
+  @Benchmark
+  public Object advised() throws Throwable {
+    return (Object) advice.invokeExact(joinPoint);
+  }
+
+  /**
+   * Compiles the given aspect, together with the aspect for JUnit test cases and the class that
+   * collects metrics it refers to.
+   *
+   * @param aspect the source code of the aspect class {@code Aspect_1}
+   * @return a class loader that loads the compiled aspects and the target class
+   * @throws IOException if the sources or the compiled classes cannot be written
+   */
+  private static ClassLoader compile(String aspect) throws IOException {
+    final Path directory = Files.createTempDirectory("aspects");
+    final Path aspectFile = directory.resolve("Aspect_1.java");
+    Files.write(aspectFile, aspect.getBytes(StandardCharsets.UTF_8));
+    final List<String> arguments =
+        new ArrayList<>(
+            Arrays.asList(
+                "-nowarn", "-cp", null, "-d", directory.toString(), aspectFile.toString()));
+    for (String resource :
+        Arrays.asList(
+            Configuration.INSTANCE.getJUnitTestCaseAspect(),
+            Configuration.INSTANCE.getOracleMetrics())) {
+      final Path file = directory.resolve(resource);
+      try (InputStream source = OracleGenerator.class.getResourceAsStream("/" + resource)) {
+        Files.copy(source, file);
+      }
+      arguments.add(file.toString());
+    }
+    final String classpath =
+        System.getProperty("java.class.path") + File.pathSeparator + new File(BIN_DIR);
+    arguments.set(2, classpath);
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final int status = compiler.run(null, null, null, arguments.toArray(new String[0]));
+    if (status != 0) {
+      throw new IllegalStateException("Unable to compile the aspect:\n" + aspect);
+    }
+    return new URLClassLoader(
+        new URL[] {directory.toUri().toURL(), new File(BIN_DIR).toURI().toURL()},
+        AdviceBenchmark.class.getClassLoader());
+  }
+
+  /** A join point whose {@code proceed} directly calls a method with fixed arguments. */
+  private static final class DirectJoinPoint implements ProceedingJoinPoint {
+
+    /** The location of the call, reported by the messages of the advice. */
+    private static final SourceLocation SOURCE_LOCATION =
+        new SourceLocation() {
+          @Override
+          public Class<?> getWithinType() {
+            return AdviceBenchmark.class;
+          }
+
+          @Override
+          public String getFileName() {
+            return "AdviceBenchmark.java";
+          }
+
+          @Override
+          public int getLine() {
+            return 0;
+          }
+
+          @Override
+          @Deprecated
+          public int getColumn() {
+            return 0;
+          }
+
+          @Override
+          public String toString() {
+            return getFileName() + ":" + getLine();
+          }
+        };
+
+    /** The static part of the join point, with the signature of the advised method. */
+    private final JoinPoint.StaticPart staticPart;
+
+    /** The advised method, taking its arguments as an array. */
+    private final MethodHandle method;
+
+    /** The arguments of the call. */
+    private final Object[] args;
+
+    DirectJoinPoint(Method advised, MethodHandle method, Object[] args) {
+      this.staticPart = new CallStaticPart(new ReflectiveMethodSignature(advised));
+      this.method = method;
+      this.args = args;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+      return proceed(args);
+    }
+
+    @Override
+    public Object proceed(Object[] args) throws Throwable {
+      return (Object) method.invokeExact(args);
+    }
+
+    @Override
+    public Object getTarget() {
+      return null;
+    }
+
+    @Override
+    public Object getThis() {
+      return null;
+    }
+
+    @Override
+    public Object[] getArgs() {
+      return args;
+    }
+
+    @Override
+    public void set$AroundClosure(AroundClosure arc) {}
+
+    @Override
+    public String toShortString() {
+      return toString();
+    }
+
+    @Override
+    public String toLongString() {
+      return toString();
+    }
+
+    @Override
+    public Signature getSignature() {
+      return staticPart.getSignature();
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+      return staticPart.getSourceLocation();
+    }
+
+    @Override
+    public String getKind() {
+      return staticPart.getKind();
+    }
+
+    @Override
+    public JoinPoint.StaticPart getStaticPart() {
+      return staticPart;
+    }
+
+    @Override
+    public String toString() {
+      return staticPart.toString();
+    }
+  }
+
+  /** The static part of a method call at the location {@code SOURCE_LOCATION}. */
+  private static final class CallStaticPart implements JoinPoint.StaticPart {
+
+    /** The signature of the called method. */
+    private final MethodSignature signature;
+
+    CallStaticPart(MethodSignature signature) {
+      this.signature = signature;
+    }
+
+    @Override
+    public Signature getSignature() {
+      return signature;
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+      return DirectJoinPoint.SOURCE_LOCATION;
+    }
+
+    @Override
+    public String getKind() {
+      return JoinPoint.METHOD_CALL;
+    }
+
+    @Override
+    public int getId() {
+      return 0;
+    }
+
+    @Override
+    public String toShortString() {
+      return "call(" + signature.toShortString() + ")";
+    }
+
+    @Override
+    public String toLongString() {
+      return "call(" + signature.toLongString() + ")";
+    }
+
+    @Override
+    public String toString() {
+      return "call(" + signature + ")";
+    }
+  }
+
+  /** The signature of a method, described by reflection. */
+  private static final class ReflectiveMethodSignature implements MethodSignature {
+
+    /** The method. */
+    private final Method method;
+
+    ReflectiveMethodSignature(Method method) {
+      this.method = method;
+    }
+
+    @Override
+    public Class<?> getReturnType() {
+      return method.getReturnType();
+    }
+
+    @Override
+    public Method getMethod() {
+      return method;
+    }
+
+    @Override
+    public Class<?>[] getParameterTypes() {
+      return method.getParameterTypes();
+    }
+
+    @Override
+    public String[] getParameterNames() {
+      final Parameter[] parameters = method.getParameters();
+      final String[] names = new String[parameters.length];
+      for (int i = 0; i < parameters.length; i++) {
+        names[i] = parameters[i].getName();
+      }
+      return names;
+    }
+
+    @Override
+    public Class<?>[] getExceptionTypes() {
+      return method.getExceptionTypes();
+    }
+
+    @Override
+    public String getName() {
+      return method.getName();
+    }
+
+    @Override
+    public int getModifiers() {
+      return method.getModifiers();
+    }
+
+    @Override
+    public Class<?> getDeclaringType() {
+      return method.getDeclaringClass();
+    }
+
+    @Override
+    public String getDeclaringTypeName() {
+      return method.getDeclaringClass().getName();
+    }
+
+    @Override
+    public String toShortString() {
+      return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(..)";
+    }
+
+    @Override
+    public String toLongString() {
+      return method.toGenericString();
+    }
+
+    @Override
+    public String toString() {
+      final StringJoiner parameters = new StringJoiner(", ", "(", ")");
+      for (Class<?> type : method.getParameterTypes()) {
+        parameters.add(type.getSimpleName());
+      }
+      return method.getReturnType().getSimpleName()
+          + " "
+          + method.getDeclaringClass().getName()
+          + "."
+          + method.getName()
+          + parameters;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package org.toradocu.generator;
+
+import com.beust.jcommander.JCommander;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.translator.CommentTranslator;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Measures the creation of the source code of the aspects of a large class, either parsing the
+ * aspect template for every aspect or cloning a template parsed once. Requires the sources and
+ * binaries of Apache Commons Collections downloaded by {@code ./gradlew extractSources
+ * extractBinaries}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OracleGeneratorBenchmark {
+
+  private static final String SOURCE_DIR =
+      "src/test/resources/src/commons-collections4-4.1-src/src/main/java/";
+  private static final String BIN_DIR = "src/test/resources/bin/commons-collections4-4.1.jar";
+
+  /** The class for whose methods aspects are created. */
+  @Param({"org.apache.commons.collections4.CollectionUtils"})
+  public String targetClass;
+
+  /** The specifications of the methods of {@link #targetClass}. */
+  private ExecutableMap<OperationSpecification> specifications;
+
+  /** The methods of {@link #targetClass} whose aspect can be created. */
+  private List<DocumentedExecutable> methods;
+
+  /** The aspect template, parsed once. */
+  private CompilationUnit aspectTemplate;
+
+  @Setup
+  public void setUp() throws Exception {
+    final Configuration configuration = Configuration.INSTANCE;
+    JCommander.newBuilder()
+        .addObject(configuration)
+        .build()
+        .parse(
+            "--target-class", targetClass,
+            "--class-dir", BIN_DIR,
+            "--source-dir", SOURCE_DIR,
+            "--disable-semantics", "true");
+    configuration.initialize();
+    Toradocu.configuration = configuration;
+    final List<DocumentedExecutable> members =
+        new JavadocExtractor().extract(targetClass, SOURCE_DIR).getDocumentedExecutables();
+    specifications = CommentTranslator.createIndexedSpecifications(members);
+    aspectTemplate = parseTemplate();
+    methods = new ArrayList<>();
+    for (DocumentedExecutable method : specifications.keys()) {
+      final OperationSpecification specification = specifications.get(method);
+      if (specification.isEmpty()) {
+        continue;
+      }
+      try {
+        OracleGenerator.createAspectSource(aspectTemplate, method, specification, "Aspect");
+        methods.add(method);
+      } catch (ParseProblemException e) {
+        // Skip methods with conditions that are not valid Java code.
+      }
+    }
+  }
+
+  /**
+   * Creates the aspects parsing the aspect template for every aspect.
+   *
+   * @param blackhole consumes the source code of the aspects
+   * @throws IOException if the aspect template cannot be read
+   */
+  @Benchmark
+  public void parseTemplatePerAspect(Blackhole blackhole) throws IOException {
+    for (DocumentedExecutable method : methods) {
+      blackhole.consume(
+          OracleGenerator.createAspectSource(
+              parseTemplate(), method, specifications.get(method), "Aspect"));
+    }
+  }
+
+  /**
+   * Creates the aspects cloning the aspect template parsed once.
+   *
+   * @param blackhole consumes the source code of the aspects
+   */
+  @Benchmark
+  public void cloneTemplatePerAspect(Blackhole blackhole) {
+    for (DocumentedExecutable method : methods) {
+      blackhole.consume(
+          OracleGenerator.createAspectSource(
+              aspectTemplate, method, specifications.get(method), "Aspect"));
+    }
+  }
+
+  private static CompilationUnit parseTemplate() throws IOException {
+    try (InputStream template =
+        OracleGenerator.class.getResourceAsStream(
+            "/" + Configuration.INSTANCE.getAspectTemplate())) {
+      return JavaParser.parse(template);
+    }
+  }
+}
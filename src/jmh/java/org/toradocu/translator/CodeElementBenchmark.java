@@ -0,0 +1,80 @@
+package org.toradocu.translator;
+
+import com.beust.jcommander.JCommander;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+
+/**
+ * Measures time and allocation rate (run with {@code -prof gc}, the default of the {@code jmh}
+ * Gradle task) of collecting, sorting, and hashing the code elements of the documented executable
+ * members of classes in the goal-output corpus. Requires the sources and binaries of Apache Commons
+ * Collections downloaded by {@code ./gradlew extractSources extractBinaries}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodeElementBenchmark {
+
+  private static final String SOURCE_DIR =
+      "src/test/resources/src/commons-collections4-4.1-src/src/main/java/";
+  private static final String BIN_DIR = "src/test/resources/bin/commons-collections4-4.1.jar";
+
+  /** The class whose documented executable members are analyzed. */
+  @Param({
+    "org.apache.commons.collections4.CollectionUtils",
+    "org.apache.commons.collections4.map.LRUMap"
+  })
+  public String targetClass;
+
+  /** The documented executable members of {@link #targetClass}. */
+  private List<DocumentedExecutable> members;
+
+  @Setup
+  public void setUp() throws Exception {
+    final Configuration configuration = Configuration.INSTANCE;
+    JCommander.newBuilder()
+        .addObject(configuration)
+        .build()
+        .parse(
+            "--target-class", targetClass,
+            "--class-dir", BIN_DIR,
+            "--source-dir", SOURCE_DIR);
+    configuration.initialize();
+    members = new JavadocExtractor().extract(targetClass, SOURCE_DIR).getDocumentedExecutables();
+    // Parse the comments of the members outside of the measured code.
+    members.forEach(JavaElementsCollector::collect);
+  }
+
+  /**
+   * Collects the code elements of every member, sorts them by priority, and looks them up in a hash
+   * set, as done when matching subjects and methods in the {@link Matcher}.
+   *
+   * @param blackhole consumes the results
+   */
+  @Benchmark
+  public void collectAndSort(Blackhole blackhole) {
+    for (DocumentedExecutable member : members) {
+      final Set<CodeElement<?>> codeElements = JavaElementsCollector.collect(member);
+      final List<CodeElement<?>> sorted = new ArrayList<>(codeElements);
+      sorted.sort(Collections.reverseOrder());
+      for (CodeElement<?> codeElement : sorted) {
+        blackhole.consume(codeElements.contains(codeElement));
+      }
+    }
+  }
+}
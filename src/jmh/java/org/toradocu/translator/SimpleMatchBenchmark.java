@@ -0,0 +1,54 @@
+package org.toradocu.translator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the translation of predicates with {@link Matcher#simpleMatch(String)}. Predicates are
+ * read from {@code predicates.txt}, which contains the predicates that the matcher translates when
+ * running the accuracy tests on Apache Commons Collections and Guava, in order of translation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimpleMatchBenchmark {
+
+  /** Predicates to translate. */
+  private List<String> predicates;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                SimpleMatchBenchmark.class.getResourceAsStream("predicates.txt"),
+                StandardCharsets.UTF_8))) {
+      predicates = reader.lines().collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Translates all the predicates.
+   *
+   * @param blackhole consumes the translations
+   */
+  @Benchmark
+  public void simpleMatch(Blackhole blackhole) {
+    for (String predicate : predicates) {
+      blackhole.consume(Matcher.simpleMatch(predicate));
+    }
+  }
+}
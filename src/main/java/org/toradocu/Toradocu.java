@@ -14,20 +14,28 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.impl.SimpleLogger;
 import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedType;
+import org.toradocu.extractor.ExecutableMap;
 import org.toradocu.extractor.JavadocExtractor;
 import org.toradocu.extractor.ParameterNotFoundException;
 import org.toradocu.generator.OracleGenerator;
 import org.toradocu.output.util.JsonOutput;
 import org.toradocu.translator.CommentTranslator;
+import org.toradocu.translator.NegativeCache;
+import org.toradocu.translator.Parser;
+import org.toradocu.translator.SpecificationCache;
+import org.toradocu.translator.preprocess.PreprocessorFactory;
 import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.util.ComplianceCache;
+import org.toradocu.util.ComplianceChecks;
 import org.toradocu.util.GsonInstance;
+import org.toradocu.util.LruCache;
 import org.toradocu.util.Stats;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.OperationSpecification;
@@ -138,13 +146,65 @@ public class Toradocu {
     SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
 
     if (configuration.isConditionTranslationEnabled()) {
-      Map<DocumentedExecutable, OperationSpecification> specifications;
+      ExecutableMap<OperationSpecification> specifications;
 
       // Use @tComment or the standard condition translator to translate comments.
       if (configuration.useTComment()) {
         specifications = tcomment.TcommentKt.translate(members);
       } else {
-        specifications = CommentTranslator.createSpecifications(members);
+        Parser.startRun();
+        final NegativeCache negativeCache = openNegativeCache();
+        final SpecificationCache specificationCache = openSpecificationCache();
+        final ComplianceCache complianceCache = openComplianceCache();
+        ComplianceChecks.setComplianceCache(complianceCache);
+        specifications =
+            CommentTranslator.createIndexedSpecifications(
+                members, negativeCache, specificationCache);
+        if (specificationCache.isEnabled()) {
+          log.info("Specification cache: " + specificationCache);
+          try {
+            specificationCache.close();
+          } catch (IOException e) {
+            log.error(
+                "Unable to save the specification cache on file "
+                    + configuration.getSpecificationCache(),
+                e);
+          }
+        }
+        ComplianceChecks.setComplianceCache(ComplianceCache.disabled());
+        if (complianceCache.isEnabled()) {
+          log.info("Compliance cache: " + complianceCache);
+          try {
+            complianceCache.close();
+          } catch (IOException e) {
+            log.error(
+                "Unable to save the compliance cache on file " + configuration.getComplianceCache(),
+                e);
+          }
+        }
+        if (negativeCache.isEnabled()) {
+          log.info("Negative cache: " + negativeCache);
+          try {
+            negativeCache.close();
+          } catch (IOException e) {
+            log.error(
+                "Unable to save the negative cache on file " + configuration.getNegativeCache(), e);
+          }
+        }
+        final LruCache.Statistics parserCacheStatistics = Parser.getCacheStatistics();
+        if (parserCacheStatistics != null) {
+          log.info("Parser cache: " + parserCacheStatistics);
+        }
+        log.info("Compliance checks: " + ComplianceChecks.getStatistics());
+        if (log.isDebugEnabled()) {
+          for (BlockTag.Kind tagKind : BlockTag.Kind.values()) {
+            log.debug(
+                "Preprocessing of "
+                    + tagKind
+                    + " comments: "
+                    + PreprocessorFactory.get(tagKind).getStatistics());
+          }
+        }
       }
 
       // Output the result on a file or on the standard output, if silent mode is disabled.
@@ -155,7 +215,7 @@ public class Toradocu {
               Files.newBufferedWriter(
                   configuration.getConditionTranslatorOutput().toPath(), StandardCharsets.UTF_8)) {
 
-            for (DocumentedExecutable executable : specifications.keySet()) {
+            for (DocumentedExecutable executable : specifications.keys()) {
               jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
             }
             String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
@@ -222,13 +282,12 @@ public class Toradocu {
    *
    * @param specsMap the documented methods containing the specifications to export
    */
-  private static void generateRandoopSpecs(
-      Map<DocumentedExecutable, OperationSpecification> specsMap) {
+  private static void generateRandoopSpecs(ExecutableMap<OperationSpecification> specsMap) {
     File randoopSpecsFile = configuration.randoopSpecsFile();
     if (!configuration.isSilent() && randoopSpecsFile != null) {
       generateRandoopSpecsFile(randoopSpecsFile);
       Collection<OperationSpecification> randoopSpecs = new ArrayList<>();
-      for (DocumentedExecutable documentedExecutable : specsMap.keySet()) {
+      for (DocumentedExecutable documentedExecutable : specsMap.keys()) {
         final OperationSpecification spec = specsMap.get(documentedExecutable);
 
         // Get rid of empty specifications.
@@ -352,4 +411,59 @@ public class Toradocu {
       }
     }
   }
+
+  /**
+   * Opens the negative cache configured with {@code --negative-cache}.
+   *
+   * @return the negative cache, or a disabled cache if none is configured or it cannot be opened
+   */
+  private static NegativeCache openNegativeCache() {
+    final File file = configuration.getNegativeCache();
+    if (file == null) {
+      return NegativeCache.disabled();
+    }
+    try {
+      return NegativeCache.open(file, configuration.isNegativeCacheRefreshed());
+    } catch (IOException | IllegalArgumentException e) {
+      log.error("Unable to open the negative cache file " + file + ": it is ignored", e);
+      return NegativeCache.disabled();
+    }
+  }
+
+  /**
+   * Opens the specification cache configured with {@code --specification-cache}.
+   *
+   * @return the specification cache, or a disabled cache if none is configured or it cannot be
+   *     opened
+   */
+  private static SpecificationCache openSpecificationCache() {
+    final File file = configuration.getSpecificationCache();
+    if (file == null) {
+      return SpecificationCache.disabled();
+    }
+    try {
+      return SpecificationCache.open(file);
+    } catch (IOException | IllegalArgumentException e) {
+      log.error("Unable to open the specification cache file " + file + ": it is ignored", e);
+      return SpecificationCache.disabled();
+    }
+  }
+
+  /**
+   * Opens the compliance cache configured with {@code --compliance-cache}.
+   *
+   * @return the compliance cache, or a disabled cache if none is configured or it cannot be opened
+   */
+  private static ComplianceCache openComplianceCache() {
+    final File file = configuration.getComplianceCache();
+    if (file == null) {
+      return ComplianceCache.disabled();
+    }
+    try {
+      return ComplianceCache.open(file);
+    } catch (IOException | IllegalArgumentException e) {
+      log.error("Unable to open the compliance cache file " + file + ": it is ignored", e);
+      return ComplianceCache.disabled();
+    }
+  }
 }
@@ -0,0 +1,14 @@
+package org.toradocu.conf;
+
+/** Granularity of the aspects generated by the oracle generator. */
+public enum AspectGranularity {
+  /** An aspect for each method with specifications. */
+  METHOD,
+  /** An aspect for each class, checking the specifications of all the methods of the class. */
+  CLASS,
+  /**
+   * An aspect for each package, checking the specifications of all the methods of the classes in
+   * the package.
+   */
+  PACKAGE
+}
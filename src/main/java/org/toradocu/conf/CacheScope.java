@@ -0,0 +1,11 @@
+package org.toradocu.conf;
+
+/** Scope of a cache, i.e., how long the cached values are retained. */
+public enum CacheScope {
+  /** Cached values are discarded each time the comments of a new class are translated. */
+  CLASS,
+  /** Cached values are discarded each time Toradocu is run. */
+  RUN,
+  /** Cached values are retained as long as the JVM runs, across multiple runs of Toradocu. */
+  GLOBAL
+}
@@ -150,6 +150,80 @@ public enum Configuration {
       arity = 1)
   private boolean disableSemantics = false;
 
+  @Parameter(
+      names = "--parser-max-tokens",
+      description =
+          "Maximum number of tokens of a sentence parsed by the Stanford parser. Longer sentences"
+              + " are not translated. Use 0 for no limit")
+  private int parserMaxTokens = 0;
+
+  @Parameter(
+      names = "--parser-timeout",
+      description =
+          "Maximum time (in milliseconds) the Stanford parser can spend on a single sentence."
+              + " Sentences that take longer are not translated. Use 0 for no limit")
+  private long parserTimeout = 0;
+
+  @Parameter(
+      names = "--slow-sentence-threshold",
+      description =
+          "Sentences whose parsing takes longer than this threshold (in milliseconds) are logged",
+      hidden = true)
+  private long slowSentenceThreshold = 1000;
+
+  @Parameter(
+      names = "--parser-cache-size",
+      description =
+          "Maximum number of comments whose parsing results are cached. Use 0 to disable the cache")
+  private int parserCacheSize = 10_000;
+
+  @Parameter(
+      names = "--parser-cache-max-bytes",
+      description =
+          "Maximum (estimated) number of bytes retained by the cache of parsing results."
+              + " Use 0 for no limit")
+  private long parserCacheMaxBytes = 0;
+
+  @Parameter(
+      names = "--parser-cache-soft-references",
+      description = "Let the garbage collector reclaim cached parsing results when memory is low",
+      arity = 1)
+  private boolean parserCacheSoftReferences = false;
+
+  @Parameter(
+      names = "--parser-cache-scope",
+      description = "Scope of the cache of parsing results: CLASS, RUN, or GLOBAL (whole JVM)")
+  private CacheScope parserCacheScope = CacheScope.GLOBAL;
+
+  @Parameter(
+      names = "--negative-cache",
+      description =
+          "File where comments that cannot be translated are recorded, so that later runs do not"
+              + " translate them again",
+      converter = FileConverter.class)
+  private File negativeCache;
+
+  @Parameter(
+      names = "--refresh-negative-cache",
+      description = "Translate again the comments recorded in the negative cache")
+  private boolean refreshNegativeCache = false;
+
+  @Parameter(
+      names = "--specification-cache",
+      description =
+          "File where the specifications of translated comments are stored, so that later runs do"
+              + " not translate them again",
+      converter = FileConverter.class)
+  private File specificationCache;
+
+  @Parameter(
+      names = "--compliance-cache",
+      description =
+          "File where the results of the compliance checks of specifications are stored, so that"
+              + " later runs do not compile the same source code again",
+      converter = FileConverter.class)
+  private File complianceCache;
+
   // Aspect creation options
 
   @Parameter(
@@ -160,7 +234,9 @@ public enum Configuration {
 
   @Parameter(
       names = "--test-class",
-      description = "Fully-qualified name of the class that will be instrumented with aspects")
+      description =
+          "Fully-qualified name of the class that will be instrumented with aspects or with the"
+              + " oracle agent")
   private String testClass;
 
   @Parameter(
@@ -168,12 +244,70 @@ public enum Configuration {
       description = "Specifies a directory where Toradocu will output aspects")
   private String aspectsOutputDir = "aspects";
 
+  @Parameter(
+      names = "--aspect-granularity",
+      description =
+          "Generate an aspect for each METHOD, or a single aspect for each CLASS or PACKAGE that"
+              + " dispatches to the checks of the advised method")
+  private AspectGranularity aspectGranularity = AspectGranularity.METHOD;
+
+  @Parameter(
+      names = "--aspect-sampling-rate",
+      description =
+          "Fraction (between 0 and 1) of the calls of each method that generated aspects check."
+              + " The other calls are executed without checks")
+  private double aspectSamplingRate = 1;
+
+  @Parameter(
+      names = "--aspect-max-checks-per-second",
+      description =
+          "Maximum number of calls of each method that generated aspects check per second in each"
+              + " thread. Use 0 for no limit")
+  private int aspectMaxChecksPerSecond = 0;
+
+  @Parameter(
+      names = "--aspect-sampling-seed",
+      description =
+          "Seed of the random choice of the calls that generated aspects check. The same calls"
+              + " made by threads with the same names are checked with the same seed")
+  private long aspectSamplingSeed = 0;
+
+  @Parameter(
+      names = "--aspect-metrics",
+      description =
+          "File where generated aspects write metrics of their checks at JVM shutdown:"
+              + " per-specification counters and a histogram of the overhead of the checks. The"
+              + " file is in JSON format if its name ends with .json, and in CSV format otherwise")
+  private String aspectMetrics;
+
+  @Parameter(
+      names = "--oracle-backend",
+      description =
+          "Check specifications with AspectJ aspects (ASPECTJ) or with a Java agent that rewrites"
+              + " only the calls of the target methods in the test class (AGENT)")
+  private OracleBackend oracleBackend = OracleBackend.ASPECTJ;
+
   /** File used as template for generated aspects. */
   private static final String ASPECT_TEMPLATE = "AspectTemplate.java";
 
+  /** File used as template for aspects that check the specifications of several methods. */
+  private static final String DISPATCHING_ASPECT_TEMPLATE = "DispatchingAspectTemplate.java";
+
   /** Aspect to instrument JUnit test cases. */
   private static final String JUNIT_TC_ASPECT = "TestCaseAspect.java";
 
+  /** Class that collects the metrics of the checks of generated aspects. */
+  private static final String ORACLE_METRICS = "OracleMetrics.java";
+
+  /** File used as template for the checks of a method called by the oracle agent. */
+  private static final String AGENT_CHECKER_TEMPLATE = "AgentCheckerTemplate.java";
+
+  /** Java agent that rewrites the calls of target methods to call their checks. */
+  private static final String ORACLE_AGENT = "OracleAgent.java";
+
+  /** File used as template for the compiled specifications of an operation. */
+  private static final String EVALUATOR_TEMPLATE = "EvaluatorTemplate.java";
+
   /**
    * Initializes the configuration based on the given command-line options. This method must be
    * called before Javadoc options or the temporary Javadoc output directory are retrieved.
@@ -197,6 +331,16 @@ public enum Configuration {
     return ASPECT_TEMPLATE;
   }
 
+  /**
+   * Returns the name of the file used as a template for generated aspects that check the
+   * specifications of several methods.
+   *
+   * @return the name of the file used as a template for generated aspects of several methods
+   */
+  public String getDispatchingAspectTemplate() {
+    return DISPATCHING_ASPECT_TEMPLATE;
+  }
+
   /**
    * Returns the name of the aspect used to instrument JUnit test cases.
    *
@@ -206,6 +350,45 @@ public enum Configuration {
     return JUNIT_TC_ASPECT;
   }
 
+  /**
+   * Returns the name of the class that collects the metrics of the checks of generated aspects.
+   *
+   * @return the name of the class that collects the metrics of the checks of generated aspects
+   */
+  public String getOracleMetrics() {
+    return ORACLE_METRICS;
+  }
+
+  /**
+   * Returns the name of the file used as a template for the checks called by the oracle agent.
+   *
+   * @return the name of the file used as a template for the checks called by the oracle agent
+   */
+  public String getAgentCheckerTemplate() {
+    return AGENT_CHECKER_TEMPLATE;
+  }
+
+  /**
+   * Returns the name of the Java agent that rewrites the calls of target methods to call their
+   * checks.
+   *
+   * @return the name of the Java agent that rewrites the calls of target methods to call their
+   *     checks
+   */
+  public String getOracleAgent() {
+    return ORACLE_AGENT;
+  }
+
+  /**
+   * Returns the name of the file used as a template for the compiled specifications of an
+   * operation.
+   *
+   * @return the name of the file used as a template for specification evaluators
+   */
+  public String getEvaluatorTemplate() {
+    return EVALUATOR_TEMPLATE;
+  }
+
   /**
    * Returns the fully-qualified name of the target class to analyze with Toradocu.
    *
@@ -300,6 +483,64 @@ public enum Configuration {
     return aspectsOutputDir;
   }
 
+  /**
+   * Returns the granularity of the generated aspects.
+   *
+   * @return the granularity of the generated aspects
+   */
+  public AspectGranularity getAspectGranularity() {
+    return aspectGranularity;
+  }
+
+  /**
+   * Returns the fraction of the calls of each method that generated aspects check.
+   *
+   * @return the fraction of the calls of each method that generated aspects check
+   */
+  public double getAspectSamplingRate() {
+    return aspectSamplingRate;
+  }
+
+  /**
+   * Returns the maximum number of calls of each method that generated aspects check per second in
+   * each thread, or 0 if the number of checks is not limited.
+   *
+   * @return the maximum number of checks of each method per second in each thread, or 0 for no
+   *     limit
+   */
+  public int getAspectMaxChecksPerSecond() {
+    return aspectMaxChecksPerSecond;
+  }
+
+  /**
+   * Returns the seed of the random choice of the calls that generated aspects check.
+   *
+   * @return the seed of the random choice of the calls that generated aspects check
+   */
+  public long getAspectSamplingSeed() {
+    return aspectSamplingSeed;
+  }
+
+  /**
+   * Returns the file where generated aspects write metrics of their checks, or null if aspects do
+   * not collect metrics.
+   *
+   * @return the file where generated aspects write metrics of their checks, or null if aspects do
+   *     not collect metrics
+   */
+  public String getAspectMetrics() {
+    return aspectMetrics;
+  }
+
+  /**
+   * Returns the mechanism with which generated oracles check the target methods.
+   *
+   * @return the mechanism with which generated oracles check the target methods
+   */
+  public OracleBackend getOracleBackend() {
+    return oracleBackend;
+  }
+
   /**
    * Returns the distance threshold that has been set for code element matching.
    *
@@ -367,6 +608,112 @@ public enum Configuration {
     return !disableSemantics;
   }
 
+  /**
+   * Returns the maximum number of tokens of a sentence parsed by the Stanford parser. A value less
+   * than or equal to 0 means no limit.
+   *
+   * @return the maximum number of tokens of a sentence parsed by the Stanford parser
+   */
+  public int getParserMaxTokens() {
+    return parserMaxTokens;
+  }
+
+  /**
+   * Returns the maximum time (in milliseconds) the Stanford parser can spend on a single sentence.
+   * A value less than or equal to 0 means no limit.
+   *
+   * @return the maximum time (in milliseconds) the Stanford parser can spend on a single sentence
+   */
+  public long getParserTimeout() {
+    return parserTimeout;
+  }
+
+  /**
+   * Returns the time (in milliseconds) above which the parsing of a sentence is logged as slow.
+   *
+   * @return the time (in milliseconds) above which the parsing of a sentence is logged as slow
+   */
+  public long getSlowSentenceThreshold() {
+    return slowSentenceThreshold;
+  }
+
+  /**
+   * Returns the maximum number of comments whose parsing results are cached. A value less than or
+   * equal to 0 means that parsing results are not cached.
+   *
+   * @return the maximum number of comments whose parsing results are cached
+   */
+  public int getParserCacheSize() {
+    return parserCacheSize;
+  }
+
+  /**
+   * Returns the maximum (estimated) number of bytes retained by the cache of parsing results. A
+   * value less than or equal to 0 means no limit.
+   *
+   * @return the maximum (estimated) number of bytes retained by the cache of parsing results
+   */
+  public long getParserCacheMaxBytes() {
+    return parserCacheMaxBytes;
+  }
+
+  /**
+   * Returns whether cached parsing results are softly referenced, i.e., whether the garbage
+   * collector can reclaim them when memory is low.
+   *
+   * @return true if cached parsing results are softly referenced, false otherwise
+   */
+  public boolean isParserCacheSoftReferences() {
+    return parserCacheSoftReferences;
+  }
+
+  /**
+   * Returns the scope of the cache of parsing results.
+   *
+   * @return the scope of the cache of parsing results
+   */
+  public CacheScope getParserCacheScope() {
+    return parserCacheScope;
+  }
+
+  /**
+   * Returns the file where comments that cannot be translated are recorded.
+   *
+   * @return the file of the negative cache, or null if the negative cache is disabled
+   */
+  public File getNegativeCache() {
+    return negativeCache;
+  }
+
+  /**
+   * Returns whether the comments recorded in the negative cache are translated again.
+   *
+   * @return true if recorded comments are translated again, false if their translation is skipped
+   */
+  public boolean isNegativeCacheRefreshed() {
+    return refreshNegativeCache;
+  }
+
+  /**
+   * Returns the file where the specifications of translated comments are stored.
+   *
+   * @return the file where the specifications of translated comments are stored, or null if the
+   *     specification cache is disabled
+   */
+  public File getSpecificationCache() {
+    return specificationCache;
+  }
+
+  /**
+   * Returns the file where the results of the compliance checks of specifications are stored.
+   *
+   * @return the file where the results of the compliance checks are stored, or null if the
+   *     compliance cache is disabled
+   */
+  public File getComplianceCache() {
+    return complianceCache;
+  }
+
   /**
    * Returns whether Toradocu generates or not output when it has not been able to translate any
    * comment.
@@ -0,0 +1,12 @@
+package org.toradocu.conf;
+
+/** Mechanism with which the oracles created by the oracle generator check the target methods. */
+public enum OracleBackend {
+  /** AspectJ aspects, woven into the test suite at load time. */
+  ASPECTJ,
+  /**
+   * A Java agent that rewrites only the calls of the target methods in the test class when it is
+   * loaded, calling checks compiled when the agent is created.
+   */
+  AGENT
+}
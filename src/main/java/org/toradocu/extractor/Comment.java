@@ -75,6 +75,30 @@ public final class Comment {
     this.wordsMarkedAsCode.putAll(wordsMarkedAsCode);
   }
 
+  /**
+   * Checks whether {@code text} is left unchanged by the {@code Comment} constructors, i.e.,
+   * whether it contains no inline tags, HTML tags, HTML character entities, and redundant
+   * whitespace. A comment built from such a text has no words marked as code other than the ones
+   * given to {@link #Comment(String, Map)}. The check is conservative: it may return false for
+   * texts that the constructors leave unchanged.
+   *
+   * @param text the text to check
+   * @return true if {@code text} is the text of a comment built from it, false if it may not be
+   */
+  public static boolean isNormalized(String text) {
+    final int last = text.length() - 1;
+    for (int i = 0; i <= last; i++) {
+      final char c = text.charAt(i);
+      if (c == '{' || c == '<' || c == '&') {
+        return false;
+      }
+      if (c <= ' ' && (c != ' ' || i == 0 || i == last || text.charAt(i - 1) == ' ')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Returns the comment text as {@code String}. Notice that the text does not contain inline tags
    * because they are removed in the constructor of {@code Comment}.
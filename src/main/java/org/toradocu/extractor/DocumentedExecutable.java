@@ -13,9 +13,17 @@ import org.toradocu.util.Checks;
  * DocumentedExecutable represents the Javadoc documentation for a method in a class. It identifies
  * the method itself and key Javadoc information associated with it, such as throws, param, and
  * return tags.
+ *
+ * <p>Every DocumentedExecutable has an id that is assigned at extraction time: the executable
+ * members of a {@link DocumentedType} have ids 0, 1, 2, ..., in extraction order. Ids can be used
+ * to associate data with executable members (see {@link ExecutableMap}). Since the comments of the
+ * tags are modified during translation, equality and hash code of a DocumentedExecutable do not
+ * depend on its tags.
  */
 public final class DocumentedExecutable {
 
+  /** Id of this DocumentedExecutable, unique among the executable members of its type. */
+  private final int id;
   /** Reflection executable of this DocumentedExecutable. */
   private final Executable executable;
   /** Parameter list. */
@@ -107,18 +115,23 @@ public final class DocumentedExecutable {
 
   /**
    * Creates a new {@code DocumentedExecutable} wrapping the given executable, with the specified
-   * parameters and Javadoc comments introduced by block tags.
+   * id, parameters, and Javadoc comments introduced by block tags.
    *
+   * @param id the id of this DocumentedExecutable, must not be negative
    * @param executable the executable this DocumentedExecutable wraps, must not be null
    * @param parameters the parameters of this DocumentedExecutable, must not be null
    * @param blockTags the Javadoc comments introduced by block tags (e.g., {@code @param},
    *     {@code @return}) associated with this executable member
    */
   DocumentedExecutable(
-      Executable executable, List<DocumentedParameter> parameters, BlockTags blockTags) {
+      int id, Executable executable, List<DocumentedParameter> parameters, BlockTags blockTags) {
     Checks.nonNullParameter(executable, "executable");
     Checks.nonNullParameter(parameters, "parameters");
+    if (id < 0) {
+      throw new IllegalArgumentException("Id must not be negative, but is " + id);
+    }
 
+    this.id = id;
     this.executable = executable;
     checkParametersConsistency(executable.getParameters(), parameters);
     this.parameters = parameters;
@@ -153,6 +166,15 @@ public final class DocumentedExecutable {
     }
   }
 
+  /**
+   * Returns the id of this executable member, unique among the executable members of its type.
+   *
+   * @return the id of this executable member
+   */
+  public int getId() {
+    return id;
+  }
+
   /**
    * Returns an unmodifiable view of the param tags in this method.
    *
@@ -269,7 +291,9 @@ public final class DocumentedExecutable {
   }
 
   /**
-   * Returns true if this {@code DocumentedExecutable} and the specified object are equal.
+   * Returns true if this {@code DocumentedExecutable} and the specified object are equal, i.e., if
+   * they have the same id, executable, and parameters. Tags are not compared, because their
+   * comments are modified during translation.
    *
    * @param obj the object to test for equality
    * @return true if this object and {@code obj} are equal
@@ -284,9 +308,9 @@ public final class DocumentedExecutable {
     }
 
     DocumentedExecutable that = (DocumentedExecutable) obj;
-    return this.executable.equals(that.executable)
-        && this.parameters.equals(that.parameters)
-        && this.tags.equals(that.tags);
+    return this.id == that.id
+        && this.executable.equals(that.executable)
+        && this.parameters.equals(that.parameters);
   }
 
   /**
@@ -296,7 +320,7 @@ public final class DocumentedExecutable {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(executable, parameters, tags);
+    return 31 * id + executable.hashCode();
   }
 
   /**
@@ -0,0 +1,174 @@
+package org.toradocu.extractor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.util.Checks;
+
+/**
+ * A map that associates executable members with values. The map is indexed by the declaring class
+ * and the id of executable members (see {@link DocumentedExecutable#getId()}), so lookups do not
+ * compute the hash codes of executable members, and keeps its keys in insertion order.
+ *
+ * <p>The keys of a map can belong to several {@link DocumentedType}s. Since ids are unique among
+ * the executable members of a type, the map keeps a separate index for each declaring class, and
+ * the lookups of consecutive keys of the same class do not access the map of indexes.
+ *
+ * @param <V> the type of values
+ */
+public final class ExecutableMap<V> {
+
+  /** The index of the keys of each declaring class. */
+  private final Map<Class<?>, Index> indexes = new IdentityHashMap<>();
+  /** The index of the keys of the last declaring class that has been looked up, or null. */
+  private Index lastIndex;
+  /** Keys of this map, in insertion order. */
+  private final List<DocumentedExecutable> keys;
+  /** The initial length of the arrays of the indexes. */
+  private final int expectedSize;
+
+  /** Creates a new empty map. */
+  public ExecutableMap() {
+    this(16);
+  }
+
+  /**
+   * Creates a new empty map sized to hold executable members with ids lower than {@code
+   * expectedSize} without resizing.
+   *
+   * @param expectedSize the expected number of entries of the map
+   */
+  public ExecutableMap(int expectedSize) {
+    this.expectedSize = Math.max(expectedSize, 1);
+    keys = new ArrayList<>(expectedSize);
+  }
+
+  /**
+   * Associates {@code value} with {@code key}, replacing the value previously associated with
+   * {@code key}.
+   *
+   * @param key the executable member, must not be null
+   * @param value the value to associate with {@code key}
+   * @throws IllegalArgumentException if this map contains a different executable member with the
+   *     same declaring class and the same id of {@code key}
+   */
+  public void put(DocumentedExecutable key, V value) {
+    Checks.nonNullParameter(key, "key");
+    Index index = index(key.getDeclaringClass());
+    if (index == null) {
+      index = new Index(key.getDeclaringClass(), expectedSize);
+      indexes.put(index.declaringClass, index);
+      lastIndex = index;
+    }
+    final int id = key.getId();
+    if (id >= index.keysById.length) {
+      final int newLength = Math.max(id + 1, 2 * index.keysById.length);
+      index.keysById = Arrays.copyOf(index.keysById, newLength);
+      index.valuesById = Arrays.copyOf(index.valuesById, newLength);
+    }
+    final DocumentedExecutable previousKey = index.keysById[id];
+    if (previousKey == null) {
+      index.keysById[id] = key;
+      keys.add(key);
+    } else if (!previousKey.equals(key)) {
+      throw new IllegalArgumentException(
+          "Executable members " + previousKey + " and " + key + " have the same id " + id);
+    }
+    index.valuesById[id] = value;
+  }
+
+  /**
+   * Returns the value associated with {@code key}, or null if there is no such value.
+   *
+   * @param key the executable member whose value is returned
+   * @return the value associated with {@code key}, or null if there is no such value
+   */
+  @SuppressWarnings("unchecked")
+  public V get(DocumentedExecutable key) {
+    final Index index = index(key.getDeclaringClass());
+    final int id = key.getId();
+    if (index == null || id >= index.keysById.length || !key.equals(index.keysById[id])) {
+      return null;
+    }
+    return (V) index.valuesById[id];
+  }
+
+  /**
+   * Returns the index of the keys declared in the given class.
+   *
+   * @param declaringClass the declaring class of the keys
+   * @return the index of the keys declared in {@code declaringClass}, or null if this map has no
+   *     such keys
+   */
+  private Index index(Class<?> declaringClass) {
+    if (lastIndex == null || lastIndex.declaringClass != declaringClass) {
+      final Index index = indexes.get(declaringClass);
+      if (index == null) {
+        return null;
+      }
+      lastIndex = index;
+    }
+    return lastIndex;
+  }
+
+  /**
+   * Returns an unmodifiable view of the keys of this map, in insertion order.
+   *
+   * @return the keys of this map, in insertion order
+   */
+  public List<DocumentedExecutable> keys() {
+    return Collections.unmodifiableList(keys);
+  }
+
+  /**
+   * Returns the number of entries of this map.
+   *
+   * @return the number of entries of this map
+   */
+  public int size() {
+    return keys.size();
+  }
+
+  /**
+   * Returns true if this map has no entries.
+   *
+   * @return true if this map has no entries, false otherwise
+   */
+  public boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  /**
+   * Returns a new {@code Map} with the entries of this map, in insertion order.
+   *
+   * @return a new {@code Map} with the entries of this map
+   */
+  public Map<DocumentedExecutable, V> toMap() {
+    final Map<DocumentedExecutable, V> map = new LinkedHashMap<>();
+    for (DocumentedExecutable key : keys) {
+      map.put(key, get(key));
+    }
+    return map;
+  }
+
+  /** The keys declared in a class and their values, indexed by the ids of the keys. */
+  private static final class Index {
+
+    /** The declaring class of the keys. */
+    private final Class<?> declaringClass;
+    /** Keys, indexed by their id. */
+    private DocumentedExecutable[] keysById;
+    /** Values, indexed by the id of their key. */
+    private Object[] valuesById;
+
+    Index(Class<?> declaringClass, int length) {
+      this.declaringClass = declaringClass;
+      keysById = new DocumentedExecutable[length];
+      valuesById = new Object[length];
+    }
+  }
+}
@@ -99,7 +99,9 @@ public final class JavadocExtractor {
       final String qualifiedClassName = reflectionMember.getDeclaringClass().getName();
       BlockTags blockTags =
           createTags(classesInPackage, sourceCallable, parameters, qualifiedClassName);
-      documentedExecutables.add(new DocumentedExecutable(reflectionMember, parameters, blockTags));
+      documentedExecutables.add(
+          new DocumentedExecutable(
+              documentedExecutables.size(), reflectionMember, parameters, blockTags));
     }
 
     log.trace(
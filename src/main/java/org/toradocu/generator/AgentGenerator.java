@@ -0,0 +1,336 @@
+package org.toradocu.generator;
+
+import static org.toradocu.Toradocu.configuration;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import javassist.ClassPool;
+import javassist.bytecode.ClassFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.mdkt.compiler.CompilationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.util.CompilerService;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Creates a Java agent that checks specifications at runtime, as an alternative to the aspects
+ * created from the aspect template, which require AspectJ load-time weaving of every loaded class.
+ *
+ * <p>The checks of each method are generated from the checker template as in the aspect template,
+ * in a checker class for the method (e.g., {@code Checker_1}). The checker classes are compiled
+ * together with the agent (see the resource {@code OracleAgent.java}) in a single compilation, and
+ * packaged in the agent jar with the list of the checked methods and the classes of Javassist,
+ * which the agent uses to rewrite the calls of the checked methods and constructors in the test
+ * class when it is loaded. As the aspects, which advise only the calls made within the test class,
+ * the agent requires a test class (option {@code --test-class}).
+ *
+ * <p>Since {@code -javaagent} adds the agent jar to the system class path, the bundled classes of
+ * Javassist are relocated to the package {@code org.toradocu.agent.javassist} (as a shading plugin
+ * would do), so that they do not clash with another version of Javassist used by the test suite
+ * (e.g., through Mockito or Hibernate). Relocation renames the classes referenced by the bytecode,
+ * not the class names in string constants: the code that the agent inserts must not use the
+ * Javassist features that load runtime support classes by name ({@code $class}, {@code $sig},
+ * {@code $type}, {@code $cflow}, and proxies).
+ */
+final class AgentGenerator {
+
+  /** {@code Logger} for this class. */
+  private static final Logger log = LoggerFactory.getLogger(AgentGenerator.class);
+
+  /** Name of the checker class in the template. */
+  private static final String TEMPLATE_NAME = "Checker_Template";
+
+  /** Name of the jar file of the agent. */
+  private static final String AGENT_JAR = "oracle-agent.jar";
+
+  /** Name of the resource of the agent that lists the checked methods and the test class. */
+  private static final String TARGETS = "oracle-agent.txt";
+
+  /** Package of Javassist, in the internal form of class names. */
+  private static final String JAVASSIST_PACKAGE = "javassist/";
+
+  /** Package to which the classes of Javassist bundled with the agent are relocated. */
+  private static final String RELOCATED_PACKAGE = "org/toradocu/agent/";
+
+  private AgentGenerator() {}
+
+  /**
+   * Creates the jar file of an agent that checks the given specifications in the given directory,
+   * together with the source code of the classes in the jar file.
+   *
+   * @param specifications the specifications that the agent checks at runtime
+   * @param outputDir the directory where the agent is created
+   * @throws IOException if a template cannot be read or a file cannot be written
+   */
+  static void createAgent(ExecutableMap<OperationSpecification> specifications, String outputDir)
+      throws IOException {
+    if (configuration.getTestClass() == null) {
+      log.error("The oracle agent checks the calls made by a test class: specify --test-class.");
+      return;
+    }
+    final CompilationUnit template =
+        OracleGenerator.parseResource(configuration.getAgentCheckerTemplate());
+    final Map<String, String> sources = new LinkedHashMap<>();
+    final Map<String, DocumentedExecutable> checkedMethods = new LinkedHashMap<>();
+    int id = 0;
+    for (DocumentedExecutable method : specifications.keys()) {
+      final OperationSpecification specification = specifications.get(method);
+      if (specification.isEmpty()) {
+        continue;
+      }
+      id++;
+      final String checkerName = "Checker_" + id;
+      try {
+        sources.put(checkerName, createCheckerSource(template, method, specification, checkerName));
+        checkedMethods.put(checkerName, method);
+      } catch (ParseProblemException | IllegalArgumentException e) {
+        log.error("Unable to create the checks of " + method.getSignature() + ".", e);
+      }
+    }
+    for (String resource :
+        new String[] {configuration.getOracleAgent(), configuration.getOracleMetrics()}) {
+      sources.put(
+          resource.substring(0, resource.lastIndexOf('.')),
+          OracleGenerator.parseResource(resource).toString());
+    }
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      write(new File(outputDir, source.getKey() + ".java"), source.getValue());
+    }
+
+    // The checks cast arguments to the types of the target classes, and the agent uses Javassist.
+    final File javassist = javassistLocation();
+    final List<File> classpath = new ArrayList<>();
+    for (URL url : configuration.classDirs) {
+      classpath.add(new File(url.getPath()));
+    }
+    classpath.add(javassist);
+    final Map<String, String> errors = new HashMap<>();
+    final Map<String, byte[]> classes;
+    try (CompilerService compiler = new CompilerService(classpath)) {
+      classes = compiler.compileAll(sources, errors);
+    } catch (CompilationException e) {
+      log.error("Unable to compile the oracle agent.", e);
+      return;
+    }
+    errors.forEach((name, error) -> log.error("Unable to compile " + name + ":\n" + error));
+    if (!classes.containsKey("OracleAgent") || !classes.containsKey("OracleMetrics")) {
+      log.error("Unable to compile the oracle agent: agent jar not created.");
+      return;
+    }
+
+    // test <class>, or check <class> <method> <descriptor> <checker>
+    final StringBuilder targets = new StringBuilder();
+    targets.append("test ").append(configuration.getTestClass()).append("\n");
+    checkedMethods.forEach(
+        (checkerName, method) -> {
+          if (classes.containsKey(checkerName)) {
+            final Executable executable = method.getExecutable();
+            targets
+                .append("check ")
+                .append(executable.getDeclaringClass().getName())
+                .append(" ")
+                .append(method.isConstructor() ? "<init>" : executable.getName())
+                .append(" ")
+                .append(descriptorOf(executable))
+                .append(" ")
+                .append(checkerName)
+                .append("\n");
+          }
+        });
+    writeJar(new File(outputDir, AGENT_JAR), classes, targets.toString(), javassist);
+  }
+
+  /**
+   * Returns the source code of a new checker class for the given {@code method}.
+   *
+   * @param template the parsed checker template, which is not modified
+   * @param method method whose specifications the checker class checks
+   * @param specification the specifications of {@code method}
+   * @param checkerName name of the checker class
+   * @return the source code of the checker class
+   */
+  private static String createCheckerSource(
+      CompilationUnit template,
+      DocumentedExecutable method,
+      OperationSpecification specification,
+      String checkerName) {
+    final CompilationUnit cu = template.clone();
+    final ClassOrInterfaceDeclaration checker =
+        cu.getClassByName(TEMPLATE_NAME)
+            .orElseThrow(
+                () -> new IllegalArgumentException("No class " + TEMPLATE_NAME + " in " + cu));
+    checker.setName(checkerName);
+    checker.findAll(ConstructorDeclaration.class).forEach(c -> c.setName(checkerName));
+    new MethodChangerVisitor().visit(cu, Pair.of(method, specification));
+    return cu.toString();
+  }
+
+  /**
+   * Returns the descriptor of the given method or constructor in the class file format, e.g.,
+   * {@code (Ljava/util/Collection;Ljava/lang/Object;)Z}.
+   *
+   * @param executable a method or a constructor
+   * @return the descriptor of {@code executable}
+   */
+  private static String descriptorOf(Executable executable) {
+    final StringBuilder descriptor = new StringBuilder("(");
+    for (Class<?> parameterType : executable.getParameterTypes()) {
+      descriptor.append(descriptorOf(parameterType));
+    }
+    final Class<?> returnType =
+        executable instanceof Method ? ((Method) executable).getReturnType() : void.class;
+    return descriptor.append(")").append(descriptorOf(returnType)).toString();
+  }
+
+  private static String descriptorOf(Class<?> type) {
+    if (type.isArray()) {
+      return type.getName().replace('.', '/');
+    } else if (type == void.class) {
+      return "V";
+    } else if (type == boolean.class) {
+      return "Z";
+    } else if (type == byte.class) {
+      return "B";
+    } else if (type == char.class) {
+      return "C";
+    } else if (type == short.class) {
+      return "S";
+    } else if (type == int.class) {
+      return "I";
+    } else if (type == long.class) {
+      return "J";
+    } else if (type == float.class) {
+      return "F";
+    } else if (type == double.class) {
+      return "D";
+    }
+    return "L" + type.getName().replace('.', '/') + ";";
+  }
+
+  /**
+   * Returns the jar file from which the classes of Javassist are loaded.
+   *
+   * @return the jar file that contains Javassist
+   * @throws IOException if the location of Javassist is not a file
+   */
+  private static File javassistLocation() throws IOException {
+    try {
+      return new File(ClassPool.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    } catch (URISyntaxException e) {
+      throw new IOException("Unable to locate Javassist", e);
+    }
+  }
+
+  /**
+   * Writes the jar file of the agent, which contains the given classes, the list of the checked
+   * methods, and the classes of Javassist relocated to {@link #RELOCATED_PACKAGE}.
+   *
+   * @param jar the jar file to write
+   * @param classes the bytecode of the classes of the agent, by binary name
+   * @param targets the list of the checked methods and of the test class
+   * @param javassist the jar file that contains Javassist (possibly among other classes)
+   * @throws IOException if the jar file cannot be written
+   */
+  private static void writeJar(
+      File jar, Map<String, byte[]> classes, String targets, File javassist) throws IOException {
+    final Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(new Attributes.Name("Premain-Class"), "OracleAgent");
+    // Reads the classes of Javassist, and renames them in their bytecode and in that of the agent.
+    final Map<String, byte[]> javassistClasses = new LinkedHashMap<>();
+    try (JarFile javassistJar = new JarFile(javassist)) {
+      final Enumeration<JarEntry> entries = javassistJar.entries();
+      while (entries.hasMoreElements()) {
+        final JarEntry entry = entries.nextElement();
+        if (entry.getName().startsWith(JAVASSIST_PACKAGE) && entry.getName().endsWith(".class")) {
+          try (InputStream input = javassistJar.getInputStream(entry)) {
+            javassistClasses.put(entry.getName(), IOUtils.toByteArray(input));
+          }
+        }
+      }
+    }
+    final Map<String, String> renames = new HashMap<>();
+    for (String entry : javassistClasses.keySet()) {
+      final String name = entry.substring(0, entry.length() - ".class".length());
+      renames.put(name, RELOCATED_PACKAGE + name);
+    }
+    final Map<String, byte[]> entries = new LinkedHashMap<>();
+    for (Map.Entry<String, byte[]> aClass : classes.entrySet()) {
+      entries.put(
+          aClass.getKey().replace('.', '/') + ".class", relocate(aClass.getValue(), renames));
+    }
+    for (Map.Entry<String, byte[]> aClass : javassistClasses.entrySet()) {
+      entries.put(RELOCATED_PACKAGE + aClass.getKey(), relocate(aClass.getValue(), renames));
+    }
+
+    try (JarOutputStream output = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        output.putNextEntry(new JarEntry(entry.getKey()));
+        output.write(entry.getValue());
+        output.closeEntry();
+      }
+      output.putNextEntry(new JarEntry(TARGETS));
+      output.write(targets.getBytes(StandardCharsets.UTF_8));
+      output.closeEntry();
+    } catch (IOException e) {
+      log.error("Error during creation of file: " + jar, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Renames the classes referenced by the given bytecode.
+   *
+   * @param bytecode the bytecode of a class
+   * @param renames the new names of the renamed classes, by name (in internal form)
+   * @return the bytecode of the class with the classes renamed
+   * @throws IOException if {@code bytecode} is not a valid class file
+   */
+  private static byte[] relocate(byte[] bytecode, Map<String, String> renames) throws IOException {
+    final ClassFile classFile =
+        new ClassFile(new DataInputStream(new ByteArrayInputStream(bytecode)));
+    classFile.renameClass(renames);
+    final ByteArrayOutputStream relocated = new ByteArrayOutputStream(bytecode.length);
+    classFile.write(new DataOutputStream(relocated));
+    return relocated.toByteArray();
+  }
+
+  private static void write(File file, String content) throws IOException {
+    try (FileOutputStream output = new FileOutputStream(file)) {
+      output.write(content.getBytes());
+    } catch (IOException e) {
+      log.error("Error during creation of file: " + file, e);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package org.toradocu.generator;
+
+import static com.github.javaparser.ast.NodeList.nodeList;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.Name;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.SwitchEntryStmt;
+import com.github.javaparser.ast.stmt.SwitchStmt;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.StringJoiner;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Creates aspects that check the specifications of several methods, as opposed to the aspects
+ * created from the aspect template, which check the specifications of a single method.
+ *
+ * <p>The aspect has a single advice, whose pointcut is the disjunction of the pointcuts of the
+ * methods. The advice dispatches each join point to the checks of the advised method with a switch
+ * on the id of the method, which is computed from the signature of the join point the first time
+ * the join point is reached. Since the pointcut of a method also matches the calls through its
+ * subtypes, the id is looked up for the declaring type of the join point and then for its
+ * superclasses and interfaces. The checks of each method are generated as in the aspect template,
+ * in methods whose name has the id of the method as suffix (e.g., {@code paramTagsSatisfied_0}).
+ * The helpers of the checks and the configuration options are copied once from the aspect template,
+ * so that the two templates share them.
+ *
+ * <p>A single aspect makes load-time weaving faster, because the weaver matches a single pointcut
+ * against each join point. The advice is however shared by all the advised calls, and thus the JIT
+ * compiler cannot inline it into the call sites as it does with the advice of the aspect of a
+ * single method: each checked call costs more.
+ */
+final class DispatchingAspectGenerator {
+
+  /** {@code Logger} for this class. */
+  private static final Logger log = LoggerFactory.getLogger(DispatchingAspectGenerator.class);
+
+  /** Name of the aspect class in the templates. */
+  private static final String TEMPLATE_NAME = "Aspect_Template";
+
+  /** Methods of the aspect template that are generated for each method. */
+  private static final List<String> CHECKS =
+      Arrays.asList("advice", "paramTagsSatisfied", "getExpectedExceptions", "checkResult");
+
+  /** Fields of the aspect template that are generated for each method. */
+  private static final List<String> FIELDS =
+      Arrays.asList("expectedExceptionTypes", "loadedExceptionTypes", "sampler", "metrics");
+
+  private DispatchingAspectGenerator() {}
+
+  /**
+   * Returns the source code of a new aspect that checks the specifications of the given {@code
+   * methods}. Methods whose checks cannot be generated (because a condition is not valid Java code)
+   * are left out of the aspect.
+   *
+   * @param dispatchingTemplate the parsed template of the dispatching aspect, which is not modified
+   * @param aspectTemplate the parsed aspect template, which is not modified
+   * @param methods the methods whose specifications the aspect checks
+   * @param specifications the specifications of {@code methods}
+   * @param aspectName name of the aspect class
+   * @return the source code of the aspect, or null if the checks of none of the methods can be
+   *     generated
+   */
+  static String createAspectSource(
+      CompilationUnit dispatchingTemplate,
+      CompilationUnit aspectTemplate,
+      List<DocumentedExecutable> methods,
+      ExecutableMap<OperationSpecification> specifications,
+      String aspectName) {
+    final CompilationUnit cu = dispatchingTemplate.clone();
+    final ClassOrInterfaceDeclaration aspect = getAspectClass(cu);
+    aspect.setName(aspectName);
+    final MethodDeclaration advice = getMethod(aspect, "advice", "ProceedingJoinPoint");
+    copySharedMembers(aspectTemplate, cu, aspect, aspect.getMembers().indexOf(advice) + 1);
+    aspect
+        .getFields()
+        .forEach(f -> f.getVariables().forEach(MethodChangerVisitor::setConfigurationOption));
+    final SwitchStmt adviceSwitch = advice.findFirst(SwitchStmt.class).get();
+    final SwitchStmt signatureSwitch =
+        getMethod(aspect, "signatureId", "String").findFirst(SwitchStmt.class).get();
+
+    final StringJoiner pointcut = new StringJoiner(" || ");
+    int fieldIndex = aspect.getMembers().indexOf(advice);
+    int memberIndex = fieldIndex + 1;
+    int id = 0;
+    for (DocumentedExecutable method : methods) {
+      final CompilationUnit methodAspect = aspectTemplate.clone();
+      try {
+        new MethodChangerVisitor().visit(methodAspect, Pair.of(method, specifications.get(method)));
+      } catch (ParseProblemException | IllegalArgumentException e) {
+        log.error("Unable to create the checks of " + method.getSignature() + ".", e);
+        continue;
+      }
+
+      final String suffix = "_" + id;
+      for (String name : FIELDS) {
+        final FieldDeclaration field = getAspectClass(methodAspect).getFieldByName(name).get();
+        field.getVariable(0).setName(name + suffix);
+        renameFields(field, suffix);
+        aspect.getMembers().add(fieldIndex++, field);
+        memberIndex++;
+      }
+      for (String name : CHECKS) {
+        final MethodDeclaration check =
+            getAspectClass(methodAspect)
+                .findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals(name))
+                .get();
+        check.setName(name + suffix);
+        check
+            .findAll(MethodCallExpr.class, c -> CHECKS.contains(c.getNameAsString()))
+            .forEach(c -> c.setName(c.getNameAsString() + suffix));
+        renameFields(check, suffix);
+        if (name.equals("advice")) {
+          final SingleMemberAnnotationExpr around =
+              (SingleMemberAnnotationExpr) check.getAnnotationByName("Around").get();
+          pointcut.add("(" + ((StringLiteralExpr) around.getMemberValue()).getValue() + ")");
+          check.setAnnotations(new NodeList<>());
+          check.setModifiers(EnumSet.of(Modifier.PRIVATE));
+        }
+        aspect.getMembers().add(memberIndex++, check);
+      }
+
+      // case <id>: return advice_<id>(jp);
+      final NodeList<SwitchEntryStmt> adviceEntries = adviceSwitch.getEntries();
+      adviceEntries.add(
+          adviceEntries.size() - 1,
+          new SwitchEntryStmt(
+              new IntegerLiteralExpr(id),
+              nodeList(
+                  new ReturnStmt(
+                      new MethodCallExpr(null, "advice" + suffix, nodeList(new NameExpr("jp")))))));
+      // case "<signature>": return <id>;
+      final NodeList<SwitchEntryStmt> signatureEntries = signatureSwitch.getEntries();
+      signatureEntries.add(
+          signatureEntries.size() - 1,
+          new SwitchEntryStmt(
+              new StringLiteralExpr(signatureOf(method)),
+              nodeList(new ReturnStmt(new IntegerLiteralExpr(id)))));
+      id++;
+    }
+    if (id == 0) {
+      return null;
+    }
+
+    advice.addAnnotation(
+        new SingleMemberAnnotationExpr(
+            new Name("Around"), new StringLiteralExpr(pointcut.toString())));
+    return cu.toString();
+  }
+
+  /**
+   * Copies to the dispatching aspect the members of the aspect template that are shared by the
+   * checks of all the methods: the fields that are not generated for each method (i.e., the
+   * configuration options), the methods that are not generated for each method (i.e., the helpers
+   * of the checks), and the imports they need. Fields are added before the members of the aspect,
+   * and methods at the given position.
+   *
+   * @param aspectTemplate the parsed aspect template, which is not modified
+   * @param cu the compilation unit of the dispatching aspect
+   * @param aspect the class of the dispatching aspect
+   * @param methodIndex the position of the aspect members at which methods are added
+   */
+  private static void copySharedMembers(
+      CompilationUnit aspectTemplate,
+      CompilationUnit cu,
+      ClassOrInterfaceDeclaration aspect,
+      int methodIndex) {
+    final ClassOrInterfaceDeclaration template = getAspectClass(aspectTemplate);
+    final NodeList<BodyDeclaration<?>> members = aspect.getMembers();
+    int fieldIndex = 0;
+    for (FieldDeclaration field : template.getFields()) {
+      if (!FIELDS.contains(field.getVariable(0).getNameAsString())) {
+        members.add(fieldIndex++, field.clone());
+        methodIndex++;
+      }
+    }
+    for (MethodDeclaration method : template.getMethods()) {
+      if (!CHECKS.contains(method.getNameAsString())) {
+        members.add(methodIndex++, method.clone());
+      }
+    }
+    for (ImportDeclaration importDeclaration : aspectTemplate.getImports()) {
+      if (!cu.getImports().contains(importDeclaration)) {
+        cu.addImport(importDeclaration.clone());
+      }
+    }
+  }
+
+  /**
+   * Returns the signature that identifies the given method at runtime, made of the name of the
+   * declaring class, the name of the method ({@code <init>} for constructors), and the names of the
+   * erased parameter types, e.g., {@code java.util.List.add(int,java.lang.Object)}. The generated
+   * aspects build the same signature from the signature of the advised join point.
+   *
+   * @param method a documented method
+   * @return the signature of {@code method}
+   */
+  private static String signatureOf(DocumentedExecutable method) {
+    final Executable executable = method.getExecutable();
+    final String name = executable instanceof Constructor ? "<init>" : executable.getName();
+    StringJoiner signature =
+        new StringJoiner(",", executable.getDeclaringClass().getName() + "." + name + "(", ")");
+    for (Class<?> parameterType : executable.getParameterTypes()) {
+      signature.add(parameterType.getName());
+    }
+    return signature.toString();
+  }
+
+  /**
+   * Appends the given suffix to the names of the fields generated for each method that are used in
+   * the given node.
+   *
+   * @param node a field or a method copied from the aspect template
+   * @param suffix the suffix of the names of the fields of the method
+   */
+  private static void renameFields(Node node, String suffix) {
+    node.findAll(NameExpr.class, n -> FIELDS.contains(n.getNameAsString()))
+        .forEach(n -> n.setName(n.getNameAsString() + suffix));
+  }
+
+  private static ClassOrInterfaceDeclaration getAspectClass(CompilationUnit cu) {
+    return cu.getClassByName(TEMPLATE_NAME)
+        .orElseThrow(() -> new IllegalArgumentException("No class " + TEMPLATE_NAME + " in " + cu));
+  }
+
+  private static MethodDeclaration getMethod(
+      ClassOrInterfaceDeclaration aspect, String name, String parameterType) {
+    return aspect
+        .findFirst(
+            MethodDeclaration.class,
+            m ->
+                m.getNameAsString().equals(name)
+                    && m.getParameters().size() == 1
+                    && m.getParameter(0).getType().asString().equals(parameterType))
+        .get();
+  }
+}
@@ -1,27 +1,45 @@
 package org.toradocu.generator;
 
+import static com.github.javaparser.ast.NodeList.nodeList;
+
 import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.ArrayCreationLevel;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.comments.LineComment;
 import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.ArrayCreationExpr;
+import com.github.javaparser.ast.expr.ArrayInitializerExpr;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
 import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.DoubleLiteralExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
 import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LongLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.Name;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.stmt.TryStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.visitor.ModifierVisitor;
-import java.util.Optional;
+import com.github.javaparser.ast.visitor.Visitable;
+import com.github.javaparser.utils.StringEscapeUtils;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.StringJoiner;
 import org.apache.commons.lang3.tuple.Pair;
 import org.toradocu.Toradocu;
@@ -32,6 +50,7 @@ import org.toradocu.util.Checks;
 import randoop.condition.specification.OperationSpecification;
 import randoop.condition.specification.PostSpecification;
 import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.Specification;
 import randoop.condition.specification.ThrowsSpecification;
 
 /**
@@ -80,6 +99,126 @@ public class MethodChangerVisitor
     return methodDeclaration;
   }
 
+  /**
+   * Sets the initial values of the fields of the aspect template. The names of the expected
+   * exception types of the specification become arguments of the initializer {@code loadClasses()}
+   * of the field {@code expectedExceptionTypes}: the i-th exception type is the one of the i-th
+   * throws specification, whose guard sets the i-th bit of the value returned by {@code
+   * getExpectedExceptions}. The signature of the method becomes the argument of the initializer of
+   * the field {@code sampler} and the initial value of the field {@code signature} (which only the
+   * template of the checks called by the oracle agent declares), and the sampling options are set
+   * from the configuration.
+   *
+   * @param variable the declaration of a variable to visit
+   * @param spec the {@code ExecutableMember} for which to generate the aspect (oracle)
+   * @return the {@code variable} modified as and when needed
+   */
+  @Override
+  public Visitable visit(
+      VariableDeclarator variable, Pair<DocumentedExecutable, OperationSpecification> spec) {
+    setConfigurationOption(variable);
+    if (variable.getNameAsString().equals("sampler")) {
+      // The sampler of each method draws a different sequence of random numbers.
+      variable
+          .findFirst(StringLiteralExpr.class)
+          .ifPresent(method -> method.setValue(signatureOf(spec.getKey())));
+    } else if (variable.getNameAsString().equals("signature")) {
+      variable.setInitializer(stringLiteral(signatureOf(spec.getKey())));
+    } else if (variable.getNameAsString().equals("metrics")) {
+      // OracleMetrics.register(metricsFile, <aspect>, <method>, <preconditions>, <throws
+      // specifications>, <postconditions>)
+      final OperationSpecification specification = spec.getValue();
+      variable
+          .findFirst(MethodCallExpr.class, c -> c.getNameAsString().equals("register"))
+          .ifPresent(
+              register -> {
+                register.setArgument(2, new StringLiteralExpr(signatureOf(spec.getKey())));
+                register.setArgument(3, descriptions(specification.getPreSpecifications()));
+                register.setArgument(4, descriptions(specification.getThrowsSpecifications()));
+                register.setArgument(5, descriptions(specification.getPostSpecifications()));
+              });
+    } else if (variable.getNameAsString().equals("expectedExceptionTypes")) {
+      NodeList<Expression> exceptionTypes = new NodeList<>();
+      for (ThrowsSpecification throwsSpecification : spec.getValue().getThrowsSpecifications()) {
+        exceptionTypes.add(new StringLiteralExpr(throwsSpecification.getExceptionTypeName()));
+      }
+      variable
+          .getInitializer()
+          .ifPresent(initializer -> ((MethodCallExpr) initializer).setArguments(exceptionTypes));
+    }
+    return variable;
+  }
+
+  /**
+   * Sets the value of an option in the configuration as initial value of the given variable, if the
+   * variable is one of the fields {@code samplingRate}, {@code maxChecksPerSecond}, {@code
+   * samplingSeed}, {@code metricsEnabled}, and {@code metricsFile} of the aspect templates.
+   *
+   * @param variable the declaration of a variable of an aspect template
+   */
+  static void setConfigurationOption(VariableDeclarator variable) {
+    final Configuration configuration = Toradocu.configuration;
+    switch (variable.getNameAsString()) {
+      case "samplingRate":
+        variable.setInitializer(
+            new DoubleLiteralExpr(Double.toString(configuration.getAspectSamplingRate())));
+        break;
+      case "maxChecksPerSecond":
+        variable.setInitializer(
+            new IntegerLiteralExpr(configuration.getAspectMaxChecksPerSecond()));
+        break;
+      case "samplingSeed":
+        variable.setInitializer(new LongLiteralExpr(configuration.getAspectSamplingSeed() + "L"));
+        break;
+      case "metricsEnabled":
+        variable.setInitializer(new BooleanLiteralExpr(configuration.getAspectMetrics() != null));
+        break;
+      case "metricsFile":
+        if (configuration.getAspectMetrics() != null) {
+          variable.setInitializer(stringLiteral(configuration.getAspectMetrics()));
+        }
+        break;
+    }
+  }
+
+  /**
+   * Returns the signature of the given method, made of the name of its declaring class and of its
+   * signature in the source code.
+   *
+   * @param method a documented method
+   * @return the signature of {@code method}
+   */
+  private static String signatureOf(DocumentedExecutable method) {
+    return method.getDeclaringClass().getName() + "." + method.getSignature();
+  }
+
+  /**
+   * Returns a string literal with the given value, escaped as in Java source code.
+   *
+   * @param value the value of the string literal
+   * @return the string literal whose value is {@code value}
+   */
+  static StringLiteralExpr stringLiteral(String value) {
+    return new StringLiteralExpr(StringEscapeUtils.escapeJava(value));
+  }
+
+  /**
+   * Returns an array creation expression with the descriptions of the given specifications.
+   *
+   * @param specifications specifications of a method
+   * @return the expression {@code new String[] {<descriptions>}}
+   */
+  private static Expression descriptions(List<? extends Specification> specifications) {
+    NodeList<Expression> descriptions = new NodeList<>();
+    for (Specification specification : specifications) {
+      descriptions.add(stringLiteral(specification.getDescription()));
+    }
+    return new ArrayCreationExpr(
+        JavaParser.parseClassOrInterfaceType("String"),
+        nodeList(new ArrayCreationLevel()),
+        new ArrayInitializerExpr(descriptions));
+  }
+
   private void checkResultChanger(
       MethodDeclaration methodDeclaration,
       DocumentedExecutable executableMember,
@@ -89,16 +228,34 @@ public class MethodChangerVisitor
     // Replace second parameter name ("target") with specific name from configuration.
     methodDeclaration.getParameter(1).setName(new SimpleName(Configuration.RECEIVER));
     // Check postconditions.
-    for (PostSpecification postSpecification : spec.getPostSpecifications()) {
-      String guard = addCasting(postSpecification.getGuard().getConditionText(), executableMember);
-      String property =
-          addCasting(postSpecification.getProperty().getConditionText(), executableMember);
-      String check = createBlock("if ((" + property + ")==false) { fail(\"Error!\"); }");
-      IfStmt ifStmt = createIfStmt(guard, postSpecification.getDescription(), check);
+    TypedLocals locals = new TypedLocals(executableMember);
+    List<PostSpecification> postSpecifications = spec.getPostSpecifications();
+    for (int i = 0; i < postSpecifications.size(); i++) {
+      PostSpecification postSpecification = postSpecifications.get(i);
+      Expression guard = locals.parse(postSpecification.getGuard().getConditionText());
+      Expression property = locals.parse(postSpecification.getProperty().getConditionText());
+      // if ((property) == false) { fail("Error!"); }
+      IfStmt check = new IfStmt();
+      check.setCondition(
+          new BinaryExpr(
+              new EnclosedExpr(property),
+              new BooleanLiteralExpr(false),
+              BinaryExpr.Operator.EQUALS));
+      check.setThenStmt(
+          createBlock(
+              new ExpressionStmt(
+                  new MethodCallExpr(null, "fail", nodeList(new StringLiteralExpr("Error!"))))));
+      BlockStmt thenBlock = createBlock(check);
+      if (conf.getAspectMetrics() != null) {
+        thenBlock.addStatement(0, countMetric("postconditionChecked", i));
+        ((BlockStmt) check.getThenStmt()).addStatement(0, countMetric("postconditionFailed", i));
+      }
+      IfStmt ifStmt = createIfStmt(guard, postSpecification.getDescription(), thenBlock);
       methodDeclaration.getBody().ifPresent(body -> body.addStatement(ifStmt));
     }
     ReturnStmt returnResultStmt = new ReturnStmt(new NameExpr(Configuration.RETURN_VALUE));
     methodDeclaration.getBody().ifPresent(body -> body.addStatement(returnResultStmt));
+    locals.declareIn(methodDeclaration);
   }
 
   private void paramTagSatisfiedChanger(
@@ -108,14 +265,20 @@ public class MethodChangerVisitor
     // Replace first parameter name ("target") with specific name from configuration.
     methodDeclaration.getParameter(0).setName(new SimpleName(Configuration.RECEIVER));
     boolean returnStmtNeeded = true;
-    for (PreSpecification preSpecification : specification.getPreSpecifications()) {
-      String condition = preSpecification.getGuard().getConditionText();
-      if (condition.isEmpty()) {
+    TypedLocals locals = new TypedLocals(executableMember);
+    List<PreSpecification> preSpecifications = specification.getPreSpecifications();
+    for (int i = 0; i < preSpecifications.size(); i++) {
+      PreSpecification preSpecification = preSpecifications.get(i);
+      String conditionText = preSpecification.getGuard().getConditionText();
+      if (conditionText.isEmpty()) {
         continue; // TODO Does it make sense to have empty guards here? We should avoid that.
       }
-      condition = addCasting(condition, executableMember);
-      String thenBlock = createBlock("return true;");
-      String elseBlock = createBlock("return false;");
+      Expression condition = locals.parse(conditionText);
+      BlockStmt thenBlock = createBlock(new ReturnStmt(new BooleanLiteralExpr(true)));
+      BlockStmt elseBlock = createBlock(new ReturnStmt(new BooleanLiteralExpr(false)));
+      if (conf.getAspectMetrics() != null) {
+        elseBlock.addStatement(0, countMetric("rejected", i));
+      }
       IfStmt ifStmt =
           createIfStmt(condition, preSpecification.getDescription(), thenBlock, elseBlock);
       methodDeclaration.getBody().ifPresent(body -> body.addStatement(ifStmt));
@@ -126,6 +289,7 @@ public class MethodChangerVisitor
       ReturnStmt returnTrueStmt = new ReturnStmt(new BooleanLiteralExpr(true));
       methodDeclaration.getBody().ifPresent(body -> body.addStatement(returnTrueStmt));
     }
+    locals.declareIn(methodDeclaration);
   }
 
   private void getExpectedExceptionChanger(
@@ -134,24 +298,36 @@ public class MethodChangerVisitor
       OperationSpecification operationSpec) {
     // Replace first parameter name ("target") with specific name from configuration.
     methodDeclaration.getParameter(0).setName(new SimpleName(Configuration.RECEIVER));
-    for (ThrowsSpecification throwsSpecification : operationSpec.getThrowsSpecifications()) {
-      String condition =
-          addCasting(throwsSpecification.getGuard().getConditionText(), executableMember);
+    List<ThrowsSpecification> throwsSpecifications =
+        new ArrayList<>(operationSpec.getThrowsSpecifications());
+    if (throwsSpecifications.size() > Long.SIZE) {
+      throw new IllegalArgumentException(
+          "Aspects check at most " + Long.SIZE + " throws specifications per method.");
+    }
+    TypedLocals locals = new TypedLocals(executableMember);
+    for (int i = 0; i < throwsSpecifications.size(); i++) {
+      ThrowsSpecification throwsSpecification = throwsSpecifications.get(i);
+      Expression condition = locals.parse(throwsSpecification.getGuard().getConditionText());
 
+      // The i-th exception type is loaded once when the aspect is initialized (see field
+      // expectedExceptionTypes); here the i-th bit is set to expect it:
+      // if (<condition>) { expectedExceptions |= 1L << i; }
       IfStmt ifStmt = new IfStmt();
-      Expression conditionExpression;
-      conditionExpression = JavaParser.parseExpression(condition);
-      ifStmt.setCondition(conditionExpression);
-      // Add a try-catch block to prevent runtime error when looking for an exception type
-      // that is not on the classpath.
-      String addExpectedException =
-          "{try{expectedExceptions.add("
-              + "Class.forName(\""
-              + throwsSpecification.getExceptionTypeName()
-              + "\")"
-              + ");} catch (ClassNotFoundException e) {"
-              + "System.err.println(\"Class not found!\" + e);}}";
-      ifStmt.setThenStmt(JavaParser.parseBlock(addExpectedException));
+      ifStmt.setCondition(condition);
+      ifStmt.setThenStmt(
+          createBlock(
+              new ExpressionStmt(
+                  new AssignExpr(
+                      new NameExpr("expectedExceptions"),
+                      new BinaryExpr(
+                          new LongLiteralExpr("1L"),
+                          new IntegerLiteralExpr(i),
+                          BinaryExpr.Operator.LEFT_SHIFT),
+                      AssignExpr.Operator.OR))));
+
+      // Add comment to if condition. The comment is the original comment in the Java source
+      // code that has been translated by Toradocu in the commented boolean condition.
+      ifStmt.setComment(new LineComment(throwsSpecification.getDescription()));
 
       // Add a try-catch block to avoid NullPointerException to be raised while evaluating a
       // boolean condition generated by Toradocu. For example, suppose that the first argument
@@ -160,36 +336,20 @@ public class MethodChangerVisitor
       // to ignore.
       ClassOrInterfaceType nullPointerException =
           JavaParser.parseClassOrInterfaceType("java.lang.NullPointerException");
-      CatchClause catchClause =
-          new CatchClause(new Parameter(nullPointerException, "e"), JavaParser.parseBlock("{}"));
-      NodeList<CatchClause> catchClauses = new NodeList<>();
-      catchClauses.add(catchClause);
-
       TryStmt nullCheckTryCatch = new TryStmt();
-      nullCheckTryCatch.setTryBlock(JavaParser.parseBlock("{" + ifStmt.toString() + "}"));
-      nullCheckTryCatch.setCatchClauses(catchClauses);
-
-      // Add comment to if condition. The comment is the original comment in the Java source
-      // code that has been translated by Toradocu in the commented boolean condition.
-      // Comment has to be added here, cause otherwise is ignored by JavaParser.parseBlock.
-      final Optional<Statement> ifCondition =
-          nullCheckTryCatch
-              .getTryBlock()
-              .getStatements()
-              .stream()
-              .filter(stm -> stm instanceof IfStmt)
-              .findFirst();
-      if (ifCondition.isPresent()) {
-        String comment = throwsSpecification.getDescription();
-        ifCondition.get().setComment(new LineComment(comment));
-      }
+      nullCheckTryCatch.setTryBlock(createBlock(ifStmt));
+      nullCheckTryCatch.setCatchClauses(
+          nodeList(new CatchClause(new Parameter(nullPointerException, "e"), new BlockStmt())));
 
       methodDeclaration.getBody().ifPresent(body -> body.addStatement(nullCheckTryCatch));
     }
 
     methodDeclaration
         .getBody()
-        .ifPresent(blockStmt -> blockStmt.addStatement("return expectedExceptions;"));
+        .ifPresent(
+            blockStmt ->
+                blockStmt.addStatement(new ReturnStmt(new NameExpr("expectedExceptions"))));
+    locals.declareIn(methodDeclaration);
   }
 
   private void adviceChanger(
@@ -213,23 +373,35 @@ public class MethodChangerVisitor
     methodDeclaration.setAnnotations(annotations);
   }
 
-  private static String createBlock(String content) {
-    return "{" + content + "}";
+  /**
+   * Returns the statement {@code metrics.<counter>(<specification>);}, which counts an event of the
+   * given specification in the metrics of the aspect.
+   *
+   * @param counter the name of the method of {@code OracleMetrics} that counts the event
+   * @param specification the index of the specification among those of its kind
+   * @return the statement that counts the event
+   */
+  private static Statement countMetric(String counter, int specification) {
+    return new ExpressionStmt(
+        new MethodCallExpr(
+            new NameExpr("metrics"), counter, nodeList(new IntegerLiteralExpr(specification))));
+  }
+
+  private static BlockStmt createBlock(Statement statement) {
+    return new BlockStmt(nodeList(statement));
   }
 
-  private static IfStmt createIfStmt(String condition, String comment, String thenBlock) {
-    return createIfStmt(condition, comment, thenBlock, "");
+  private static IfStmt createIfStmt(Expression condition, String comment, BlockStmt thenBlock) {
+    return createIfStmt(condition, comment, thenBlock, null);
   }
 
   private static IfStmt createIfStmt(
-      String condition, String comment, String thenBlock, String elseBlock) {
+      Expression condition, String comment, BlockStmt thenBlock, BlockStmt elseBlock) {
     IfStmt ifStmt = new IfStmt();
-    Expression conditionExpression;
-    conditionExpression = JavaParser.parseExpression(condition);
-    ifStmt.setCondition(conditionExpression);
-    ifStmt.setThenStmt(JavaParser.parseBlock(thenBlock));
-    if (!elseBlock.isEmpty()) {
-      ifStmt.setElseStmt(JavaParser.parseBlock(elseBlock));
+    ifStmt.setCondition(condition);
+    ifStmt.setThenStmt(thenBlock);
+    if (elseBlock != null) {
+      ifStmt.setElseStmt(elseBlock);
     }
     ifStmt.setComment(new LineComment(" " + comment));
     return ifStmt;
@@ -265,41 +437,4 @@ public class MethodChangerVisitor
     pointcut.append(joiner.toString());
     return pointcut.toString();
   }
-
-  /**
-   * Add the appropriate cast to each mention of a method argument or target in a given Java boolean
-   * condition.
-   *
-   * @param condition the Java boolean condition to which add the casts
-   * @param method the method to which the {@code condition} belongs
-   * @return the input condition with casted method arguments and target
-   * @throws NullPointerException if {@code condition} or {@code method} is null
-   */
-  private static String addCasting(String condition, DocumentedExecutable method) {
-    Checks.nonNullParameter(condition, "condition");
-    Checks.nonNullParameter(method, "method");
-
-    int index = 0;
-    for (DocumentedParameter parameter : method.getParameters()) {
-      String type = parameter.getType().getSimpleName();
-      condition = condition.replace("args[" + index + "]", "((" + type + ") args[" + index + "])");
-      index++;
-    }
-
-    // Casting of result object in condition.
-    String returnType = method.getReturnType().getType().toString();
-    if (returnType != null && !returnType.equals("void")) {
-      condition =
-          condition.replace(
-              Configuration.RETURN_VALUE,
-              "((" + returnType + ")" + Configuration.RETURN_VALUE + ")");
-    }
-
-    // Casting of target object in condition.
-    condition =
-        condition.replace(
-            Configuration.RECEIVER,
-            "((" + method.getDeclaringClass().getName() + ") " + Configuration.RECEIVER + ")");
-    return condition;
-  }
 }
@@ -3,21 +3,28 @@ package org.toradocu.generator;
 import static org.toradocu.Toradocu.configuration;
 
 import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.Toradocu;
+import org.toradocu.conf.AspectGranularity;
+import org.toradocu.conf.OracleBackend;
 import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
 import org.toradocu.util.Checks;
 import randoop.condition.specification.OperationSpecification;
 
@@ -30,16 +37,32 @@ public class OracleGenerator {
   /** {@code Logger} for this class. */
   private static final Logger log = LoggerFactory.getLogger(OracleGenerator.class);
 
+  /**
+   * Creates aspects that check the given {@code specs}, like {@link #createAspects(ExecutableMap)}.
+   *
+   * @param specifications the specifications that created aspects will check at runtime. Must not
+   *     be null.
+   */
+  public static void createAspects(Map<DocumentedExecutable, OperationSpecification> specifications)
+      throws IOException {
+    Checks.nonNullParameter(specifications, "specifications");
+    final ExecutableMap<OperationSpecification> indexedSpecifications =
+        new ExecutableMap<>(specifications.size());
+    specifications.forEach(indexedSpecifications::put);
+    createAspects(indexedSpecifications);
+  }
+
   /**
    * Creates aspects that check the given {@code specs}. This method creates one aspect for each
    * method with specifications.
    *
-   * <p>Created aspects can be used to embed oracles in existing test suites.
+   * <p>Created aspects can be used to embed oracles in existing test suites. With the agent backend
+   * (see {@link OracleBackend#AGENT}), this method creates a Java agent instead of aspects.
    *
    * @param specifications the specifications that created aspects will check at runtime. Must not
    *     be null.
    */
-  public static void createAspects(Map<DocumentedExecutable, OperationSpecification> specifications)
+  public static void createAspects(ExecutableMap<OperationSpecification> specifications)
       throws IOException {
     Checks.nonNullParameter(specifications, "specifications");
 
@@ -50,25 +73,63 @@ public class OracleGenerator {
       return;
     }
 
+    if (configuration.getOracleBackend() == OracleBackend.AGENT) {
+      AgentGenerator.createAgent(specifications, aspectsOutputDir);
+      return;
+    }
+
     // Create Junit tests aspect.
-    final String inputAspectPath = "/" + configuration.getJUnitTestCaseAspect();
+    final String inputAspectPath = configuration.getJUnitTestCaseAspect();
     final String junitAspect = configuration.getJUnitTestCaseAspect();
     final String outputAspectPath = aspectsOutputDir + File.separator + junitAspect;
     final String testClass = Toradocu.configuration.getTestClass();
     final String withinDeclaration = " && within(" + testClass + ")";
     createJunitTestsAspect(inputAspectPath, outputAspectPath, withinDeclaration);
 
-    // Create oracle aspects.
+    // Create the class that collects the metrics of the checks, to which oracle aspects refer.
+    final String oracleMetrics = configuration.getOracleMetrics();
+    createOracleMetrics(oracleMetrics, aspectsOutputDir + File.separator + oracleMetrics);
+
+    // Create oracle aspects. The aspect templates are parsed once, and each aspect is created from
+    // a copy of them. Aspects are numbered in the order of the methods, and then created in
+    // parallel.
+    final AspectGranularity granularity = configuration.getAspectGranularity();
+    final CompilationUnit aspectTemplate = parseResource(configuration.getAspectTemplate());
+    final CompilationUnit dispatchingTemplate =
+        granularity == AspectGranularity.METHOD
+            ? null
+            : parseResource(configuration.getDispatchingAspectTemplate());
+    final List<List<DocumentedExecutable>> groups = groupMethods(specifications, granularity);
+    final boolean[] created = new boolean[groups.size()];
+    IntStream.range(0, groups.size())
+        .parallel()
+        .forEach(
+            i -> {
+              final List<DocumentedExecutable> methods = groups.get(i);
+              final String aspectName = "Aspect_" + (i + 1);
+              if (granularity == AspectGranularity.METHOD) {
+                final DocumentedExecutable method = methods.get(0);
+                created[i] =
+                    createAspect(aspectTemplate, method, specifications.get(method), aspectName);
+              } else {
+                created[i] =
+                    writeAspect(
+                        aspectName,
+                        DispatchingAspectGenerator.createAspectSource(
+                            dispatchingTemplate,
+                            aspectTemplate,
+                            methods,
+                            specifications,
+                            aspectName));
+              }
+            });
+
     final List<String> createdAspectNames = new ArrayList<>();
     final String junitAspectName = junitAspect.substring(0, junitAspect.lastIndexOf("."));
     createdAspectNames.add(junitAspectName);
-    int aspectNumber = 1;
-    for (DocumentedExecutable method : specifications.keySet()) {
-      OperationSpecification specification = specifications.get(method);
-      if (!specification.isEmpty()) {
-        String aspectName = "Aspect_" + aspectNumber++;
-        createAspect(method, specification, aspectName);
-        createdAspectNames.add(aspectName);
+    for (int i = 0; i < created.length; i++) {
+      if (created[i]) {
+        createdAspectNames.add("Aspect_" + (i + 1));
       }
     }
 
@@ -100,8 +161,7 @@ public class OracleGenerator {
   private static void createJunitTestsAspect(
       String inputAspectPath, String outputAspectPath, String withinDeclaration)
       throws IOException {
-    final InputStream aspect = Object.class.getResourceAsStream(inputAspectPath);
-    CompilationUnit cu = JavaParser.parse(aspect);
+    CompilationUnit cu = parseResource(inputAspectPath);
     cu.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals("advice"))
         .ifPresent(
             m ->
@@ -116,22 +176,130 @@ public class OracleGenerator {
     }
   }
 
+  private static void createOracleMetrics(String inputPath, String outputPath) throws IOException {
+    CompilationUnit cu = parseResource(inputPath);
+    try (FileOutputStream output = new FileOutputStream(new File(outputPath))) {
+      output.write(cu.toString().getBytes());
+    } catch (IOException e) {
+      log.error("Error during creation of file: " + outputPath, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Groups the methods with specifications according to the given granularity of aspects: each
+   * group contains the methods checked by an aspect.
+   *
+   * @param specifications the specifications of the methods
+   * @param granularity the granularity of aspects
+   * @return the groups of methods, in the order of {@code specifications}
+   */
+  private static List<List<DocumentedExecutable>> groupMethods(
+      ExecutableMap<OperationSpecification> specifications, AspectGranularity granularity) {
+    final Map<Object, List<DocumentedExecutable>> groups = new LinkedHashMap<>();
+    for (DocumentedExecutable method : specifications.keys()) {
+      if (specifications.get(method).isEmpty()) {
+        continue;
+      }
+      final String className = method.getDeclaringClass().getName();
+      final Object group;
+      switch (granularity) {
+        case CLASS:
+          group = className;
+          break;
+        case PACKAGE:
+          group = className.substring(0, Math.max(className.lastIndexOf('.'), 0));
+          break;
+        default:
+          group = method;
+      }
+      groups.computeIfAbsent(group, g -> new ArrayList<>()).add(method);
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  /**
+   * Parses the Java source file with the given name in the classpath.
+   *
+   * @param resourceName the name of a Java source file in the root of the classpath
+   * @return the compilation unit of the source file
+   * @throws IOException if the source file cannot be found or read
+   */
+  static CompilationUnit parseResource(String resourceName) throws IOException {
+    try (InputStream resource = OracleGenerator.class.getResourceAsStream("/" + resourceName)) {
+      if (resource == null) {
+        throw new FileNotFoundException("Resource not found: " + resourceName);
+      }
+      return JavaParser.parse(resource);
+    }
+  }
+
   /**
    * Creates a new aspect for the given {@code method}.
    *
+   * @param aspectTemplate the parsed aspect template, which is not modified
    * @param method method for which an aspect will be created, must not be null
    * @param specification the specs the created aspect has to check, must not be null
    * @param aspectName name of the file where the newly created aspect is saved, must not be null
+   * @return {@code true} if the aspect has been created, {@code false} otherwise
+   */
+  private static boolean createAspect(
+      CompilationUnit aspectTemplate,
+      DocumentedExecutable method,
+      OperationSpecification specification,
+      String aspectName) {
+    final String aspect;
+    try {
+      aspect = createAspectSource(aspectTemplate, method, specification, aspectName);
+    } catch (ParseProblemException | IllegalArgumentException e) {
+      log.error("Unable to create the aspect of " + method.getSignature() + ".", e);
+      return false;
+    }
+    return writeAspect(aspectName, aspect);
+  }
+
+  /**
+   * Writes the source code of an aspect in the aspects output directory.
+   *
+   * @param aspectName name of the aspect class
+   * @param aspect source code of the aspect, null if the aspect could not be created
+   * @return {@code true} if the aspect has been written, {@code false} otherwise
+   */
+  private static boolean writeAspect(String aspectName, String aspect) {
+    if (aspect == null) {
+      return false;
+    }
+    final String aspectPath =
+        configuration.getAspectsOutputDir() + File.separator + aspectName + ".java";
+    try (FileOutputStream output = new FileOutputStream(new File(aspectPath))) {
+      output.write(aspect.getBytes());
+      return true;
+    } catch (IOException e) {
+      log.error("Error during aspect creation.", e);
+      return false;
+    }
+  }
+
+  /**
+   * Returns the source code of a new aspect for the given {@code method}. The visibility of this
+   * method is package-private for benchmarking purposes.
+   *
+   * @param aspectTemplate the parsed aspect template, which is not modified
+   * @param method method for which an aspect will be created, must not be null
+   * @param specification the specs the created aspect has to check, must not be null
+   * @param aspectName name of the aspect class, must not be null
+   * @return the source code of the aspect
    */
-  private static void createAspect(
-      DocumentedExecutable method, OperationSpecification specification, String aspectName) {
+  static String createAspectSource(
+      CompilationUnit aspectTemplate,
+      DocumentedExecutable method,
+      OperationSpecification specification,
+      String aspectName) {
     Checks.nonNullParameter(method, "method");
     Checks.nonNullParameter(specification, "specification");
     Checks.nonNullParameter(aspectName, "aspectName");
 
-    final InputStream aspectTemplate =
-        Object.class.getResourceAsStream("/" + configuration.getAspectTemplate());
-    CompilationUnit cu = JavaParser.parse(aspectTemplate);
+    CompilationUnit cu = aspectTemplate.clone();
 
     // Set the correct name to the newly created aspect class. Default name is "Aspect_Template".
     cu.findFirst(
@@ -139,14 +307,7 @@ public class OracleGenerator {
         .ifPresent(c -> c.setName(aspectName));
 
     new MethodChangerVisitor().visit(cu, Pair.of(method, specification));
-
-    final String aspectPath =
-        configuration.getAspectsOutputDir() + File.separator + aspectName + ".java";
-    try (FileOutputStream output = new FileOutputStream(new File(aspectPath))) {
-      output.write(cu.toString().getBytes());
-    } catch (IOException e) {
-      log.error("Error during aspect creation.", e);
-    }
+    return cu.toString();
   }
 
   /**
@@ -0,0 +1,49 @@
+package org.toradocu.generator;
+
+/**
+ * The specifications of an operation (a method or a constructor) compiled to Java code, which
+ * evaluates their guards and properties with direct method calls. Evaluators are created by {@link
+ * SpecificationEvaluators#compile}.
+ *
+ * <p>The methods of an evaluator take the receiver of a call, which is {@code null} for static
+ * methods and constructors, and its arguments (boxed if of a primitive type). Arguments, receiver,
+ * and result are cast to the types of the operation before evaluating the conditions, so passing
+ * values of other types causes a {@code ClassCastException}. Exceptions thrown while evaluating a
+ * condition are propagated to the caller, except for the {@code NullPointerException}s thrown by
+ * the guards of throws specifications, which are considered false as in the generated aspects.
+ */
+public interface SpecificationEvaluator {
+
+  /**
+   * Returns whether a call satisfies the preconditions of the operation, i.e., whether the guards
+   * of all its pre specifications hold.
+   *
+   * @param receiver the receiver of the call, or {@code null} for static methods and constructors
+   * @param args the arguments of the call
+   * @return true if all the preconditions hold, false otherwise
+   */
+  boolean pre(Object receiver, Object[] args);
+
+  /**
+   * Returns the throws specifications of the operation whose guard holds for a call, i.e., the
+   * exceptions that the call is expected to throw.
+   *
+   * @param receiver the receiver of the call, or {@code null} for static methods and constructors
+   * @param args the arguments of the call
+   * @return a bitmask whose {@code i}-th bit is set if the guard of the {@code i}-th throws
+   *     specification of the operation holds
+   */
+  long expectedExceptions(Object receiver, Object[] args);
+
+  /**
+   * Returns whether the result of a call that returned normally satisfies the postconditions of the
+   * operation, i.e., whether the property of each post specification holds when its guard does.
+   *
+   * @param receiver the receiver of the call, or {@code null} for static methods and constructors
+   * @param args the arguments of the call
+   * @param result the result of the call, which is the created object for constructors and is
+   *     ignored for void methods
+   * @return true if all the postconditions hold, false otherwise
+   */
+  boolean post(Object receiver, Object[] args, Object result);
+}
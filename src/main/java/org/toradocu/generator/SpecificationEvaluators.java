@@ -0,0 +1,334 @@
+package org.toradocu.generator;
+
+import static com.github.javaparser.ast.NodeList.nodeList;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.comments.LineComment;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LongLiteralExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.TryStmt;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.mdkt.compiler.CompilationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.util.CompilerService;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.ThrowsSpecification;
+
+/**
+ * Compiles specifications to {@link SpecificationEvaluator}s, for tools (e.g., test generators)
+ * that evaluate the specifications of the operations they call in the same JVM. Evaluating a
+ * compiled specification is a method call, rather than the interpretation of its condition.
+ *
+ * <p>The evaluator of each operation is generated from the evaluator template, with the conditions
+ * cast to the types of the operation as in the generated aspects. The evaluators of all the
+ * operations are compiled together in a single compilation.
+ */
+public final class SpecificationEvaluators {
+
+  /** {@code Logger} for this class. */
+  private static final Logger log = LoggerFactory.getLogger(SpecificationEvaluators.class);
+
+  /** Name of the evaluator class in the template. */
+  private static final String TEMPLATE_NAME = "Evaluator_Template";
+
+  private SpecificationEvaluators() {}
+
+  /**
+   * Compiles the given specifications, and returns an evaluator for each operation that has
+   * specifications. The evaluators of operations whose specifications cannot be compiled (e.g.,
+   * because they refer to a type that is not public) are not returned, and the error is logged.
+   *
+   * @param specifications the specifications to compile, whose conditions refer to arguments,
+   *     receiver, and result as the specifications created by {@code
+   *     CommentTranslator.createSpecifications} (e.g., {@code args[0]})
+   * @param classpath the classpath with the classes of the operations, used to compile the
+   *     evaluators
+   * @param parent the class loader that loads the classes of the operations, and that is the parent
+   *     of the class loader of the evaluators
+   * @return the evaluators by operation, in the order of {@code specifications}
+   * @throws IOException if the evaluator template cannot be read
+   * @throws CompilationException if the evaluators cannot be compiled for reasons other than the
+   *     errors of single evaluators
+   */
+  public static Map<Operation, SpecificationEvaluator> compile(
+      ExecutableMap<OperationSpecification> specifications,
+      List<File> classpath,
+      ClassLoader parent)
+      throws IOException, CompilationException {
+    final CompilationUnit template =
+        OracleGenerator.parseResource(Configuration.INSTANCE.getEvaluatorTemplate());
+    final Map<String, String> sources = new LinkedHashMap<>();
+    final Map<String, Operation> operations = new LinkedHashMap<>();
+    int id = 0;
+    for (DocumentedExecutable method : specifications.keys()) {
+      final OperationSpecification specification = specifications.get(method);
+      if (specification.isEmpty()) {
+        continue;
+      }
+      id++;
+      final String evaluatorName = "Evaluator_" + id;
+      try {
+        sources.put(
+            evaluatorName, createEvaluatorSource(template, method, specification, evaluatorName));
+        operations.put(evaluatorName, specification.getOperation());
+      } catch (ParseProblemException | IllegalArgumentException e) {
+        log.error("Unable to create the evaluator of " + method.getSignature() + ".", e);
+      }
+    }
+    final Map<Operation, SpecificationEvaluator> evaluators = new LinkedHashMap<>();
+    if (sources.isEmpty()) {
+      return evaluators;
+    }
+
+    // The evaluators cast arguments to the types of the operations, and implement an interface of
+    // Toradocu.
+    final List<File> compilerClasspath = new ArrayList<>(classpath);
+    compilerClasspath.add(toradocuLocation());
+    final Map<String, String> errors = new HashMap<>();
+    final Map<String, byte[]> classes;
+    try (CompilerService compiler = new CompilerService(compilerClasspath)) {
+      classes = compiler.compileAll(sources, errors);
+    }
+    errors.forEach((name, error) -> log.error("Unable to compile " + name + ":\n" + error));
+
+    final ClassLoader loader = new EvaluatorClassLoader(classes, parent);
+    for (Map.Entry<String, Operation> operation : operations.entrySet()) {
+      final String evaluatorName = operation.getKey();
+      if (!classes.containsKey(evaluatorName)) {
+        continue;
+      }
+      try {
+        evaluators.put(
+            operation.getValue(),
+            loader
+                .loadClass(evaluatorName)
+                .asSubclass(SpecificationEvaluator.class)
+                .getDeclaredConstructor()
+                .newInstance());
+      } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+        log.error("Unable to load the evaluator " + evaluatorName + ".", e);
+      }
+    }
+    return evaluators;
+  }
+
+  /**
+   * Returns the source code of a new evaluator class for the given {@code method}.
+   *
+   * @param template the parsed evaluator template, which is not modified
+   * @param method method whose specifications the evaluator evaluates
+   * @param specification the specifications of {@code method}
+   * @param evaluatorName name of the evaluator class
+   * @return the source code of the evaluator class
+   * @throws ParseProblemException if a condition of {@code specification} is not a valid Java
+   *     expression
+   * @throws IllegalArgumentException if the template has no evaluator class, or if {@code method}
+   *     has more throws specifications than the bits of a {@code long}
+   */
+  static String createEvaluatorSource(
+      CompilationUnit template,
+      DocumentedExecutable method,
+      OperationSpecification specification,
+      String evaluatorName) {
+    final CompilationUnit cu = template.clone();
+    final ClassOrInterfaceDeclaration evaluator =
+        cu.getClassByName(TEMPLATE_NAME)
+            .orElseThrow(
+                () -> new IllegalArgumentException("No class " + TEMPLATE_NAME + " in " + cu));
+    evaluator.setName(evaluatorName);
+
+    final MethodDeclaration pre = methodOf(evaluator, "pre");
+    final TypedLocals preLocals = new TypedLocals(method);
+    for (PreSpecification preSpecification : specification.getPreSpecifications()) {
+      final String guard = preSpecification.getGuard().getConditionText();
+      if (guard.isEmpty()) {
+        continue;
+      }
+      // if (!(<guard>)) { return false; }
+      addCheck(pre, not(preLocals.parse(guard)), returnFalse(), preSpecification.getDescription());
+    }
+    preLocals.declareIn(pre);
+
+    final MethodDeclaration expectedExceptions = methodOf(evaluator, "expectedExceptions");
+    final List<ThrowsSpecification> throwsSpecifications = specification.getThrowsSpecifications();
+    if (throwsSpecifications.size() > Long.SIZE) {
+      throw new IllegalArgumentException(
+          "Evaluators evaluate at most " + Long.SIZE + " throws specifications per operation.");
+    }
+    final TypedLocals throwsLocals = new TypedLocals(method);
+    for (int i = 0; i < throwsSpecifications.size(); i++) {
+      final ThrowsSpecification throwsSpecification = throwsSpecifications.get(i);
+      final String guard = throwsSpecification.getGuard().getConditionText();
+      if (guard.isEmpty()) {
+        continue;
+      }
+      // try { if (<guard>) { expectedExceptions |= 1L << i; } } catch (NullPointerException e) {}
+      final IfStmt ifStmt =
+          createIfStmt(
+              throwsLocals.parse(guard),
+              new ExpressionStmt(
+                  new AssignExpr(
+                      new NameExpr("expectedExceptions"),
+                      new BinaryExpr(
+                          new LongLiteralExpr("1L"),
+                          new IntegerLiteralExpr(i),
+                          BinaryExpr.Operator.LEFT_SHIFT),
+                      AssignExpr.Operator.OR)),
+              throwsSpecification.getDescription());
+      final TryStmt nullCheckTryCatch = new TryStmt();
+      nullCheckTryCatch.setTryBlock(new BlockStmt(nodeList(ifStmt)));
+      nullCheckTryCatch.setCatchClauses(
+          nodeList(
+              new CatchClause(
+                  new Parameter(
+                      JavaParser.parseClassOrInterfaceType("java.lang.NullPointerException"), "e"),
+                  new BlockStmt())));
+      addStatement(expectedExceptions, nullCheckTryCatch);
+    }
+    throwsLocals.declareIn(expectedExceptions);
+
+    final MethodDeclaration post = methodOf(evaluator, "post");
+    final TypedLocals postLocals = new TypedLocals(method);
+    for (PostSpecification postSpecification : specification.getPostSpecifications()) {
+      final String guard = postSpecification.getGuard().getConditionText();
+      // if (!(<property>)) { return false; }, only if the guard holds.
+      final IfStmt check =
+          new IfStmt(
+              not(postLocals.parse(postSpecification.getProperty().getConditionText())),
+              new BlockStmt(nodeList(returnFalse())),
+              null);
+      if (guard.isEmpty()) {
+        addCheck(post, check, postSpecification.getDescription());
+      } else {
+        addCheck(post, postLocals.parse(guard), check, postSpecification.getDescription());
+      }
+    }
+    postLocals.declareIn(post);
+
+    // Arguments, receiver, and result are referred to with the names used by the conditions.
+    for (MethodDeclaration m : new MethodDeclaration[] {pre, expectedExceptions, post}) {
+      m.getParameterByName("receiver").ifPresent(p -> p.setName(Configuration.RECEIVER));
+      m.getParameterByName("result").ifPresent(p -> p.setName(Configuration.RETURN_VALUE));
+    }
+    return cu.toString();
+  }
+
+  private static MethodDeclaration methodOf(ClassOrInterfaceDeclaration evaluator, String name) {
+    final List<MethodDeclaration> methods = evaluator.getMethodsByName(name);
+    if (methods.size() != 1) {
+      throw new IllegalArgumentException("No method " + name + " in " + evaluator.getName());
+    }
+    return methods.get(0);
+  }
+
+  /** Adds {@code if (condition) { statement }} before the return statement of {@code method}. */
+  private static void addCheck(
+      MethodDeclaration method, Expression condition, Statement statement, String comment) {
+    addStatement(method, createIfStmt(condition, statement, comment));
+  }
+
+  /** Adds {@code statement} before the return statement of {@code method}. */
+  private static void addCheck(MethodDeclaration method, Statement statement, String comment) {
+    statement.setComment(new LineComment(" " + comment));
+    addStatement(method, statement);
+  }
+
+  private static void addStatement(MethodDeclaration method, Statement statement) {
+    method
+        .getBody()
+        .ifPresent(body -> body.addStatement(body.getStatements().size() - 1, statement));
+  }
+
+  private static IfStmt createIfStmt(Expression condition, Statement statement, String comment) {
+    final IfStmt ifStmt = new IfStmt(condition, new BlockStmt(nodeList(statement)), null);
+    ifStmt.setComment(new LineComment(" " + comment));
+    return ifStmt;
+  }
+
+  private static Expression not(Expression condition) {
+    return new UnaryExpr(new EnclosedExpr(condition), UnaryExpr.Operator.LOGICAL_COMPLEMENT);
+  }
+
+  private static Statement returnFalse() {
+    return new ReturnStmt(new BooleanLiteralExpr(false));
+  }
+
+  /**
+   * Returns the directory or jar file from which the classes of Toradocu are loaded.
+   *
+   * @return the location of {@code SpecificationEvaluator}
+   * @throws IOException if the location of Toradocu is not a file
+   */
+  private static File toradocuLocation() throws IOException {
+    try {
+      return new File(
+          SpecificationEvaluator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    } catch (URISyntaxException e) {
+      throw new IOException("Unable to locate Toradocu", e);
+    }
+  }
+
+  /**
+   * Class loader that defines the compiled evaluators, and delegates the rest to its parent. The
+   * interface {@code SpecificationEvaluator} is always the one loaded with Toradocu, so that the
+   * evaluators can be used even if the parent (e.g., the class loader of the target classes) does
+   * not load Toradocu.
+   */
+  private static final class EvaluatorClassLoader extends ClassLoader {
+
+    /** The bytecode of the classes not yet defined, by binary name. */
+    private final Map<String, byte[]> classes;
+
+    EvaluatorClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+      super(parent);
+      this.classes = new HashMap<>(classes);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      if (name.equals(SpecificationEvaluator.class.getName())) {
+        return SpecificationEvaluator.class;
+      }
+      final byte[] bytecode;
+      synchronized (classes) {
+        bytecode = classes.remove(name);
+      }
+      if (bytecode == null) {
+        throw new ClassNotFoundException(name);
+      }
+      return defineClass(name, bytecode, 0, bytecode.length);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package org.toradocu.generator;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.ArrayAccessExpr;
+import com.github.javaparser.ast.expr.CastExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+
+/**
+ * The local variables of a check method of an aspect that hold the arguments, the receiver, and the
+ * result of the advised method, cast to their types. Each value is cast once at the beginning of
+ * the check method, and only if a condition of the method uses it.
+ */
+final class TypedLocals {
+
+  /** The method advised by the aspect. */
+  private final DocumentedExecutable method;
+
+  /** Declarations of the used local variables by name, in order of first use. */
+  private final Map<String, Statement> declarations = new LinkedHashMap<>();
+
+  TypedLocals(DocumentedExecutable method) {
+    this.method = method;
+  }
+
+  /**
+   * Parses the given Java boolean condition, replacing each mention of a method argument (e.g.,
+   * {@code args[0]}), of the receiver, and of the result with the corresponding local variable.
+   *
+   * @param condition the Java boolean condition to parse
+   * @return the parsed condition that uses the local variables
+   * @throws com.github.javaparser.ParseProblemException if {@code condition} is not a valid Java
+   *     expression
+   */
+  Expression parse(String condition) {
+    Expression expression = JavaParser.parseExpression(condition);
+    final int parameters = method.getParameters().size();
+    for (ArrayAccessExpr argument :
+        expression.findAll(
+            ArrayAccessExpr.class,
+            a ->
+                a.getName().toString().equals("args")
+                    && a.getIndex().isIntegerLiteralExpr()
+                    && a.getIndex().asIntegerLiteralExpr().asInt() < parameters)) {
+      final int index = argument.getIndex().asIntegerLiteralExpr().asInt();
+      expression =
+          replace(
+              expression,
+              argument,
+              "typedArg" + index,
+              method.getParameters().get(index).getType(),
+              argument.clone());
+    }
+    for (NameExpr name : expression.findAll(NameExpr.class)) {
+      if (name.getNameAsString().equals(Configuration.RECEIVER)) {
+        expression =
+            replace(expression, name, "typedReceiver", method.getDeclaringClass(), name.clone());
+      } else if (name.getNameAsString().equals(Configuration.RETURN_VALUE)) {
+        final Executable executable = method.getExecutable();
+        final Class<?> resultType =
+            executable instanceof Method
+                ? ((Method) executable).getReturnType()
+                : executable.getDeclaringClass();
+        if (resultType != void.class) {
+          expression = replace(expression, name, "typedResult", resultType, name.clone());
+        }
+      }
+    }
+    return expression;
+  }
+
+  /**
+   * Inserts the declarations of the used local variables at the beginning of the given method.
+   *
+   * @param methodDeclaration the check method whose conditions have been parsed by this object
+   */
+  void declareIn(MethodDeclaration methodDeclaration) {
+    List<Statement> statements = new ArrayList<>(declarations.values());
+    methodDeclaration
+        .getBody()
+        .ifPresent(
+            body -> {
+              for (int i = 0; i < statements.size(); i++) {
+                body.addStatement(i, statements.get(i));
+              }
+            });
+  }
+
+  /**
+   * Replaces {@code node} with the local variable {@code name} in {@code expression}, declaring the
+   * variable as {@code type name = (type) value} the first time it is used.
+   *
+   * @return the expression, which is a new node if {@code node} is the expression itself
+   */
+  private Expression replace(
+      Expression expression, Expression node, String name, Class<?> type, Expression value) {
+    declarations.computeIfAbsent(
+        name,
+        n -> {
+          String typeName =
+              type.getCanonicalName() != null ? type.getCanonicalName() : type.getName();
+          return new ExpressionStmt(
+              new VariableDeclarationExpr(
+                  new VariableDeclarator(
+                      JavaParser.parseType(typeName),
+                      name,
+                      new CastExpr(JavaParser.parseType(typeName), value))));
+        });
+    NameExpr local = new NameExpr(name);
+    if (node == expression) {
+      return local;
+    }
+    node.replace(local);
+    return expression;
+  }
+}
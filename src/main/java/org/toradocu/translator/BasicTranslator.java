@@ -21,7 +21,7 @@ public class BasicTranslator {
   public static String translate(BlockTag tag, DocumentedExecutable excMember) {
     // Identify propositions in the comment. Each sentence in the comment is parsed into a
     // PropositionSeries.
-    List<PropositionSeries> propositions = Parser.parse(tag.getComment(), excMember);
+    List<PropositionSeries> propositions = Parser.parse(tag, excMember);
     Set<String> conditions = new LinkedHashSet<>();
 
     for (PropositionSeries props : propositions) {
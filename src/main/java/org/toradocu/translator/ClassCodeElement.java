@@ -49,4 +49,9 @@ public class ClassCodeElement extends CodeElement<Class<?>> {
   public String buildJavaExpression() {
     return Configuration.RECEIVER;
   }
+
+  @Override
+  int getPriority() {
+    return 5;
+  }
 }
@@ -1,10 +1,9 @@
 package org.toradocu.translator;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import org.toradocu.util.Distance;
@@ -18,12 +17,19 @@ import org.toradocu.util.Distance;
  *
  * <p>{@code new CodeElement(parameter, "names", "array", "array names")}.
  *
+ * <p>Code elements are immutable once constructed: identifiers can be added only by the
+ * constructors of subclasses. For this reason, the Java expression and the hash code of a code
+ * element are computed only once, and code elements can be shared (see {@link
+ * JavaElementsCollector}).
+ *
  * @param <T> the type of code element that this class holds data on
  */
 public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
 
   /** Strings that can be used to refer to this code element in Javadoc comments. */
-  private Set<String> identifiers;
+  private final Set<String> identifiers;
+  /** Unmodifiable view of {@link #identifiers}. */
+  private final Set<String> identifiersView;
   /** String used to build Java conditions. */
   private String javaExpression;
   // TODO Add a check on the type T so that a CodeElement can be only created with a supported type.
@@ -33,7 +39,9 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
    * Java reflection APIs like {@code java.lang.reflect.Parameter} inherit directly from {@code
    * java.lang.Object}.
    */
-  private T javaCodeElement;
+  private final T javaCodeElement;
+  /** Cached hash code of this code element, 0 if not computed yet. */
+  private int hashCode;
 
   /**
    * Constructs a new {@code CodeElement} that represents the given element with the given
@@ -55,10 +63,12 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
   protected CodeElement(T javaCodeElement) {
     this.javaCodeElement = javaCodeElement;
     identifiers = new HashSet<>();
+    identifiersView = Collections.unmodifiableSet(identifiers);
   }
 
   /**
-   * Adds a string identifier for the code element that this object represents.
+   * Adds a string identifier for the code element that this object represents. This method must be
+   * called only by constructors.
    *
    * @param identifier a string that identifies this code element
    */
@@ -67,12 +77,12 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
   }
 
   /**
-   * Returns a list of strings that identify this code element.
+   * Returns the (unmodifiable) set of strings that identify this code element.
    *
-   * @return a list of strings that identify this code element
+   * @return the set of strings that identify this code element
    */
   public Set<String> getIdentifiers() {
-    return identifiers;
+    return identifiersView;
   }
 
   /**
@@ -150,7 +160,12 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(identifiers, getJavaExpression(), javaCodeElement);
+    int result = hashCode;
+    if (result == 0) {
+      result = Objects.hash(identifiers, getJavaExpression(), javaCodeElement);
+      hashCode = result;
+    }
+    return result;
   }
 
   /**
@@ -180,23 +195,50 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
    * @return true if the predicate translation is compatible, false otherwise
    */
   boolean isCompatibleWith(Class<?> declaringClass, String predicateTranslation) {
+    return isCompatibleWith(
+        declaringClass, predicateTranslation, TranslationKind.of(predicateTranslation));
+  }
+
+  /**
+   * Checks whether the given predicate translation, whose kind has already been computed, is
+   * compatible with this code element. See {@link #isCompatibleWith(Class, String)}. Clients that
+   * check the same translation against many code elements should call this method, so that the kind
+   * of the translation is computed once.
+   *
+   * @param declaringClass declaring class of the {@code DocumentedExecutable} to check
+   *     compatibility in case of comparisons with receiver object
+   * @param predicateTranslation the translation of the predicate whose compatibility with this code
+   *     element has to be checked
+   * @param translationKind the kind of {@code predicateTranslation}, as returned by {@link
+   *     TranslationKind#of(String)}
+   * @return true if the predicate translation is compatible, false otherwise
+   */
+  boolean isCompatibleWith(
+      Class<?> declaringClass, String predicateTranslation, int translationKind) {
     return true;
   }
 
+  /**
+   * Returns the priority of this kind of code element. When a subject matches more code elements,
+   * the one with the highest priority is preferred. The priority is a constant of each subclass:
+   * from the lowest to the highest priority, {@link GeneralCodeElement}, {@link
+   * ContainerElementsCodeElement}, {@link MethodCodeElement}, {@link StaticMethodCodeElement},
+   * {@link FieldCodeElement}, {@link ClassCodeElement}, and {@link ParameterCodeElement}.
+   *
+   * @return the priority of this kind of code element
+   */
+  abstract int getPriority();
+
+  /**
+   * Compares this code element with the given one according to their priority (see {@link
+   * #getPriority()}).
+   *
+   * @param o the code element to compare with
+   * @return a negative integer, zero, or a positive integer if this code element has a lower,
+   *     equal, or higher priority than {@code o}
+   */
   @Override
   public int compareTo(CodeElement<?> o) {
-    // Is this the best design? (We consider subclasses in this superclass.)
-
-    // A lower index (position) in the priority list means a lower priority.
-    List<Class> priorityList = new ArrayList<>();
-    priorityList.add(GeneralCodeElement.class);
-    priorityList.add(ContainerElementsCodeElement.class);
-    priorityList.add(MethodCodeElement.class);
-    priorityList.add(StaticMethodCodeElement.class);
-    priorityList.add(FieldCodeElement.class);
-    priorityList.add(ClassCodeElement.class);
-    priorityList.add(ParameterCodeElement.class);
-
-    return priorityList.indexOf(this.getClass()) - priorityList.indexOf(o.getClass());
+    return getPriority() - o.getPriority();
   }
 }
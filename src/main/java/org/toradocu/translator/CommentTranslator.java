@@ -3,7 +3,7 @@ package org.toradocu.translator;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ExecutableMap;
 import org.toradocu.extractor.ParamTag;
 import org.toradocu.extractor.ReturnTag;
 import org.toradocu.extractor.ThrowsTag;
@@ -37,7 +38,7 @@ public class CommentTranslator {
    * @return a precondition specification (an empty specification if the translation fails)
    */
   public static PreSpecification translate(ParamTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
     return new ParamTranslator().translate(tag, excMember);
   }
@@ -51,7 +52,7 @@ public class CommentTranslator {
    *     translation failed)
    */
   public static List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
     return new ReturnTranslator().translate(tag, excMember);
   }
@@ -64,7 +65,7 @@ public class CommentTranslator {
    * @return a precondition specification (an empty specification if the translation fails)
    */
   public static ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
     return new ThrowsTranslator().translate(tag, excMember);
   }
@@ -75,11 +76,67 @@ public class CommentTranslator {
    * @param members the executable members whose comments have to be translated into specifications
    * @return a map that associates each executable member (key) with its operation specification
    *     that includes pre-, post-, and exceptional specifications.
+   * @see #createIndexedSpecifications(List)
    */
   public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
       List<DocumentedExecutable> members) {
-    Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
+    return createIndexedSpecifications(members).toMap();
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members, like {@link
+   * #createSpecifications(List)}, and returns them in an {@code ExecutableMap}, which is indexed by
+   * the ids of executable members.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @return a map that associates each executable member (key) with its operation specification
+   *     that includes pre-, post-, and exceptional specifications.
+   */
+  public static ExecutableMap<OperationSpecification> createIndexedSpecifications(
+      List<DocumentedExecutable> members) {
+    return createIndexedSpecifications(members, NegativeCache.disabled());
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members. Comments that
+   * {@code negativeCache} records as untranslatable are not translated, and comments that cannot be
+   * translated are recorded in {@code negativeCache}.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @param negativeCache the cache of comments that cannot be translated
+   * @return a map that associates each executable member (key) with its operation specification
+   *     that includes pre-, post-, and exceptional specifications.
+   */
+  public static ExecutableMap<OperationSpecification> createIndexedSpecifications(
+      List<DocumentedExecutable> members, NegativeCache negativeCache) {
+    return createIndexedSpecifications(members, negativeCache, SpecificationCache.disabled());
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members. The
+   * specifications of comments found in {@code specificationCache} are not translated again, and
+   * the specifications of the other comments are stored in {@code specificationCache}. Comments
+   * that {@code negativeCache} records as untranslatable are not translated, and comments that
+   * cannot be translated are recorded in {@code negativeCache}. The results of translations that
+   * exceed the parsing limits are stored in neither cache.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @param negativeCache the cache of comments that cannot be translated
+   * @param specificationCache the cache of the specifications of translated comments
+   * @return a map that associates each executable member (key) with its operation specification
+   *     that includes pre-, post-, and exceptional specifications.
+   */
+  public static ExecutableMap<OperationSpecification> createIndexedSpecifications(
+      List<DocumentedExecutable> members,
+      NegativeCache negativeCache,
+      SpecificationCache specificationCache) {
+    ExecutableMap<OperationSpecification> specs = new ExecutableMap<>(members.size());
+    Class<?> currentClass = null;
     for (DocumentedExecutable member : members) {
+      if (member.getDeclaringClass() != currentClass) {
+        currentClass = member.getDeclaringClass();
+        Parser.startClass();
+      }
       Operation operation = Operation.getOperation(member.getExecutable());
       List<String> paramNames =
           member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
@@ -89,20 +146,47 @@ public class CommentTranslator {
 
       List<PreSpecification> preSpecifications = new ArrayList<>();
       for (ParamTag paramTag : member.paramTags()) {
-        preSpecifications.add(CommentTranslator.translate(paramTag, member));
+        final String key = specificationCache.keyOf(paramTag, member);
+        List<PreSpecification> cached =
+            specificationCache.get(key, paramTag, PreSpecification.class);
+        if (cached == null) {
+          cached = Collections.singletonList(translate(paramTag, member, negativeCache));
+          if (!Parser.isBudgetExceeded()) {
+            specificationCache.put(key, paramTag, cached);
+          }
+        }
+        preSpecifications.addAll(cached);
       }
       spec.addParamSpecifications(preSpecifications);
 
       List<ThrowsSpecification> throwsSpecifications = new ArrayList<>();
       for (ThrowsTag throwsTag : member.throwsTags()) {
-        throwsSpecifications.add(CommentTranslator.translate(throwsTag, member));
+        final String key = specificationCache.keyOf(throwsTag, member);
+        List<ThrowsSpecification> cached =
+            specificationCache.get(key, throwsTag, ThrowsSpecification.class);
+        if (cached == null) {
+          cached = Collections.singletonList(translate(throwsTag, member, negativeCache));
+          if (!Parser.isBudgetExceeded()) {
+            specificationCache.put(key, throwsTag, cached);
+          }
+        }
+        throwsSpecifications.addAll(cached);
       }
       spec.addThrowsSpecifications(throwsSpecifications);
 
       List<PostSpecification> postSpecifications = new ArrayList<>();
       ReturnTag returnTag = member.returnTag();
       if (returnTag != null) {
-        postSpecifications.addAll(CommentTranslator.translate(returnTag, member));
+        final String key = specificationCache.keyOf(returnTag, member);
+        List<PostSpecification> cached =
+            specificationCache.get(key, returnTag, PostSpecification.class);
+        if (cached == null) {
+          cached = translate(returnTag, member, negativeCache);
+          if (!Parser.isBudgetExceeded()) {
+            specificationCache.put(key, returnTag, cached);
+          }
+        }
+        postSpecifications.addAll(cached);
       }
       spec.addReturnSpecifications(postSpecifications);
 
@@ -111,6 +195,82 @@ public class CommentTranslator {
     return specs;
   }
 
+  /**
+   * Translates the given @param comment, unless {@code negativeCache} records it as untranslatable.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param negativeCache the cache of comments that cannot be translated
+   * @return a precondition specification (an empty specification if the translation fails)
+   */
+  private static PreSpecification translate(
+      ParamTag tag, DocumentedExecutable excMember, NegativeCache negativeCache) {
+    Parser.startTranslation();
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
+    final String key = negativeCache.keyOf(tag, excMember);
+    if (negativeCache.isUntranslatable(key)) {
+      return ParamTranslator.emptySpecification(tag);
+    }
+    final long start = System.nanoTime();
+    final PreSpecification specification = new ParamTranslator().translate(tag, excMember);
+    if (!Parser.isBudgetExceeded()) {
+      negativeCache.record(
+          key, !specification.getGuard().getConditionText().isEmpty(), System.nanoTime() - start);
+    }
+    return specification;
+  }
+
+  /**
+   * Translates the given @return comment, unless {@code negativeCache} records it as
+   * untranslatable.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param negativeCache the cache of comments that cannot be translated
+   * @return a list of postcondition specifications (empty if the translation fails)
+   */
+  private static List<PostSpecification> translate(
+      ReturnTag tag, DocumentedExecutable excMember, NegativeCache negativeCache) {
+    Parser.startTranslation();
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
+    final String key = negativeCache.keyOf(tag, excMember);
+    if (negativeCache.isUntranslatable(key)) {
+      return new ArrayList<>();
+    }
+    final long start = System.nanoTime();
+    final List<PostSpecification> specifications = new ReturnTranslator().translate(tag, excMember);
+    if (!Parser.isBudgetExceeded()) {
+      negativeCache.record(key, !specifications.isEmpty(), System.nanoTime() - start);
+    }
+    return specifications;
+  }
+
+  /**
+   * Translates the given @throws/@exception comment, unless {@code negativeCache} records it as
+   * untranslatable.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param negativeCache the cache of comments that cannot be translated
+   * @return a precondition specification (an empty specification if the translation fails)
+   */
+  private static ThrowsSpecification translate(
+      ThrowsTag tag, DocumentedExecutable excMember, NegativeCache negativeCache) {
+    Parser.startTranslation();
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
+    final String key = negativeCache.keyOf(tag, excMember);
+    if (negativeCache.isUntranslatable(key)) {
+      return ThrowsTranslator.emptySpecification(tag);
+    }
+    final long start = System.nanoTime();
+    final ThrowsSpecification specification = new ThrowsTranslator().translate(tag, excMember);
+    if (!Parser.isBudgetExceeded()) {
+      negativeCache.record(
+          key, !specification.getGuard().getConditionText().isEmpty(), System.nanoTime() - start);
+    }
+    return specification;
+  }
+
   /**
    * Replace "args" identifiers in specifications generated by Toradocu with the actual parameter
    * name the identifiers refers to.
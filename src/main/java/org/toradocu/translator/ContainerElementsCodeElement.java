@@ -82,4 +82,9 @@ public class ContainerElementsCodeElement extends CodeElement<Object> {
     }
     return null;
   }
+
+  @Override
+  int getPriority() {
+    return 1;
+  }
 }
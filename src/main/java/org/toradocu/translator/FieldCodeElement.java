@@ -29,4 +29,9 @@ public class FieldCodeElement extends CodeElement<Field> {
   protected String buildJavaExpression() {
     return receiver + "." + getJavaCodeElement().getName();
   }
+
+  @Override
+  int getPriority() {
+    return 4;
+  }
 }
@@ -28,4 +28,9 @@ public class GeneralCodeElement extends CodeElement<String> {
   protected String buildJavaExpression() {
     return getJavaCodeElement();
   }
+
+  @Override
+  int getPriority() {
+    return 0;
+  }
 }
@@ -9,6 +9,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
@@ -18,9 +20,56 @@ import org.toradocu.extractor.ParamTag;
 /**
  * Collects all the Java elements that can be used for the condition translation. Java elements are
  * collected through Java reflection.
+ *
+ * <p>Code elements are immutable, and are therefore interned: the elements of a class (the class
+ * itself and its fields) and of an executable member (its parameters and the methods that can be
+ * invoked in its specifications) are created once and shared by all the invocations of {@link
+ * #collect(DocumentedExecutable)}. Interned elements are stored in their class by {@code
+ * ClassValue}s, and refer only to the class and to its members, so that they do not keep a class
+ * loader from being garbage collected (as in {@link TypeMetadata}).
  */
 public class JavaElementsCollector {
 
+  /** Interned code elements of classes. */
+  private static final ClassValue<ClassCodeElement> CLASSES = classValue(ClassCodeElement::new);
+
+  /** Interned code elements of the fields of classes. */
+  private static final ClassValue<List<FieldCodeElement>> FIELDS =
+      classValue(
+          c ->
+              Collections.unmodifiableList(
+                  Arrays.stream(c.getFields())
+                      .map(field -> new FieldCodeElement(Configuration.RECEIVER, field))
+                      .collect(toList())));
+
+  /** Interned code elements of the methods in scope of executable members, by declaring class. */
+  private static final ClassValue<Map<Executable, List<CodeElement<?>>>> METHODS =
+      classValue(c -> new ConcurrentHashMap<>());
+
+  /**
+   * Interned code elements of the parameters of executable members, by declaring class. Since
+   * parameter code elements depend on the param comments, an interned list is reused only if its
+   * elements have the same identifiers extracted from the param comments.
+   */
+  private static final ClassValue<Map<Executable, List<ParameterCodeElement>>> PARAMETERS =
+      classValue(c -> new ConcurrentHashMap<>());
+
+  /**
+   * Returns a {@code ClassValue} that computes the value of a class with the given function.
+   *
+   * @param computeValue the function that computes the value of a class
+   * @param <T> the type of the values
+   * @return a {@code ClassValue} that computes values with {@code computeValue}
+   */
+  private static <T> ClassValue<T> classValue(Function<Class<?>, T> computeValue) {
+    return new ClassValue<T>() {
+      @Override
+      protected T computeValue(Class<?> type) {
+        return computeValue.apply(type);
+      }
+    };
+  }
+
   /**
    * Collects all the Java code elements that can be used for the condition translation. The code
    * elements are collected using reflection starting from the given method.
@@ -43,7 +92,12 @@ public class JavaElementsCollector {
 
     // Add methods of the containing class (all but the method corresponding to
     // documentedExecutable).
-    collectedElements.addAll(methodsOf(containingClass, documentedExecutable));
+    collectedElements.addAll(
+        METHODS
+            .get(containingClass)
+            .computeIfAbsent(
+                documentedExecutable.getExecutable(),
+                e -> methodsOf(containingClass, documentedExecutable)));
 
     return collectedElements;
   }
@@ -69,7 +123,7 @@ public class JavaElementsCollector {
         codeElements.add(new MethodCodeElement(Configuration.RECEIVER, method));
       }
     }
-    return codeElements;
+    return Collections.unmodifiableList(codeElements);
   }
 
   private static List<Class<?>> collectInScopeTypes(DocumentedExecutable documentedExecutable) {
@@ -91,9 +145,7 @@ public class JavaElementsCollector {
   }
 
   private static List<FieldCodeElement> fieldsOf(Class<?> aClass) {
-    return Arrays.stream(aClass.getFields())
-        .map(field -> new FieldCodeElement(Configuration.RECEIVER, field))
-        .collect(toList());
+    return FIELDS.get(aClass);
   }
 
   private static List<ParameterCodeElement> parametersOf(
@@ -108,42 +160,42 @@ public class JavaElementsCollector {
       parameters.remove(0);
     }
 
-    int i = 0;
-    HashMap<String, Integer> countIds = new HashMap<>();
+    final List<Set<String>> extractedIds = new ArrayList<>(parameters.size());
     for (DocumentedParameter parameter : parameters) {
-      final Parameter reflectionParam = parameter.asReflectionParameter();
-      final String parameterName = parameter.getName();
-      final Set<String> identifiers =
-          extractIdentifiersFromParamTags(documentedExecutable, parameterName);
-      for (String id : identifiers) {
-        Integer oldValue = countIds.getOrDefault(id, -1);
-        countIds.put(id, ++oldValue);
+      extractedIds.add(extractIdentifiersFromParamTags(documentedExecutable, parameter.getName()));
+    }
+
+    final Executable executable = documentedExecutable.getExecutable();
+    final Map<Executable, List<ParameterCodeElement>> internedParameters =
+        PARAMETERS.get(executable.getDeclaringClass());
+    final List<ParameterCodeElement> interned = internedParameters.get(executable);
+    if (interned != null && interned.size() == extractedIds.size()) {
+      boolean sameIds = true;
+      for (int i = 0; i < interned.size() && sameIds; i++) {
+        sameIds = interned.get(i).getOtherIdentifiers().equals(extractedIds.get(i));
+      }
+      if (sameIds) {
+        return interned;
       }
+    }
 
-      // TODO Generate code ids.
+    // TODO Select only valid identifiers for the parameters, i.e. the ones extracted from the
+    // comment of a single parameter.
+    int i = 0;
+    for (DocumentedParameter parameter : parameters) {
+      final Parameter reflectionParam = parameter.asReflectionParameter();
       ParameterCodeElement param =
-          new ParameterCodeElement(reflectionParam, parameterName, i++, identifiers);
+          new ParameterCodeElement(reflectionParam, parameter.getName(), i, extractedIds.get(i));
       paramCodeElements.add(param);
+      i++;
     }
-
-    // TODO Create a parameter code element directly with unique identifiers, thus removing
-    // mergeIdentifiers() and related methods in ParameterCodeElement.
-    // Select only valid identifiers for the parameters, i.e. the unique ones (count in map is 0)
-    for (ParameterCodeElement p : paramCodeElements) {
-      //      Set<String> ids = p.getOtherIdentifiers();
-      //      for (Map.Entry<String, Integer> countId : countIds.entrySet()) {
-      //        String identifier = countId.getKey();
-      //        if (ids.contains(identifier) && countId.getValue() > 0)
-      //          p.removeIdentifier(identifier);
-      //      }
-      p.mergeIdentifiers();
-    }
-
+    paramCodeElements = Collections.unmodifiableList(paramCodeElements);
+    internedParameters.put(executable, paramCodeElements);
     return paramCodeElements;
   }
 
   private static ClassCodeElement containingClassOf(DocumentedExecutable documentedExecutable) {
-    return new ClassCodeElement(documentedExecutable.getDeclaringClass());
+    return CLASSES.get(documentedExecutable.getDeclaringClass());
   }
 
   /**
@@ -160,19 +212,18 @@ public class JavaElementsCollector {
     Set<String> ids = new HashSet<>();
     for (ParamTag pt : paramTags) {
       String paramName = pt.getParameter().getName();
-      String originalComment = pt.getComment().getText();
-      int semicolon = originalComment.indexOf(";");
-      if (semicolon != -1)
-        // Often param comments have a semicolon followed by a further description,
-        // not useful for our purpose here and possibly affecting the semantic graph
-        originalComment = originalComment.substring(0, semicolon);
-
       if (paramName.equals(param)) {
-        List<SemanticGraph> sgs =
-            Parser.parse(new Comment(originalComment), method)
-                .stream()
-                .map(PropositionSeries::getSemanticGraph)
-                .collect(toList());
+        String originalComment = pt.getComment().getText();
+        int semicolon = originalComment.indexOf(";");
+        List<SemanticGraph> sgs;
+        if (semicolon != -1) {
+          // Often param comments have a semicolon followed by a further description,
+          // not useful for our purpose here and possibly affecting the semantic graph
+          originalComment = originalComment.substring(0, semicolon);
+          sgs = Parser.getSemanticGraphs(new Comment(originalComment), method);
+        } else {
+          sgs = Parser.getSemanticGraphs(pt, method);
+        }
         for (SemanticGraph sg : sgs) {
           ids.add(sg.getFirstRoot().word());
         }
@@ -1,9 +1,8 @@
 package org.toradocu.translator;
 
+import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.*;
@@ -19,12 +18,76 @@ import org.toradocu.translator.semantic.SemanticMatcher;
  */
 class Matcher {
 
+  // Grammar of the predicates translated by this class. Patterns are compiled once and shared.
+
+  /** Verbs that introduce a predicate. */
+  private static final String VERBS = "(is|are|be|is equal to|are equal to|equals to|return) ?";
+
+  /** Words and phrases translated by {@link #manageIsPattern} and {@link #manageIsNotPattern}. */
+  private static final String PREDICATES =
+      "(true|false|null|this|empty|zero|positive|strictly positive|negative|strictly negative|nonnegative|nonpositive)";
+
+  /**
+   * Matches any of the verbs in {@link #VERBS}. All the patterns of {@link #simpleMatch(String)}
+   * but {@link #INSTANCE_OF} start with a verb, so they are not matched against predicates that do
+   * not contain one.
+   */
+  private static final Pattern VERB = Pattern.compile(VERBS);
+
+  /** Matches a predicate such as "is null" or "is == true". */
+  private static final Pattern IS = Pattern.compile(VERBS + "(==|=)? ?" + PREDICATES);
+
+  /** Matches a predicate such as "is != null". */
+  private static final Pattern IS_NOT = Pattern.compile(VERBS + "(!=)? ?" + PREDICATES);
+
+  /** Matches a comparison with a number, e.g. "is &gt;= 0" or "is one". */
+  private static final Pattern INEQUALITY_NUMBER =
+      Pattern.compile(
+          VERBS
+              + "(<=|>=|<|>|!=|==|=)? ?(-?([0-9]+(.[0-9]+)?|zero|one|two|three|four\b|five|six\b|seven\b|eight\b|nine\b)(?! ))");
+
+  /** Matches a comparison with a variable, e.g. "is &lt; size". */
+  private static final Pattern INEQUALITY_VAR =
+      Pattern.compile(VERBS + "(<=|>=|<|>|!=|==|=) ?((([a-zA-Z]+[0-9]?)+_?)+)");
+
+  /** Matches an instanceof check, e.g. "instanceof Foo". */
+  private static final Pattern INSTANCE_OF = Pattern.compile("(instanceof) (.*)");
+
+  /** Matches a predicate about the length of an array, e.g. "has length 0". */
+  private static final Pattern ARRAY_LENGTH = Pattern.compile("has length ([0-9]+|zero)");
+
+  /** Matches a comparison of the length of an array with a number, e.g. "&gt; 0". */
+  private static final Pattern ARRAY_LENGTH_NUMBER =
+      Pattern.compile("([<>=]=?|(!=)|is) ?([0-9]+|zero)");
+
+  /** Matches a predicate about an empty array, e.g. "is zero-length". */
+  private static final Pattern ZERO_LENGTH = Pattern.compile("(is|are|has|have) zero-?length");
+
+  /** Matches a predicate about containing null, e.g. "contains null". */
+  private static final Pattern HAS_NULL = Pattern.compile("(has|have|contains?) null");
+
+  /** Matches a predicate about equality, e.g. "is equal". */
+  private static final Pattern IS_EQUAL = Pattern.compile("(is|are) equals?");
+
+  /** Matches the Java expression of a setter invocation. */
+  private static final Pattern SETTER = Pattern.compile("(.*).set[A-Z](.*)");
+
   /**
    * Represents the threshold for the edit distance above which {@code CodeElement}s are considered
    * to be not matching.
    */
   private final int editDistanceThreshold;
 
+  /**
+   * The last predicate translated by {@link #simpleMatch(String)} in {@link #predicateMatch}. The
+   * same predicate is usually translated for all the subjects matching a proposition.
+   */
+  private String lastPredicate;
+  /** The translation of {@link #lastPredicate}, null if it could not be translated. */
+  private String lastSimpleMatch;
+  /** The kind of {@link #lastSimpleMatch} (see {@link TranslationKind}). */
+  private int lastSimpleMatchKind;
+
   public Matcher() {
     this.editDistanceThreshold = Configuration.INSTANCE.getDistanceThreshold();
   }
@@ -125,8 +188,7 @@ class Matcher {
     String predicate = proposition.getPredicate();
     // Special case to handle predicates about arrays' length. We need a more general solution.
     if (subject.getJavaCodeElement().toString().contains("[]")) {
-      final java.util.regex.Matcher lengthPattern =
-          Pattern.compile("has length ([0-9]+|zero)").matcher(predicate);
+      final java.util.regex.Matcher lengthPattern = ARRAY_LENGTH.matcher(predicate);
       if (lengthPattern.find()) {
         final String lengthString = lengthPattern.group(1);
         final int length = lengthString.equals("zero") ? 0 : Integer.parseInt(lengthString);
@@ -136,8 +198,7 @@ class Matcher {
             + ".length=="
             + length;
       }
-      final java.util.regex.Matcher numberPattern =
-          Pattern.compile("([<>=]=?|(!=)|is) ?([0-9]+|zero)").matcher(predicate);
+      final java.util.regex.Matcher numberPattern = ARRAY_LENGTH_NUMBER.matcher(predicate);
       if (numberPattern.find()) {
         final String lengthString = numberPattern.group(3);
         final int length = lengthString.equals("zero") ? 0 : Integer.parseInt(lengthString);
@@ -154,8 +215,7 @@ class Matcher {
       }
 
       // "zero-length" special case handling.
-      java.util.regex.Matcher zeroLengthPattern =
-          Pattern.compile("(is|are|has|have) zero-?length").matcher(predicate);
+      java.util.regex.Matcher zeroLengthPattern = ZERO_LENGTH.matcher(predicate);
       if (zeroLengthPattern.find()) {
         return subject.getJavaExpression()
             + "!=null && "
@@ -165,8 +225,14 @@ class Matcher {
     }
 
     // General case
-    String match = simpleMatch(predicate);
-    if (match != null && subject.isCompatibleWith(method.getDeclaringClass(), match)) {
+    if (!predicate.equals(lastPredicate)) {
+      lastPredicate = predicate;
+      lastSimpleMatch = simpleMatch(predicate);
+      lastSimpleMatchKind = lastSimpleMatch == null ? 0 : TranslationKind.of(lastSimpleMatch);
+    }
+    String match = lastSimpleMatch;
+    if (match != null
+        && subject.isCompatibleWith(method.getDeclaringClass(), match, lastSimpleMatchKind)) {
       if (subject instanceof ContainerElementsCodeElement) {
         ContainerElementsCodeElement containerCodeElement = (ContainerElementsCodeElement) subject;
         match = containerCodeElement.getJavaExpression(match);
@@ -233,25 +299,26 @@ class Matcher {
 
     // Filter collected code elements that refer to the documented method under analysis.
     // This avoids to generate specifications mentioning the method whose behavior they specify.
+    final String methodSignature = signatureOf(method.getExecutable());
     codeElements =
         codeElements
             .stream()
             .filter(
                 e -> {
-                  if (e.getJavaExpression().matches("(.*).set[A-Z](.*)")) {
+                  if (SETTER.matcher(e.getJavaExpression()).matches()) {
                     // exclude setters
                     return false;
                   }
                   if (e instanceof MethodCodeElement) {
                     Method m = ((MethodCodeElement) e).getJavaCodeElement();
-                    if (m.toGenericString().equals(method.getExecutable().toGenericString())
+                    if (signatureOf(m).equals(methodSignature)
                         || (!m.getReturnType().equals(Boolean.class)
                             && !m.getReturnType().equals(boolean.class))) {
                       return false;
                     }
                   } else if (e instanceof StaticMethodCodeElement) {
                     Method m = ((StaticMethodCodeElement) e).getJavaCodeElement();
-                    if (m.toGenericString().equals(method.getExecutable().toGenericString())
+                    if (signatureOf(m).equals(methodSignature)
                         || (!m.getReturnType().equals(Boolean.class)
                             && !m.getReturnType().equals(boolean.class))) {
                       return false;
@@ -331,8 +398,7 @@ class Matcher {
     CodeElement<?> firstMatch = null;
     boolean foundArgMatch = false;
     List<String> paramForMatch = new ArrayList<String>();
-    List<String> paramMatch = new ArrayList<String>();
-    String[] args = null;
+    List<String> args = Collections.emptyList();
     String receiver = "";
     java.lang.reflect.Parameter[] myParams = method.getExecutable().getParameters();
 
@@ -345,12 +411,11 @@ class Matcher {
       } else continue;
       // Match is a String: before building it, check if the method has parameters,
       // and fill the parenthesis () with the right ones
-      if (args != null) {
-        paramMatch = Arrays.asList(args);
+      if (!args.isEmpty()) {
         int pcount = 0;
         for (java.lang.reflect.Parameter p : myParams) {
           Type pt = p.getParameterizedType();
-          if (paramMatch.contains(pt.getTypeName())) {
+          if (args.contains(pt.getTypeName())) {
             paramForMatch.add("args[" + pcount + "]");
             if (!receiver.equals("args[" + pcount + "]")) {
               firstMatch = currentMatch;
@@ -365,20 +430,19 @@ class Matcher {
         break;
       }
     }
-    if (foundArgMatch && paramForMatch.size() == args.length) {
+    if (foundArgMatch && paramForMatch.size() == args.size()) {
       String exp = firstMatch.getJavaExpression();
-      match = exp.substring(0, exp.indexOf("(") + 1);
-      for (int j = 0; j < paramForMatch.size() - 1; j++) match += paramForMatch.get(j) + ",";
-      match += paramForMatch.get(paramForMatch.size() - 1) + ")";
-    } else if (args
-        != null) { // the method is supposed to take params but we haven't find a match: does it
+      StringJoiner arguments = new StringJoiner(",", exp.substring(0, exp.indexOf("(") + 1), ")");
+      paramForMatch.forEach(arguments::add);
+      match = arguments.toString();
+    } else if (!args
+        .isEmpty()) { // the method is supposed to take params but we haven't find a match: does it
       // have to take null?
       // TODO check method match number of arguments!
-      final java.util.regex.Matcher nullPattern =
-          Pattern.compile("(has|have|contains?) null").matcher(predicate);
+      final java.util.regex.Matcher nullPattern = HAS_NULL.matcher(predicate);
 
       final java.util.regex.Matcher equalPattern = // or is it the equals() method?
-          Pattern.compile("(is|are) equals?").matcher(predicate);
+          IS_EQUAL.matcher(predicate);
 
       firstMatch = sortedCodeElements.stream().findFirst().get();
       if (nullPattern.find()) {
@@ -408,7 +472,7 @@ class Matcher {
       // No match is the absolute best: just pick the first one, but only if it takes no arguments!
       firstMatch = sortedCodeElements.stream().findFirst().get();
       if ((firstMatch instanceof MethodCodeElement
-              && ((MethodCodeElement) firstMatch).getArgs() == null)
+              && ((MethodCodeElement) firstMatch).getArgs().isEmpty())
           || firstMatch instanceof GeneralCodeElement) {
         match = sortedCodeElements.stream().findFirst().get().getJavaExpression();
       }
@@ -423,6 +487,17 @@ class Matcher {
     return match;
   }
 
+  /**
+   * Returns the generic signature of the given executable member, read from the {@link
+   * TypeMetadata} of its declaring class.
+   *
+   * @param executable an executable member
+   * @return the generic signature of {@code executable}
+   */
+  private static String signatureOf(Executable executable) {
+    return TypeMetadata.of(executable.getDeclaringClass()).getSignature(executable);
+  }
+
   /**
    * Extracts and returns all the boolean methods of {@code type}, including methods that take as
    * parameter {@code parameterType}.
@@ -436,20 +511,10 @@ class Matcher {
     Set<CodeElement<?>> collectedElements = new LinkedHashSet<>();
 
     // Add methods in containing class as code elements.
-    methodCollection:
-    for (Method classMethod : targetClass.getMethods()) {
-      if (Modifier.isStatic(classMethod.getModifiers())
-          && classMethod.getParameters().length < 2
-          && (classMethod.getReturnType().equals(Boolean.class)
-              || classMethod.getReturnType().equals(boolean.class))) {
-        for (java.lang.reflect.Parameter par : classMethod.getParameters()) {
-          if (!parameter.getJavaCodeElement().getType().equals(par.getType())) {
-            continue methodCollection;
-          }
-        }
-        collectedElements.add(
-            new StaticMethodCodeElement(classMethod, parameter.getJavaExpression()));
-      }
+    final Class<?> parameterType = parameter.getJavaCodeElement().getType();
+    for (Method classMethod : TypeMetadata.of(targetClass).getStaticBooleanMethods(parameterType)) {
+      collectedElements.add(
+          new StaticMethodCodeElement(classMethod, parameter.getJavaExpression()));
     }
 
     return collectedElements;
@@ -473,22 +538,13 @@ class Matcher {
       return result;
     }
 
-    // Important: Sort members to make result deterministic!
-    Comparator<Member> byName = Comparator.comparing(Member::getName);
-
-    for (Field field :
-        Arrays.stream(type.getFields()).sorted(byName).collect(Collectors.toList())) {
-      if (field.getType().equals(Boolean.class) || field.getType().equals(boolean.class)) {
-        result.add(new FieldCodeElement(receiver.getJavaExpression(), field));
-      }
+    // Important: Members are sorted by name to make result deterministic!
+    final TypeMetadata metadata = TypeMetadata.of(type);
+    for (Field field : metadata.getBooleanFields()) {
+      result.add(new FieldCodeElement(receiver.getJavaExpression(), field));
     }
-
-    for (Method method :
-        Arrays.stream(type.getMethods()).sorted(byName).collect(Collectors.toList())) {
-      if (method.getReturnType().equals(Boolean.class)
-          || method.getReturnType().equals(boolean.class)) {
-        result.add(new MethodCodeElement(receiver.getJavaExpression(), method));
-      }
+    for (Method method : metadata.getBooleanMethods()) {
+      result.add(new MethodCodeElement(receiver.getJavaExpression(), method));
     }
 
     return result;
@@ -496,54 +552,40 @@ class Matcher {
 
   /**
    * Attempts to match the given predicate to a simple Java expression (i.e. one containing only
-   * literals). The visibility of this method is {@code protected} for testing purposes.
+   * literals). The visibility of this method is package-private for benchmarking purposes.
    *
    * @param predicate the predicate to translate to a Java expression. Must not be {@code null}.
    * @return a Java expression translation of the given predicate or null if the predicate could not
    *     be matched
    */
-  private static String simpleMatch(String predicate) {
-    String verbs = "(is|are|be|is equal to|are equal to|equals to|return) ?";
-
-    String predicates =
-        "(true|false|null|this|empty|zero|positive|strictly positive|negative|strictly negative|nonnegative|nonpositive)";
-
-    java.util.regex.Matcher isPattern =
-        Pattern.compile(verbs + "(==|=)? ?" + predicates).matcher(predicate);
-
-    java.util.regex.Matcher isNotPattern =
-        Pattern.compile(verbs + "(!=)? ?" + predicates).matcher(predicate);
-
-    java.util.regex.Matcher inequalityNumber =
-        Pattern.compile(
-                verbs
-                    + "(<=|>=|<|>|!=|==|=)? ?(-?([0-9]+(.[0-9]+)?|zero|one|two|three|four\b|five|six\b|seven\b|eight\b|nine\b)(?! ))")
-            .matcher(predicate);
-
-    java.util.regex.Matcher inequalityVar =
-        Pattern.compile(verbs + "(<=|>=|<|>|!=|==|=) ?((([a-zA-Z]+[0-9]?)+_?)+)")
-            .matcher(predicate);
-
-    java.util.regex.Matcher instanceOf = Pattern.compile("(instanceof) (.*)").matcher(predicate);
-
-    String predicateTranslation;
-    if (isPattern.find()) {
-      // Get the last group in the regular expression.
-      predicateTranslation = manageIsPattern(isPattern);
-    } else if (isNotPattern.find()) {
-      predicateTranslation = manageIsNotPattern(isNotPattern);
-    } else if (inequalityNumber.find()) {
-      predicateTranslation = manageInequalityNumber(inequalityNumber);
-    } else if (inequalityVar.find()) {
-      predicateTranslation = manageInequalityVar(predicate, inequalityVar);
-    } else if (predicate.equals("been set")) {
-      predicateTranslation = "!=null";
-    } else if (instanceOf.find()) {
-      predicateTranslation = " instanceof " + instanceOf.group(2);
-    } else {
-      predicateTranslation = null;
+  static String simpleMatch(String predicate) {
+    if (VERB.matcher(predicate).find()) {
+      java.util.regex.Matcher matcher = IS.matcher(predicate);
+      if (matcher.find()) {
+        // Get the last group in the regular expression.
+        return manageIsPattern(matcher);
+      }
+      matcher = IS_NOT.matcher(predicate);
+      if (matcher.find()) {
+        return manageIsNotPattern(matcher);
+      }
+      matcher = INEQUALITY_NUMBER.matcher(predicate);
+      if (matcher.find()) {
+        return manageInequalityNumber(matcher);
+      }
+      matcher = INEQUALITY_VAR.matcher(predicate);
+      if (matcher.find()) {
+        return manageInequalityVar(predicate, matcher);
+      }
     }
-    return predicateTranslation;
+    if (predicate.equals("been set")) {
+      return "!=null";
+    }
+    java.util.regex.Matcher instanceOf = INSTANCE_OF.matcher(predicate);
+    if (instanceOf.find()) {
+      return " instanceof " + instanceOf.group(2);
+    }
+    return null;
   }
 
   /**
@@ -2,6 +2,7 @@ package org.toradocu.translator;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 import org.toradocu.conf.Configuration;
@@ -15,12 +16,10 @@ public class MethodCodeElement extends CodeElement<Method> {
 
   /** The name of the class/object on which this method is called. */
   private final String receiver;
-  /** The actual parameters used to invoke this method. */
-  private String[] parameters;
-  /** The arguments of this method. */
-  private String[] args;
+  /** The (unmodifiable) types of the arguments of this method. */
+  private final List<String> args;
 
-  private String nullDereferenceCheck;
+  private final String nullDereferenceCheck;
 
   /**
    * Constructs and initializes a {@code MethodCodeElement} that identifies the given method. The
@@ -49,15 +48,20 @@ public class MethodCodeElement extends CodeElement<Method> {
       String methodString = method.toGenericString();
       String methodArgs =
           methodString.substring(methodString.indexOf("(") + 1, methodString.indexOf(")"));
-      if (method.getParameterCount() == 1) args = new String[] {methodArgs};
-      else if (method.getParameterCount() > 1) {
-        args = methodArgs.split(" *,");
-        this.parameters = new String[args.length];
-      }
+      if (method.getParameterCount() == 1) args = Collections.singletonList(methodArgs);
+      else args = Collections.unmodifiableList(Arrays.asList(methodArgs.split(" *,")));
+    } else {
+      args = Collections.emptyList();
     }
   }
 
-  public String[] getArgs() {
+  /**
+   * Returns the types of the arguments of this method.
+   *
+   * @return the (unmodifiable) list of the types of the arguments of this method, empty if the
+   *     method takes no arguments
+   */
+  public List<String> getArgs() {
     return args;
   }
 
@@ -65,22 +69,13 @@ public class MethodCodeElement extends CodeElement<Method> {
     return receiver;
   }
 
-  /**
-   * Set the actual parameters to be used to invoke this method.
-   *
-   * @param parameters the actual parameters of this method
-   * @throws NullPointerException if {@code parameters} is null
-   */
-  public void setParameters(List<String> parameters) {
-    this.parameters = parameters.toArray(new String[0]);
-  }
-
   public String getNullDereferenceCheck() {
     return nullDereferenceCheck;
   }
 
   @Override
-  boolean isCompatibleWith(Class<?> declaringClass, String predicateTranslation) {
+  boolean isCompatibleWith(
+      Class<?> declaringClass, String predicateTranslation, int translationKind) {
     if (predicateTranslation.contains(".")) {
       // if the translation is a method invocation, it must be this subject
       return predicateTranslation.startsWith(getJavaExpression());
@@ -98,9 +93,14 @@ public class MethodCodeElement extends CodeElement<Method> {
   @Override
   protected String buildJavaExpression() {
     StringJoiner paramsJoiner = new StringJoiner(", ", "(", ")");
-    if (args != null) {
-      Arrays.stream(args).forEach(paramsJoiner::add);
+    if (!args.isEmpty()) {
+      args.forEach(paramsJoiner::add);
       return receiver + "." + getJavaCodeElement().getName() + paramsJoiner;
     } else return receiver + "." + getJavaCodeElement().getName() + "()";
   }
+
+  @Override
+  int getPriority() {
+    return 2;
+  }
 }
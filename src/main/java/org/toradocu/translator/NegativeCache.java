@@ -0,0 +1,186 @@
+package org.toradocu.translator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.MappedKeyValueStore;
+
+/**
+ * A persistent record of the comments that Toradocu could not translate, so that later runs skip
+ * their translation and directly produce an empty specification.
+ *
+ * <p>A comment is identified by the same digest as in the {@link SpecificationCache} (see {@link
+ * TranslationDigests#ofTag}), computed on the preprocessed comment: if the comment, the @param
+ * comments or the signature of its member, the types the translation can refer to, or the
+ * configuration change, the comment is translated again. Comments whose translation exceeded the
+ * parsing limits (see {@link Parser#isBudgetExceeded()}) are not recorded, since they could be
+ * translated with other limits.
+ *
+ * <p>The cache is stored in a {@link MappedKeyValueStore}, like the {@link SpecificationCache},
+ * that maps the digest of each comment to the time (in nanoseconds) its translation took, which is
+ * reported as saved time when the cache is hit. When the cache is refreshed, recorded comments are
+ * translated again, and comments that are now translated are removed from the cache.
+ */
+public final class NegativeCache implements Closeable {
+
+  /** A cache that records nothing. */
+  private static final NegativeCache DISABLED = new NegativeCache(null, false, "");
+
+  /** The store holding the cache, null if the cache is disabled. */
+  private final MappedKeyValueStore store;
+
+  /** Whether recorded comments are translated again. */
+  private final boolean refresh;
+
+  /** Version of Toradocu and options that affect translation, part of every digest. */
+  private final String configuration;
+
+  /** Number of comments whose translation has been skipped. */
+  private long hits;
+
+  /** Time (in nanoseconds) the skipped translations took when they were recorded. */
+  private long savedNanos;
+
+  /** Number of comments recorded during this run. */
+  private long additions;
+
+  /** Number of recorded comments that have been translated during this run. */
+  private long removals;
+
+  private NegativeCache(MappedKeyValueStore store, boolean refresh, String configuration) {
+    this.store = store;
+    this.refresh = refresh;
+    this.configuration = configuration;
+  }
+
+  /**
+   * Returns a cache that records nothing.
+   *
+   * @return a disabled cache
+   */
+  public static NegativeCache disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Opens the cache stored in the given file. If the file does not exist, the cache is empty.
+   *
+   * @param file the file storing the cache, must not be null
+   * @param refresh if true, recorded comments are translated again
+   * @return the cache stored in {@code file}
+   * @throws IOException if the file exists but cannot be read
+   * @throws IllegalArgumentException if the file is not a valid cache
+   */
+  public static NegativeCache open(File file, boolean refresh) throws IOException {
+    return new NegativeCache(
+        MappedKeyValueStore.open(file.toPath()), refresh, TranslationDigests.ofConfiguration());
+  }
+
+  /**
+   * Returns the key that identifies the given (preprocessed) tag in this cache.
+   *
+   * @param tag the tag whose comment has to be translated
+   * @param member the executable member documented by {@code tag}
+   * @return the key of {@code tag}, or null if this cache is disabled
+   */
+  String keyOf(BlockTag tag, DocumentedExecutable member) {
+    if (store == null) {
+      return null;
+    }
+    return TranslationDigests.ofTag(configuration, tag, member);
+  }
+
+  /**
+   * Checks whether the comment with the given key has been recorded as untranslatable, and thus its
+   * translation can be skipped. Always returns false when the cache is refreshed.
+   *
+   * @param key the key of a comment, as returned by {@link #keyOf(BlockTag, DocumentedExecutable)}
+   * @return true if the translation of the comment can be skipped, false otherwise
+   */
+  synchronized boolean isUntranslatable(String key) {
+    if (key == null || refresh) {
+      return false;
+    }
+    final String nanos = store.get(key);
+    if (nanos == null) {
+      return false;
+    }
+    hits++;
+    savedNanos += Long.parseLong(nanos);
+    return true;
+  }
+
+  /**
+   * Records the result of the translation of the comment with the given key.
+   *
+   * @param key the key of a comment, as returned by {@link #keyOf(BlockTag, DocumentedExecutable)}
+   * @param translated whether the comment has been translated
+   * @param nanos time (in nanoseconds) the translation took
+   */
+  synchronized void record(String key, boolean translated, long nanos) {
+    if (key == null) {
+      return;
+    }
+    final boolean recorded = store.get(key) != null;
+    if (translated && recorded) {
+      store.remove(key);
+      removals++;
+    } else if (!translated && !recorded) {
+      store.put(key, Long.toString(nanos));
+      additions++;
+    }
+  }
+
+  /**
+   * Stores this cache in its file and releases it. Does nothing if this cache is disabled.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  /**
+   * Returns whether this cache records comments.
+   *
+   * @return true if this cache records comments, false if it is disabled
+   */
+  public boolean isEnabled() {
+    return store != null;
+  }
+
+  /**
+   * Returns the number of comments whose translation has been skipped.
+   *
+   * @return the number of comments whose translation has been skipped
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the time (in nanoseconds) the skipped translations took when they were recorded.
+   *
+   * @return the time (in nanoseconds) saved by skipping translations
+   */
+  public synchronized long getSavedNanos() {
+    return savedNanos;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "%d entries, %d hits (%d ms saved), %d added, %d removed",
+        store == null ? 0 : store.size(),
+        hits,
+        TimeUnit.NANOSECONDS.toMillis(savedNanos),
+        additions,
+        removals);
+  }
+}
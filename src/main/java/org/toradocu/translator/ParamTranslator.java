@@ -18,12 +18,22 @@ public class ParamTranslator {
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
 
     if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
+      return emptySpecification(tag);
     }
 
     return new PreSpecification(tag.toString(), guard);
   }
 
+  /**
+   * Returns the specification of a @param comment that could not be translated.
+   *
+   * @param tag the @param comment
+   * @return a specification with an empty guard
+   */
+  static PreSpecification emptySpecification(ParamTag tag) {
+    return new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
+  }
+
   private boolean isDescriptiveComment(String text) {
     return text.matches("(.*) is (If|if) (.*)");
   }
@@ -1,9 +1,10 @@
 package org.toradocu.translator;
 
 import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.StringJoiner;
-import org.toradocu.conf.Configuration;
 
 /**
  * This class represents a parameter code element for use in translation. It holds String
@@ -13,12 +14,20 @@ import org.toradocu.conf.Configuration;
 public class ParameterCodeElement extends CodeElement<Parameter> {
 
   /** The 0-based index of this parameter in its associated method's parameter list. */
-  private int index;
+  private final int index;
 
   /** Additional identifiers coming directly from param comments. */
-  private Set<String> extractedIdentifiers;
+  private final Set<String> extractedIdentifiers;
+
+  /**
+   * Kinds of predicate translations compatible with this parameter, as a bitmask of {@link
+   * TranslationKind} constants.
+   */
+  private final int acceptedTranslationKinds;
+
   /**
    * Constructs and initializes a {@code ParameterCodeElement} that identifies the given parameter.
+   * The identifiers of the parameter include {@code extractedIds}.
    *
    * @param parameter the backing parameter that this code element identifies
    * @param name the name of the parameter
@@ -29,7 +38,8 @@ public class ParameterCodeElement extends CodeElement<Parameter> {
       Parameter parameter, String name, int index, Set<String> extractedIds) {
     super(parameter);
     this.index = index;
-    this.extractedIdentifiers = extractedIds;
+    this.extractedIdentifiers = Collections.unmodifiableSet(new HashSet<>(extractedIds));
+    this.acceptedTranslationKinds = acceptedTranslationKinds(parameter.getType());
 
     // Add name identifiers.
     addIdentifier("parameter");
@@ -58,30 +68,20 @@ public class ParameterCodeElement extends CodeElement<Parameter> {
         addIdentifier("collection");
       }
     }
+
+    // Add identifiers extracted from the param comment.
+    extractedIdentifiers.forEach(this::addIdentifier);
   }
 
   /**
-   * Returns the additional identifiers extractedIdentifiers.
+   * Returns the (unmodifiable) set of additional identifiers extracted from the param comment.
    *
-   * @return a list of strings that identify this code element
+   * @return the additional identifiers extracted from the param comment
    */
   public Set<String> getOtherIdentifiers() {
     return extractedIdentifiers;
   }
 
-  /**
-   * Remove a string identifier from extractedIdentifiers.
-   *
-   * @param identifier a string that identifies this code element
-   */
-  public void removeIdentifier(String identifier) {
-    extractedIdentifiers.remove(identifier);
-  }
-
-  /** Merge the default identifiers with the additional ones extractedIdentifiers. */
-  public void mergeIdentifiers() {
-    getIdentifiers().addAll(extractedIdentifiers);
-  }
   /**
    * Builds and returns the Java expression representation of this parameter code element. The
    * returned string is formatted as "args[i]" where i is the index of this parameter in a parameter
@@ -95,52 +95,56 @@ public class ParameterCodeElement extends CodeElement<Parameter> {
   }
 
   @Override
-  boolean isCompatibleWith(Class<?> declaringClass, String predicateTranslation) {
-    final Parameter subject = getJavaCodeElement();
-    final Class<?> subjectType = subject.getType();
-
-    // Comparison with receiver object
-    if (predicateTranslation.equals("==" + Configuration.RECEIVER)) {
-      return subjectType.equals(declaringClass);
-    }
-    // Boolean or boolean
-    if (subjectType.equals(boolean.class) || subjectType.equals(Boolean.class)) {
-      return predicateTranslation.equals("==true") || predicateTranslation.equals("==false");
+  boolean isCompatibleWith(
+      Class<?> declaringClass, String predicateTranslation, int translationKind) {
+    if (translationKind == TranslationKind.RECEIVER_EQUALITY) {
+      return getJavaCodeElement().getType().equals(declaringClass);
     }
+    return (acceptedTranslationKinds & translationKind) != 0;
+  }
 
-    // Primitives and their wrappers (boolean excluded)
-    if (subjectType.isPrimitive()) {
-      return predicateTranslation.startsWith("<")
-          || predicateTranslation.startsWith("<=")
-          || predicateTranslation.startsWith(">")
-          || predicateTranslation.startsWith(">=")
-          || (predicateTranslation.startsWith("==") && !predicateTranslation.equals("==null"));
+  /**
+   * Returns the kinds of predicate translations that are compatible with a parameter of the given
+   * type, as a bitmask of {@link TranslationKind} constants. Comparisons with the receiver object
+   * are not included, because they are compatible only with parameters whose type is the class
+   * declaring the method under analysis.
+   *
+   * @param type the type of a parameter
+   * @return the bitmask of the kinds of translations compatible with a parameter of type {@code
+   *     type}
+   */
+  private static int acceptedTranslationKinds(Class<?> type) {
+    // Boolean or boolean
+    if (type.equals(boolean.class) || type.equals(Boolean.class)) {
+      return TranslationKind.BOOLEAN_EQUALITY;
     }
-    if (subjectType.equals(Byte.class)
-        || subjectType.equals(Short.class)
-        || subjectType.equals(Integer.class)
-        || subjectType.equals(Long.class)
-        || subjectType.equals(Float.class)
-        || subjectType.equals(Double.class)) {
-      return predicateTranslation.startsWith("<")
-          || predicateTranslation.startsWith("<=")
-          || predicateTranslation.startsWith(">")
-          || predicateTranslation.startsWith(">=")
-          || predicateTranslation.startsWith("==")
-          || predicateTranslation.contains(".equals(");
+    // Primitives (boolean excluded)
+    if (type.isPrimitive()) {
+      return TranslationKind.ORDERING
+          | TranslationKind.BOOLEAN_EQUALITY
+          | TranslationKind.VALUE_EQUALITY;
     }
-
-    // Non-primitives
-    if (!subjectType.isPrimitive()
-        && !predicateTranslation.equals("==null")
-        && (predicateTranslation.startsWith("==")
-            || predicateTranslation.startsWith("<")
-            || predicateTranslation.startsWith("<=")
-            || predicateTranslation.startsWith(">")
-            || predicateTranslation.startsWith(">="))) {
-      return false;
+    // Wrappers of numeric primitives
+    if (type.equals(Byte.class)
+        || type.equals(Short.class)
+        || type.equals(Integer.class)
+        || type.equals(Long.class)
+        || type.equals(Float.class)
+        || type.equals(Double.class)) {
+      return TranslationKind.ORDERING
+          | TranslationKind.BOOLEAN_EQUALITY
+          | TranslationKind.NULL_EQUALITY
+          | TranslationKind.VALUE_EQUALITY
+          | TranslationKind.EQUALS_INVOCATION;
     }
+    // Other non-primitives
+    return TranslationKind.NULL_EQUALITY
+        | TranslationKind.EQUALS_INVOCATION
+        | TranslationKind.OTHER;
+  }
 
-    return true;
+  @Override
+  int getPriority() {
+    return 6;
   }
 }
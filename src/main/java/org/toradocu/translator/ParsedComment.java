@@ -0,0 +1,149 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of parsing a comment with the Stanford parser: the text of the comment in which
+ * inequalities are replaced by placeholders, the replaced inequalities, and the tagged words and
+ * semantic graphs of the sentences of the comment.
+ *
+ * <p>A {@code ParsedComment} is cached by the {@link Parser} and associated with the {@code
+ * BlockTag} whose comment has been parsed (see {@link ParsedTags}), so that the comment is parsed
+ * only once.
+ */
+final class ParsedComment {
+
+  /**
+   * Rough estimate of the bytes retained by a vertex of a semantic graph, i.e., an {@code
+   * IndexedWord} with its {@code CoreLabel} and the annotations set by the Stanford parser.
+   */
+  private static final long BYTES_PER_VERTEX = 1024;
+
+  /** Rough estimate of the bytes retained by an edge of a semantic graph. */
+  private static final long BYTES_PER_EDGE = 128;
+
+  /** Rough estimate of the bytes retained by a tagged word. */
+  private static final long BYTES_PER_TAGGED_WORD = 96;
+
+  /** The names of the parameters of the method the parsed comment belongs to. */
+  private final List<String> parameterNames;
+
+  /** The text of the comment with placeholders. */
+  private final String placeholderText;
+
+  /** The words of each sentence of the comment, (partially) tagged with their part of speech. */
+  private final List<List<TaggedWord>> taggedSentences;
+
+  /** The semantic graphs of the sentences of the comment. */
+  private final List<SemanticGraph> semanticGraphs;
+
+  /** The inequalities replaced by placeholders, in placeholder order. */
+  private final List<String> inequalities;
+
+  /** Rough estimate of the bytes retained by this object. */
+  private final long estimatedBytes;
+
+  /**
+   * Creates a new parsed comment.
+   *
+   * @param parameterNames the names of the parameters of the method the comment belongs to
+   * @param placeholderText the text of the comment with placeholders
+   * @param inequalities the inequalities replaced by placeholders, in placeholder order
+   * @param taggedSentences the tagged words of each sentence of the comment
+   * @param semanticGraphs the semantic graphs of the sentences of the comment
+   */
+  ParsedComment(
+      List<String> parameterNames,
+      String placeholderText,
+      List<String> inequalities,
+      List<List<TaggedWord>> taggedSentences,
+      List<SemanticGraph> semanticGraphs) {
+    this.parameterNames = Collections.unmodifiableList(parameterNames);
+    this.placeholderText = placeholderText;
+    this.taggedSentences = Collections.unmodifiableList(taggedSentences);
+    this.semanticGraphs = Collections.unmodifiableList(semanticGraphs);
+    this.inequalities = Collections.unmodifiableList(inequalities);
+    long bytes = 2 * placeholderText.length();
+    for (List<TaggedWord> taggedSentence : taggedSentences) {
+      bytes += BYTES_PER_TAGGED_WORD * taggedSentence.size();
+    }
+    for (SemanticGraph semanticGraph : semanticGraphs) {
+      bytes += BYTES_PER_VERTEX * semanticGraph.size() + BYTES_PER_EDGE * semanticGraph.edgeCount();
+    }
+    for (String inequality : inequalities) {
+      bytes += 2 * inequality.length();
+    }
+    this.estimatedBytes = bytes;
+  }
+
+  /**
+   * Returns the names of the parameters of the method the parsed comment belongs to. Parameter
+   * names affect the tagging of the words of the comment.
+   *
+   * @return the names of the parameters of the method the parsed comment belongs to
+   */
+  List<String> getParameterNames() {
+    return parameterNames;
+  }
+
+  /**
+   * Returns the text of the comment in which inequalities are replaced by placeholders.
+   *
+   * @return the text of the comment with placeholders
+   */
+  String getPlaceholderText() {
+    return placeholderText;
+  }
+
+  /**
+   * Returns the words of each sentence of the comment, (partially) tagged with their part of speech
+   * before parsing.
+   *
+   * @return the tagged words of each sentence of the comment
+   */
+  List<List<TaggedWord>> getTaggedSentences() {
+    return taggedSentences;
+  }
+
+  /**
+   * Returns the semantic graphs of the sentences of the comment. Sentences that exceed the parsing
+   * limits have no semantic graph.
+   *
+   * @return the semantic graphs of the sentences of the comment
+   */
+  List<SemanticGraph> getSemanticGraphs() {
+    return semanticGraphs;
+  }
+
+  /**
+   * Returns whether some sentences of the comment have not been parsed because they exceed the
+   * parsing limits (see {@link StanfordParser#parse(List)}).
+   *
+   * @return true if some sentences of the comment have no semantic graph, false otherwise
+   */
+  boolean isTruncated() {
+    return semanticGraphs.size() < taggedSentences.size();
+  }
+
+  /**
+   * Returns the inequalities replaced by placeholders. The i-th inequality corresponds to the
+   * placeholder {@code INEQUALITY_i}.
+   *
+   * @return the inequalities replaced by placeholders
+   */
+  List<String> getInequalities() {
+    return inequalities;
+  }
+
+  /**
+   * Returns a rough estimate of the bytes retained by this object.
+   *
+   * @return a rough estimate of the bytes retained by this object
+   */
+  long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+}
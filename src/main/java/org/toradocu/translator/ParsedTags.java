@@ -0,0 +1,107 @@
+package org.toradocu.translator;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+
+/**
+ * Associates block tags with the result of parsing their comments, so that the comment of a tag is
+ * parsed again only if it changes (e.g., during preprocessing). Tags are compared by identity and
+ * are weakly referenced: the entry of a tag is discarded when the tag is no longer used. This class
+ * is thread-safe.
+ */
+final class ParsedTags {
+
+  /** The queue of the references whose tag has been garbage collected. */
+  private final ReferenceQueue<BlockTag> collectedTags = new ReferenceQueue<>();
+
+  /** The parsed comment of each tag, together with the comment it has been computed for. */
+  private final Map<TagReference, Entry> entries = new HashMap<>();
+
+  /**
+   * Returns the parsed comment of the given tag, if the current comment of the tag has already been
+   * parsed for the given parameter names.
+   *
+   * @param tag the tag whose parsed comment is returned
+   * @param parameterNames the names of the parameters of the method the tag belongs to
+   * @return the parsed comment of {@code tag}, or null if it is not available
+   */
+  synchronized ParsedComment get(BlockTag tag, List<String> parameterNames) {
+    expungeCollectedTags();
+    final Entry entry = entries.get(new TagReference(tag, null));
+    if (entry == null
+        || !entry.comment.equals(tag.getComment())
+        || !entry.parsedComment.getParameterNames().equals(parameterNames)) {
+      return null;
+    }
+    return entry.parsedComment;
+  }
+
+  /**
+   * Associates the given tag with the result of parsing its current comment.
+   *
+   * @param tag the tag whose comment has been parsed
+   * @param parsedComment the result of parsing the current comment of {@code tag}
+   */
+  synchronized void put(BlockTag tag, ParsedComment parsedComment) {
+    expungeCollectedTags();
+    entries.put(new TagReference(tag, collectedTags), new Entry(tag.getComment(), parsedComment));
+  }
+
+  /** Removes the entries of the tags that have been garbage collected. */
+  private void expungeCollectedTags() {
+    Reference<? extends BlockTag> reference;
+    while ((reference = collectedTags.poll()) != null) {
+      entries.remove(reference);
+    }
+  }
+
+  /** A weak reference to a tag, which is equal only to the references to the same tag. */
+  private static final class TagReference extends WeakReference<BlockTag> {
+
+    /** The identity hash code of the referenced tag. */
+    private final int hashCode;
+
+    TagReference(BlockTag tag, ReferenceQueue<BlockTag> queue) {
+      super(tag, queue);
+      hashCode = System.identityHashCode(tag);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof TagReference)) {
+        return false;
+      }
+      final BlockTag tag = get();
+      return tag != null && tag == ((TagReference) obj).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** The result of parsing a comment of a tag. */
+  private static final class Entry {
+
+    /** The comment that has been parsed. */
+    private final Comment comment;
+
+    /** The result of parsing {@code comment}. */
+    private final ParsedComment parsedComment;
+
+    Entry(Comment comment, ParsedComment parsedComment) {
+      this.comment = comment;
+      this.parsedComment = parsedComment;
+    }
+  }
+}
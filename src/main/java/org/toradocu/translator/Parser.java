@@ -6,84 +6,264 @@ import edu.stanford.nlp.ling.HasWord;
 import edu.stanford.nlp.ling.TaggedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import org.toradocu.conf.CacheScope;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.util.LruCache;
 
 /**
  * Created by arianna on 18/05/17.
  *
  * <p>The Parser must extract the {@code PropositionSerie}s from a {@code BlockTag} comment. Thus,
  * it interacts with the Stanford Parser in order to produce the {@code SemanticGraph}. It holds a
- * {@code SemanticGraph}s cache which maps each comment to its {@code SemanticGraph}.
+ * bounded cache which maps each comment to its {@code SemanticGraph}s. The size, the retained
+ * memory, and the scope of the cache are configured with {@link Configuration}.
  */
 public class Parser {
 
-  /** The regular expressions used to identify patterns in the comment */
-  private static final String INEQUALITY_NUMBER_REGEX =
-      " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)";
+  /**
+   * Stores the cache of parsed comments. The cache is created lazily according to the
+   * configuration, and is null when it has not been created yet or when caching is disabled.
+   */
+  private static LruCache<CommentKey, ParsedComment> parsedComments;
 
-  private static final String INEQUALITY_NULL_REGEX = "([=]=?|!=) ?null";
+  /** Stores the result of parsing the comment of each tag, until the comment changes. */
+  private static final ParsedTags parsedTags = new ParsedTags();
 
-  private static final String GENERIC_TYPE_REGEX = " *(<T>)";
+  /**
+   * Whether the current thread used a comment with sentences exceeding the parsing limits since the
+   * last call to {@link #startTranslation()}.
+   */
+  private static final ThreadLocal<Boolean> budgetExceeded =
+      ThreadLocal.withInitial(() -> Boolean.FALSE);
 
-  private static final String RANGE_VAR_REGEX =
-      " * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)";
+  /** The maximum number of tokens of a parsed sentence when the cache was created. */
+  private static int cacheMaxTokens;
 
-  private static final String INEQUALITY_VAR_REGEX =
-      " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?";
-  private static final String PLACEHOLDER_PREFIX = " INEQUALITY_";
-  private static final String INEQ_INSOF =
-      "(?<!has )(?<!have )an (instance of)"; // e.g "an instance of"
-  private static final String INEQ_INSOFPROCESSED =
-      " instanceof +[^ \\.]*"; // e.g. "instanceof BinaryMutation"
-  private static final String INEQ_THIS = "(?<!of) this\\."; // e.g "<object> is this."
+  /** The timeout of the Stanford parser when the cache was created. */
+  private static long cacheTimeout;
 
-  /** Stores the inequalities that are replaced by placeholders when addPlaceholders is called. */
-  private static List<String> inequalities = new ArrayList<>();
+  private Parser() {}
+
+  /**
+   * Notifies the parser that a new run of Toradocu is starting. Unless the scope of the cache is
+   * {@link CacheScope#GLOBAL}, the cache is discarded together with its statistics, and it is
+   * created again according to the current configuration. The cache is discarded also when the
+   * parsing limits changed since it was created, because the comments parsed with the old limits
+   * could lack some sentences, or include sentences that exceed the new limits.
+   */
+  public static synchronized void startRun() {
+    if (parsedComments == null
+        || Configuration.INSTANCE.getParserCacheScope() != CacheScope.GLOBAL
+        || parsingLimitsChanged()) {
+      parsedComments = createCache();
+    }
+  }
 
-  /** Stores the cache of semantic graphs for each pair method-comment. */
-  private static Map<MethodComment, List<SemanticGraph>> graphsCache = new HashMap<>();
+  /**
+   * Checks whether the parsing limits of the configuration changed since the cache was created.
+   *
+   * @return true if the parsing limits changed, false otherwise
+   */
+  private static boolean parsingLimitsChanged() {
+    final Configuration configuration = Configuration.INSTANCE;
+    return configuration.getParserMaxTokens() != cacheMaxTokens
+        || configuration.getParserTimeout() != cacheTimeout;
+  }
 
-  private Parser() {}
+  /**
+   * Notifies the parser that the comments of a new class are going to be parsed. If the scope of
+   * the cache is {@link CacheScope#CLASS}, the cache is cleared.
+   */
+  static synchronized void startClass() {
+    if (parsedComments != null
+        && Configuration.INSTANCE.getParserCacheScope() == CacheScope.CLASS) {
+      parsedComments.clear();
+    }
+  }
+
+  /**
+   * Notifies the parser that the current thread is starting the translation of a comment. See
+   * {@link #isBudgetExceeded()}.
+   */
+  static void startTranslation() {
+    budgetExceeded.set(Boolean.FALSE);
+  }
+
+  /**
+   * Returns whether a comment parsed by the current thread since the last call to {@link
+   * #startTranslation()} has sentences that were not parsed because they exceed the parsing limits
+   * (see {@link Configuration#getParserMaxTokens()} and {@link Configuration#getParserTimeout()}).
+   * The result of such a translation depends on the parsing limits rather than on the comment only,
+   * and must not be stored in persistent caches.
+   *
+   * @return true if the parsing limits have been exceeded since the translation started
+   */
+  static boolean isBudgetExceeded() {
+    return budgetExceeded.get();
+  }
+
+  /**
+   * Returns the statistics of the cache of parsed comments.
+   *
+   * @return the statistics of the cache of parsed comments, or null if caching is disabled
+   */
+  public static synchronized LruCache.Statistics getCacheStatistics() {
+    return parsedComments == null ? null : parsedComments.getStatistics();
+  }
+
+  /**
+   * Creates a new cache of parsed comments according to the configuration.
+   *
+   * @return a new cache of parsed comments, or null if caching is disabled
+   */
+  private static LruCache<CommentKey, ParsedComment> createCache() {
+    final Configuration configuration = Configuration.INSTANCE;
+    cacheMaxTokens = configuration.getParserMaxTokens();
+    cacheTimeout = configuration.getParserTimeout();
+    final int size = configuration.getParserCacheSize();
+    if (size <= 0) {
+      return null;
+    }
+    final long maxBytes = configuration.getParserCacheMaxBytes();
+    return new LruCache<>(
+        size,
+        maxBytes > 0 ? maxBytes : Long.MAX_VALUE,
+        ParsedComment::getEstimatedBytes,
+        configuration.isParserCacheSoftReferences());
+  }
+
+  /**
+   * Returns the cache of parsed comments, creating it if this is the first use of the parser.
+   *
+   * @return the cache of parsed comments, or null if caching is disabled
+   */
+  private static synchronized LruCache<CommentKey, ParsedComment> getCache() {
+    if (parsedComments == null) {
+      parsedComments = createCache();
+    }
+    return parsedComments;
+  }
+
+  /**
+   * Parses the comment of the given tag. The result is associated with the tag, so that the comment
+   * is parsed again only if it changes (e.g., during preprocessing).
+   *
+   * @param tag the tag whose comment is parsed
+   * @param method the DocumentedExecutable the tag belongs to
+   * @return the parsed comment
+   */
+  private static ParsedComment parse_(BlockTag tag, DocumentedExecutable method) {
+    final List<String> parameterNames = parameterNamesOf(method);
+    ParsedComment parsedComment = parsedTags.get(tag, parameterNames);
+    if (parsedComment == null) {
+      parsedComment = parse_(tag.getComment(), parameterNames);
+      parsedTags.put(tag, parsedComment);
+    }
+    return checkBudget(parsedComment);
+  }
+
+  /**
+   * Parses the given text of the comment of a tag (e.g., a preprocessed or partial comment). The
+   * result associated with the tag is reused if the text is the comment of the tag and no words of
+   * the comment are marked as code, since words marked as code are tagged differently.
+   *
+   * @param tag the tag whose comment the text comes from
+   * @param text the text to parse
+   * @param method the DocumentedExecutable the tag belongs to
+   * @return the parsed text
+   */
+  private static ParsedComment parse_(BlockTag tag, String text, DocumentedExecutable method) {
+    final Comment comment = new Comment(text);
+    return comment.equals(tag.getComment())
+        ? parse_(tag, method)
+        : parse_(comment, parameterNamesOf(method));
+  }
 
   /**
-   * Store in cache the semantic graphs for a pair comment, method.
+   * Parses the given comment, using the cache if possible.
    *
    * @param comment the comment object
-   * @param method the DocumentedExecutable
+   * @param parameterNames the names of the parameters of the method the comment belongs to
+   * @return the parsed comment
    */
-  private static List<SemanticGraph> parse_(Comment comment, DocumentedExecutable method) {
-    // Check if cache contains a valid answer.
-    MethodComment key = new MethodComment(comment, method);
-    if (graphsCache.containsKey(key)) {
-      return graphsCache.get(key);
+  private static ParsedComment parse_(Comment comment, List<String> parameterNames) {
+    final CommentKey key = new CommentKey(comment, parameterNames);
+    final LruCache<CommentKey, ParsedComment> cache = getCache();
+    return checkBudget(cache == null ? parse_(key) : cache.computeIfAbsent(key, Parser::parse_));
+  }
+
+  /**
+   * Records whether the given parsed comment exceeded the parsing limits, so that {@link
+   * #isBudgetExceeded()} reports it also when the comment comes from a cache.
+   *
+   * @param parsedComment the parsed comment used by the current thread
+   * @return {@code parsedComment}
+   */
+  private static ParsedComment checkBudget(ParsedComment parsedComment) {
+    if (parsedComment.isTruncated()) {
+      budgetExceeded.set(Boolean.TRUE);
     }
+    return parsedComment;
+  }
 
+  /**
+   * Produces the semantic graphs of the sentences in the comment identified by {@code key}.
+   *
+   * @param key the comment and the names of the parameters of its method
+   * @return the parsed comment
+   */
+  private static ParsedComment parse_(CommentKey key) {
+    final Comment comment = key.comment;
+    final PlaceholderText placeholderText = PlaceholderText.of(comment.getText());
+    final List<String> inequalities = placeholderText.getInequalities();
+    Comment commentWithPlaceholders =
+        new Comment(placeholderText.getText(), comment.getWordsMarkedAsCode());
+
+    List<List<TaggedWord>> taggedSentences = new ArrayList<>();
     List<SemanticGraph> graphs = new ArrayList<>();
-    Comment commentWithPlaceholders = addPlaceholders(comment);
-    List<String> arguments = new ArrayList<>();
-    if (method != null) {
-      // Collect method arguments
-      arguments =
-          method.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
-    }
     // Extract sentences in comment with placeholders
     final List<List<HasWord>> sentences =
         StanfordParser.tokenize(commentWithPlaceholders.getText());
     for (List<HasWord> sentence : sentences) {
       final List<TaggedWord> taggedWords =
           POSTagger.tagWords(
-              comment, commentWithPlaceholders.getText(), inequalities, sentence, arguments);
+              comment,
+              commentWithPlaceholders.getText(),
+              inequalities,
+              sentence,
+              key.parameterNames);
+      taggedSentences.add(taggedWords);
       final SemanticGraph semanticGraph = StanfordParser.parse(taggedWords);
-      graphs.add(semanticGraph);
+      if (semanticGraph != null) { // Null when the sentence exceeds the parsing budget.
+        graphs.add(semanticGraph);
+      }
+    }
+    return new ParsedComment(
+        key.parameterNames,
+        commentWithPlaceholders.getText(),
+        inequalities,
+        taggedSentences,
+        graphs);
+  }
+
+  /**
+   * Returns the names of the parameters of the given method.
+   *
+   * @param method the DocumentedExecutable, can be null
+   * @return the names of the parameters of {@code method}, or an empty list if {@code method} is
+   *     null
+   */
+  private static List<String> parameterNamesOf(DocumentedExecutable method) {
+    if (method == null) {
+      return new ArrayList<>();
     }
-    graphsCache.put(new MethodComment(comment, method), graphs);
-    return graphs;
+    return method.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
   }
 
   /**
@@ -96,141 +276,88 @@ public class Parser {
    */
   // TODO Move this to a new class PropositionIdentifier that handles Proposition.
   public static List<PropositionSeries> parse(Comment comment, DocumentedExecutable method) {
-    List<PropositionSeries> result = new ArrayList<>();
-    List<SemanticGraph> semanticGraphs = parse_(comment, method);
-    for (SemanticGraph semanticGraph : semanticGraphs) {
-      result.add(new SentenceParser(semanticGraph).getPropositionSeries());
-    }
-    return removePlaceholders(result);
+    return propositionSeriesOf(parse_(comment, parameterNamesOf(method)));
   }
 
   /**
-   * Verifies if the comment contains a verb among the {@code possibleVerbs}. If it doesn't, the
-   * verb is assumed to be "is" and is added to the comment.
+   * Takes a tag and returns a list of {@code PropositionSeries} objects, one for each sentence in
+   * the comment of the tag. The comment is parsed only once, until it changes. {@code
+   * PropositionSeries} are instead created anew at each call, since translators modify them.
    *
-   * @param placeholderText the comment text containing placeholders
-   * @param i counter of the placeholders in the text
-   * @return the placeholderText, updated with the added verb or as it was if it already had one
+   * @param tag the tag whose comment is parsed
+   * @param method the DocumentedExecutable the tag belongs to
+   * @return a list of {@code PropositionSeries} objects, one for each sentence in the comment
    */
-  private static String findVerb(String placeholderText, int i) {
-    // Verbs that could appear before (the inequality, or the keyword this, etc.).
-    // One of these most be present and will be added otherwise.
-    String[] possibleVerbs = {"is", "is not", "isn't", "are", "are not", "aren't"};
-    boolean containsVerb = false;
-    for (String possibleVerb : possibleVerbs) {
-      if (placeholderText.contains(possibleVerb + PLACEHOLDER_PREFIX + i)) {
-        containsVerb = true;
-        break;
-      }
-    }
-    if (!containsVerb) {
-      // The verb is assumed to be "is" and will be added to the text.
-      placeholderText =
-          placeholderText.replaceFirst(PLACEHOLDER_PREFIX + i, " is" + PLACEHOLDER_PREFIX + i);
-    }
-    return placeholderText;
+  public static List<PropositionSeries> parse(BlockTag tag, DocumentedExecutable method) {
+    return propositionSeriesOf(parse_(tag, method));
   }
 
-  private static Comment addPlaceholders(Comment comment) {
-
-    ArrayList<String> contentToIgnore = new ArrayList<>();
-
-    String text =
-        comment
-            .getText()
-            .replace("greater than or equal to", ">=")
-            .replace("greater or equal to", ">=")
-            .replace("≥", ">=")
-            .replace("less than or equal to", "<=")
-            .replace("lesser than or equal to", "<=")
-            .replace("lesser or equal to", "<=")
-            .replace("smaller than or equal to", "<=")
-            .replace("lower than or equal to", "<=")
-            .replace("≤", "<=")
-            .replace("greater than", ">")
-            .replace("smaller than", "<")
-            .replace("less than", "<")
-            .replace("lesser than", "<")
-            .replace("lower than", "<")
-            .replace("equal to", "==");
-
-    java.util.regex.Matcher matcherInstanceOf = Pattern.compile(INEQ_INSOF).matcher(text);
-
-    java.util.regex.Matcher matcherThis = Pattern.compile(INEQ_THIS).matcher(text);
-
-    java.util.regex.Matcher matcherGeneric = Pattern.compile(GENERIC_TYPE_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherRangeVar = Pattern.compile(RANGE_VAR_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherVarComp = Pattern.compile(INEQUALITY_VAR_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherIneqNumber =
-        Pattern.compile(INEQUALITY_NUMBER_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherIneqNull = Pattern.compile(INEQUALITY_NULL_REGEX).matcher(text);
-
-    while (matcherInstanceOf.find()) {
-      // Instance of added to the comparator list
-      // Replace "[an] instance of" with "instanceof"
-      text = text.replaceFirst(INEQ_INSOF, " instanceof");
-    }
-
-    java.util.regex.Matcher matcherIOfProcessed =
-        Pattern.compile(INEQ_INSOFPROCESSED).matcher(text);
-    String placeholderText = text;
-    int i = 0;
-
-    while (matcherIOfProcessed.find()) {
-      // Specific case for the instance of placeholder. We put into inequalities the instanceof and
-      // the name of the class.
-      inequalities.add(text.substring(matcherIOfProcessed.start(), matcherIOfProcessed.end()));
-      placeholderText = placeholderText.replaceFirst(INEQ_INSOFPROCESSED, PLACEHOLDER_PREFIX + i++);
-    }
-
-    while (matcherThis.find()) {
-      inequalities.add(text.substring(matcherThis.start(), matcherThis.end()));
-      placeholderText = placeholderText.replaceFirst(INEQ_THIS, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
-
-    while (matcherGeneric.find()) {
-      placeholderText = placeholderText.replaceFirst(GENERIC_TYPE_REGEX, "IGNORE_ME");
-      contentToIgnore.add(matcherGeneric.group(0));
-    }
-
-    while (matcherRangeVar.find()) {
-      placeholderText = placeholderText.replaceFirst(RANGE_VAR_REGEX, "IGNORE_ME");
-      contentToIgnore.add(matcherRangeVar.group(0));
-    }
+  /**
+   * Takes a text of the comment of a tag and returns a list of {@code PropositionSeries} objects,
+   * one for each sentence in the text. If the text is the comment of the tag, and marks no words as
+   * code, the parsed comment of the tag is reused.
+   *
+   * @param tag the tag whose comment the text comes from
+   * @param text the text to parse
+   * @param method the DocumentedExecutable the tag belongs to
+   * @return a list of {@code PropositionSeries} objects, one for each sentence in the text
+   */
+  public static List<PropositionSeries> parse(
+      BlockTag tag, String text, DocumentedExecutable method) {
+    return propositionSeriesOf(parse_(tag, text, method));
+  }
 
-    while (matcherIneqNumber.find()) {
-      inequalities.add(text.substring(matcherIneqNumber.start(), matcherIneqNumber.end()));
-      placeholderText =
-          placeholderText.replaceFirst(INEQUALITY_NUMBER_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
+  /**
+   * Returns the semantic graphs of the sentences in the given comment.
+   *
+   * @param comment object representing a Javadoc comment
+   * @param method the DocumentedExecutable under analysis
+   * @return the (unmodifiable) list of semantic graphs of the sentences in the comment
+   */
+  public static List<SemanticGraph> getSemanticGraphs(
+      Comment comment, DocumentedExecutable method) {
+    return parse_(comment, parameterNamesOf(method)).getSemanticGraphs();
+  }
 
-    while (matcherIneqNull.find()) {
-      inequalities.add(text.substring(matcherIneqNull.start(), matcherIneqNull.end()));
-      placeholderText = placeholderText.replaceFirst(INEQUALITY_NULL_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
+  /**
+   * Returns the semantic graphs of the sentences in the comment of the given tag. The comment is
+   * parsed only once, until it changes.
+   *
+   * @param tag the tag whose comment is parsed
+   * @param method the DocumentedExecutable the tag belongs to
+   * @return the (unmodifiable) list of semantic graphs of the sentences in the comment
+   */
+  public static List<SemanticGraph> getSemanticGraphs(BlockTag tag, DocumentedExecutable method) {
+    return parse_(tag, method).getSemanticGraphs();
+  }
 
-    while (matcherVarComp.find()) {
-      inequalities.add(text.substring(matcherVarComp.start(), matcherVarComp.end()));
-      placeholderText = placeholderText.replaceFirst(INEQUALITY_VAR_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
+  /**
+   * Returns the semantic graphs of the sentences in the given text of the comment of a tag. If the
+   * text is the comment of the tag, and marks no words as code, the parsed comment of the tag is
+   * reused.
+   *
+   * @param tag the tag whose comment the text comes from
+   * @param text the text to parse
+   * @param method the DocumentedExecutable the tag belongs to
+   * @return the (unmodifiable) list of semantic graphs of the sentences in the text
+   */
+  public static List<SemanticGraph> getSemanticGraphs(
+      BlockTag tag, String text, DocumentedExecutable method) {
+    return parse_(tag, text, method).getSemanticGraphs();
+  }
 
-    for (String ignoredString : contentToIgnore) {
-      placeholderText = placeholderText.replaceFirst("IGNORE_ME", ignoredString);
+  /**
+   * Creates the {@code PropositionSeries} of the sentences in the given parsed comment.
+   *
+   * @param parsedComment the parsed comment
+   * @return a list of {@code PropositionSeries} objects, one for each sentence in the comment
+   */
+  private static List<PropositionSeries> propositionSeriesOf(ParsedComment parsedComment) {
+    List<PropositionSeries> result = new ArrayList<>();
+    for (SemanticGraph semanticGraph : parsedComment.getSemanticGraphs()) {
+      result.add(new SentenceParser(semanticGraph).getPropositionSeries());
     }
-
-    return new Comment(placeholderText, comment.getWordsMarkedAsCode());
+    return removePlaceholders(result, parsedComment.getInequalities());
   }
 
   /**
@@ -239,9 +366,11 @@ public class Parser {
    * are replaced by their symbolic equivalent (e.g. "<").
    *
    * @param seriesList the list of {@code PropositionSeries} containing placeholder text
+   * @param inequalities the inequalities replaced by placeholders, in placeholder order
    * @return a new list of {@code PropositionSeries} with placeholders replaced by inequalities
    */
-  private static List<PropositionSeries> removePlaceholders(List<PropositionSeries> seriesList) {
+  private static List<PropositionSeries> removePlaceholders(
+      List<PropositionSeries> seriesList, List<String> inequalities) {
     List<PropositionSeries> result = new ArrayList<>();
 
     for (PropositionSeries series : seriesList) {
@@ -249,13 +378,10 @@ public class Parser {
       List<Proposition> inequalityPropositions = new ArrayList<>();
       for (Proposition placeholderProposition : series.getPropositions()) {
         Subject subject = placeholderProposition.getSubject();
-        String subjectAsString = subject.getSubject();
-        String predicate = placeholderProposition.getPredicate();
-
-        for (int i = 0; i < inequalities.size(); i++) {
-          subjectAsString = subjectAsString.replaceAll(PLACEHOLDER_PREFIX + i, inequalities.get(i));
-          predicate = predicate.replaceAll(PLACEHOLDER_PREFIX + i, inequalities.get(i));
-        }
+        String subjectAsString =
+            PlaceholderText.removePlaceholders(subject.getSubject(), inequalities);
+        String predicate =
+            PlaceholderText.removePlaceholders(placeholderProposition.getPredicate(), inequalities);
         subject.setSubject(subjectAsString); // Replace subject string representation.
 
         inequalityPropositions.add(
@@ -266,44 +392,37 @@ public class Parser {
       result.add(newSeries);
     }
 
-    inequalities.clear();
     return result;
   }
-}
-
-/** This class ties a String comment to its DocumentedMethod. */
-class MethodComment {
-  private Comment comment;
-  private DocumentedExecutable method;
-
-  public MethodComment(Comment comment, DocumentedExecutable method) {
-    this.comment = comment;
-    this.method = method;
-  }
-
-  public Comment getComment() {
-    return comment;
-  }
 
-  public DocumentedExecutable getMethod() {
-    return method;
-  }
-
-  @Override
-  public boolean equals(Object o) {
-    if (this == o) return true;
-    if (o == null || getClass() != o.getClass()) return false;
+  /**
+   * Key of the cache of parsed comments. The semantic graphs of a comment depend only on the
+   * comment and on the names of the parameters of the method the comment belongs to, and thus the
+   * key does not retain the method itself.
+   */
+  private static final class CommentKey {
+    private final Comment comment;
+    private final List<String> parameterNames;
+    private final int hashCode;
+
+    private CommentKey(Comment comment, List<String> parameterNames) {
+      this.comment = comment;
+      this.parameterNames = parameterNames;
+      this.hashCode = Objects.hash(comment, parameterNames);
+    }
 
-    MethodComment that = (MethodComment) o;
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
 
-    if (comment != null ? !comment.equals(that.comment) : that.comment != null) return false;
-    return method != null ? method.equals(that.method) : that.method == null;
-  }
+      CommentKey that = (CommentKey) o;
+      return comment.equals(that.comment) && parameterNames.equals(that.parameterNames);
+    }
 
-  @Override
-  public int hashCode() {
-    int result = comment != null ? comment.hashCode() : 0;
-    result = 31 * result + (method != null ? method.hashCode() : 0);
-    return result;
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
   }
 }
@@ -0,0 +1,310 @@
+package org.toradocu.translator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The text of a comment in which inequalities (e.g. "&gt;= 0", "== null", "instanceof Foo") are
+ * replaced by placeholders, together with the list of replaced inequalities. Placeholders are
+ * tagged as adjectives by the {@link POSTagger}, so that the Stanford parser does not split
+ * inequalities into separate tokens.
+ *
+ * <p>The placeholder text is computed with precompiled regular expressions, matching each of them
+ * once against the comment and emitting the resulting text in a single scan. Placeholders are
+ * numbered in order of insertion, and the i-th element of {@link #getInequalities()} is the text
+ * replaced by the placeholder {@code INEQUALITY_i}.
+ */
+final class PlaceholderText {
+
+  /** Prefix of every placeholder inserted in the comment text. */
+  static final String PLACEHOLDER_PREFIX = " INEQUALITY_";
+
+  /** Pattern that matches a placeholder and captures its number. */
+  static final Pattern PLACEHOLDER = Pattern.compile(PLACEHOLDER_PREFIX + "([0-9]+)");
+
+  /**
+   * Phrases that are rewritten as symbols before placeholders are inserted. Order matters: when
+   * more phrases start at the same position in the text, the first one in this array wins.
+   */
+  private static final String[][] PHRASES = {
+    {"greater than or equal to", ">="},
+    {"greater or equal to", ">="},
+    {"≥", ">="},
+    {"less than or equal to", "<="},
+    {"lesser than or equal to", "<="},
+    {"lesser or equal to", "<="},
+    {"smaller than or equal to", "<="},
+    {"lower than or equal to", "<="},
+    {"≤", "<="},
+    {"greater than", ">"},
+    {"smaller than", "<"},
+    {"less than", "<"},
+    {"lesser than", "<"},
+    {"lower than", "<"},
+    {"equal to", "=="}
+  };
+
+  /** Maps each phrase in {@link #PHRASES} to its symbolic rewriting. */
+  private static final Map<String, String> PHRASE_REWRITINGS = new HashMap<>();
+
+  /** Alternation of all the phrases in {@link #PHRASES}, in priority order. */
+  private static final Pattern PHRASE;
+
+  static {
+    StringBuilder alternation = new StringBuilder();
+    for (String[] phrase : PHRASES) {
+      PHRASE_REWRITINGS.put(phrase[0], phrase[1]);
+      if (alternation.length() > 0) {
+        alternation.append('|');
+      }
+      alternation.append(Pattern.quote(phrase[0]));
+    }
+    PHRASE = Pattern.compile(alternation.toString());
+  }
+
+  /** Matches "an instance of" when it is not preceded by "has" or "have". */
+  private static final Pattern INSTANCE_OF = Pattern.compile("(?<!has )(?<!have )an (instance of)");
+
+  /** Matches an instanceof check, e.g. "instanceof BinaryMutation". */
+  private static final Pattern INSTANCE_OF_PROCESSED = Pattern.compile(" instanceof +[^ \\.]*");
+
+  /** Matches a reference to this object, e.g. "&lt;object&gt; is this.". */
+  private static final Pattern THIS = Pattern.compile("(?<!of) this\\.");
+
+  /** Matches a generic type parameter. */
+  private static final Pattern GENERIC_TYPE = Pattern.compile(" *(<T>)");
+
+  /** Matches a range with a variable, e.g. "0 &lt;= index &lt; size". */
+  private static final Pattern RANGE_VAR =
+      Pattern.compile(" * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)");
+
+  /** Matches an inequality with a number, e.g. "&gt;= 0" or "&lt; one". */
+  private static final Pattern INEQUALITY_NUMBER =
+      Pattern.compile(
+          " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)");
+
+  /** Matches an inequality with null, e.g. "== null". */
+  private static final Pattern INEQUALITY_NULL = Pattern.compile("([=]=?|!=) ?null");
+
+  /** Matches an inequality with a variable, e.g. "&lt;= size". */
+  private static final Pattern INEQUALITY_VAR =
+      Pattern.compile(
+          " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?");
+
+  /** Rules applied to the comment text, in priority order. */
+  private static final Rule[] RULES = {
+    new Rule(INSTANCE_OF_PROCESSED, RuleKind.PLACEHOLDER),
+    new Rule(THIS, RuleKind.PLACEHOLDER_WITH_VERB),
+    new Rule(GENERIC_TYPE, RuleKind.IGNORE),
+    new Rule(RANGE_VAR, RuleKind.IGNORE),
+    new Rule(INEQUALITY_NUMBER, RuleKind.PLACEHOLDER_WITH_VERB),
+    new Rule(INEQUALITY_NULL, RuleKind.PLACEHOLDER_WITH_VERB),
+    new Rule(INEQUALITY_VAR, RuleKind.PLACEHOLDER_WITH_VERB)
+  };
+
+  /**
+   * Verbs that could appear before an inequality placeholder. If none of them is present, the verb
+   * "is" is added before the placeholder.
+   */
+  private static final String[] VERBS = {"is", "is not", "isn't", "are", "are not", "aren't"};
+
+  /** The comment text with placeholders. */
+  private final String text;
+
+  /** The inequalities replaced by placeholders, in placeholder order. */
+  private final List<String> inequalities;
+
+  private PlaceholderText(String text, List<String> inequalities) {
+    this.text = text;
+    this.inequalities = Collections.unmodifiableList(inequalities);
+  }
+
+  /**
+   * Returns the comment text with placeholders.
+   *
+   * @return the comment text with placeholders
+   */
+  String getText() {
+    return text;
+  }
+
+  /**
+   * Returns the inequalities replaced by placeholders. The i-th inequality corresponds to the
+   * placeholder {@code INEQUALITY_i}.
+   *
+   * @return the inequalities replaced by placeholders
+   */
+  List<String> getInequalities() {
+    return inequalities;
+  }
+
+  /**
+   * Replaces inequalities in the given comment text with placeholders. Inequalities written out
+   * (e.g. "less than") are first rewritten with their symbolic equivalent (e.g. "&lt;").
+   *
+   * <p>Every rule in {@link #RULES} is matched once against the rewritten text. A match is ignored
+   * when it overlaps the match of a previous rule. Placeholders are then emitted in a single scan
+   * of the text.
+   *
+   * @param commentText the text of a comment
+   * @return the text with placeholders and the list of replaced inequalities
+   */
+  static PlaceholderText of(String commentText) {
+    String text = rewritePhrases(commentText);
+    text = INSTANCE_OF.matcher(text).replaceAll(" instanceof");
+
+    final List<String> inequalities = new ArrayList<>();
+    final List<Replacement> replacements = new ArrayList<>();
+    final BitSet replaced = new BitSet(text.length());
+    for (Rule rule : RULES) {
+      Matcher matcher = rule.pattern.matcher(text);
+      while (matcher.find()) {
+        final int start = matcher.start();
+        final int end = matcher.end();
+        int nextReplaced = replaced.nextSetBit(start);
+        if (nextReplaced != -1 && nextReplaced < end) {
+          continue; // Overlaps the match of a previous rule.
+        }
+        replaced.set(start, end);
+        int placeholder = -1;
+        if (rule.kind != RuleKind.IGNORE) {
+          placeholder = inequalities.size();
+          inequalities.add(matcher.group());
+        }
+        replacements.add(new Replacement(start, end, placeholder, rule.kind));
+      }
+    }
+    if (replacements.isEmpty()) {
+      return new PlaceholderText(text, inequalities);
+    }
+
+    replacements.sort(Comparator.comparingInt(r -> r.start));
+    StringBuilder result = new StringBuilder(text.length() + 16 * inequalities.size());
+    int last = 0;
+    for (Replacement replacement : replacements) {
+      result.append(text, last, replacement.start);
+      switch (replacement.kind) {
+        case IGNORE:
+          result.append(text, replacement.start, replacement.end);
+          break;
+        case PLACEHOLDER_WITH_VERB:
+          if (!endsWithVerb(result)) {
+            result.append(" is");
+          }
+          result.append(PLACEHOLDER_PREFIX).append(replacement.placeholder);
+          break;
+        case PLACEHOLDER:
+          result.append(PLACEHOLDER_PREFIX).append(replacement.placeholder);
+          break;
+        default:
+          throw new IllegalStateException("Unknown rule kind " + replacement.kind);
+      }
+      last = replacement.end;
+    }
+    result.append(text, last, text.length());
+    return new PlaceholderText(result.toString(), inequalities);
+  }
+
+  /**
+   * Replaces every placeholder in {@code text} with its corresponding inequality.
+   *
+   * @param text a text that may contain placeholders
+   * @param inequalities the inequalities replaced by placeholders, in placeholder order
+   * @return the text with inequalities instead of placeholders
+   */
+  static String removePlaceholders(String text, List<String> inequalities) {
+    if (inequalities.isEmpty() || !text.contains(PLACEHOLDER_PREFIX)) {
+      return text;
+    }
+    StringBuilder result = new StringBuilder(text.length());
+    Matcher matcher = PLACEHOLDER.matcher(text);
+    int last = 0;
+    while (matcher.find()) {
+      int index = Integer.parseInt(matcher.group(1));
+      if (index < inequalities.size()) {
+        result.append(text, last, matcher.start()).append(inequalities.get(index));
+        last = matcher.end();
+      }
+    }
+    return result.append(text, last, text.length()).toString();
+  }
+
+  /**
+   * Rewrites the phrases in {@link #PHRASES} with their symbolic equivalent in a single scan.
+   *
+   * @param text the text in which phrases are rewritten
+   * @return the rewritten text
+   */
+  private static String rewritePhrases(String text) {
+    Matcher matcher = PHRASE.matcher(text);
+    if (!matcher.find()) {
+      return text;
+    }
+    StringBuilder result = new StringBuilder(text.length());
+    int last = 0;
+    do {
+      result.append(text, last, matcher.start()).append(PHRASE_REWRITINGS.get(matcher.group()));
+      last = matcher.end();
+    } while (matcher.find());
+    return result.append(text, last, text.length()).toString();
+  }
+
+  /**
+   * Checks whether {@code text} ends with one of the {@link #VERBS}.
+   *
+   * @param text the text to check
+   * @return true if {@code text} ends with a verb, false otherwise
+   */
+  private static boolean endsWithVerb(StringBuilder text) {
+    for (String verb : VERBS) {
+      int start = text.length() - verb.length();
+      if (start >= 0 && text.indexOf(verb, start) == start) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** What to do with the text matched by a {@link Rule}. */
+  private enum RuleKind {
+    /** Replace the text with a placeholder. */
+    PLACEHOLDER,
+    /** Replace the text with a placeholder, adding the verb "is" before it if there is no verb. */
+    PLACEHOLDER_WITH_VERB,
+    /** Keep the text as is, so that it is not matched by subsequent rules. */
+    IGNORE
+  }
+
+  /** A pattern that identifies text to replace, and what to do with the matched text. */
+  private static final class Rule {
+    private final Pattern pattern;
+    private final RuleKind kind;
+
+    private Rule(Pattern pattern, RuleKind kind) {
+      this.pattern = pattern;
+      this.kind = kind;
+    }
+  }
+
+  /** A region of the text matched by a rule. */
+  private static final class Replacement {
+    private final int start;
+    private final int end;
+    private final int placeholder;
+    private final RuleKind kind;
+
+    private Replacement(int start, int end, int placeholder, RuleKind kind) {
+      this.start = start;
+      this.end = end;
+      this.placeholder = placeholder;
+      this.kind = kind;
+    }
+  }
+}
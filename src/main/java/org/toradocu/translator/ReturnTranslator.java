@@ -11,9 +11,11 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 import org.toradocu.conf.Configuration;
@@ -25,15 +27,54 @@ import randoop.condition.specification.Guard;
 import randoop.condition.specification.PostSpecification;
 import randoop.condition.specification.Property;
 
+/**
+ * Translates @return comments. The comment is split into the sub-sentences linked by an "or"
+ * conjunction, each sub-sentence is translated according to the "standard pattern" (when it
+ * contains an "if") or not, and the translations are finally merged. A sub-sentence is not
+ * translated when its translation would be discarded by the merge.
+ *
+ * <p>A {@code ReturnTranslator} holds the state shared by all the translation attempts of a
+ * comment: the same fragment of a comment (e.g., the first part of the standard pattern) is tried
+ * with several strategies (predicate match, code element match), but it is parsed only once, and
+ * all the attempts use the same {@link Matcher}.
+ */
 public class ReturnTranslator {
 
+  private static final Pattern ARITHMETIC_OP =
+      Pattern.compile("([a-zA-Z0-9_]+) ?([-+*/%]) ?([a-zA-Z0-9_]+)");
+  private static final Pattern BITWISE_OP =
+      Pattern.compile("([a-zA-Z0-9_]+) ?(<<<?|>>>?) ?([a-zA-Z0-9_]+)");
+  private static final Pattern BINARY_OP =
+      Pattern.compile("([a-zA-Z0-9_]+) ?(\\^|&|\\|) ?([a-zA-Z0-9_]+)");
+
+  /** Code element representing the value returned by the method. */
+  private static final CodeElement<?> RETURN_VALUE =
+      new GeneralCodeElement(Configuration.RETURN_VALUE);
+
+  /** Matcher used by all the translation attempts of the comment. */
+  private final Matcher matcher = new Matcher();
+
+  /** Fragments of the comment under translation that have been parsed, and their propositions. */
+  private final Map<String, List<PropositionSeries>> parsedFragments = new HashMap<>();
+
+  /** The tag under translation. */
+  private ReturnTag tag;
+
   public List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
+    parsedFragments.clear();
+    this.tag = tag;
     String commentText = tag.getComment().getText();
     // Manage translation of each sub-sentence linked by the Or conjunction separately
     String[] subSentences = manageOrConjunction(commentText);
     List<List<PostSpecification>> conditions = new ArrayList<>();
 
-    for (String subSentence : subSentences) {
+    // Only the first two sub-sentences are merged (see mergeOrConjunction).
+    for (int i = 0; i < Math.min(subSentences.length, 2); i++) {
+      final String subSentence = subSentences[i];
+      if (i == 1 && conditions.get(0).isEmpty() && !subSentence.contains(" if ")) {
+        // The translation of the second sub-sentence would be discarded.
+        break;
+      }
       // Split the sentence in three parts: predicate + true case + false case.
       // TODO Naive splitting. Make the split more reliable.
       final int predicateSplitPoint = subSentence.indexOf(" if ");
@@ -124,25 +165,25 @@ public class ReturnTranslator {
    * @param matcherOp matcher in which an operation was found
    * @return the translation if any, or an empty String
    */
-  private static String manageArgsOperation(
+  private String manageArgsOperation(
       DocumentedExecutable method, java.util.regex.Matcher matcherOp) {
     String firstFactor = matcherOp.group(1);
     String secFactor = matcherOp.group(3);
     String op = matcherOp.group(2);
 
     CodeElement<?> first = null;
-    Set<CodeElement<?>> subject = new Matcher().subjectMatch(firstFactor, method);
+    Set<CodeElement<?>> subject = matcher.subjectMatch(firstFactor, method);
     if (!subject.isEmpty()) {
       first = subject.stream().findFirst().get();
     }
     if (first != null) {
       CodeElement<?> second = null;
-      subject = new Matcher().subjectMatch(secFactor, method);
+      subject = matcher.subjectMatch(secFactor, method);
       if (!subject.isEmpty()) {
         second = subject.stream().findFirst().get();
       }
       if (second != null) {
-        Type returnType = method.getReturnType().getType();
+        Type returnType = returnTypeOf(method);
         if (checkSameType(method, second)
             && checkSameType(method, first)
             && Reflection.isPrimitive(returnType)) {
@@ -170,7 +211,7 @@ public class ReturnTranslator {
    * @param method the method to which the @return tag belongs to
    * @return the translation of the given {@code text}
    */
-  private static String translateLastPart(String text, DocumentedExecutable method) {
+  private String translateLastPart(String text, DocumentedExecutable method) {
     final String lowerCaseText = text.toLowerCase();
     if (lowerCaseText.contains("true")) {
       return Configuration.RETURN_VALUE + " == true";
@@ -185,20 +226,9 @@ public class ReturnTranslator {
             return Configuration.RETURN_VALUE + ".equals(\"\")";
           }
 
-          final List<PropositionSeries> extractedPropositions =
-              Parser.parse(new Comment(Configuration.RETURN_VALUE + " " + token), method);
-          final List<SemanticGraph> semanticGraphs =
-              extractedPropositions
-                  .stream()
-                  .map(PropositionSeries::getSemanticGraph)
-                  .collect(toList());
-
+          final String returnValueToken = Configuration.RETURN_VALUE + " " + token;
           String translation =
-              tryPredicateMatch(
-                  method,
-                  semanticGraphs,
-                  extractedPropositions,
-                  Configuration.RETURN_VALUE + " " + token);
+              tryPredicateMatch(method, parseFragment(returnValueToken, method), returnValueToken);
           if (translation == null) {
             translation = tryCodeElementMatch(method, token);
           }
@@ -208,7 +238,7 @@ public class ReturnTranslator {
                   translation.substring(translation.indexOf("{") + 1, translation.indexOf("}"));
 
               Set<CodeElement<?>> argMatches;
-              argMatches = new Matcher().subjectMatch(argument, method);
+              argMatches = matcher.subjectMatch(argument, method);
               if (argMatches.isEmpty()) {
                 //            ConditionTranslator.log.trace("Failed predicate translation for: " + p
                 // + " due to variable not found.");
@@ -270,7 +300,7 @@ public class ReturnTranslator {
    * @return the translation of the given {@code text}
    * @throws IllegalArgumentException if the given {@code text} cannot be translated
    */
-  private static String translateFirstPart(String predicate, DocumentedExecutable method) {
+  private String translateFirstPart(String predicate, DocumentedExecutable method) {
     String parsedComment = predicate.trim().toLowerCase().replace(",", "");
     String translation;
     switch (parsedComment) {
@@ -281,16 +311,8 @@ public class ReturnTranslator {
         {
           // No return of type boolean: it must be a more complex boolean condition, or a code
           // element.
-          final List<PropositionSeries> extractedPropositions =
-              Parser.parse(new Comment(parsedComment), method);
-          final List<SemanticGraph> semanticGraphs =
-              extractedPropositions
-                  .stream()
-                  .map(PropositionSeries::getSemanticGraph)
-                  .collect(toList());
-
           translation =
-              tryPredicateMatch(method, semanticGraphs, extractedPropositions, parsedComment);
+              tryPredicateMatch(method, parseFragment(parsedComment, method), parsedComment);
           if (translation == null) {
             translation = tryCodeElementMatch(method, parsedComment);
           } else {
@@ -317,7 +339,7 @@ public class ReturnTranslator {
    * @param predicateSplitPoint index of the "if"
    * @return the translation produced
    */
-  private static List<PostSpecification> returnStandardPattern(
+  private List<PostSpecification> returnStandardPattern(
       DocumentedExecutable method,
       String textToTranslate,
       Comment comment,
@@ -382,8 +404,7 @@ public class ReturnTranslator {
    * @param comment the String comment belonging to the tag
    * @return a String translation if any, or an empty string
    */
-  private static List<PostSpecification> returnNotStandard(
-      DocumentedExecutable method, String comment) {
+  private List<PostSpecification> returnNotStandard(DocumentedExecutable method, String comment) {
     List<PostSpecification> specs = new ArrayList<>();
 
     String translation = null;
@@ -407,21 +428,9 @@ public class ReturnTranslator {
     } else if (falsePatternsMatch) {
       property = new Property(comment, Configuration.RETURN_VALUE + "==false");
     } else {
-
-      final String ARITHMETIC_OP_REGEX = "([a-zA-Z0-9_]+) ?([-+*/%]) ?([a-zA-Z0-9_]+)";
-
-      final String BITWISE_OP_REGEX = "([a-zA-Z0-9_]+) ?(<<<?|>>>?) ?([a-zA-Z0-9_]+)";
-
-      final String BINARY_OP_REGEX = "([a-zA-Z0-9_]+) ?(\\^|&|\\|) ?([a-zA-Z0-9_]+)";
-
-      java.util.regex.Matcher matcherArithmeticOp =
-          Pattern.compile(ARITHMETIC_OP_REGEX).matcher(commentToTranslate);
-
-      java.util.regex.Matcher matcherBitOp =
-          Pattern.compile(BITWISE_OP_REGEX).matcher(commentToTranslate);
-
-      java.util.regex.Matcher matcherBinOp =
-          Pattern.compile(BINARY_OP_REGEX).matcher(commentToTranslate);
+      java.util.regex.Matcher matcherArithmeticOp = ARITHMETIC_OP.matcher(commentToTranslate);
+      java.util.regex.Matcher matcherBitOp = BITWISE_OP.matcher(commentToTranslate);
+      java.util.regex.Matcher matcherBinOp = BINARY_OP.matcher(commentToTranslate);
 
       if (matcherArithmeticOp.find()) {
         translation = manageArgsOperation(method, matcherArithmeticOp);
@@ -435,15 +444,7 @@ public class ReturnTranslator {
         }
       }
       if (translation == null) {
-        final List<PropositionSeries> extractedPropositions =
-            Parser.parse(new Comment(comment), method);
-        final List<SemanticGraph> semanticGraphs =
-            extractedPropositions
-                .stream()
-                .map(PropositionSeries::getSemanticGraph)
-                .collect(toList());
-
-        translation = tryPredicateMatch(method, semanticGraphs, extractedPropositions, comment);
+        translation = tryPredicateMatch(method, parseFragment(comment, method), comment);
         if (translation == null) {
           translation = tryCodeElementMatch(method, comment);
         }
@@ -472,11 +473,11 @@ public class ReturnTranslator {
    * @param method the method to which the condition is referred
    * @return the translation with the right substitution if any, null otherwise
    */
-  private static String extractVariablesFound(String translation, DocumentedExecutable method) {
+  private String extractVariablesFound(String translation, DocumentedExecutable method) {
     String argument = translation.substring(translation.indexOf("{") + 1, translation.indexOf("}"));
 
     Set<CodeElement<?>> argMatches;
-    argMatches = new Matcher().subjectMatch(argument, method);
+    argMatches = matcher.subjectMatch(argument, method);
     if (argMatches.isEmpty()) {
       //            ConditionTranslator.log.trace("Failed predicate translation for: " + p + " due
       // to variable not found.");
@@ -503,35 +504,38 @@ public class ReturnTranslator {
    * x, must not be null" produces (result==null) == false .
    *
    * @param method the DocumentedExecutable the tag belongs to
-   * @param semanticGraphs list of {@code SemanticGraph} related to the comment
    * @param extractedPropositions list of {@code PropositionSeries} extracted from the comment
    * @param comment the comment text
    * @return a String predicate match if any, or null
    */
-  private static String tryPredicateMatch(
-      DocumentedExecutable method,
-      List<SemanticGraph> semanticGraphs,
-      List<PropositionSeries> extractedPropositions,
-      String comment) {
-    String predicateMatch = null;
+  private String tryPredicateMatch(
+      DocumentedExecutable method, List<PropositionSeries> extractedPropositions, String comment) {
+    boolean verbFound = false;
+    for (PropositionSeries series : extractedPropositions) {
+      if (!series.getSemanticGraph().getAllNodesByPartOfSpeechPattern("VB(.*)").isEmpty()) {
+        verbFound = true;
+        break;
+      }
+    }
+    if (!verbFound) {
+      return null;
+    }
 
-    for (SemanticGraph sg : semanticGraphs) {
-      List<IndexedWord> verbs = sg.getAllNodesByPartOfSpeechPattern("VB(.*)");
-      if (!verbs.isEmpty()) {
-        for (PropositionSeries prop : extractedPropositions) {
-          for (Proposition p : prop.getPropositions()) {
-            predicateMatch =
-                new Matcher()
-                    .predicateMatch(
-                        method, new GeneralCodeElement(Configuration.RETURN_VALUE), p, comment);
-            if (predicateMatch != null) {
-              break;
-            }
+    // The match is the one of the last series that contains propositions.
+    for (int i = extractedPropositions.size() - 1; i >= 0; i--) {
+      final List<Proposition> propositions = extractedPropositions.get(i).getPropositions();
+      if (!propositions.isEmpty()) {
+        String predicateMatch = null;
+        for (Proposition p : propositions) {
+          predicateMatch = matcher.predicateMatch(method, RETURN_VALUE, p, comment);
+          if (predicateMatch != null) {
+            break;
           }
         }
+        return predicateMatch;
       }
     }
-    return predicateMatch;
+    return null;
   }
 
   /**
@@ -542,10 +546,12 @@ public class ReturnTranslator {
    * @param text the comment text
    * @return a String translation if any, null otherwise
    */
-  private static String tryCodeElementMatch(DocumentedExecutable method, String text) {
-    final List<PropositionSeries> extractedPropositions = Parser.parse(new Comment(text), method);
+  private String tryCodeElementMatch(DocumentedExecutable method, String text) {
     final List<SemanticGraph> semanticGraphs =
-        extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
+        parseFragment(text, method)
+            .stream()
+            .map(PropositionSeries::getSemanticGraph)
+            .collect(toList());
 
     CodeElement<?> codeElementMatch = findCodeElement(method, semanticGraphs);
     if (codeElementMatch != null) {
@@ -553,7 +559,7 @@ public class ReturnTranslator {
       boolean isSameType = checkSameType(method, codeElementMatch);
 
       if (isSameType) {
-        if (Reflection.isPrimitive(method.getReturnType().getType())) {
+        if (Reflection.isPrimitive(returnTypeOf(method))) {
           return Configuration.RETURN_VALUE + " == " + codeElementMatch.getJavaExpression();
         } else {
           return Configuration.RETURN_VALUE
@@ -566,6 +572,30 @@ public class ReturnTranslator {
     return null;
   }
 
+  /**
+   * Parses the given fragment of the comment under translation, or returns the propositions of the
+   * fragment if it has already been parsed. If the fragment is the whole comment, its parse
+   * associated with the tag may be reused. The returned propositions must not be modified.
+   *
+   * @param fragment a fragment of the comment under translation
+   * @param method the {@code DocumentedExecutable} the comment belongs to
+   * @return the propositions of {@code fragment}
+   */
+  private List<PropositionSeries> parseFragment(String fragment, DocumentedExecutable method) {
+    return parsedFragments.computeIfAbsent(fragment, f -> Parser.parse(tag, f, method));
+  }
+
+  /**
+   * Returns the generic return type of the given method, read from the {@link TypeMetadata} of its
+   * declaring class.
+   *
+   * @param method the method whose return type is returned
+   * @return the generic return type of {@code method}
+   */
+  private static Type returnTypeOf(DocumentedExecutable method) {
+    return TypeMetadata.of(method.getDeclaringClass()).getReturnType(method.getExecutable());
+  }
+
   /**
    * Check if the method return type is the same type of code element.
    *
@@ -574,7 +604,7 @@ public class ReturnTranslator {
    * @return true if the types match, false otherwise
    */
   private static boolean checkSameType(DocumentedExecutable method, CodeElement<?> codeElement) {
-    Type methodReturn = method.getReturnType().getType();
+    Type methodReturn = returnTypeOf(method);
 
     if (methodReturn instanceof TypeVariable || methodReturn instanceof GenericArrayType) {
       // TODO naive but we have not better choice for now.
@@ -621,7 +651,7 @@ public class ReturnTranslator {
    * @param semanticGraphs list of {@code SemanticGraph} related to the comment
    * @return a code element if any, or null
    */
-  private static CodeElement<?> findCodeElement(
+  private CodeElement<?> findCodeElement(
       DocumentedExecutable method, List<SemanticGraph> semanticGraphs) {
     // Try a match looking at the semantic graph.
     CodeElement<?> codeElementMatch = null;
@@ -640,7 +670,7 @@ public class ReturnTranslator {
       for (IndexedWord n : nouns) {
         for (IndexedWord a : adj) wordToMatch += a.word();
         wordToMatch += n.word();
-        Set<CodeElement<?>> subject = new Matcher().subjectMatch(wordToMatch, method);
+        Set<CodeElement<?>> subject = matcher.subjectMatch(wordToMatch, method);
         if (!subject.isEmpty()) codeElementMatch = subject.stream().findFirst().get();
       }
     }
@@ -0,0 +1,208 @@
+package org.toradocu.translator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.MappedKeyValueStore;
+import randoop.condition.specification.Specification;
+
+/**
+ * A persistent cache of the specifications produced by the translation of comments, so that later
+ * runs do not preprocess, parse, and match comments that have already been translated.
+ *
+ * <p>A comment is identified by a digest (see {@link TranslationDigests#ofTag}) of: the comment
+ * (before preprocessing) and its tag, the erased signature, parameter names, and @param comments of
+ * the documented executable member (from which the identifiers of the parameters are extracted),
+ * the public members of the types the translation can refer to (the declaring class, the parameter
+ * types, and the return type), the version of Toradocu, and the configuration options that affect
+ * translation. If any of these changes, the comment is translated again. Comments that cannot be
+ * translated are cached as well, with their empty specifications, unless their translation exceeded
+ * the parsing limits (see {@link Parser#isBudgetExceeded()}), since they could be translated with
+ * other limits.
+ *
+ * <p>The cache is stored in a {@link MappedKeyValueStore} that maps digests to the specifications
+ * and the preprocessed comment, in JSON format. The preprocessed comment replaces the comment of
+ * the tag when the cache is hit, as the comment would have been preprocessed by the translation.
+ * Since a changed comment or type changes the digest, the entries of old versions are no longer
+ * used, and the store reclaims them once they have been unused for {@link
+ * MappedKeyValueStore#DEFAULT_MAX_IDLE_DAYS} days.
+ */
+public final class SpecificationCache implements Closeable {
+
+  /** A cache that stores nothing. */
+  private static final SpecificationCache DISABLED = new SpecificationCache(null, "");
+
+  /** Serializes and deserializes cached entries. */
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  /** Name of the JSON property holding the preprocessed comment. */
+  private static final String COMMENT = "comment";
+
+  /** Name of the JSON property holding the specifications. */
+  private static final String SPECIFICATIONS = "specifications";
+
+  /** The store holding the cache, null if the cache is disabled. */
+  private final MappedKeyValueStore store;
+
+  /** Version of Toradocu and options that affect translation, part of every digest. */
+  private final String configuration;
+
+  /** Number of comments whose specifications have been found in the cache. */
+  private long hits;
+
+  /** Number of comments whose specifications have not been found in the cache. */
+  private long misses;
+
+  private SpecificationCache(MappedKeyValueStore store, String configuration) {
+    this.store = store;
+    this.configuration = configuration;
+  }
+
+  /**
+   * Returns a cache that stores nothing.
+   *
+   * @return a disabled cache
+   */
+  public static SpecificationCache disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Opens the cache stored in the given file. If the file does not exist, the cache is empty.
+   *
+   * @param file the file storing the cache, must not be null
+   * @return the cache stored in {@code file}
+   * @throws IOException if the file exists but cannot be read
+   * @throws IllegalArgumentException if the file is not a valid cache
+   */
+  public static SpecificationCache open(File file) throws IOException {
+    return new SpecificationCache(
+        MappedKeyValueStore.open(file.toPath()), TranslationDigests.ofConfiguration());
+  }
+
+  /**
+   * Returns the key that identifies the given tag in this cache. The tag must not have been
+   * preprocessed yet.
+   *
+   * @param tag the tag whose comment has to be translated
+   * @param member the executable member documented by {@code tag}
+   * @return the key of {@code tag}, or null if this cache is disabled
+   */
+  String keyOf(BlockTag tag, DocumentedExecutable member) {
+    if (store == null) {
+      return null;
+    }
+    return TranslationDigests.ofTag(configuration, tag, member);
+  }
+
+  /**
+   * Returns the cached specifications of the comment with the given key, and replaces the comment
+   * of {@code tag} with the cached preprocessed comment.
+   *
+   * @param key the key of the comment, as returned by {@link #keyOf(BlockTag,
+   *     DocumentedExecutable)}
+   * @param tag the tag whose comment has to be translated
+   * @param specificationType the type of the cached specifications
+   * @param <S> the type of the cached specifications
+   * @return the cached specifications, or null if the comment is not in this cache
+   */
+  <S extends Specification> List<S> get(String key, BlockTag tag, Class<S> specificationType) {
+    if (key == null) {
+      return null;
+    }
+    final String value = store.get(key);
+    synchronized (this) {
+      if (value == null) {
+        misses++;
+        return null;
+      }
+      hits++;
+    }
+    final JsonObject entry = new JsonParser().parse(value).getAsJsonObject();
+    tag.setComment(GSON.fromJson(entry.get(COMMENT), Comment.class));
+    List<S> specifications = new ArrayList<>();
+    for (JsonElement specification : entry.getAsJsonArray(SPECIFICATIONS)) {
+      specifications.add(GSON.fromJson(specification, specificationType));
+    }
+    return specifications;
+  }
+
+  /**
+   * Stores the specifications of the comment with the given key, and the comment of {@code tag} as
+   * the preprocessed comment.
+   *
+   * @param key the key of the comment, as returned by {@link #keyOf(BlockTag,
+   *     DocumentedExecutable)}
+   * @param tag the translated tag
+   * @param specifications the specifications produced by the translation of {@code tag}
+   */
+  void put(String key, BlockTag tag, List<? extends Specification> specifications) {
+    if (key == null) {
+      return;
+    }
+    JsonObject entry = new JsonObject();
+    entry.add(COMMENT, GSON.toJsonTree(tag.getComment()));
+    JsonArray array = new JsonArray();
+    for (Specification specification : specifications) {
+      array.add(GSON.toJsonTree(specification));
+    }
+    entry.add(SPECIFICATIONS, array);
+    store.put(key, GSON.toJson(entry));
+  }
+
+  /**
+   * Stores this cache in its file and releases it. Does nothing if this cache is disabled.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  /**
+   * Returns whether this cache stores specifications.
+   *
+   * @return true if this cache stores specifications, false if it is disabled
+   */
+  public boolean isEnabled() {
+    return store != null;
+  }
+
+  /**
+   * Returns the number of comments whose specifications have been found in the cache.
+   *
+   * @return the number of cache hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of comments whose specifications have not been found in the cache.
+   *
+   * @return the number of cache misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "%d entries, %d hits, %d misses", store == null ? 0 : store.size(), hits, misses);
+  }
+}
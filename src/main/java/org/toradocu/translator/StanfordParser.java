@@ -2,7 +2,10 @@ package org.toradocu.translator;
 
 import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.ling.HasWord;
+import edu.stanford.nlp.ling.Sentence;
 import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.parser.common.ParserQuery;
+import edu.stanford.nlp.parser.common.ParserUtils;
 import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
 import edu.stanford.nlp.process.DocumentPreprocessor;
 import edu.stanford.nlp.semgraph.SemanticGraph;
@@ -10,11 +13,23 @@ import edu.stanford.nlp.trees.GrammaticalStructure;
 import edu.stanford.nlp.trees.GrammaticalStructureFactory;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.trees.TreebankLanguagePack;
+import edu.stanford.nlp.util.RuntimeInterruptedException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.LruCache;
 
 /**
  * This class provides a method to get the semantic graph of a sentence produced by the Stanford
@@ -27,6 +42,32 @@ public class StanfordParser {
   private static final GrammaticalStructureFactory GSF;
   private static final Logger log = LoggerFactory.getLogger(StanfordParser.class);
 
+  /** Runs the Stanford parser when a parsing timeout is set, so that parsing can be interrupted. */
+  private static final ExecutorService PARSING_EXECUTOR =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, "toradocu-parser");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** Maximum number of texts (and of identifiers) whose lemmas are cached. */
+  private static final int LEMMA_CACHE_CAPACITY = 10_000;
+
+  /** Lemmas of the texts lemmatized with {@link #lemmatize(String)}. */
+  private static final LruCache<String, List<CoreLabel>> LEMMAS =
+      new LruCache<>(LEMMA_CACHE_CAPACITY);
+
+  /** Lemmas of the identifiers lemmatized with {@link #lemmatizeIdentifier(String)}. */
+  private static final LruCache<String, List<String>> IDENTIFIER_LEMMAS =
+      new LruCache<>(LEMMA_CACHE_CAPACITY);
+
+  /** Matches the position before each upper case letter of an identifier, except the first. */
+  private static final Pattern CAMEL_CASE = Pattern.compile("(?<!^)(?=[A-Z])");
+
+  /** Matches sequences of whitespaces. */
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
   static {
     LEXICALIZED_PARSER = LexicalizedParser.loadModel();
     // tlp is the PennTreebankLanguagePack for English.
@@ -50,18 +91,150 @@ public class StanfordParser {
    * produce the semantic graph, this method (POS-)tags code elements as NN and inequalities
    * placeholders as JJ.
    *
+   * <p>The parsing time of the Stanford parser grows with the cube of the sentence length. To
+   * prevent long sentences from stalling the translation, sentences longer than {@link
+   * Configuration#getParserMaxTokens()} tokens are not parsed, and the parsing is interrupted when
+   * it takes longer than {@link Configuration#getParserTimeout()} milliseconds. Sentences whose
+   * parsing is slower than {@link Configuration#getSlowSentenceThreshold()} milliseconds are
+   * logged.
+   *
    * @param words words that compose a sentence
-   * @return the semantic graph of the input sentence produced by the Stanford Parser
+   * @return the semantic graph of the input sentence produced by the Stanford Parser, or null if
+   *     the sentence exceeds the configured length or time limits
    */
   public static SemanticGraph parse(List<TaggedWord> words) {
-    // Parse the sentence.
-    Tree tree = LEXICALIZED_PARSER.parse(words);
+    final Configuration configuration = Configuration.INSTANCE;
+    final int maxTokens = configuration.getParserMaxTokens();
+    if (maxTokens > 0 && words.size() > maxTokens) {
+      log.warn(
+          "Sentence not parsed: {} tokens exceed the limit of {} tokens. Sentence: \"{}\"",
+          words.size(),
+          maxTokens,
+          Sentence.listToString(words, true));
+      return null;
+    }
+
+    final long start = System.nanoTime();
+    final Tree tree = parseTree(words, configuration.getParserTimeout());
+    final long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (tree == null) {
+      log.warn(
+          "Sentence not parsed: parsing interrupted after {} ms. Sentence ({} tokens): \"{}\"",
+          elapsedTime,
+          words.size(),
+          Sentence.listToString(words, true));
+      return null;
+    }
+    if (elapsedTime > configuration.getSlowSentenceThreshold()) {
+      log.warn(
+          "Slow sentence: parsed in {} ms. Sentence ({} tokens): \"{}\"",
+          elapsedTime,
+          words.size(),
+          Sentence.listToString(words, true));
+    }
+
     GrammaticalStructure gs = GSF.newGrammaticalStructure(tree);
     // Build the semantic graph.
     return new SemanticGraph(gs.typedDependenciesCCprocessed());
   }
 
+  /**
+   * Parses the given {@code words} with the Stanford parser, interrupting the parsing after {@code
+   * timeout} milliseconds.
+   *
+   * @param words words that compose a sentence
+   * @param timeout the maximum time in milliseconds for parsing, or a value less than or equal to 0
+   *     for no limit
+   * @return the parse tree of the sentence, or null if the parsing has been interrupted
+   */
+  private static Tree parseTree(List<TaggedWord> words, long timeout) {
+    if (timeout <= 0) {
+      return LEXICALIZED_PARSER.parse(words);
+    }
+
+    final Future<Tree> result = PARSING_EXECUTOR.submit(() -> parseInterruptibly(words));
+    try {
+      return result.get(timeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      return null;
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Error while parsing " + words, e.getCause());
+    }
+  }
+
+  /**
+   * Parses the given {@code words} with the Stanford parser. As {@link
+   * LexicalizedParser#parse(List)}, this method produces a flat tree if the sentence cannot be
+   * parsed, but it returns null if the parsing thread is interrupted.
+   *
+   * @param words words that compose a sentence
+   * @return the parse tree of the sentence, or null if the parsing thread has been interrupted
+   */
+  private static Tree parseInterruptibly(List<TaggedWord> words) {
+    try {
+      ParserQuery query = LEXICALIZED_PARSER.parserQuery();
+      if (query.parse(words)) {
+        return query.getBestParse();
+      }
+    } catch (RuntimeInterruptedException e) {
+      return null;
+    } catch (Exception e) {
+      log.debug("Exception during parsing of " + words, e);
+    }
+    return ParserUtils.xTree(words);
+  }
+
+  /**
+   * Lemmatizes the given {@code text}. The lemma of a word depends on its part of speech in the
+   * sentence, and thus lemmas are cached per text: the Stanford parser runs only the first time a
+   * text is lemmatized. The returned list may contain null elements for words that have no lemma.
+   *
+   * @param text the text to lemmatize
+   * @return the (unmodifiable) list of words of {@code text} annotated with their lemmas
+   */
   public static List<CoreLabel> lemmatize(String text) {
-    return LEXICALIZED_PARSER.lemmatize(text);
+    return LEMMAS.computeIfAbsent(
+        text, t -> Collections.unmodifiableList(LEXICALIZED_PARSER.lemmatize(t)));
+  }
+
+  /**
+   * Splits the given identifier according to camel case and lemmatizes the resulting words. For
+   * example, the lemmas of {@code getEntries} are "get" and "entry". Results are cached per
+   * identifier.
+   *
+   * @param identifier a Java identifier (e.g. a method name)
+   * @return the (unmodifiable) list of lemmas of the words composing {@code identifier}
+   */
+  public static List<String> lemmatizeIdentifier(String identifier) {
+    return IDENTIFIER_LEMMAS.computeIfAbsent(identifier, StanfordParser::lemmatizeCamelCase);
+  }
+
+  /**
+   * Splits the given identifier according to camel case and lemmatizes the resulting words. Words
+   * that have no lemma are kept as they appear in the identifier.
+   *
+   * @param identifier a Java identifier
+   * @return the (unmodifiable) list of lemmas of the words composing {@code identifier}
+   */
+  private static List<String> lemmatizeCamelCase(String identifier) {
+    List<String> words = new ArrayList<>(Arrays.asList(CAMEL_CASE.split(identifier)));
+    String joinedWords =
+        WHITESPACES.matcher(String.join(" ", words)).replaceAll(" ").trim().toLowerCase();
+    int index = 0;
+    for (CoreLabel lemma : lemmatize(joinedWords)) {
+      if (lemma != null) {
+        if (index < words.size()) {
+          words.remove(index);
+        }
+        words.add(index, lemma.lemma());
+      }
+      index++;
+    }
+    return Collections.unmodifiableList(words);
   }
 }
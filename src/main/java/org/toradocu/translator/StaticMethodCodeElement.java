@@ -1,6 +1,8 @@
 package org.toradocu.translator;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,9 +16,9 @@ public class StaticMethodCodeElement extends CodeElement<Method> {
    * Actual parameter values used to build the Java expression corresponding to the invocation of
    * this static method
    */
-  private String[] parameters;
-  /** The arguments of this method. */
-  private String[] args;
+  private final String[] parameters;
+  /** The (unmodifiable) types of the arguments of this method. */
+  private final List<String> args;
 
   /**
    * Constructs and initializes a {@code StaticMethodCodeElement} that identifies the given static
@@ -32,7 +34,6 @@ public class StaticMethodCodeElement extends CodeElement<Method> {
    */
   public StaticMethodCodeElement(Method method, String... parameters) {
     super(method);
-    this.parameters = parameters;
 
     // Add name identifier.
     String methodName = method.getName();
@@ -46,25 +47,26 @@ public class StaticMethodCodeElement extends CodeElement<Method> {
       String methodString = method.toGenericString();
       String methodArgs =
           methodString.substring(methodString.indexOf("(") + 1, methodString.indexOf(")"));
-      if (method.getParameterCount() == 1) args = new String[] {methodArgs};
-      else if (method.getParameterCount() > 1) {
-        args = methodArgs.split(" *,");
-        this.parameters = new String[args.length];
+      if (method.getParameterCount() == 1) {
+        args = Collections.singletonList(methodArgs);
+        this.parameters = parameters.clone();
+      } else {
+        args = Collections.unmodifiableList(Arrays.asList(methodArgs.split(" *,")));
+        this.parameters = new String[args.size()];
       }
+    } else {
+      args = Collections.emptyList();
+      this.parameters = parameters.clone();
     }
   }
 
   /**
-   * Set the actual parameters to be used to invoke this method.
+   * Returns the types of the arguments of this method.
    *
-   * @param parameters the actual parameters of this method
-   * @throws NullPointerException if {@code parameters} is null
+   * @return the (unmodifiable) list of the types of the arguments of this method, empty if the
+   *     method takes no arguments
    */
-  public void setParameters(List<String> parameters) {
-    this.parameters = parameters.toArray(new String[0]);
-  }
-
-  public String[] getArgs() {
+  public List<String> getArgs() {
     return args;
   }
 
@@ -88,4 +90,9 @@ public class StaticMethodCodeElement extends CodeElement<Method> {
     }
     return javaExpression + ")";
   }
+
+  @Override
+  int getPriority() {
+    return 3;
+  }
 }
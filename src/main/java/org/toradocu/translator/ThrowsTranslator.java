@@ -19,13 +19,23 @@ public class ThrowsTranslator {
     final String exceptionName = tag.getException().getName();
 
     if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new ThrowsSpecification(
-          tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
+      return emptySpecification(tag);
     }
 
     return new ThrowsSpecification(tag.toString(), guard, exceptionName);
   }
 
+  /**
+   * Returns the specification of a @throws comment that could not be translated.
+   *
+   * @param tag the @throws comment
+   * @return a specification with an empty guard
+   */
+  static ThrowsSpecification emptySpecification(ThrowsTag tag) {
+    return new ThrowsSpecification(
+        tag.toString(), new Guard(tag.getComment().getText(), ""), tag.getException().getName());
+  }
+
   /**
    * Returns true if an exception is always thrown by the {@code DocumentedExecutable}
    *
@@ -0,0 +1,120 @@
+package org.toradocu.translator;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ParamTag;
+import org.toradocu.util.Digests;
+
+/**
+ * Digests of the inputs of the translation of a comment, used to identify comments across runs of
+ * Toradocu (see {@link NegativeCache} and {@link SpecificationCache}).
+ */
+final class TranslationDigests {
+
+  /** Digests of the public members of types. */
+  private static final ClassValue<String> TYPE_DIGESTS =
+      new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+          List<String> members = new ArrayList<>();
+          for (Field field : type.getFields()) {
+            members.add(field.toGenericString());
+          }
+          for (Method method : type.getMethods()) {
+            members.add(method.toGenericString());
+          }
+          Collections.sort(members);
+          return of(String.join("\n", members));
+        }
+      };
+
+  /** Disables construction of this class. */
+  private TranslationDigests() {}
+
+  /**
+   * Returns the digest of the public fields and methods of the given type, which are the code
+   * elements a translation can refer to.
+   *
+   * @param type a type
+   * @return the digest of the public members of {@code type}
+   */
+  static String ofPublicMembers(Class<?> type) {
+    return TYPE_DIGESTS.get(type);
+  }
+
+  /**
+   * Returns the digest that identifies the translation of the given tag: the digest of the comment
+   * of the tag, of the erased signature, parameter names, and @param comments (from which the
+   * identifiers of the parameters are extracted) of the documented member, of the public members of
+   * the types the translation can refer to (the declaring class, the parameter types, and the
+   * return type), and of the given configuration.
+   *
+   * @param configuration the version and configuration of Toradocu, as returned by {@link
+   *     #ofConfiguration()}
+   * @param tag the tag whose comment has to be translated
+   * @param member the executable member documented by {@code tag}
+   * @return the digest identifying the translation of {@code tag}
+   */
+  static String ofTag(String configuration, BlockTag tag, DocumentedExecutable member) {
+    final Executable executable = member.getExecutable();
+    StringJoiner key = new StringJoiner("\n");
+    key.add(configuration);
+    key.add(tag.toString());
+    key.add(new TreeMap<>(tag.getComment().getWordsMarkedAsCode()).toString());
+    key.add(executable.toString());
+    for (DocumentedParameter parameter : member.getParameters()) {
+      key.add(parameter.getName());
+    }
+    for (ParamTag paramTag : member.paramTags()) {
+      key.add(paramTag.toString());
+    }
+    key.add(ofPublicMembers(executable.getDeclaringClass()));
+    for (Class<?> parameterType : executable.getParameterTypes()) {
+      key.add(ofPublicMembers(parameterType));
+    }
+    if (executable instanceof Method) {
+      key.add(ofPublicMembers(((Method) executable).getReturnType()));
+    }
+    return of(key.toString());
+  }
+
+  /**
+   * Returns the version of Toradocu and the values of the configuration options that affect the
+   * translation of comments.
+   *
+   * @return a string identifying the version and the configuration of Toradocu
+   */
+  static String ofConfiguration() {
+    final Configuration configuration = Configuration.INSTANCE;
+    final String version = Toradocu.class.getPackage().getImplementationVersion();
+    return String.join(
+        " ",
+        version == null ? "dev" : version,
+        String.valueOf(configuration.getDistanceThreshold()),
+        String.valueOf(configuration.getWordRemovalCost()),
+        String.valueOf(configuration.isSemanticMatcherEnabled()),
+        String.valueOf(configuration.getParserMaxTokens()),
+        String.valueOf(configuration.getParserTimeout()));
+  }
+
+  /**
+   * Returns the hexadecimal SHA-256 digest of the given text.
+   *
+   * @param text the text to digest
+   * @return the hexadecimal SHA-256 digest of {@code text}
+   */
+  static String of(String text) {
+    return Digests.sha256(text);
+  }
+}
@@ -0,0 +1,68 @@
+package org.toradocu.translator;
+
+import org.toradocu.conf.Configuration;
+
+/**
+ * Kinds of predicate translations (e.g., "==null", "&gt;0", ".equals(...)"), used to check whether
+ * a predicate translation is compatible with a code element (see {@link
+ * CodeElement#isCompatibleWith(Class, String, int)}). Each kind is a distinct bit, so that the
+ * kinds of translations accepted by a code element can be stored in a single bitmask, and checking
+ * compatibility is a bitwise and.
+ */
+final class TranslationKind {
+
+  /** Comparison with the receiver object, i.e., "==receiverObjectID". */
+  static final int RECEIVER_EQUALITY = 1;
+
+  /** Comparison with a boolean literal, i.e., "==true" or "==false". */
+  static final int BOOLEAN_EQUALITY = 1 << 1;
+
+  /** Comparison with null, i.e., "==null". */
+  static final int NULL_EQUALITY = 1 << 2;
+
+  /** Comparison with any other value, e.g., "==0" or "==args[1]". */
+  static final int VALUE_EQUALITY = 1 << 3;
+
+  /** Ordering comparison, e.g., "&lt;0" or "&gt;=args[1]". */
+  static final int ORDERING = 1 << 4;
+
+  /** Translation that invokes the {@code equals} method, e.g., ".equals(args[1])". */
+  static final int EQUALS_INVOCATION = 1 << 5;
+
+  /** Any other translation, e.g., "!=null" or " instanceof Foo". */
+  static final int OTHER = 1 << 6;
+
+  /** The translation of a comparison with the receiver object. */
+  private static final String RECEIVER_TRANSLATION = "==" + Configuration.RECEIVER;
+
+  /** Disables construction of this class. */
+  private TranslationKind() {}
+
+  /**
+   * Returns the kind of the given predicate translation.
+   *
+   * @param translation the translation of a predicate
+   * @return the kind of {@code translation}, one of the constants of this class
+   */
+  static int of(String translation) {
+    if (translation.startsWith("==")) {
+      if (translation.equals(RECEIVER_TRANSLATION)) {
+        return RECEIVER_EQUALITY;
+      }
+      if (translation.equals("==true") || translation.equals("==false")) {
+        return BOOLEAN_EQUALITY;
+      }
+      if (translation.equals("==null")) {
+        return NULL_EQUALITY;
+      }
+      return VALUE_EQUALITY;
+    }
+    if (translation.startsWith("<") || translation.startsWith(">")) {
+      return ORDERING;
+    }
+    if (translation.contains(".equals(")) {
+      return EQUALS_INVOCATION;
+    }
+    return OTHER;
+  }
+}
@@ -0,0 +1,206 @@
+package org.toradocu.translator;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reflection information about a class that is used to build code elements. Collecting this
+ * information requires copying the fields and methods of the class, so {@code TypeMetadata} is
+ * computed once per class and shared by all threads (see {@link #of(Class)}). Types such as {@code
+ * String} and {@code Collection} appear as parameter types throughout a library, and their metadata
+ * is therefore reused by the translation of many comments.
+ *
+ * <p>The metadata of a class is stored in the class itself by a {@code ClassValue}, and refers only
+ * to the class and to its members. Other classes, e.g., the parameter types with which {@link
+ * #getStaticBooleanMethods(Class)} is called, are never retained, so that the metadata does not
+ * keep a class loader from being garbage collected.
+ */
+final class TypeMetadata {
+
+  /** Metadata of classes, computed when first requested. */
+  private static final ClassValue<TypeMetadata> METADATA =
+      new ClassValue<TypeMetadata>() {
+        @Override
+        protected TypeMetadata computeValue(Class<?> type) {
+          return new TypeMetadata(type);
+        }
+      };
+
+  /** Orders members by name. Sorting makes the collected code elements deterministic. */
+  private static final Comparator<Member> BY_NAME = Comparator.comparing(Member::getName);
+
+  /** The class whose metadata this is. */
+  private final Class<?> type;
+
+  /** Public boolean fields of the class, sorted by name. */
+  private final List<Field> booleanFields;
+
+  /** Public (static and instance) methods of the class that return a boolean, sorted by name. */
+  private final List<Method> booleanMethods;
+
+  /** Public static methods of the class that return a boolean and take no parameters. */
+  private final List<Method> staticBooleanMethodsWithoutParameters;
+
+  /**
+   * Public static methods of the class that return a boolean and take no parameters or a single
+   * parameter, by the type of the parameter. Keys are only the parameter types of the methods.
+   */
+  private final Map<Class<?>, List<Method>> staticBooleanMethodsByParameterType;
+
+  /** Generic return types of the executable members declared by the class. */
+  private final ConcurrentMap<Executable, Type> returnTypes = new ConcurrentHashMap<>();
+
+  /** Generic signatures of the executable members declared by the class. */
+  private final ConcurrentMap<Executable, String> signatures = new ConcurrentHashMap<>();
+
+  private TypeMetadata(Class<?> type) {
+    this.type = type;
+    List<Field> fields = new ArrayList<>();
+    for (Field field : type.getFields()) {
+      if (isBoolean(field.getType())) {
+        fields.add(field);
+      }
+    }
+    fields.sort(BY_NAME);
+    booleanFields = Collections.unmodifiableList(fields);
+
+    final Method[] publicMethods = type.getMethods();
+    List<Method> methods = new ArrayList<>();
+    List<Method> staticMethods = new ArrayList<>();
+    for (Method method : publicMethods) {
+      if (isBoolean(method.getReturnType())) {
+        methods.add(method);
+        if (Modifier.isStatic(method.getModifiers()) && method.getParameterCount() < 2) {
+          staticMethods.add(method);
+        }
+      }
+    }
+    methods.sort(BY_NAME);
+    booleanMethods = Collections.unmodifiableList(methods);
+    staticBooleanMethodsWithoutParameters =
+        Collections.unmodifiableList(selectInvocableWith(staticMethods, null));
+    final Map<Class<?>, List<Method>> staticMethodsByParameterType = new HashMap<>();
+    for (Method method : staticMethods) {
+      if (method.getParameterCount() == 1) {
+        staticMethodsByParameterType.computeIfAbsent(
+            method.getParameterTypes()[0],
+            t -> Collections.unmodifiableList(selectInvocableWith(staticMethods, t)));
+      }
+    }
+    staticBooleanMethodsByParameterType = staticMethodsByParameterType;
+  }
+
+  /**
+   * Returns the metadata of the given class.
+   *
+   * @param type the class whose metadata is returned
+   * @return the metadata of {@code type}
+   */
+  static TypeMetadata of(Class<?> type) {
+    return METADATA.get(type);
+  }
+
+  /**
+   * Returns the public fields of type {@code boolean} or {@code Boolean}, sorted by name.
+   *
+   * @return the public boolean fields, sorted by name
+   */
+  List<Field> getBooleanFields() {
+    return booleanFields;
+  }
+
+  /**
+   * Returns the public methods (including static methods) whose return type is {@code boolean} or
+   * {@code Boolean}, sorted by name.
+   *
+   * @return the public boolean methods, sorted by name
+   */
+  List<Method> getBooleanMethods() {
+    return booleanMethods;
+  }
+
+  /**
+   * Returns the public static methods whose return type is {@code boolean} or {@code Boolean} and
+   * that take either no parameters or a single parameter of type {@code parameterType}.
+   *
+   * @param parameterType the type of the argument with which the methods are invoked
+   * @return the public static boolean methods that can be invoked with an argument of type {@code
+   *     parameterType}
+   */
+  List<Method> getStaticBooleanMethods(Class<?> parameterType) {
+    return staticBooleanMethodsByParameterType.getOrDefault(
+        parameterType, staticBooleanMethodsWithoutParameters);
+  }
+
+  /**
+   * Returns the generic return type of the given executable member of the class, as returned by
+   * {@code executable.getAnnotatedReturnType().getType()}. For a constructor, that is the class
+   * itself. The result is cached only if {@code executable} is declared by the class.
+   *
+   * @param executable an executable member declared by the class
+   * @return the generic return type of {@code executable}
+   */
+  Type getReturnType(Executable executable) {
+    if (executable.getDeclaringClass() != type) {
+      return executable.getAnnotatedReturnType().getType();
+    }
+    return returnTypes.computeIfAbsent(executable, e -> e.getAnnotatedReturnType().getType());
+  }
+
+  /**
+   * Returns the generic signature of the given executable member of the class, as returned by
+   * {@code executable.toGenericString()}. The result is cached only if {@code executable} is
+   * declared by the class.
+   *
+   * @param executable an executable member declared by the class
+   * @return the generic signature of {@code executable}
+   */
+  String getSignature(Executable executable) {
+    if (executable.getDeclaringClass() != type) {
+      return executable.toGenericString();
+    }
+    return signatures.computeIfAbsent(executable, Executable::toGenericString);
+  }
+
+  /**
+   * Returns the given methods that take no parameters or a single parameter of the given type, in
+   * the same order.
+   *
+   * @param methods methods that take at most one parameter
+   * @param parameterType the type of the parameter, or null to select only the methods that take no
+   *     parameters
+   * @return the methods that can be invoked with an argument of type {@code parameterType}
+   */
+  private static List<Method> selectInvocableWith(List<Method> methods, Class<?> parameterType) {
+    List<Method> selected = new ArrayList<>();
+    for (Method method : methods) {
+      final Class<?>[] parameterTypes = method.getParameterTypes();
+      if (parameterTypes.length == 0 || parameterTypes[0].equals(parameterType)) {
+        selected.add(method);
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Checks whether {@code type} is {@code boolean} or {@code Boolean}.
+   *
+   * @param type the type to check
+   * @return true if {@code type} is {@code boolean} or {@code Boolean}, false otherwise
+   */
+  private static boolean isBoolean(Class<?> type) {
+    return type.equals(boolean.class) || type.equals(Boolean.class);
+  }
+}
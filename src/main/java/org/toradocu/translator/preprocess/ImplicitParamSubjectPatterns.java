@@ -1,11 +1,10 @@
 package org.toradocu.translator.preprocess;
 
-import static java.util.stream.Collectors.toList;
-
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.util.Arrays;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.toradocu.extractor.BlockTag;
@@ -13,69 +12,59 @@ import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ParamTag;
 import org.toradocu.translator.Parser;
-import org.toradocu.translator.PropositionSeries;
 
 public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
 
+  /** Phrases that state that the parameter has a property, e.g., "must be". */
+  private static final Pattern POSITIVE_PATTERNS = phrasesPattern("must be", "will be");
+
+  /** Phrases that state that the parameter does not have a property, e.g., "must not be". */
+  private static final Pattern NEGATIVE_PATTERNS =
+      phrasesPattern(
+          "must not be",
+          "must not return",
+          "must never be",
+          "must never return",
+          "will not be",
+          "will never be",
+          "can't be",
+          "cannot be",
+          "should not be",
+          "shouldn't be",
+          "may not be",
+          "must'nt be");
+
+  /**
+   * Param comment that contains a comma followed by a description (ignore non-mandatory
+   * conditions).
+   */
+  private static final Pattern COMMA_PATTERN =
+      Pattern.compile(".*(, (?!default)(?!may be)(?!can be)(?!could be)(?!possibly))(.*)");
+
+  /** Possible comment beginnings. */
+  private static final String[] BEGINNINGS = {"the", "a", "an", "any"};
+
   @Override
   public String run(BlockTag tag, DocumentedExecutable excMember) {
     String originalComment = tag.getComment().getText();
     String parameterName = ((ParamTag) tag).getParameter().getName();
-    String[] positivePatterns = {"must be", "Must be", "will be", "Will be"};
-
-    String[] negativePatterns = {
-      "must not be",
-      "Must not be",
-      "must not return",
-      "Must not return",
-      "must never be",
-      "Must never be",
-      "must never return",
-      "Must never return",
-      "will not be",
-      "Will not be",
-      "will never be",
-      "Will never be",
-      "can't be",
-      "Can't be",
-      "cannot be",
-      "Cannot be",
-      "should not be",
-      "Should not be",
-      "shouldn't be",
-      "Shouldn't be",
-      "may not be",
-      "May not be",
-      "must'nt be",
-      "Must'nt be"
-    };
 
     String preProcessedComment =
-        replacePatterns(originalComment, positivePatterns, parameterName, "");
+        replacePatterns(originalComment, POSITIVE_PATTERNS, parameterName, "");
     preProcessedComment =
-        replacePatterns(preProcessedComment, negativePatterns, parameterName, "not");
+        replacePatterns(preProcessedComment, NEGATIVE_PATTERNS, parameterName, "not");
 
     if (originalComment.equals(preProcessedComment)) {
-      final List<PropositionSeries> extractedPropositions =
-          Parser.parse(new Comment(originalComment), excMember);
-      final List<SemanticGraph> semanticGraphs =
-          extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
-
       preProcessedComment = originalComment.replace(";", ",");
-      String[] beginnings = {"the", "a", "an", "any"};
-
-      // param comment that contains a comma followed by a description (ignore non-mandatory
-      // conditions)
-      String commaPattern = ".*(, (?!default)(?!may be)(?!can be)(?!could be)(?!possibly))(.*)";
-      Matcher commaMatcher = Pattern.compile(commaPattern).matcher(preProcessedComment);
 
+      Matcher commaMatcher = COMMA_PATTERN.matcher(preProcessedComment);
       if (commaMatcher.find() && adjectivesFound(excMember, commaMatcher)) {
-        return replaceCommaPattern(preProcessedComment, parameterName, beginnings);
+        return replaceCommaPattern(preProcessedComment, parameterName, BEGINNINGS);
       }
 
       // Manage param comment starting with an adjective
       preProcessedComment =
-          manageFirstAdj(excMember, preProcessedComment, parameterName, beginnings);
+          manageFirstAdj(tag, excMember, preProcessedComment, parameterName, BEGINNINGS);
     }
     return preProcessedComment;
   }
@@ -83,6 +72,7 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
   /**
    * Manages param comments such as "x - non-null vector"
    *
+   * @param tag the tag whose comment is preprocessed
    * @param excMember the executable member the comment belongs to
    * @param comment the comment text
    * @param parameterName the parameter name the comment refers to
@@ -90,16 +80,17 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
    * @return the comment text correctly replaced
    */
   private String manageFirstAdj(
-      DocumentedExecutable excMember, String comment, String parameterName, String[] beginnings) {
+      BlockTag tag,
+      DocumentedExecutable excMember,
+      String comment,
+      String parameterName,
+      String[] beginnings) {
     // TODO \\s?
     String[] tokens = comment.split(" ");
     boolean hasArticle = (Arrays.asList(beginnings).contains(tokens[0]));
     String mayBeAdj = hasArticle ? tokens[1] : tokens[0];
 
-    final List<PropositionSeries> extractedPropositions =
-        Parser.parse(new Comment(comment), excMember);
-    final List<SemanticGraph> semanticGraphs =
-        extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
+    final List<SemanticGraph> semanticGraphs = Parser.getSemanticGraphs(tag, comment, excMember);
     StringBuilder commentBuilder = new StringBuilder(comment);
     for (SemanticGraph sg : semanticGraphs) {
       List<IndexedWord> adjs = sg.getAllNodesByPartOfSpeechPattern("JJ(.*)");
@@ -153,10 +144,8 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
    * @return true if adjectives were found, false otherwise
    */
   private boolean adjectivesFound(DocumentedExecutable excMember, Matcher commaMatcher) {
-    final List<PropositionSeries> extractedPropositions =
-        Parser.parse(new Comment(commaMatcher.group(2)), excMember);
     final List<SemanticGraph> semanticGraphs =
-        extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
+        Parser.getSemanticGraphs(new Comment(commaMatcher.group(2)), excMember);
 
     for (SemanticGraph sg : semanticGraphs) {
       if (!sg.getAllNodesByPartOfSpeechPattern("JJ(.*)").isEmpty()) {
@@ -176,14 +165,28 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
    * @return the comment with patterns correctly replaced
    */
   private String replacePatterns(
-      String comment, String[] patterns, String parameterName, String negation) {
-    for (String pattern : patterns) {
-      if (comment.contains(pattern)) {
-        comment =
-            comment.replaceAll(
-                "(, )?( It )?" + pattern, ". {@code " + parameterName + "} " + " is " + negation);
-      }
+      String comment, Pattern patterns, String parameterName, String negation) {
+    Matcher matcher = patterns.matcher(comment);
+    if (matcher.find()) {
+      comment = matcher.replaceAll(". {@code " + parameterName + "} " + " is " + negation);
     }
     return comment;
   }
+
+  /**
+   * Builds a pattern that matches any of the given phrases, either as they are or with their first
+   * letter capitalized, optionally preceded by ", " and " It ".
+   *
+   * @param phrases lower case phrases
+   * @return a pattern matching any of {@code phrases}
+   */
+  private static Pattern phrasesPattern(String... phrases) {
+    StringJoiner alternatives = new StringJoiner("|", "(, )?( It )?(?:", ")");
+    for (String phrase : phrases) {
+      alternatives.add(Pattern.quote(phrase));
+      alternatives.add(
+          Pattern.quote(Character.toUpperCase(phrase.charAt(0)) + phrase.substring(1)));
+    }
+    return Pattern.compile(alternatives.toString());
+  }
 }
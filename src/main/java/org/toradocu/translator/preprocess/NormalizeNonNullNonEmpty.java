@@ -1,20 +1,16 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class NormalizeNonNullNonEmpty implements PreprocessingPhase {
+public class NormalizeNonNullNonEmpty implements TextPreprocessingPhase {
 
   /**
    * Replace some common expressions in the comment with other standard easier to translate
    * correctly.
    *
    * @param comment the String comment to sanitize
-   * @param method the DocumentedExecutable
    * @return the normalized comment
    */
-  private static String normalizeComment(String comment, DocumentedExecutable method) {
-
+  @Override
+  public String apply(String comment) {
     if (comment.contains("non-null")) {
       comment = comment.replace("non-null", "!=null");
     }
@@ -33,9 +29,4 @@ public class NormalizeNonNullNonEmpty implements PreprocessingPhase {
 
     return comment;
   }
-
-  @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    return normalizeComment(tag.getComment().getText(), excMember);
-  }
 }
@@ -1,22 +1,19 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
+import java.util.regex.Pattern;
 
-public class NormalizeWhether implements PreprocessingPhase {
+public class NormalizeWhether implements TextPreprocessingPhase {
 
-  private static String normalizeComment(String comment, DocumentedExecutable method) {
+  private static final Pattern WHETHER = Pattern.compile("whether");
+
+  @Override
+  public String apply(String comment) {
     if (comment.toLowerCase().startsWith("whether")) {
       String preComment = "True if";
       String postComment = ", false otherwise";
-      comment = comment.replaceFirst("whether", preComment) + postComment;
+      comment = WHETHER.matcher(comment).replaceFirst(preComment) + postComment;
     }
 
     return comment;
   }
-
-  @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    return normalizeComment(tag.getComment().getText(), excMember);
-  }
 }
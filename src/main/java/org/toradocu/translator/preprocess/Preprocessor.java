@@ -1,23 +1,162 @@
 package org.toradocu.translator.preprocess;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 
+/**
+ * Runs a fixed sequence of preprocessing phases on the comment of a block tag. After every phase
+ * the tag gets a new {@link Comment} built from the text produced by the phase. Consecutive {@link
+ * TextPreprocessingPhase}s are run on the text directly, and the comment is rebuilt only when the
+ * text is not already in the form produced by the {@code Comment} constructors, or before a phase
+ * that reads the tag. The result is the same as rebuilding the comment after every phase.
+ *
+ * <p>Preprocessors are immutable and can be shared (see {@link PreprocessorFactory}), except for
+ * the statistics of their phases, which are thread-safe counters.
+ */
 public class Preprocessor {
 
-  private List<PreprocessingPhase> phases;
+  private final List<PreprocessingPhase> phases;
+
+  /** Number of runs of each phase. */
+  private final LongAdder[] runs;
+  /** Number of runs of each phase that changed the comment text. */
+  private final LongAdder[] changes;
+  /** Total time spent running each phase, in nanoseconds. */
+  private final LongAdder[] nanos;
 
   Preprocessor(List<PreprocessingPhase> phases) {
-    this.phases = phases;
+    this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+    runs = newCounters(phases.size());
+    changes = newCounters(phases.size());
+    nanos = newCounters(phases.size());
   }
 
   public BlockTag preprocess(BlockTag tag, DocumentedExecutable excMember) {
-    for (PreprocessingPhase phase : phases) {
-      String preprocessedText = phase.run(tag, excMember);
-      tag.setComment(new Comment(preprocessedText, tag.getComment().getWordsMarkedAsCode()));
+    String text = tag.getComment().getText();
+    // Whether text differs from the text of the comment of the tag.
+    boolean commentOutdated = false;
+    for (int i = 0; i < phases.size(); i++) {
+      final PreprocessingPhase phase = phases.get(i);
+      final long start = System.nanoTime();
+      final String preprocessedText;
+      if (phase instanceof TextPreprocessingPhase) {
+        preprocessedText = ((TextPreprocessingPhase) phase).apply(text);
+      } else {
+        if (commentOutdated) {
+          tag.setComment(new Comment(text, tag.getComment().getWordsMarkedAsCode()));
+          commentOutdated = false;
+        }
+        preprocessedText = phase.run(tag, excMember);
+      }
+      nanos[i].add(System.nanoTime() - start);
+      runs[i].increment();
+      if (!preprocessedText.equals(text)) {
+        changes[i].increment();
+      }
+
+      if (Comment.isNormalized(preprocessedText)) {
+        commentOutdated = commentOutdated || !preprocessedText.equals(text);
+        text = preprocessedText;
+      } else {
+        tag.setComment(new Comment(preprocessedText, tag.getComment().getWordsMarkedAsCode()));
+        text = tag.getComment().getText();
+        commentOutdated = false;
+      }
+    }
+    if (commentOutdated) {
+      tag.setComment(new Comment(text, tag.getComment().getWordsMarkedAsCode()));
     }
     return tag;
   }
+
+  /**
+   * Returns the statistics of the phases of this preprocessor, in the order in which phases are
+   * run.
+   *
+   * @return the statistics of the phases of this preprocessor
+   */
+  public List<PhaseStatistics> getStatistics() {
+    List<PhaseStatistics> statistics = new ArrayList<>(phases.size());
+    for (int i = 0; i < phases.size(); i++) {
+      statistics.add(
+          new PhaseStatistics(
+              phases.get(i).getClass().getSimpleName(),
+              runs[i].sum(),
+              changes[i].sum(),
+              nanos[i].sum()));
+    }
+    return statistics;
+  }
+
+  private static LongAdder[] newCounters(int size) {
+    LongAdder[] counters = new LongAdder[size];
+    for (int i = 0; i < size; i++) {
+      counters[i] = new LongAdder();
+    }
+    return counters;
+  }
+
+  /** Statistics of a preprocessing phase at a given time. */
+  public static final class PhaseStatistics {
+    private final String phase;
+    private final long runs;
+    private final long changes;
+    private final long nanos;
+
+    private PhaseStatistics(String phase, long runs, long changes, long nanos) {
+      this.phase = phase;
+      this.runs = runs;
+      this.changes = changes;
+      this.nanos = nanos;
+    }
+
+    /**
+     * Returns the name of the phase.
+     *
+     * @return the name of the phase
+     */
+    public String getPhase() {
+      return phase;
+    }
+
+    /**
+     * Returns the number of runs of the phase.
+     *
+     * @return the number of runs of the phase
+     */
+    public long getRuns() {
+      return runs;
+    }
+
+    /**
+     * Returns the number of runs of the phase that changed the comment text.
+     *
+     * @return the number of runs of the phase that changed the comment text
+     */
+    public long getChanges() {
+      return changes;
+    }
+
+    /**
+     * Returns the total time spent running the phase, in nanoseconds.
+     *
+     * @return the total time spent running the phase, in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s: %d runs, %d changes, %d ms",
+          phase, runs, changes, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+  }
 }
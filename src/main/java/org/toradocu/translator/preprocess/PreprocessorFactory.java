@@ -1,14 +1,39 @@
 package org.toradocu.translator.preprocess;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import org.toradocu.extractor.BlockTag;
 
 public class PreprocessorFactory {
 
+  /** Preprocessors of each kind of block tag, created once and shared. */
+  private static final Map<BlockTag.Kind, Preprocessor> PREPROCESSORS =
+      new EnumMap<>(BlockTag.Kind.class);
+
+  static {
+    for (BlockTag.Kind tagKind : BlockTag.Kind.values()) {
+      PREPROCESSORS.put(tagKind, newPreprocessor(tagKind));
+    }
+  }
+
   private PreprocessorFactory() {}
 
-  public static Preprocessor create(BlockTag.Kind tagKind) {
+  /**
+   * Returns the preprocessor of comments of block tags of the given kind. The same preprocessor is
+   * returned for all the tags of a kind, possibly by different threads: it is safe to share because
+   * a {@code Preprocessor} and its phases have no mutable state other than thread-safe statistics.
+   * Phases added to the pipeline must keep it so.
+   *
+   * @param tagKind the kind of block tag
+   * @return the shared preprocessor of comments of tags of kind {@code tagKind}
+   */
+  public static Preprocessor get(BlockTag.Kind tagKind) {
+    return PREPROCESSORS.get(tagKind);
+  }
+
+  private static Preprocessor newPreprocessor(BlockTag.Kind tagKind) {
     List<PreprocessingPhase> phases = new ArrayList<>();
 
     phases.add(new EndPeriod());
@@ -18,7 +43,7 @@ public class PreprocessorFactory {
       case PARAM:
         phases.add(new ImplicitParamSubjectPatterns());
         phases.add(new ExpandRange());
-        phases.add(new RemoveCommas()); // TODO Make RemoveCommas a singleton?
+        phases.add(new RemoveCommas());
         phases.add(new RemoveMayBe());
         phases.add(new NormalizeNonNullNonEmpty());
         phases.add(new NormalizeIt());
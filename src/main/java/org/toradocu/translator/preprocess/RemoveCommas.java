@@ -1,12 +1,9 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class RemoveCommas implements PreprocessingPhase {
+public class RemoveCommas implements TextPreprocessingPhase {
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    return tag.getComment().getText().replaceAll(",", " ");
+  public String apply(String comment) {
+    return comment.replace(',', ' ');
   }
 }
@@ -1,19 +1,14 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class RemoveMayBe implements PreprocessingPhase {
+public class RemoveMayBe implements TextPreprocessingPhase {
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    String comment = tag.getComment().getText();
-
+  public String apply(String comment) {
     if (comment.contains("may be")) {
-      comment = comment.replaceAll("may be", "");
+      comment = comment.replace("may be", "");
     }
     if (comment.contains("can be")) {
-      comment = comment.replaceAll("can be", "");
+      comment = comment.replace("can be", "");
     }
     return comment;
   }
@@ -0,0 +1,25 @@
+package org.toradocu.translator.preprocess;
+
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+
+/**
+ * A preprocessing phase that rewrites the comment text without looking at the tag or the documented
+ * executable member. The {@link Preprocessor} runs consecutive text phases on the text directly,
+ * without building a new {@link org.toradocu.extractor.Comment} after each of them.
+ */
+public interface TextPreprocessingPhase extends PreprocessingPhase {
+
+  /**
+   * Rewrites the given comment text.
+   *
+   * @param comment the comment text
+   * @return the rewritten comment text
+   */
+  String apply(String comment);
+
+  @Override
+  default String run(BlockTag tag, DocumentedExecutable excMember) {
+    return apply(tag.getComment().getText());
+  }
+}
@@ -1,13 +1,9 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class Trim implements PreprocessingPhase {
+public class Trim implements TextPreprocessingPhase {
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-
-    return tag.getComment().getText().trim();
+  public String apply(String comment) {
+    return comment.trim();
   }
 }
@@ -235,25 +235,14 @@ public class SemanticMatcher {
   }
 
   /**
-   * Split code element name according to camel case
+   * Split code element name according to camel case and lemmatize the resulting words
    *
    * @param name code element name
    * @return list of words composing the code element name
    */
   private List<String> parseCodeElementName(String name) {
-    ArrayList<String> camelId = new ArrayList<>(Arrays.asList(name.split("(?<!^)(?=[A-Z])")));
-    String joinedId = String.join(" ", camelId).replaceAll("\\s+", " ").trim().toLowerCase();
-    int index = 0;
-    for (CoreLabel lemma : StanfordParser.lemmatize(joinedId)) {
-      if (lemma != null) {
-        if (index < camelId.size()) {
-          camelId.remove(index);
-        }
-        camelId.add(index, lemma.lemma());
-      }
-      index++;
-    }
-    return camelId;
+    // Copy the cached lemmas: the returned list is modified when removing stopwords.
+    return new ArrayList<>(StanfordParser.lemmatizeIdentifier(name));
   }
 
   /**
@@ -0,0 +1,303 @@
+package org.toradocu.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.mdkt.compiler.CompilationException;
+
+/**
+ * A long-lived Java compiler that checks whether source code compiles against a fixed classpath.
+ * Creating a file manager requires opening and indexing the jars of the classpath and the platform
+ * classes, so file managers are created once and reused by all the compilations, instead of being
+ * created for each compilation. The bytecode produced by {@link #compile} is discarded, while the
+ * bytecode produced by {@link #compileAll} is kept in memory and returned.
+ *
+ * <p>A file manager cannot be used by several compilations at the same time. This class keeps a
+ * pool of idle file managers: a compilation takes one from the pool (creating it if the pool is
+ * empty) and gives it back when done. The pool therefore holds at most as many file managers as the
+ * maximum number of concurrent compilations.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class CompilerService implements Closeable {
+
+  /** Options passed to the compiler. Annotation processing is not needed to check compilability. */
+  private static final List<String> OPTIONS = Collections.singletonList("-proc:none");
+
+  /** The system Java compiler. */
+  private final JavaCompiler compiler;
+
+  /** The classpath used by compilations. */
+  private final List<File> classpath;
+
+  /** Idle file managers, each configured with {@link #classpath}. */
+  private final ConcurrentLinkedQueue<StandardJavaFileManager> fileManagers =
+      new ConcurrentLinkedQueue<>();
+
+  /**
+   * Creates a new compiler service that compiles source code against the given classpath.
+   *
+   * @param classpath the classpath used by compilations, must not be null
+   * @throws IllegalStateException if no Java compiler is available (e.g., running on a JRE)
+   */
+  public CompilerService(List<File> classpath) {
+    Checks.nonNullParameter(classpath, "classpath");
+    compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("No Java compiler is available on this platform");
+    }
+    this.classpath = Collections.unmodifiableList(new ArrayList<>(classpath));
+  }
+
+  /**
+   * Returns the classpath used by compilations.
+   *
+   * @return the classpath used by compilations
+   */
+  public List<File> getClasspath() {
+    return classpath;
+  }
+
+  /**
+   * Compiles the given compilation unit. Warnings are ignored.
+   *
+   * @param className the simple name of the public class declared by {@code sourceCode}
+   * @param sourceCode the source code of a compilation unit
+   * @throws CompilationException if the compilation fails; the message of the exception reports the
+   *     compilation errors
+   */
+  public void compile(String className, String sourceCode) throws CompilationException {
+    StandardJavaFileManager fileManager = fileManagers.poll();
+    if (fileManager == null) {
+      fileManager = newFileManager();
+    }
+    try {
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+      final boolean compiled =
+          compiler
+              .getTask(
+                  null,
+                  new DiscardingFileManager(fileManager),
+                  diagnostics,
+                  OPTIONS,
+                  null,
+                  Collections.singletonList(new Source(className, sourceCode)))
+              .call();
+      boolean hasErrors = !compiled;
+      StringBuilder message = new StringBuilder("Unable to compile the source");
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+        if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+          hasErrors = true;
+          message
+              .append("\n[kind=ERROR, line=")
+              .append(diagnostic.getLineNumber())
+              .append(", message=")
+              .append(diagnostic.getMessage(Locale.US))
+              .append("]");
+        }
+      }
+      if (hasErrors) {
+        throw new CompilationException(message.toString());
+      }
+    } finally {
+      fileManagers.offer(fileManager);
+    }
+  }
+
+  /**
+   * Compiles the given compilation units together, in a single compilation. The compilation units
+   * that do not compile (and those that depend on them) are left out: they are removed, and the
+   * remaining compilation units are compiled again, until they all compile. Warnings are ignored.
+   *
+   * @param sources the source code of the compilation units, by the simple name of the public class
+   *     they declare (compilation units are in the unnamed package), must not be null
+   * @param errors receives the errors reported by the compiler, by the name of the compilation unit
+   *     that has been left out because of them, must not be null
+   * @return the bytecode of the classes compiled from the compilation units that compile, including
+   *     nested classes, by binary name
+   * @throws CompilationException if the compilation fails because of an error that is not reported
+   *     in a compilation unit (e.g., an invalid option)
+   */
+  public Map<String, byte[]> compileAll(Map<String, String> sources, Map<String, String> errors)
+      throws CompilationException {
+    Checks.nonNullParameter(sources, "sources");
+    Checks.nonNullParameter(errors, "errors");
+    final Map<String, Source> remaining = new LinkedHashMap<>();
+    sources.forEach(
+        (className, sourceCode) -> remaining.put(className, new Source(className, sourceCode)));
+    StandardJavaFileManager fileManager = fileManagers.poll();
+    if (fileManager == null) {
+      fileManager = newFileManager();
+    }
+    try {
+      while (!remaining.isEmpty()) {
+        final CapturingFileManager capturingFileManager = new CapturingFileManager(fileManager);
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final boolean compiled =
+            compiler
+                .getTask(null, capturingFileManager, diagnostics, OPTIONS, null, remaining.values())
+                .call();
+        if (compiled) {
+          return capturingFileManager.getClasses();
+        }
+        boolean removed = false;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+          if (diagnostic.getKind() == Diagnostic.Kind.ERROR
+              && diagnostic.getSource() instanceof Source) {
+            final String className = ((Source) diagnostic.getSource()).className;
+            errors.merge(
+                className,
+                "[line="
+                    + diagnostic.getLineNumber()
+                    + ", message="
+                    + diagnostic.getMessage(Locale.US)
+                    + "]",
+                (error, other) -> error + "\n" + other);
+            removed |= remaining.remove(className) != null;
+          }
+        }
+        if (!removed) {
+          throw new CompilationException(
+              "Unable to compile the sources: " + diagnostics.getDiagnostics());
+        }
+      }
+      return new LinkedHashMap<>();
+    } finally {
+      fileManagers.offer(fileManager);
+    }
+  }
+
+  /**
+   * Closes the idle file managers of this service, releasing the jars they opened.
+   *
+   * @throws IOException if a file manager cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    StandardJavaFileManager fileManager;
+    while ((fileManager = fileManagers.poll()) != null) {
+      fileManager.close();
+    }
+  }
+
+  /**
+   * Creates a new file manager that reads classes from {@link #classpath}.
+   *
+   * @return a new file manager
+   */
+  private StandardJavaFileManager newFileManager() {
+    StandardJavaFileManager standardFileManager =
+        compiler.getStandardFileManager(null, Locale.US, null);
+    try {
+      standardFileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+    } catch (IOException e) {
+      throw new IllegalStateException("Invalid classpath " + classpath, e);
+    }
+    return standardFileManager;
+  }
+
+  /** A file manager that discards the files written by the compiler. */
+  private static final class DiscardingFileManager
+      extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    DiscardingFileManager(StandardJavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+      return new SimpleJavaFileObject(
+          URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+        @Override
+        public OutputStream openOutputStream() {
+          return new OutputStream() {
+            @Override
+            public void write(int b) {}
+
+            @Override
+            public void write(byte[] b, int off, int len) {}
+          };
+        }
+      };
+    }
+  }
+
+  /** A file manager that keeps the class files written by the compiler in memory. */
+  private static final class CapturingFileManager
+      extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    /** The class files written by the compiler, by binary name of the class. */
+    private final Map<String, ByteArrayOutputStream> classFiles = new LinkedHashMap<>();
+
+    CapturingFileManager(StandardJavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+      return new SimpleJavaFileObject(
+          URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+        @Override
+        public OutputStream openOutputStream() {
+          final ByteArrayOutputStream classFile = new ByteArrayOutputStream();
+          classFiles.put(className, classFile);
+          return classFile;
+        }
+      };
+    }
+
+    /**
+     * Returns the class files written by the compiler.
+     *
+     * @return the bytecode of the compiled classes, by binary name
+     */
+    Map<String, byte[]> getClasses() {
+      final Map<String, byte[]> classes = new LinkedHashMap<>();
+      classFiles.forEach((className, classFile) -> classes.put(className, classFile.toByteArray()));
+      return classes;
+    }
+  }
+
+  /** A compilation unit held in memory. */
+  private static final class Source extends SimpleJavaFileObject {
+
+    /** The simple name of the public class declared by the compilation unit. */
+    private final String className;
+
+    /** The source code of the compilation unit. */
+    private final String sourceCode;
+
+    Source(String className, String sourceCode) {
+      super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+      this.className = className;
+      this.sourceCode = sourceCode;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return sourceCode;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package org.toradocu.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A persistent cache of the results of the compilations performed by {@link ComplianceChecks}, so
+ * that the same source code is not compiled again in later runs of Toradocu.
+ *
+ * <p>A compilation is identified by a digest of the compiled source code, the version of the Java
+ * platform, and a fingerprint of the classpath made of the path, size, and last modification time
+ * of every jar and class file in the classpath. If any of them changes, the source code is compiled
+ * again. The cache is stored in a {@link MappedKeyValueStore} that maps digests to the result of
+ * the compilation: either success, or the error reported by the compiler.
+ */
+public final class ComplianceCache implements Closeable {
+
+  /** A cache that stores nothing. */
+  private static final ComplianceCache DISABLED = new ComplianceCache(null);
+
+  /** Prefix of the stored value of a successful compilation. */
+  private static final String SUCCESS = "+";
+
+  /** Prefix of the stored value of a failed compilation, followed by the compilation error. */
+  private static final String FAILURE = "-";
+
+  /** The store holding the cache, null if the cache is disabled. */
+  private final MappedKeyValueStore store;
+
+  /** Fingerprints of the classpaths used by compilations. */
+  private final Map<List<File>, String> fingerprints = new HashMap<>();
+
+  /** Number of compilations whose result has been found in the cache. */
+  private long hits;
+
+  /** Number of compilations whose result has not been found in the cache. */
+  private long misses;
+
+  private ComplianceCache(MappedKeyValueStore store) {
+    this.store = store;
+  }
+
+  /**
+   * Returns a cache that stores nothing.
+   *
+   * @return a disabled cache
+   */
+  public static ComplianceCache disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Opens the cache stored in the given file. If the file does not exist, the cache is empty.
+   *
+   * @param file the file storing the cache, must not be null
+   * @return the cache stored in {@code file}
+   * @throws IOException if the file exists but cannot be read
+   * @throws IllegalArgumentException if the file is not a valid cache
+   */
+  public static ComplianceCache open(File file) throws IOException {
+    Checks.nonNullParameter(file, "file");
+    return new ComplianceCache(MappedKeyValueStore.open(file.toPath()));
+  }
+
+  /**
+   * Returns the cached result of the compilation of {@code sourceCode} against {@code classpath}.
+   *
+   * @param classpath the classpath of the compilation
+   * @param sourceCode the compiled source code
+   * @return null if the result is not cached; otherwise, the compilation error, or an empty
+   *     optional if the compilation succeeded
+   */
+  synchronized Optional<String> get(List<File> classpath, String sourceCode) {
+    if (store == null) {
+      return null;
+    }
+    final String value = store.get(keyOf(classpath, sourceCode));
+    if (value == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return value.startsWith(SUCCESS)
+        ? Optional.empty()
+        : Optional.of(value.substring(FAILURE.length()));
+  }
+
+  /**
+   * Stores the result of the compilation of {@code sourceCode} against {@code classpath}.
+   *
+   * @param classpath the classpath of the compilation
+   * @param sourceCode the compiled source code
+   * @param error the compilation error, or an empty optional if the compilation succeeded
+   */
+  synchronized void put(List<File> classpath, String sourceCode, Optional<String> error) {
+    if (store == null) {
+      return;
+    }
+    store.put(keyOf(classpath, sourceCode), error.isPresent() ? FAILURE + error.get() : SUCCESS);
+  }
+
+  /**
+   * Stores this cache in its file and releases it. Does nothing if this cache is disabled.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  /**
+   * Returns whether this cache stores compilation results.
+   *
+   * @return true if this cache stores compilation results, false if it is disabled
+   */
+  public boolean isEnabled() {
+    return store != null;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "%d entries, %d hits, %d misses", store == null ? 0 : store.size(), hits, misses);
+  }
+
+  /**
+   * Returns the key that identifies the compilation of {@code sourceCode} against {@code
+   * classpath}.
+   *
+   * @param classpath the classpath of the compilation
+   * @param sourceCode the compiled source code
+   * @return the key of the compilation
+   */
+  private String keyOf(List<File> classpath, String sourceCode) {
+    final String fingerprint =
+        fingerprints.computeIfAbsent(classpath, ComplianceCache::fingerprint);
+    return Digests.sha256(fingerprint + "\n" + sourceCode);
+  }
+
+  /**
+   * Returns a fingerprint of the given classpath and of the Java platform, which changes when a jar
+   * or class file in the classpath changes.
+   *
+   * @param classpath a classpath
+   * @return the fingerprint of {@code classpath}
+   */
+  private static String fingerprint(List<File> classpath) {
+    StringJoiner fingerprint = new StringJoiner("\n");
+    fingerprint.add(System.getProperty("java.version"));
+    for (File entry : classpath) {
+      List<Path> files;
+      if (entry.isDirectory()) {
+        try (Stream<Path> paths = Files.walk(entry.toPath())) {
+          files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      } else {
+        files = Collections.singletonList(entry.toPath());
+      }
+      for (Path path : files) {
+        final File file = path.toFile();
+        fingerprint.add(file.getPath() + " " + file.length() + " " + file.lastModified());
+      }
+    }
+    return Digests.sha256(fingerprint.toString());
+  }
+}
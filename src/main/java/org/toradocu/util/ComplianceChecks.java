@@ -1,20 +1,23 @@
 package org.toradocu.util;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.mdkt.compiler.CompilationException;
-import org.mdkt.compiler.InMemoryJavaCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.util.ConditionTypeChecker.Verdict;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.Property;
 
@@ -23,6 +26,30 @@ public class ComplianceChecks {
   /** Logger of this class. */
   private static final Logger log = LoggerFactory.getLogger(ComplianceChecks.class);
 
+  /** Compiler service for the configured classpath, created when first needed. */
+  private static CompilerService compilerService;
+
+  /**
+   * Results of the compilations performed during this run, so that identical source code (e.g., the
+   * same guard of overloaded methods) is compiled once: the compilation error, if any.
+   */
+  private static final LruCache<String, Optional<String>> compilations = new LruCache<>(10_000);
+
+  /** Results of the compilations performed by previous runs. */
+  private static ComplianceCache complianceCache = ComplianceCache.disabled();
+
+  /** Number of checks decided by {@link ConditionTypeChecker} to be well-typed. */
+  private static final LongAdder wellTypedChecks = new LongAdder();
+
+  /** Number of checks decided by {@link ConditionTypeChecker} to be ill-typed. */
+  private static final LongAdder illTypedChecks = new LongAdder();
+
+  /** Number of checks decided by the compiler. */
+  private static final LongAdder compiledChecks = new LongAdder();
+
+  /** Number of invocations of the compiler. */
+  private static final LongAdder compilerInvocations = new LongAdder();
+
   /**
    * Tries to compile the boolean condition in the given {@code Guard} and tells whether the
    * compilation was successful.
@@ -36,23 +63,15 @@ public class ComplianceChecks {
       // if the target class is private we cannot apply compliance check.
       return true;
     }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
+    final String error = compilationError(method, false, guard.getConditionText());
+    if (error != null) {
       log.info(
           "The following specification was generated but discarded:\n"
               + guard.getConditionText()
               + "\n"
-              + e.getLocalizedMessage()
+              + error
               + "\n");
       return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
     }
     return true;
   }
@@ -72,49 +91,165 @@ public class ComplianceChecks {
       // if the target class is private we cannot apply compliance check.
       return true;
     }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    String methodReturnType = method.getReturnType().getType().getTypeName();
-    if (!methodReturnType.equals("void")) {
-      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
-    }
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
+    final String error =
+        compilationError(method, true, guard.getConditionText(), property.getConditionText());
+    if (error != null) {
       log.info(
           "The following specification was generated but discarded:\n"
               + guard.getConditionText()
               + " ? "
               + property.getConditionText()
               + "\n"
-              + e.getLocalizedMessage()
+              + error
               + "\n");
       return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
     }
     return true;
   }
 
+  /**
+   * Returns the statistics of the compliance checks performed so far.
+   *
+   * @return the statistics of the compliance checks
+   */
+  public static Statistics getStatistics() {
+    return new Statistics(
+        wellTypedChecks.sum(),
+        illTypedChecks.sum(),
+        compiledChecks.sum(),
+        compilerInvocations.sum());
+  }
+
+  /**
+   * Sets the cache of the results of the compilations performed by previous runs. Compilations
+   * performed from now on are stored in {@code cache}.
+   *
+   * @param cache the cache of compilation results, must not be null
+   */
+  public static synchronized void setComplianceCache(ComplianceCache cache) {
+    Checks.nonNullParameter(cache, "cache");
+    complianceCache = cache;
+  }
+
+  /**
+   * Checks whether the given conditions compile. Conditions that {@link ConditionTypeChecker} finds
+   * ill-typed are not compiled. For conditions that it finds well-typed, only the declarations of
+   * the source code (i.e., the source code without the conditions) are compiled, as the
+   * declarations are shared by many conditions. The other conditions are compiled.
+   *
+   * @param method documented executable the conditions belong to
+   * @param postSpecification whether the conditions are the guard and the property of a
+   *     postcondition, which can refer to the return value
+   * @param conditions the conditions to compile
+   * @return the error that prevents the compilation of the conditions, or null if they compile
+   */
+  private static String compilationError(
+      DocumentedExecutable method, boolean postSpecification, String... conditions) {
+    String methodReturnType = method.getReturnType().getType().getTypeName();
+    final boolean returnValueDeclared = postSpecification && !methodReturnType.equals("void");
+    final Verdict verdict =
+        ConditionTypeChecker.check(
+            method.getExecutable(), method.getParameters(), returnValueDeclared, conditions);
+    if (verdict == Verdict.ILL_TYPED) {
+      illTypedChecks.increment();
+      return "The condition is ill-typed";
+    }
+
+    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
+    if (returnValueDeclared) {
+      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
+    }
+    for (String condition : conditions) {
+      addConditionCodeInformation(method, condition, sourceCodeBuilder);
+    }
+    if (verdict == Verdict.WELL_TYPED) {
+      wellTypedChecks.increment();
+      return compilationError(sourceCodeBuilder.buildSourceWithoutConditions());
+    }
+    compiledChecks.increment();
+    return compilationError(sourceCodeBuilder.buildSource());
+  }
+
+  /**
+   * Returns the result of the compilation of the given source code. The source code is compiled
+   * only if it has not been compiled before, during this run or (according to the compliance cache)
+   * during a previous run.
+   *
+   * @param sourceCode source code to be compiled
+   * @return the error reported by the compiler, or null if the compilation succeeds
+   */
+  private static String compilationError(String sourceCode) {
+    final CompilerService service = compilerService();
+    final ComplianceCache cache = getComplianceCache();
+    try {
+      return compilations
+          .computeIfAbsent(
+              sourceCode,
+              source -> {
+                Optional<String> error = cache.get(service.getClasspath(), source);
+                if (error == null) {
+                  error = compile(service, source);
+                  cache.put(service.getClasspath(), source, error);
+                }
+                return error;
+              })
+          .orElse(null);
+    } catch (RuntimeException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
   /**
    * Invokes the in-memory compiler on the given source code.
    *
+   * @param service the compiler service to use
    * @param sourceCode source code to be compiled
-   * @throws Exception if the compiler encounters problems
+   * @return the error reported by the compiler, or an empty optional if the compilation succeeds
+   */
+  private static Optional<String> compile(CompilerService service, String sourceCode) {
+    compilerInvocations.increment();
+    try {
+      service.compile("GeneratedSpecs", sourceCode);
+      return Optional.empty();
+    } catch (CompilationException e) {
+      return Optional.of(e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * Returns the cache of the results of the compilations performed by previous runs.
+   *
+   * @return the compliance cache
    */
-  private static void compileSource(String sourceCode) throws Exception {
-    InMemoryJavaCompiler compiler = InMemoryJavaCompiler.newInstance();
-    compiler.ignoreWarnings();
-    List<String> classpath = new ArrayList<>();
+  private static synchronized ComplianceCache getComplianceCache() {
+    return complianceCache;
+  }
+
+  /**
+   * Returns the compiler service that compiles against the classpath in {@link
+   * Configuration#classDirs}. The service is shared by all compliance checks, and is replaced only
+   * when the classpath changes.
+   *
+   * @return the compiler service for the configured classpath
+   */
+  private static synchronized CompilerService compilerService() {
+    List<File> classpath = new ArrayList<>();
     for (URL url : Configuration.INSTANCE.classDirs) {
-      classpath.add(url.getPath());
+      classpath.add(new File(url.getPath()));
+    }
+    if (compilerService == null || !compilerService.getClasspath().equals(classpath)) {
+      if (compilerService != null) {
+        try {
+          compilerService.close();
+        } catch (IOException e) {
+          log.warn("Unable to close the compiler service", e);
+        }
+      }
+      compilerService = new CompilerService(classpath);
+      compilations.clear();
     }
-    compiler.useOptions("-cp", String.join(":", classpath));
-    compiler.compile("GeneratedSpecs", sourceCode);
+    return compilerService;
   }
 
   /**
@@ -213,4 +348,85 @@ public class ComplianceChecks {
 
     return text;
   }
+
+  /** Statistics of the compliance checks, reporting how each check was decided. */
+  public static final class Statistics {
+
+    /** Number of checks decided by the type checker to be well-typed. */
+    private final long wellTypedChecks;
+
+    /** Number of checks decided by the type checker to be ill-typed. */
+    private final long illTypedChecks;
+
+    /** Number of checks decided by the compiler. */
+    private final long compiledChecks;
+
+    /** Number of invocations of the compiler. */
+    private final long compilerInvocations;
+
+    private Statistics(
+        long wellTypedChecks, long illTypedChecks, long compiledChecks, long compilerInvocations) {
+      this.wellTypedChecks = wellTypedChecks;
+      this.illTypedChecks = illTypedChecks;
+      this.compiledChecks = compiledChecks;
+      this.compilerInvocations = compilerInvocations;
+    }
+
+    /**
+     * Returns the number of checks decided by the type checker to be well-typed.
+     *
+     * @return the number of checks decided to be well-typed without compiling the conditions
+     */
+    public long getWellTypedChecks() {
+      return wellTypedChecks;
+    }
+
+    /**
+     * Returns the number of checks decided by the type checker to be ill-typed.
+     *
+     * @return the number of checks decided to be ill-typed without compiling the conditions
+     */
+    public long getIllTypedChecks() {
+      return illTypedChecks;
+    }
+
+    /**
+     * Returns the number of checks decided by the compiler.
+     *
+     * @return the number of checks that compiled the conditions
+     */
+    public long getCompiledChecks() {
+      return compiledChecks;
+    }
+
+    /**
+     * Returns the number of invocations of the compiler, which is lower than the number of checks
+     * when the results of previous compilations are reused.
+     *
+     * @return the number of invocations of the compiler
+     */
+    public long getCompilerInvocations() {
+      return compilerInvocations;
+    }
+
+    @Override
+    public String toString() {
+      final long checks = wellTypedChecks + illTypedChecks + compiledChecks;
+      return String.format(
+          "%d checks, %d well-typed (%.1f%%), %d ill-typed (%.1f%%), %d compiled (%.1f%%),"
+              + " %d compiler invocations",
+          checks,
+          wellTypedChecks,
+          percentage(wellTypedChecks, checks),
+          illTypedChecks,
+          percentage(illTypedChecks, checks),
+          compiledChecks,
+          percentage(compiledChecks, checks),
+          compilerInvocations);
+    }
+
+    private static double percentage(long part, long total) {
+      return total == 0 ? 0 : 100.0 * part / total;
+    }
+  }
 }
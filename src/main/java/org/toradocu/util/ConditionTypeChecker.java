@@ -0,0 +1,752 @@
+package org.toradocu.util;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.expr.ArrayAccessExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.CharLiteralExpr;
+import com.github.javaparser.ast.expr.DoubleLiteralExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.InstanceOfExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LongLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedParameter;
+
+/**
+ * A type checker of the conditions generated by Toradocu, used by {@link ComplianceChecks} to
+ * decide whether a condition compiles without invoking the Java compiler. The checker parses a
+ * condition with JavaParser and computes the types of its subexpressions with reflection, starting
+ * from the types of the receiver object, of the parameters ({@code args[i]}), and of the return
+ * value of the documented executable member.
+ *
+ * <p>The checker is conservative: a condition is {@link Verdict#ILL_TYPED ill-typed} only if the
+ * compiler would certainly reject it (e.g., a boolean compared with {@code <}, a method that does
+ * not exist in the type of its receiver, or a parameter index out of range), and it is {@link
+ * Verdict#WELL_TYPED well-typed} only if it consists of constructs whose typing rules the checker
+ * fully implements (e.g., comparisons, logical operators, and invocations of public methods that
+ * are not overloaded and do not declare checked exceptions). Any other condition is {@link
+ * Verdict#UNDECIDED undecided}, and must be compiled.
+ */
+final class ConditionTypeChecker {
+
+  /** The outcome of the type checking of conditions. */
+  enum Verdict {
+    /** The conditions are well-typed. */
+    WELL_TYPED,
+    /** At least one condition is ill-typed. */
+    ILL_TYPED,
+    /** The checker cannot decide whether the conditions are well-typed. */
+    UNDECIDED
+  }
+
+  /** The type of the {@code null} literal. */
+  private static final Type NULL_TYPE =
+      new Type() {
+        @Override
+        public String getTypeName() {
+          return "null";
+        }
+      };
+
+  /** Primitive types mapped to their wrapper classes. */
+  private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+  /** Wrapper classes mapped to the corresponding primitive types. */
+  private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+
+  /** Numeric primitive types, in order of widening primitive conversion. */
+  private static final List<Class<?>> NUMERIC_TYPES =
+      Arrays.asList(
+          byte.class, short.class, char.class, int.class, long.class, float.class, double.class);
+
+  static {
+    final Class<?>[] primitives = {
+      boolean.class,
+      byte.class,
+      short.class,
+      char.class,
+      int.class,
+      long.class,
+      float.class,
+      double.class
+    };
+    final Class<?>[] wrappers = {
+      Boolean.class,
+      Byte.class,
+      Short.class,
+      Character.class,
+      Integer.class,
+      Long.class,
+      Float.class,
+      Double.class
+    };
+    for (int i = 0; i < primitives.length; i++) {
+      WRAPPERS.put(primitives[i], wrappers[i]);
+      PRIMITIVES.put(wrappers[i], primitives[i]);
+    }
+  }
+
+  /** Matches the references to parameters that {@link ComplianceChecks} replaces with names. */
+  private static final Pattern ARGUMENT = Pattern.compile("args\\[([0-9])\\]");
+
+  /** The executable member the conditions belong to. */
+  private final Executable executable;
+
+  /** The parameters of {@link #executable}. */
+  private final List<DocumentedParameter> parameters;
+
+  /** Whether the return value of {@link #executable} can be referred to by conditions. */
+  private final boolean returnValueDeclared;
+
+  /** Indexes of the parameters referred to (as {@code args[i]}) by the condition being checked. */
+  private final Set<Integer> referencedArguments = new HashSet<>();
+
+  /** Whether an ill-typed expression has been found. */
+  private boolean illTyped;
+
+  /** Whether the checker could not type an expression. */
+  private boolean undecided;
+
+  private ConditionTypeChecker(
+      Executable executable, List<DocumentedParameter> parameters, boolean returnValueDeclared) {
+    this.executable = executable;
+    this.parameters = parameters;
+    this.returnValueDeclared = returnValueDeclared;
+  }
+
+  /**
+   * Type checks the given conditions of a specification of {@code executable}. Conditions refer to
+   * the receiver object with {@link Configuration#RECEIVER}, to the i-th parameter with {@code
+   * args[i]}, and (if {@code returnValueDeclared}) to the return value with {@link
+   * Configuration#RETURN_VALUE}.
+   *
+   * @param executable the executable member the conditions belong to
+   * @param parameters the parameters of {@code executable}
+   * @param returnValueDeclared whether the conditions can refer to the return value
+   * @param conditions the conditions to check
+   * @return whether the conditions are well-typed, ill-typed, or neither could be decided
+   */
+  static Verdict check(
+      Executable executable,
+      List<DocumentedParameter> parameters,
+      boolean returnValueDeclared,
+      String... conditions) {
+    for (DocumentedParameter parameter : parameters) {
+      final String name = parameter.getName();
+      if (name.equals("args")
+          || name.equals(Configuration.RECEIVER)
+          || name.equals(Configuration.RETURN_VALUE)) {
+        // Replacing args[i] with parameter names would not preserve the meaning of conditions.
+        return Verdict.UNDECIDED;
+      }
+    }
+    ConditionTypeChecker checker =
+        new ConditionTypeChecker(executable, parameters, returnValueDeclared);
+    try {
+      for (String condition : conditions) {
+        checker.checkCondition(condition);
+        if (checker.illTyped) {
+          return Verdict.ILL_TYPED;
+        }
+      }
+    } catch (LinkageError | RuntimeException e) {
+      // Reflection fails on types whose dependencies are missing or malformed.
+      return Verdict.UNDECIDED;
+    }
+    return checker.undecided ? Verdict.UNDECIDED : Verdict.WELL_TYPED;
+  }
+
+  /**
+   * Type checks the given condition, which must be a boolean expression.
+   *
+   * @param condition the condition to check
+   */
+  private void checkCondition(String condition) {
+    referencedArguments.clear();
+    java.util.regex.Matcher argument = ARGUMENT.matcher(condition);
+    while (argument.find()) {
+      referencedArguments.add(Integer.valueOf(argument.group(1)));
+    }
+    final Expression expression;
+    try {
+      expression = JavaParser.parseExpression(condition);
+    } catch (ParseProblemException e) {
+      undecided = true;
+      return;
+    }
+    final Type type = typeOf(expression);
+    if (type != null && !isBoolean(type)) {
+      illTyped = true;
+    }
+  }
+
+  /**
+   * Returns the type of the given expression. When the type cannot be computed, this method returns
+   * null and marks the check as either undecided or ill-typed.
+   *
+   * @param expression the expression whose type is computed
+   * @return the type of {@code expression}, or null if it cannot be computed
+   */
+  private Type typeOf(Expression expression) {
+    if (expression instanceof EnclosedExpr) {
+      return typeOf(((EnclosedExpr) expression).getInner());
+    }
+    if (expression instanceof BooleanLiteralExpr) {
+      return boolean.class;
+    }
+    if (expression instanceof NullLiteralExpr) {
+      return NULL_TYPE;
+    }
+    if (expression instanceof CharLiteralExpr) {
+      return char.class;
+    }
+    if (expression instanceof StringLiteralExpr) {
+      return String.class;
+    }
+    if (expression instanceof IntegerLiteralExpr) {
+      return literalType(((IntegerLiteralExpr) expression).getValue(), int.class);
+    }
+    if (expression instanceof LongLiteralExpr) {
+      return literalType(((LongLiteralExpr) expression).getValue(), long.class);
+    }
+    if (expression instanceof DoubleLiteralExpr) {
+      final String value = ((DoubleLiteralExpr) expression).getValue();
+      return value.endsWith("f") || value.endsWith("F") ? float.class : double.class;
+    }
+    if (expression instanceof NameExpr) {
+      return typeOf((NameExpr) expression);
+    }
+    if (expression instanceof ArrayAccessExpr) {
+      return typeOf((ArrayAccessExpr) expression);
+    }
+    if (expression instanceof FieldAccessExpr) {
+      return typeOf((FieldAccessExpr) expression);
+    }
+    if (expression instanceof MethodCallExpr) {
+      return typeOf((MethodCallExpr) expression);
+    }
+    if (expression instanceof UnaryExpr) {
+      return typeOf((UnaryExpr) expression);
+    }
+    if (expression instanceof BinaryExpr) {
+      return typeOf((BinaryExpr) expression);
+    }
+    if (expression instanceof InstanceOfExpr) {
+      final Type type = typeOf(((InstanceOfExpr) expression).getExpression());
+      if (isPrimitive(type)) {
+        illTyped = true;
+      }
+      // The checker does not resolve type names.
+      undecided = true;
+      return boolean.class;
+    }
+    undecided = true;
+    return null;
+  }
+
+  /**
+   * Returns the type of an integer literal, checking that its value is in the range of the type.
+   *
+   * @param value the text of the literal, possibly with the suffix "L"
+   * @param type the type of the literal, either {@code int} or {@code long}
+   * @return {@code type}
+   */
+  private Class<?> literalType(String value, Class<?> type) {
+    String digits = value.replace("_", "");
+    if (type == long.class) {
+      digits = digits.substring(0, digits.length() - 1);
+    }
+    if (digits.length() > 1 && digits.startsWith("0")) {
+      // Hexadecimal, octal, and binary literals.
+      undecided = true;
+      return type;
+    }
+    try {
+      if (type == int.class) {
+        Integer.parseInt(digits);
+      } else {
+        Long.parseLong(digits);
+      }
+    } catch (NumberFormatException e) {
+      // Out of range, e.g., the literal 2147483648 in -2147483648.
+      undecided = true;
+    }
+    return type;
+  }
+
+  private Type typeOf(NameExpr name) {
+    final String identifier = name.getNameAsString();
+    if (identifier.equals(Configuration.RECEIVER)) {
+      // The receiver object is declared with the raw type of the declaring class.
+      return executable.getDeclaringClass();
+    }
+    if (returnValueDeclared && identifier.equals(Configuration.RETURN_VALUE)) {
+      return executable.getAnnotatedReturnType().getType();
+    }
+    undecided = true;
+    return null;
+  }
+
+  private Type typeOf(ArrayAccessExpr access) {
+    final Expression array = access.getName();
+    final Expression index = access.getIndex();
+    if (array instanceof NameExpr
+        && ((NameExpr) array).getNameAsString().equals("args")
+        && index instanceof IntegerLiteralExpr) {
+      final String value = ((IntegerLiteralExpr) index).getValue();
+      if (value.length() != 1 || !referencedArguments.contains(Integer.valueOf(value))) {
+        // Only args[i] with a single-digit index written without spaces is replaced.
+        undecided = true;
+        return null;
+      }
+      final int position = Integer.parseInt(value);
+      if (position >= parameters.size()) {
+        illTyped = true;
+        return null;
+      }
+      return parameters.get(position).asReflectionParameter().getParameterizedType();
+    }
+    final Type arrayType = typeOf(array);
+    final Type indexType = typeOf(index);
+    if (arrayType instanceof Class && ((Class<?>) arrayType).isArray() && isIntegral(indexType)) {
+      return ((Class<?>) arrayType).getComponentType();
+    }
+    undecided = true;
+    return null;
+  }
+
+  private Type typeOf(FieldAccessExpr access) {
+    final Type scopeType = typeOf(access.getScope());
+    if (scopeType == null) {
+      return null;
+    }
+    if (scopeType == NULL_TYPE || isPrimitive(scopeType)) {
+      illTyped = true;
+      return null;
+    }
+    final Class<?> scope = erasure(scopeType);
+    final String name = access.getNameAsString();
+    if (scope != null && scope.isArray() && name.equals("length")) {
+      return int.class;
+    }
+    if (scope != null && isAccessible(scope)) {
+      try {
+        final Field field = scope.getField(name);
+        final Type fieldType = field.getGenericType();
+        if (fieldType instanceof Class || fieldType instanceof ParameterizedType) {
+          return fieldType;
+        }
+      } catch (NoSuchFieldException e) {
+        // The field may be accessible from the package of the generated source.
+      }
+    }
+    undecided = true;
+    return null;
+  }
+
+  private Type typeOf(MethodCallExpr call) {
+    final List<Type> argumentTypes = new ArrayList<>();
+    for (Expression argument : call.getArguments()) {
+      argumentTypes.add(typeOf(argument));
+    }
+    if (!call.getScope().isPresent()) {
+      undecided = true;
+      return null;
+    }
+    final Type scopeType = typeOf(call.getScope().get());
+    if (scopeType == null) {
+      return null;
+    }
+    if (scopeType == NULL_TYPE || isPrimitive(scopeType)) {
+      illTyped = true;
+      return null;
+    }
+    final Class<?> scope = erasure(scopeType);
+    if (scope == null) {
+      undecided = true;
+      return null;
+    }
+
+    // Collects the signatures of the methods that may be invoked, whatever their visibility.
+    final String name = call.getNameAsString();
+    final int arity = argumentTypes.size();
+    Set<List<Class<?>>> signatures = new HashSet<>();
+    for (Class<?> type : hierarchy(scope.isArray() ? Object.class : scope)) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (method.getName().equals(name)) {
+          final int parameterCount = method.getParameterCount();
+          if (parameterCount == arity || (method.isVarArgs() && arity >= parameterCount - 1)) {
+            signatures.add(Arrays.asList(method.getParameterTypes()));
+          }
+        }
+      }
+    }
+    if (signatures.isEmpty()) {
+      // There is no method with the given name, or with the given number of parameters.
+      illTyped = true;
+      return null;
+    }
+    if (signatures.size() > 1 || !isAccessible(scope)) {
+      undecided = true;
+      return null;
+    }
+
+    final Method method;
+    try {
+      method = scope.getMethod(name, signatures.iterator().next().toArray(new Class<?>[0]));
+    } catch (NoSuchMethodException e) {
+      undecided = true;
+      return null;
+    }
+    if (method.isVarArgs() || method.isBridge()) {
+      undecided = true;
+      return null;
+    }
+    for (Class<?> exceptionType : method.getExceptionTypes()) {
+      if (!RuntimeException.class.isAssignableFrom(exceptionType)
+          && !Error.class.isAssignableFrom(exceptionType)) {
+        // The method compiled with the conditions declares no exceptions: the compiler decides.
+        undecided = true;
+        return null;
+      }
+    }
+    final Type[] parameterTypes = method.getGenericParameterTypes();
+    for (int i = 0; i < arity; i++) {
+      if (!isAssignable(argumentTypes.get(i), parameterTypes[i])) {
+        undecided = true;
+        return null;
+      }
+    }
+    final Type returnType = method.getGenericReturnType();
+    if (returnType == void.class) {
+      // A void method cannot be invoked in an expression.
+      illTyped = true;
+      return null;
+    }
+    if (returnType instanceof Class || returnType instanceof ParameterizedType) {
+      return returnType;
+    }
+    undecided = true;
+    return null;
+  }
+
+  private Type typeOf(UnaryExpr unary) {
+    final Type type = typeOf(unary.getExpression());
+    switch (unary.getOperator()) {
+      case LOGICAL_COMPLEMENT:
+        if (type != null && !isBoolean(type)) {
+          illTyped = true;
+        }
+        return boolean.class;
+      case PLUS:
+      case MINUS:
+        if (type == null) {
+          return null;
+        }
+        if (!isNumeric(type)) {
+          illTyped = true;
+          return null;
+        }
+        return promote(type, int.class);
+      default:
+        undecided = true;
+        return null;
+    }
+  }
+
+  private Type typeOf(BinaryExpr binary) {
+    final Type left = typeOf(binary.getLeft());
+    final Type right = typeOf(binary.getRight());
+    switch (binary.getOperator()) {
+      case AND:
+      case OR:
+        if ((left != null && !isBoolean(left)) || (right != null && !isBoolean(right))) {
+          illTyped = true;
+        }
+        return boolean.class;
+      case LESS:
+      case GREATER:
+      case LESS_EQUALS:
+      case GREATER_EQUALS:
+        if ((left != null && !isNumeric(left)) || (right != null && !isNumeric(right))) {
+          illTyped = true;
+        }
+        return boolean.class;
+      case EQUALS:
+      case NOT_EQUALS:
+        if (left != null && right != null) {
+          checkEquality(left, right);
+        }
+        return boolean.class;
+      case PLUS:
+        if (left == String.class || right == String.class) {
+          return String.class;
+        }
+        if (left == null || right == null) {
+          // The unknown operand could be a string, making this a string concatenation.
+          undecided = true;
+          return null;
+        }
+        return arithmeticType(left, right);
+      case MINUS:
+      case MULTIPLY:
+      case DIVIDE:
+      case REMAINDER:
+        return arithmeticType(left, right);
+      default:
+        undecided = true;
+        return null;
+    }
+  }
+
+  /**
+   * Checks that the operands of an equality operator ({@code ==} or {@code !=}) can be compared.
+   *
+   * @param left the type of the left operand
+   * @param right the type of the right operand
+   */
+  private void checkEquality(Type left, Type right) {
+    if (isPrimitive(left) || isPrimitive(right)) {
+      if (left == NULL_TYPE || right == NULL_TYPE) {
+        illTyped = true;
+      } else if ((isNumeric(left) && isBoolean(right)) || (isBoolean(left) && isNumeric(right))) {
+        illTyped = true;
+      } else if (!(isNumeric(left) && isNumeric(right)) && !(isBoolean(left) && isBoolean(right))) {
+        // A primitive value compared with a reference that may not be unboxed.
+        undecided = true;
+      }
+      return;
+    }
+    if (left == NULL_TYPE || right == NULL_TYPE) {
+      return;
+    }
+    if (left instanceof Class && right instanceof Class) {
+      final Class<?> leftClass = (Class<?>) left;
+      final Class<?> rightClass = (Class<?>) right;
+      if (leftClass.isAssignableFrom(rightClass) || rightClass.isAssignableFrom(leftClass)) {
+        return;
+      }
+      if (!leftClass.isInterface() && !rightClass.isInterface()) {
+        // Unrelated classes: no cast converts one into the other.
+        illTyped = true;
+        return;
+      }
+    }
+    undecided = true;
+  }
+
+  /**
+   * Returns the type of an arithmetic operation ({@code +} on numbers, {@code -}, {@code *}, {@code
+   * /}, and {@code %}) with operands of the given types.
+   *
+   * @param left the type of the left operand, null if unknown
+   * @param right the type of the right operand, null if unknown
+   * @return the type of the operation, or null if it cannot be computed
+   */
+  private Type arithmeticType(Type left, Type right) {
+    if ((left != null && !isNumeric(left)) || (right != null && !isNumeric(right))) {
+      illTyped = true;
+      return null;
+    }
+    if (left == null || right == null) {
+      return null;
+    }
+    return promote(promote(left, int.class), right);
+  }
+
+  /**
+   * Applies binary numeric promotion to the given numeric types.
+   *
+   * @param first a numeric type
+   * @param second a numeric type
+   * @return the promoted type
+   */
+  private static Class<?> promote(Type first, Type second) {
+    final Class<?> firstPrimitive = unbox(first);
+    final Class<?> secondPrimitive = unbox(second);
+    for (Class<?> type : Arrays.asList(double.class, float.class, long.class)) {
+      if (firstPrimitive == type || secondPrimitive == type) {
+        return type;
+      }
+    }
+    return int.class;
+  }
+
+  /**
+   * Checks whether an expression of type {@code source} can be passed to a parameter of type {@code
+   * target} by method invocation conversion. Returns false when this cannot be decided.
+   *
+   * @param source the type of the argument, null if unknown
+   * @param target the type of the parameter
+   * @return true if the argument can certainly be passed to the parameter, false otherwise
+   */
+  private static boolean isAssignable(Type source, Type target) {
+    if (source == null || !(target instanceof Class)) {
+      return false;
+    }
+    final Class<?> targetClass = (Class<?>) target;
+    if (source == NULL_TYPE) {
+      return !targetClass.isPrimitive();
+    }
+    final Class<?> sourceClass = erasure(source);
+    if (sourceClass == null) {
+      return false;
+    }
+    if (sourceClass.isPrimitive()) {
+      return targetClass.isPrimitive()
+          ? isWidening(sourceClass, targetClass)
+          : targetClass.isAssignableFrom(WRAPPERS.get(sourceClass));
+    }
+    if (targetClass.isPrimitive()) {
+      final Class<?> unboxed = PRIMITIVES.get(sourceClass);
+      return unboxed != null && isWidening(unboxed, targetClass);
+    }
+    return targetClass.isAssignableFrom(sourceClass);
+  }
+
+  /**
+   * Checks whether the primitive type {@code source} is identical to or can be widened to the
+   * primitive type {@code target}.
+   *
+   * @param source a primitive type
+   * @param target a primitive type
+   * @return true if a value of type {@code source} can be converted to {@code target}
+   */
+  private static boolean isWidening(Class<?> source, Class<?> target) {
+    if (source == target) {
+      return true;
+    }
+    if (source == char.class) {
+      return NUMERIC_TYPES.indexOf(target) >= NUMERIC_TYPES.indexOf(int.class);
+    }
+    if (target == char.class) {
+      return false;
+    }
+    final int sourceIndex = NUMERIC_TYPES.indexOf(source);
+    return sourceIndex >= 0 && NUMERIC_TYPES.indexOf(target) > sourceIndex;
+  }
+
+  /**
+   * Returns the classes whose methods can be invoked on an instance of {@code type}: the type
+   * itself, its superclasses, its superinterfaces, and {@code Object}.
+   *
+   * @param type a class or an interface
+   * @return the supertypes of {@code type}, including {@code type}
+   */
+  private static Set<Class<?>> hierarchy(Class<?> type) {
+    Set<Class<?>> types = new HashSet<>();
+    List<Class<?>> toVisit = new ArrayList<>();
+    toVisit.add(type);
+    toVisit.add(Object.class);
+    while (!toVisit.isEmpty()) {
+      final Class<?> current = toVisit.remove(toVisit.size() - 1);
+      if (types.add(current)) {
+        if (current.getSuperclass() != null) {
+          toVisit.add(current.getSuperclass());
+        }
+        toVisit.addAll(Arrays.asList(current.getInterfaces()));
+      }
+    }
+    return types;
+  }
+
+  /**
+   * Checks whether {@code type} and the classes enclosing it are public, so that the public members
+   * of {@code type} are accessible from any package.
+   *
+   * @param type the type to check
+   * @return true if {@code type} is accessible from any package
+   */
+  private static boolean isAccessible(Class<?> type) {
+    for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+      if (!Modifier.isPublic(current.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the class of the given type, or the raw class of a parameterized type.
+   *
+   * @param type a type
+   * @return the erasure of {@code type}, or null if {@code type} is neither a class nor a
+   *     parameterized type
+   */
+  private static Class<?> erasure(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    }
+    if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    }
+    return null;
+  }
+
+  private static boolean isPrimitive(Type type) {
+    return type instanceof Class && ((Class<?>) type).isPrimitive();
+  }
+
+  private static boolean isBoolean(Type type) {
+    return unbox(type) == boolean.class;
+  }
+
+  private static boolean isNumeric(Type type) {
+    return NUMERIC_TYPES.contains(unbox(type));
+  }
+
+  private static boolean isIntegral(Type type) {
+    final Class<?> primitive = unbox(type);
+    return primitive == byte.class
+        || primitive == short.class
+        || primitive == char.class
+        || primitive == int.class;
+  }
+
+  /**
+   * Returns the primitive type corresponding to the given type.
+   *
+   * @param type a type
+   * @return {@code type} if it is a primitive type, the corresponding primitive type if it is a
+   *     wrapper class or a type variable bounded by a wrapper class, null otherwise
+   */
+  private static Class<?> unbox(Type type) {
+    if (isPrimitive(type)) {
+      return (Class<?>) type;
+    }
+    if (type instanceof TypeVariable) {
+      for (Type bound : ((TypeVariable<?>) type).getBounds()) {
+        final Class<?> primitive = unbox(bound);
+        if (primitive != null) {
+          return primitive;
+        }
+      }
+      return null;
+    }
+    return PRIMITIVES.get(type);
+  }
+}
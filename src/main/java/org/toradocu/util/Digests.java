@@ -0,0 +1,34 @@
+package org.toradocu.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** Computes digests that identify data in persistent caches. */
+public final class Digests {
+
+  /** Disables construction of this class. */
+  private Digests() {}
+
+  /**
+   * Returns the hexadecimal SHA-256 digest of the given text.
+   *
+   * @param text the text to digest, must not be null
+   * @return the hexadecimal SHA-256 digest of {@code text}
+   */
+  public static String sha256(String text) {
+    Checks.nonNullParameter(text, "text");
+    final MessageDigest messageDigest;
+    try {
+      messageDigest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is supported by every Java platform", e);
+    }
+    final byte[] hash = messageDigest.digest(text.getBytes(StandardCharsets.UTF_8));
+    StringBuilder hex = new StringBuilder(2 * hash.length);
+    for (byte b : hash) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
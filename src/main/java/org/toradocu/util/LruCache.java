@@ -0,0 +1,294 @@
+package org.toradocu.util;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache bounded by a maximum number of entries and, optionally, by a maximum total
+ * weight of its values. When a bound is exceeded, least recently used entries are evicted to make
+ * room for a new one. Values can optionally be softly referenced, so that the garbage collector can
+ * reclaim them when memory is low.
+ *
+ * <p>The cache keeps track of hits, misses, and evictions, which can be retrieved with {@link
+ * #getStatistics()}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public final class LruCache<K, V> {
+
+  /** Maximum number of entries held by this cache. */
+  private final int capacity;
+
+  /** Maximum total weight of the values held by this cache. */
+  private final long maxWeight;
+
+  /** Computes the weight of a value. */
+  private final ToLongFunction<? super V> weigher;
+
+  /** Whether values are softly referenced. */
+  private final boolean softValues;
+
+  /** Cached entries, in access order. Every access must be synchronized on this map. */
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Total weight of the cached values. Guarded by {@link #entries}. */
+  private long weight;
+
+  /** Number of lookups that found a cached value. Guarded by {@link #entries}. */
+  private long hits;
+
+  /** Number of lookups that did not find a cached value. Guarded by {@link #entries}. */
+  private long misses;
+
+  /**
+   * Number of entries evicted to respect the bounds of this cache, or because their value has been
+   * reclaimed by the garbage collector. Guarded by {@link #entries}.
+   */
+  private long evictions;
+
+  /**
+   * Creates a new empty cache that holds at most {@code capacity} entries. Values are strongly
+   * referenced and have no weight.
+   *
+   * @param capacity the maximum number of entries held by the cache
+   * @throws IllegalArgumentException if {@code capacity} is not positive
+   */
+  public LruCache(int capacity) {
+    this(capacity, Long.MAX_VALUE, value -> 0, false);
+  }
+
+  /**
+   * Creates a new empty cache that holds at most {@code capacity} entries, whose total weight is at
+   * most {@code maxWeight}. An entry whose weight alone exceeds {@code maxWeight} is not cached.
+   *
+   * @param capacity the maximum number of entries held by the cache
+   * @param maxWeight the maximum total weight of the values held by the cache
+   * @param weigher the function that computes the weight of a value, must not be null
+   * @param softValues true if values are softly referenced, false if they are strongly referenced
+   * @throws IllegalArgumentException if {@code capacity} or {@code maxWeight} are not positive
+   */
+  public LruCache(
+      int capacity, long maxWeight, ToLongFunction<? super V> weigher, boolean softValues) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Cache capacity must be positive, but is " + capacity);
+    }
+    if (maxWeight <= 0) {
+      throw new IllegalArgumentException("Cache max weight must be positive, but is " + maxWeight);
+    }
+    Checks.nonNullParameter(weigher, "weigher");
+    this.capacity = capacity;
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.softValues = softValues;
+  }
+
+  /**
+   * Returns the value cached for {@code key}, or null if there is no such value.
+   *
+   * @param key the key whose cached value is returned
+   * @return the value cached for {@code key}, or null if there is no such value
+   */
+  public V get(K key) {
+    synchronized (entries) {
+      final Entry<V> entry = entries.get(key);
+      V value = null;
+      if (entry != null) {
+        value = entry.getValue();
+        if (value == null) { // Reclaimed by the garbage collector.
+          entries.remove(key);
+          weight -= entry.weight;
+          evictions++;
+        }
+      }
+      if (value == null) {
+        misses++;
+      } else {
+        hits++;
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Caches {@code value} for {@code key}, possibly evicting the least recently used entries.
+   *
+   * @param key the key
+   * @param value the value to cache, must not be null
+   */
+  public void put(K key, V value) {
+    Checks.nonNullParameter(value, "value");
+    final Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value), softValues);
+    synchronized (entries) {
+      final Entry<V> previous = entries.remove(key);
+      if (previous != null) {
+        weight -= previous.weight;
+      }
+      if (entry.weight > maxWeight) {
+        evictions++;
+        return;
+      }
+      entries.put(key, entry);
+      weight += entry.weight;
+
+      final Iterator<Entry<V>> eldest = entries.values().iterator();
+      while (entries.size() > capacity || weight > maxWeight) {
+        weight -= eldest.next().weight;
+        eldest.remove();
+        evictions++;
+      }
+    }
+  }
+
+  /**
+   * Returns the value cached for {@code key}. If there is no such value, computes it with {@code
+   * valueFunction} and caches it. The value is computed without holding the cache lock, so that
+   * threads computing values for different keys do not block each other; as a consequence, the
+   * value of the same key may occasionally be computed more than once.
+   *
+   * @param key the key whose cached value is returned
+   * @param valueFunction the function that computes the value of {@code key}, must not return null
+   * @return the value cached for {@code key}
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> valueFunction) {
+    V value = get(key);
+    if (value == null) {
+      value = valueFunction.apply(key);
+      put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the number of entries in this cache.
+   *
+   * @return the number of entries in this cache
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /** Removes all the entries from this cache. Statistics are not reset. */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+      weight = 0;
+    }
+  }
+
+  /**
+   * Returns a snapshot of the statistics of this cache.
+   *
+   * @return a snapshot of the statistics of this cache
+   */
+  public Statistics getStatistics() {
+    synchronized (entries) {
+      return new Statistics(entries.size(), weight, hits, misses, evictions);
+    }
+  }
+
+  /**
+   * A cached value together with its weight.
+   *
+   * @param <V> the type of the cached value
+   */
+  private static final class Entry<V> {
+    /** The value, if strongly referenced. */
+    private final V value;
+    /** The value, if softly referenced. */
+    private final SoftReference<V> softValue;
+    /** The weight of the value. */
+    private final long weight;
+
+    private Entry(V value, long weight, boolean soft) {
+      this.value = soft ? null : value;
+      this.softValue = soft ? new SoftReference<>(value) : null;
+      this.weight = weight;
+    }
+
+    /**
+     * Returns the value, or null if the value has been reclaimed by the garbage collector.
+     *
+     * @return the value, or null if the value has been reclaimed by the garbage collector
+     */
+    private V getValue() {
+      return softValue == null ? value : softValue.get();
+    }
+  }
+
+  /** Statistics of a cache at a given time. */
+  public static final class Statistics {
+    private final int size;
+    private final long weight;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    private Statistics(int size, long weight, long hits, long misses, long evictions) {
+      this.size = size;
+      this.weight = weight;
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the number of cached entries
+     */
+    public int getSize() {
+      return size;
+    }
+
+    /**
+     * Returns the total weight of the cached values. Values reclaimed by the garbage collector are
+     * included until the cache notices that they have been reclaimed.
+     *
+     * @return the total weight of the cached values
+     */
+    public long getWeight() {
+      return weight;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     *
+     * @return the number of lookups that found a cached value
+     */
+    public long getHits() {
+      return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached value.
+     *
+     * @return the number of lookups that did not find a cached value
+     */
+    public long getMisses() {
+      return misses;
+    }
+
+    /**
+     * Returns the number of evicted entries, including entries whose values have been reclaimed by
+     * the garbage collector.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictions() {
+      return evictions;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d entries (weight %d), %d hits, %d misses, %d evictions",
+          size, weight, hits, misses, evictions);
+    }
+  }
+}
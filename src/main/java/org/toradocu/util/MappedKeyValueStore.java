@@ -0,0 +1,410 @@
+package org.toradocu.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A persistent map from strings to strings, stored in a single file. The file is an append-only log
+ * of records, each made of a key, a value (missing for removed keys), and the day the entry has
+ * last been used; when a key is written more than once, its last record wins. When the store is
+ * opened, the file is memory-mapped and indexed, and values are read from the mapped file only when
+ * requested. Entries written after opening are kept in memory and appended to the file by {@link
+ * #close()}.
+ *
+ * <p>An entry is used when it is written or read. On close, the day of the entries read since
+ * opening is updated in place. Entries that have not been used for more than a maximum number of
+ * days are stale: they are not removed from the store, but they are reclaimed by the next
+ * compaction.
+ *
+ * <p>Records superseded by later ones and stale records waste space. When they take more than half
+ * of the file, the file is compacted on close, i.e., it is rewritten with the live records only. A
+ * truncated last record (e.g., due to a crash while appending) is discarded by compaction as well.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class MappedKeyValueStore implements Closeable {
+
+  /** First bytes of a store file ("TDKV"). */
+  private static final int MAGIC = 0x54444b56;
+
+  /** Version of the format of store files. */
+  private static final int VERSION = 2;
+
+  /** Size in bytes of the header of the file, made of {@link #MAGIC} and {@link #VERSION}. */
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+  /** Default maximum number of days an entry can be unused before it becomes stale. */
+  public static final int DEFAULT_MAX_IDLE_DAYS = 30;
+
+  /** Length of the value of the records of removed keys. */
+  private static final int REMOVED = -1;
+
+  /** The file storing this store. */
+  private final Path file;
+
+  /** The content of the file when this store was opened. */
+  private final ByteBuffer mapped;
+
+  /**
+   * Position and length of the value of each key in {@link #mapped}, position of its record, and
+   * day (as an epoch day) the entry has last been used.
+   */
+  private final Map<String, long[]> index = new HashMap<>();
+
+  /** Keys of {@link #index} read since this store was opened, whose day has to be updated. */
+  private final Set<String> read = new HashSet<>();
+
+  /** The current day, as an epoch day. */
+  private final int today;
+
+  /** Maximum number of days an entry can be unused before it becomes stale. */
+  private final int maxIdleDays;
+
+  /**
+   * Entries written since this store was opened, in insertion order. Removed keys are mapped to
+   * null.
+   */
+  private final Map<String, String> written = new LinkedHashMap<>();
+
+  /** Number of bytes of {@link #mapped} taken by records that are not superseded. */
+  private long liveBytes;
+
+  /** Whether the file ends with a truncated record. */
+  private boolean truncated;
+
+  /** Whether this store has been closed. */
+  private boolean closed;
+
+  private MappedKeyValueStore(Path file, ByteBuffer mapped, int today, int maxIdleDays) {
+    this.file = file;
+    this.mapped = mapped;
+    this.today = today;
+    this.maxIdleDays = maxIdleDays;
+  }
+
+  /**
+   * Opens the store stored in the given file. If the file does not exist, the store is empty and
+   * the file is created when the store is closed. Entries become stale after {@link
+   * #DEFAULT_MAX_IDLE_DAYS} days without use.
+   *
+   * @param file the file storing the store, must not be null
+   * @return the store stored in {@code file}
+   * @throws IOException if the file exists but cannot be read
+   * @throws IllegalArgumentException if the file exists but it is not a store
+   */
+  public static MappedKeyValueStore open(Path file) throws IOException {
+    return open(file, DEFAULT_MAX_IDLE_DAYS, Clock.systemUTC());
+  }
+
+  /**
+   * Opens the store stored in the given file. If the file does not exist, the store is empty and
+   * the file is created when the store is closed.
+   *
+   * @param file the file storing the store, must not be null
+   * @param maxIdleDays the maximum number of days an entry can be unused before it becomes stale
+   * @param clock the clock providing the current day, must not be null
+   * @return the store stored in {@code file}
+   * @throws IOException if the file exists but cannot be read
+   * @throws IllegalArgumentException if the file exists but it is not a store
+   */
+  static MappedKeyValueStore open(Path file, int maxIdleDays, Clock clock) throws IOException {
+    Checks.nonNullParameter(file, "file");
+    Checks.nonNullParameter(clock, "clock");
+    final int today = (int) LocalDate.now(clock).toEpochDay();
+    if (!Files.exists(file) || Files.size(file) == 0) {
+      return new MappedKeyValueStore(file, ByteBuffer.allocate(0), today, maxIdleDays);
+    }
+    final MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (mapped.limit() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException(file + " is not a key-value store");
+    }
+    if (mapped.getInt(Integer.BYTES) != VERSION) {
+      throw new IllegalArgumentException(
+          file + " is a key-value store of unsupported version " + mapped.getInt(Integer.BYTES));
+    }
+    final MappedKeyValueStore store = new MappedKeyValueStore(file, mapped, today, maxIdleDays);
+    store.index();
+    return store;
+  }
+
+  /** Reads the records of the mapped file and fills {@link #index}. */
+  private void index() {
+    final ByteBuffer buffer = mapped.duplicate();
+    buffer.position(HEADER_SIZE);
+    while (buffer.hasRemaining()) {
+      final int recordStart = buffer.position();
+      try {
+        final String key = new String(readBytes(buffer), StandardCharsets.UTF_8);
+        final int valueLength = buffer.getInt();
+        if (valueLength < REMOVED || valueLength > buffer.remaining()) {
+          throw new BufferUnderflowException();
+        }
+        final int valueStart = buffer.position();
+        buffer.position(valueStart + Math.max(valueLength, 0));
+        final int day = buffer.getInt();
+        final long[] previous;
+        if (valueLength == REMOVED) {
+          previous = index.remove(key);
+        } else {
+          previous = index.put(key, new long[] {valueStart, valueLength, recordStart, day});
+          liveBytes += buffer.position() - recordStart;
+        }
+        if (previous != null) {
+          liveBytes -= recordLength(previous);
+        }
+      } catch (BufferUnderflowException e) {
+        truncated = true;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the value associated with {@code key}, or null if there is no such value.
+   *
+   * @param key the key whose value is returned
+   * @return the value associated with {@code key}, or null if there is no such value
+   */
+  public synchronized String get(String key) {
+    if (written.containsKey(key)) {
+      return written.get(key);
+    }
+    final long[] location = index.get(key);
+    if (location == null) {
+      return null;
+    }
+    if (location[3] != today && !closed) {
+      read.add(key);
+    }
+    final ByteBuffer buffer = mapped.duplicate();
+    buffer.position((int) location[0]);
+    final byte[] bytes = new byte[(int) location[1]];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Associates {@code value} with {@code key}, replacing the value previously associated with
+   * {@code key}. The entry is stored in the file when this store is closed.
+   *
+   * @param key the key, must not be null
+   * @param value the value, must not be null
+   */
+  public synchronized void put(String key, String value) {
+    Checks.nonNullParameter(key, "key");
+    Checks.nonNullParameter(value, "value");
+    if (closed) {
+      throw new IllegalStateException("The store " + file + " is closed");
+    }
+    written.put(key, value);
+  }
+
+  /**
+   * Removes the entry of {@code key}, if any. The removal is stored in the file when this store is
+   * closed.
+   *
+   * @param key the key, must not be null
+   */
+  public synchronized void remove(String key) {
+    Checks.nonNullParameter(key, "key");
+    if (closed) {
+      throw new IllegalStateException("The store " + file + " is closed");
+    }
+    if (index.containsKey(key)) {
+      written.put(key, null);
+    } else {
+      written.remove(key);
+    }
+  }
+
+  /**
+   * Returns the number of entries of this store.
+   *
+   * @return the number of entries of this store
+   */
+  public synchronized int size() {
+    int size = index.size();
+    for (Map.Entry<String, String> entry : written.entrySet()) {
+      final boolean indexed = index.containsKey(entry.getKey());
+      if (entry.getValue() == null && indexed) {
+        size--;
+      } else if (entry.getValue() != null && !indexed) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Writes the entries put since this store was opened to the file, and updates the day of the
+   * entries read, compacting the file if needed. Closing a closed store has no effect.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    read.removeAll(written.keySet());
+    long reclaimableBytes = mapped.limit() - HEADER_SIZE - liveBytes;
+    for (Map.Entry<String, long[]> entry : index.entrySet()) {
+      if (written.containsKey(entry.getKey()) || isStale(entry.getKey(), entry.getValue())) {
+        reclaimableBytes += recordLength(entry.getValue());
+      }
+    }
+    if (truncated || reclaimableBytes > mapped.limit() / 2) {
+      compact();
+    } else if (!written.isEmpty() || !read.isEmpty()) {
+      update();
+    }
+  }
+
+  /**
+   * Checks whether the entry with the given key and location is stale, i.e., it has not been used
+   * for more than {@link #maxIdleDays} days.
+   *
+   * @param key the key of the entry
+   * @param location the location of the entry in {@link #mapped}
+   * @return true if the entry is stale, false otherwise
+   */
+  private boolean isStale(String key, long[] location) {
+    return today - location[3] > maxIdleDays && !read.contains(key);
+  }
+
+  /**
+   * Updates the day of the entries read since this store was opened, and appends the records of the
+   * entries put since this store was opened to the file.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  private void update() throws IOException {
+    final Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    try (FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      for (String key : read) {
+        final long[] location = index.get(key);
+        channel.write(day(today), location[0] + location[1]);
+      }
+      channel.position(channel.size());
+      if (channel.size() == 0) {
+        channel.write(header());
+      }
+      for (Map.Entry<String, String> entry : written.entrySet()) {
+        channel.write(record(entry.getKey(), entry.getValue(), today));
+      }
+    }
+  }
+
+  /**
+   * Rewrites the file with the live records only, i.e., without superseded and stale records.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  private void compact() throws IOException {
+    final Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    final Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), null);
+    try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+      channel.write(header());
+      for (Map.Entry<String, long[]> entry : index.entrySet()) {
+        final String key = entry.getKey();
+        final long[] location = entry.getValue();
+        if (!written.containsKey(key) && !isStale(key, location)) {
+          final ByteBuffer buffer = mapped.duplicate();
+          buffer.position((int) location[2]);
+          buffer.limit((int) (location[0] + location[1]));
+          channel.write(buffer);
+          channel.write(day(read.contains(key) ? today : (int) location[3]));
+        }
+      }
+      for (Map.Entry<String, String> entry : written.entrySet()) {
+        if (entry.getValue() != null) {
+          channel.write(record(entry.getKey(), entry.getValue(), today));
+        }
+      }
+    }
+    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Returns the length in bytes of the record at the given location.
+   *
+   * @param location position and length of the value of the record, and position of the record
+   * @return the length in bytes of the record
+   */
+  private static long recordLength(long[] location) {
+    return location[0] + location[1] + Integer.BYTES - location[2];
+  }
+
+  private static ByteBuffer header() {
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION);
+    header.flip();
+    return header;
+  }
+
+  private static ByteBuffer day(int day) {
+    final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    buffer.putInt(day);
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Returns the record of the given entry.
+   *
+   * @param key the key of the entry
+   * @param value the value of the entry, or null if the key has been removed
+   * @param day the day the entry has last been used, as an epoch day
+   * @return the record of the entry
+   */
+  private static ByteBuffer record(String key, String value, int day) {
+    final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    final byte[] valueBytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer record =
+        ByteBuffer.allocate(3 * Integer.BYTES + keyBytes.length + valueBytes.length);
+    record.putInt(keyBytes.length).put(keyBytes);
+    record.putInt(value == null ? REMOVED : valueBytes.length).put(valueBytes).putInt(day);
+    record.flip();
+    return record;
+  }
+
+  /**
+   * Reads a length-prefixed array of bytes from the given buffer.
+   *
+   * @param buffer the buffer to read from
+   * @return the bytes read
+   * @throws BufferUnderflowException if the buffer does not contain the whole array
+   */
+  private static byte[] readBytes(ByteBuffer buffer) {
+    final int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
@@ -3,6 +3,7 @@ package org.toradocu.util;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -42,6 +43,26 @@ public class SourceCodeBuilder {
    * @return the source code to be compiled
    */
   public String buildSource() {
+    return buildSource(conditions);
+  }
+
+  /**
+   * Composes the source code without the boolean conditions, i.e., with the declarations only. The
+   * source code returned by {@link #buildSource()} does not compile if this one does not compile.
+   *
+   * @return the source code without the boolean conditions
+   */
+  public String buildSourceWithoutConditions() {
+    return buildSource(Collections.emptySet());
+  }
+
+  /**
+   * Composes the source code with the given boolean conditions.
+   *
+   * @param conditions the boolean conditions to include in the source code
+   * @return the source code to be compiled
+   */
+  private String buildSource(Set<String> conditions) {
     StringBuilder fakeSource = new StringBuilder();
 
     if (!packageDeclaration.isEmpty()) {
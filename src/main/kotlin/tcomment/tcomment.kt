@@ -1,6 +1,7 @@
 package tcomment
 
 import org.toradocu.extractor.DocumentedExecutable
+import org.toradocu.extractor.ExecutableMap
 import org.toradocu.extractor.ParamTag
 import org.toradocu.extractor.ThrowsTag
 import randoop.condition.specification.*
@@ -11,9 +12,8 @@ import randoop.condition.specification.*
  *
  * @param executables a list of [DocumentedExecutable]s whose tags has to be translated
  */
-fun translate(executables: List<DocumentedExecutable>):
-    Map<DocumentedExecutable, OperationSpecification> {
-  val specs = mutableMapOf<DocumentedExecutable, OperationSpecification>()
+fun translate(executables: List<DocumentedExecutable>): ExecutableMap<OperationSpecification> {
+  val specs = ExecutableMap<OperationSpecification>(executables.size)
   for (method in executables) {
     val parameters = method.parameters.map { it.name }
     val preSpecs = method.paramTags().map { translateTagComment(it, parameters) }
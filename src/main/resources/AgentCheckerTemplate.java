@@ -0,0 +1,208 @@
+import java.lang.invoke.MethodHandles;
+
+public final class Checker_Template {
+
+  private static final double samplingRate = 1.0;
+
+  private static final int maxChecksPerSecond = 0;
+
+  private static final long samplingSeed = 0L;
+
+  private static final boolean metricsEnabled = false;
+
+  private static final String metricsFile = "";
+
+  private static final String signature = "";
+
+  private static final Class<?>[] expectedExceptionTypes = loadClasses();
+
+  private static final long loadedExceptionTypes = loadedClasses(expectedExceptionTypes);
+
+  private static final ThreadLocal<long[]> sampler = newSampler("");
+
+  private static final OracleMetrics metrics =
+      metricsEnabled
+          ? OracleMetrics.register(
+              metricsFile,
+              MethodHandles.lookup().lookupClass().getName(),
+              "",
+              new String[] {},
+              new String[] {},
+              new String[] {})
+          : null;
+
+  private Checker_Template() {}
+
+  public static boolean isChecked() {
+    return isSampled(sampler);
+  }
+
+  public static long now() {
+    return metricsEnabled ? System.nanoTime() : 0L;
+  }
+
+  public static long enter(long checkStart, Object target, Object[] args) {
+    boolean proceeding = false;
+    try {
+      if (!paramTagsSatisfied(target, args)) {
+        System.err.println(message("Ignored test case: inputs violate pre-conditions"));
+        throw new OracleAgent.InvalidParamException();
+      }
+      long expectedExceptions = getExpectedExceptions(target, args) & loadedExceptionTypes;
+      if (metricsEnabled) {
+        metrics.expected(expectedExceptions);
+      }
+      proceeding = true;
+      return expectedExceptions;
+    } finally {
+      if (metricsEnabled && !proceeding) {
+        metrics.checked(System.nanoTime() - checkStart);
+      }
+    }
+  }
+
+  public static Object returned(
+      Object result, Object target, Object[] args, long checkStart, long proceedStart) {
+    long proceedTime = metricsEnabled ? System.nanoTime() - proceedStart : 0L;
+    try {
+      return checkResult(result, target, args);
+    } finally {
+      if (metricsEnabled) {
+        metrics.checked(System.nanoTime() - checkStart - proceedTime);
+      }
+    }
+  }
+
+  public static Throwable thrown(
+      Throwable thrown, long expectedExceptions, long checkStart, long proceedStart) {
+    long proceedTime = metricsEnabled ? System.nanoTime() - proceedStart : 0L;
+    try {
+      if (thrown != null
+          && isExpectedException(expectedExceptionTypes, expectedExceptions, thrown.getClass())) {
+        System.err.println(message("Success: Expected exception caught"));
+        return new OracleAgent.ExpectedException();
+      }
+      if (metricsEnabled) {
+        metrics.failed(expectedExceptions);
+      }
+      if (thrown != null) {
+        return new AssertionError(
+            message(
+                "Failure: Unexpected exception thrown: " + thrown.getClass().getCanonicalName()));
+      }
+      return new AssertionError(
+          message(
+              "Failure: Expected exception not thrown. Expected exceptions were: "
+                  + getExpectedExceptionAsString(expectedExceptionTypes, expectedExceptions)));
+    } finally {
+      if (metricsEnabled) {
+        metrics.checked(System.nanoTime() - checkStart - proceedTime);
+      }
+    }
+  }
+
+  private static boolean paramTagsSatisfied(Object target, Object[] args) {}
+
+  private static Object checkResult(Object result, Object target, Object[] args) {}
+
+  private static long getExpectedExceptions(Object target, Object[] args) {
+    long expectedExceptions = 0L;
+  }
+
+  private static void fail(String message) {
+    throw new AssertionError(message(message));
+  }
+
+  private static String message(String outcome) {
+    return "Triggered checker: "
+        + MethodHandles.lookup().lookupClass().getName()
+        + " ("
+        + signature
+        + ") -> "
+        + outcome;
+  }
+
+  private static boolean isExpectedException(
+      Class<?>[] exceptionTypes, long expectedExceptions, Class<?> exceptionType) {
+    for (int i = 0; i < exceptionTypes.length; i++) {
+      if ((expectedExceptions & (1L << i)) != 0L && exceptionTypes[i] == exceptionType) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String getExpectedExceptionAsString(
+      Class<?>[] exceptionTypes, long expectedExceptions) {
+    String listAsString = "";
+    for (int i = 0; i < exceptionTypes.length; i++) {
+      if ((expectedExceptions & (1L << i)) != 0L) {
+        listAsString += exceptionTypes[i].getName() + " ";
+      }
+    }
+    return listAsString;
+  }
+
+  private static boolean isSampled(ThreadLocal<long[]> sampler) {
+    if (samplingRate >= 1.0 && maxChecksPerSecond <= 0) {
+      return true;
+    }
+    long[] state = sampler.get();
+    if (samplingRate < 1.0) {
+      // Next value of a SplitMix64 generator, mapped to [0, 1).
+      long random = (state[0] += 0x9E3779B97F4A7C15L);
+      random = (random ^ (random >>> 30)) * 0xBF58476D1CE4E5B9L;
+      random = (random ^ (random >>> 27)) * 0x94D049BB133111EBL;
+      random = random ^ (random >>> 31);
+      if ((double) (random >>> 11) / (1L << 53) >= samplingRate) {
+        return false;
+      }
+    }
+    if (maxChecksPerSecond > 0) {
+      long now = System.nanoTime();
+      if (now - state[1] >= 1000000000L) {
+        state[1] = now;
+        state[2] = 0L;
+      }
+      if (state[2] >= maxChecksPerSecond) {
+        return false;
+      }
+      state[2]++;
+    }
+    return true;
+  }
+
+  private static ThreadLocal<long[]> newSampler(final String method) {
+    return ThreadLocal.withInitial(
+        () ->
+            new long[] {
+              samplingSeed
+                  ^ ((long) method.hashCode() << 32)
+                  ^ Thread.currentThread().getName().hashCode(),
+              System.nanoTime() - 1000000000L,
+              0L
+            });
+  }
+
+  private static Class<?>[] loadClasses(String... classNames) {
+    Class<?>[] classes = new Class<?>[classNames.length];
+    for (int i = 0; i < classNames.length; i++) {
+      try {
+        classes[i] = Class.forName(classNames[i]);
+      } catch (ClassNotFoundException e) {
+        System.err.println("Class not found!" + e);
+      }
+    }
+    return classes;
+  }
+
+  private static long loadedClasses(Class<?>[] classes) {
+    long loaded = 0L;
+    for (int i = 0; i < classes.length; i++) {
+      if (classes[i] != null) {
+        loaded |= 1L << i;
+      }
+    }
+    return loaded;
+  }
+}
@@ -1,7 +1,6 @@
 import static org.junit.Assert.fail;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.invoke.MethodHandles;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -9,40 +8,95 @@ import org.aspectj.lang.annotation.Aspect;
 @Aspect
 public class Aspect_Template {
 
+  private static final double samplingRate = 1.0;
+
+  private static final int maxChecksPerSecond = 0;
+
+  private static final long samplingSeed = 0L;
+
+  private static final boolean metricsEnabled = false;
+
+  private static final String metricsFile = "";
+
+  private static final Class<?>[] expectedExceptionTypes = loadClasses();
+
+  private static final long loadedExceptionTypes = loadedClasses(expectedExceptionTypes);
+
+  private static final ThreadLocal<long[]> sampler = newSampler("");
+
+  private static final OracleMetrics metrics =
+      metricsEnabled
+          ? OracleMetrics.register(
+              metricsFile,
+              MethodHandles.lookup().lookupClass().getName(),
+              "",
+              new String[] {},
+              new String[] {},
+              new String[] {})
+          : null;
+
   public Object advice(ProceedingJoinPoint jp) throws Throwable {
-    String output =
-        "Triggered aspect: " + this.getClass().getName() + " (" + jp.getSourceLocation() + ")";
-    Object target = jp.getTarget();
-    Object[] args = jp.getArgs();
-
-    if (!paramTagsSatisfied(target, args)) {
-      System.err.println(output + " -> Ignored test case: inputs violate pre-conditions");
-      throw new TestCaseAspect.InvalidParamException();
-    } else {
-      List<Class<?>> expectedExceptions = getExpectedExceptions(target, args);
-      if (expectedExceptions.isEmpty()) {
-        Object result = jp.proceed(args);
-        return checkResult(result, target, args);
+    if (!isSampled(sampler)) {
+      return jp.proceed();
+    }
+    long checkStart = metricsEnabled ? System.nanoTime() : 0L;
+    long proceedTime = 0L;
+    try {
+      Object target = jp.getTarget();
+      Object[] args = jp.getArgs();
+
+      if (!paramTagsSatisfied(target, args)) {
+        System.err.println(message(jp, "Ignored test case: inputs violate pre-conditions"));
+        throw new TestCaseAspect.InvalidParamException();
       } else {
-        try {
-          jp.proceed(args);
-        } catch (Throwable e) {
-          if (!expectedExceptions.contains(e.getClass())) {
-            fail(
-                output
-                    + " -> Failure: Unexpected exception thrown: "
-                    + e.getClass().getCanonicalName());
-          } else {
-            System.err.println(output + " -> Success: Expected exception caught");
+        long expectedExceptions = getExpectedExceptions(target, args) & loadedExceptionTypes;
+        if (metricsEnabled) {
+          metrics.expected(expectedExceptions);
+        }
+        long proceedStart = metricsEnabled ? System.nanoTime() : 0L;
+        if (expectedExceptions == 0L) {
+          Object result;
+          try {
+            result = jp.proceed(args);
+          } finally {
+            proceedTime = metricsEnabled ? System.nanoTime() - proceedStart : 0L;
+          }
+          return checkResult(result, target, args);
+        } else {
+          Throwable thrown = null;
+          try {
+            jp.proceed(args);
+          } catch (Throwable e) {
+            thrown = e;
+          }
+          proceedTime = metricsEnabled ? System.nanoTime() - proceedStart : 0L;
+          if (thrown != null
+              && isExpectedException(expectedExceptionTypes, expectedExceptions, thrown.getClass())) {
+            System.err.println(message(jp, "Success: Expected exception caught"));
             throw new TestCaseAspect.ExpectedException();
           }
+          if (metricsEnabled) {
+            metrics.failed(expectedExceptions);
+          }
+          if (thrown != null) {
+            fail(
+                message(
+                    jp,
+                    "Failure: Unexpected exception thrown: "
+                        + thrown.getClass().getCanonicalName()));
+          }
         }
+        fail(
+            message(
+                jp,
+                "Failure: Expected exception not thrown. Expected exceptions were: "
+                    + getExpectedExceptionAsString(expectedExceptionTypes, expectedExceptions)));
+        return null;
+      }
+    } finally {
+      if (metricsEnabled) {
+        metrics.checked(System.nanoTime() - checkStart - proceedTime);
       }
-      fail(
-          output
-              + " -> Failure: Expected exception not thrown. Expected exceptions were: "
-              + getExpectedExceptionAsString(expectedExceptions));
-      return null;
     }
   }
 
@@ -50,15 +104,100 @@ public class Aspect_Template {
 
   private Object checkResult(Object result, Object target, Object[] args) {}
 
-  private List<Class<?>> getExpectedExceptions(Object target, Object[] args) {
-    List<Class<?>> expectedExceptions = new ArrayList<Class<?>>();
+  private long getExpectedExceptions(Object target, Object[] args) {
+    long expectedExceptions = 0L;
+  }
+
+  private String message(ProceedingJoinPoint jp, String outcome) {
+    return "Triggered aspect: "
+        + this.getClass().getName()
+        + " ("
+        + jp.getSourceLocation()
+        + ") -> "
+        + outcome;
+  }
+
+  private static boolean isExpectedException(
+      Class<?>[] exceptionTypes, long expectedExceptions, Class<?> exceptionType) {
+    for (int i = 0; i < exceptionTypes.length; i++) {
+      if ((expectedExceptions & (1L << i)) != 0L && exceptionTypes[i] == exceptionType) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  private String getExpectedExceptionAsString(List<Class<?>> expectedExceptions) {
+  private static String getExpectedExceptionAsString(
+      Class<?>[] exceptionTypes, long expectedExceptions) {
     String listAsString = "";
-    for (Class<?> exception : expectedExceptions) {
-      listAsString += exception.getName() + " ";
+    for (int i = 0; i < exceptionTypes.length; i++) {
+      if ((expectedExceptions & (1L << i)) != 0L) {
+        listAsString += exceptionTypes[i].getName() + " ";
+      }
     }
     return listAsString;
   }
+
+  private static boolean isSampled(ThreadLocal<long[]> sampler) {
+    if (samplingRate >= 1.0 && maxChecksPerSecond <= 0) {
+      return true;
+    }
+    long[] state = sampler.get();
+    if (samplingRate < 1.0) {
+      // Next value of a SplitMix64 generator, mapped to [0, 1).
+      long random = (state[0] += 0x9E3779B97F4A7C15L);
+      random = (random ^ (random >>> 30)) * 0xBF58476D1CE4E5B9L;
+      random = (random ^ (random >>> 27)) * 0x94D049BB133111EBL;
+      random = random ^ (random >>> 31);
+      if ((double) (random >>> 11) / (1L << 53) >= samplingRate) {
+        return false;
+      }
+    }
+    if (maxChecksPerSecond > 0) {
+      long now = System.nanoTime();
+      if (now - state[1] >= 1000000000L) {
+        state[1] = now;
+        state[2] = 0L;
+      }
+      if (state[2] >= maxChecksPerSecond) {
+        return false;
+      }
+      state[2]++;
+    }
+    return true;
+  }
+
+  private static ThreadLocal<long[]> newSampler(final String method) {
+    return ThreadLocal.withInitial(
+        () ->
+            new long[] {
+              samplingSeed
+                  ^ ((long) method.hashCode() << 32)
+                  ^ Thread.currentThread().getName().hashCode(),
+              System.nanoTime() - 1000000000L,
+              0L
+            });
+  }
+
+  private static Class<?>[] loadClasses(String... classNames) {
+    Class<?>[] classes = new Class<?>[classNames.length];
+    for (int i = 0; i < classNames.length; i++) {
+      try {
+        classes[i] = Class.forName(classNames[i]);
+      } catch (ClassNotFoundException e) {
+        System.err.println("Class not found!" + e);
+      }
+    }
+    return classes;
+  }
+
+  private static long loadedClasses(Class<?>[] classes) {
+    long loaded = 0L;
+    for (int i = 0; i < classes.length; i++) {
+      if (classes[i] != null) {
+        loaded |= 1L << i;
+      }
+    }
+    return loaded;
+  }
 }
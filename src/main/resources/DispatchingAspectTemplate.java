@@ -0,0 +1,60 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.CodeSignature;
+
+@Aspect
+public class Aspect_Template {
+
+  private static final Map<JoinPoint.StaticPart, Integer> signatureIds =
+      new ConcurrentHashMap<JoinPoint.StaticPart, Integer>();
+
+  public Object advice(ProceedingJoinPoint jp) throws Throwable {
+    switch (signatureId(jp.getStaticPart())) {
+      default:
+        return jp.proceed();
+    }
+  }
+
+  private static int signatureId(JoinPoint.StaticPart joinPoint) {
+    Integer id = signatureIds.get(joinPoint);
+    if (id == null) {
+      Signature signature = joinPoint.getSignature();
+      String method = signature.getName() + "(";
+      Class<?>[] parameterTypes = ((CodeSignature) signature).getParameterTypes();
+      for (int i = 0; i < parameterTypes.length; i++) {
+        method += (i == 0 ? "" : ",") + parameterTypes[i].getName();
+      }
+      method += ")";
+      id = signatureId(signature.getDeclaringType(), method);
+      signatureIds.put(joinPoint, id);
+    }
+    return id;
+  }
+
+  private static int signatureId(Class<?> type, String method) {
+    if (type == null) {
+      return -1;
+    }
+    int id = signatureId(type.getName() + "." + method);
+    if (id == -1) {
+      id = signatureId(type.getSuperclass(), method);
+    }
+    Class<?>[] interfaces = type.getInterfaces();
+    for (int i = 0; i < interfaces.length && id == -1; i++) {
+      id = signatureId(interfaces[i], method);
+    }
+    return id;
+  }
+
+  private static int signatureId(String signature) {
+    switch (signature) {
+      default:
+        return -1;
+    }
+  }
+}
@@ -0,0 +1,18 @@
+public final class Evaluator_Template implements org.toradocu.generator.SpecificationEvaluator {
+
+  @Override
+  public boolean pre(Object receiver, Object[] args) {
+    return true;
+  }
+
+  @Override
+  public long expectedExceptions(Object receiver, Object[] args) {
+    long expectedExceptions = 0L;
+    return expectedExceptions;
+  }
+
+  @Override
+  public boolean post(Object receiver, Object[] args, Object result) {
+    return true;
+  }
+}
@@ -0,0 +1,310 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the checks of a method made by a generated aspect, written to a file at JVM shutdown.
+ * For each specification of the method, {@code triggered} counts the calls that did not satisfy the
+ * precondition (and were ignored), the calls that were expected to throw the exception of the
+ * throws specification, and the calls whose result was checked against the postcondition. {@code
+ * failures} counts the calls that did not throw the expected exception (or threw an unexpected
+ * one), and the calls whose result violated the postcondition. The overhead of the checks of each
+ * call, excluding the execution of the method, is counted in a histogram with fixed buckets.
+ *
+ * <p>Counters are {@code LongAdder}s: threads update them without locks and without contending.
+ */
+public final class OracleMetrics {
+
+  /** Upper bounds (exclusive, in nanoseconds) of the buckets but the last of the histograms. */
+  private static final long[] BUCKET_BOUNDS = {
+    250L, 500L, 1000L, 2500L, 5000L, 10000L, 25000L, 50000L, 100000L, 1000000L
+  };
+
+  /** The metrics of all the checked methods. */
+  private static final Queue<OracleMetrics> registered = new ConcurrentLinkedQueue<>();
+
+  /** The files to which metrics are written at JVM shutdown. */
+  private static final Set<String> files = ConcurrentHashMap.newKeySet();
+
+  private final String file;
+  private final String aspect;
+  private final String method;
+  private final String[] preconditions;
+  private final String[] throwsSpecifications;
+  private final String[] postconditions;
+  private final LongAdder checks = new LongAdder();
+  private final LongAdder[] histogram = newCounters(BUCKET_BOUNDS.length + 1);
+  private final LongAdder[] triggered;
+  private final LongAdder[] failures;
+
+  private OracleMetrics(
+      String file,
+      String aspect,
+      String method,
+      String[] preconditions,
+      String[] throwsSpecifications,
+      String[] postconditions) {
+    this.file = file;
+    this.aspect = aspect;
+    this.method = method;
+    this.preconditions = preconditions;
+    this.throwsSpecifications = throwsSpecifications;
+    this.postconditions = postconditions;
+    final int specifications =
+        preconditions.length + throwsSpecifications.length + postconditions.length;
+    triggered = newCounters(specifications);
+    failures = newCounters(specifications);
+  }
+
+  /**
+   * Creates the metrics of the checks of a method, which are written to the given file at JVM
+   * shutdown, together with the metrics of the other methods written to the same file.
+   *
+   * @param file the file to which metrics are written, in JSON format if its name ends with {@code
+   *     .json} and in CSV format otherwise
+   * @param aspect the name of the aspect that checks the method
+   * @param method the signature of the method
+   * @param preconditions the descriptions of the preconditions of the method
+   * @param throwsSpecifications the descriptions of the throws specifications of the method
+   * @param postconditions the descriptions of the postconditions of the method
+   * @return the metrics of the checks of the method
+   */
+  public static OracleMetrics register(
+      String file,
+      String aspect,
+      String method,
+      String[] preconditions,
+      String[] throwsSpecifications,
+      String[] postconditions) {
+    final OracleMetrics metrics =
+        new OracleMetrics(
+            file, aspect, method, preconditions, throwsSpecifications, postconditions);
+    registered.add(metrics);
+    if (files.add(file)) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> write(file)));
+    }
+    return metrics;
+  }
+
+  /**
+   * Counts a checked call.
+   *
+   * @param overhead the time spent checking the call, in nanoseconds
+   */
+  public void checked(long overhead) {
+    checks.increment();
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS.length && overhead >= BUCKET_BOUNDS[bucket]) {
+      bucket++;
+    }
+    histogram[bucket].increment();
+  }
+
+  /**
+   * Counts a call ignored because it did not satisfy the given precondition.
+   *
+   * @param precondition the index of the precondition
+   */
+  public void rejected(int precondition) {
+    triggered[precondition].increment();
+  }
+
+  /**
+   * Counts a call expected to throw the exceptions of the given throws specifications.
+   *
+   * @param throwsSpecifications the throws specifications whose guard held, as a bitmask
+   */
+  public void expected(long throwsSpecifications) {
+    count(triggered, preconditions.length, throwsSpecifications);
+  }
+
+  /**
+   * Counts a call that did not throw any of the exceptions of the given throws specifications,
+   * either because it returned normally or because it threw another exception.
+   *
+   * @param throwsSpecifications the throws specifications whose guard held, as a bitmask
+   */
+  public void failed(long throwsSpecifications) {
+    count(failures, preconditions.length, throwsSpecifications);
+  }
+
+  /**
+   * Counts a call whose result is checked against the given postcondition.
+   *
+   * @param postcondition the index of the postcondition
+   */
+  public void postconditionChecked(int postcondition) {
+    triggered[preconditions.length + throwsSpecifications.length + postcondition].increment();
+  }
+
+  /**
+   * Counts a call whose result violated the given postcondition.
+   *
+   * @param postcondition the index of the postcondition
+   */
+  public void postconditionFailed(int postcondition) {
+    failures[preconditions.length + throwsSpecifications.length + postcondition].increment();
+  }
+
+  private static void count(LongAdder[] counters, int offset, long bitmask) {
+    for (int i = 0; bitmask != 0L; i++, bitmask >>>= 1) {
+      if ((bitmask & 1L) != 0L) {
+        counters[offset + i].increment();
+      }
+    }
+  }
+
+  private static LongAdder[] newCounters(int size) {
+    final LongAdder[] counters = new LongAdder[size];
+    for (int i = 0; i < size; i++) {
+      counters[i] = new LongAdder();
+    }
+    return counters;
+  }
+
+  /**
+   * Writes the metrics of the methods registered with the given file to the file.
+   *
+   * @param file the file to which metrics are written
+   */
+  private static void write(String file) {
+    final List<OracleMetrics> methods = new ArrayList<>();
+    for (OracleMetrics metrics : registered) {
+      if (metrics.file.equals(file)) {
+        methods.add(metrics);
+      }
+    }
+    methods.sort(Comparator.comparing((OracleMetrics m) -> m.aspect).thenComparing(m -> m.method));
+    try (PrintWriter out =
+        new PrintWriter(
+            new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+      if (file.endsWith(".json")) {
+        writeJson(out, methods);
+      } else {
+        writeCsv(out, methods);
+      }
+    } catch (IOException e) {
+      System.err.println("Unable to write oracle metrics to " + file + ": " + e);
+    }
+  }
+
+  private static void writeJson(PrintWriter out, List<OracleMetrics> methods) {
+    out.println("[");
+    for (int m = 0; m < methods.size(); m++) {
+      final OracleMetrics metrics = methods.get(m);
+      out.println("  {");
+      out.println("    \"aspect\": " + json(metrics.aspect) + ",");
+      out.println("    \"method\": " + json(metrics.method) + ",");
+      out.println("    \"checks\": " + metrics.checks.sum() + ",");
+      out.println("    \"overheadHistogram\": [");
+      for (int b = 0; b < metrics.histogram.length; b++) {
+        final String bound = b < BUCKET_BOUNDS.length ? String.valueOf(BUCKET_BOUNDS[b]) : "null";
+        out.println(
+            "      {\"upperBoundNanos\": "
+                + bound
+                + ", \"count\": "
+                + metrics.histogram[b].sum()
+                + "}"
+                + (b < metrics.histogram.length - 1 ? "," : ""));
+      }
+      out.println("    ],");
+      out.println("    \"specifications\": [");
+      for (int s = 0; s < metrics.triggered.length; s++) {
+        out.println(
+            "      {\"kind\": \""
+                + metrics.kind(s)
+                + "\", \"description\": "
+                + json(metrics.description(s))
+                + ", \"triggered\": "
+                + metrics.triggered[s].sum()
+                + ", \"failures\": "
+                + metrics.failures[s].sum()
+                + "}"
+                + (s < metrics.triggered.length - 1 ? "," : ""));
+      }
+      out.println("    ]");
+      out.println("  }" + (m < methods.size() - 1 ? "," : ""));
+    }
+    out.println("]");
+  }
+
+  private static void writeCsv(PrintWriter out, List<OracleMetrics> methods) {
+    out.println("aspect,method,metric,specification,value");
+    for (OracleMetrics metrics : methods) {
+      final String prefix = csv(metrics.aspect) + "," + csv(metrics.method) + ",";
+      out.println(prefix + "checks,," + metrics.checks.sum());
+      for (int b = 0; b < metrics.histogram.length; b++) {
+        final String bucket =
+            b < BUCKET_BOUNDS.length
+                ? "overhead<" + BUCKET_BOUNDS[b] + "ns"
+                : "overhead>=" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] + "ns";
+        out.println(prefix + bucket + ",," + metrics.histogram[b].sum());
+      }
+      for (int s = 0; s < metrics.triggered.length; s++) {
+        final String specification = csv(metrics.kind(s) + ": " + metrics.description(s)) + ",";
+        out.println(prefix + "triggered," + specification + metrics.triggered[s].sum());
+        out.println(prefix + "failures," + specification + metrics.failures[s].sum());
+      }
+    }
+  }
+
+  private String kind(int specification) {
+    if (specification < preconditions.length) {
+      return "precondition";
+    }
+    return specification < preconditions.length + throwsSpecifications.length
+        ? "throws"
+        : "postcondition";
+  }
+
+  private String description(int specification) {
+    if (specification < preconditions.length) {
+      return preconditions[specification];
+    }
+    specification -= preconditions.length;
+    if (specification < throwsSpecifications.length) {
+      return throwsSpecifications[specification];
+    }
+    return postconditions[specification - throwsSpecifications.length];
+  }
+
+  /**
+   * Returns the given text as a JSON string.
+   *
+   * @param text a text
+   * @return {@code text} quoted and escaped as a JSON string
+   */
+  private static String json(String text) {
+    final StringBuilder quoted = new StringBuilder("\"");
+    for (char c : text.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      } else if (c < ' ') {
+        quoted.append(String.format("\\u%04x", (int) c));
+      } else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  /**
+   * Returns the given text as a CSV field.
+   *
+   * @param text a text
+   * @return {@code text} quoted and escaped as a CSV field
+   */
+  private static String csv(String text) {
+    return "\"" + text.replace("\"", "\"\"") + "\"";
+  }
+}
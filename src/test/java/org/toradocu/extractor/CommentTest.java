@@ -75,4 +75,20 @@ public class CommentTest {
     Comment mixedHTMLComment = new Comment(mixedHTMLTags);
     assertThat(mixedHTMLComment.getText(), is("This comment contains bold text and a break"));
   }
+
+  @Test
+  public void normalizedTextIsLeftUnchanged() {
+    String[] normalized = {"", "x is !=null.", "if x>0 or y>=0."};
+    for (String text : normalized) {
+      assertThat(Comment.isNormalized(text), is(true));
+      assertThat(new Comment(text).getText(), is(text));
+    }
+
+    String[] notNormalized = {
+      " x", "x ", "x  is null", "x\tis null", "{@code x} is null", "x is <b>null</b>", "x &lt; 0"
+    };
+    for (String text : notNormalized) {
+      assertThat(Comment.isNormalized(text), is(false));
+    }
+  }
 }
@@ -0,0 +1,68 @@
+package org.toradocu.extractor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Collections;
+import org.junit.Test;
+import org.toradocu.extractor.DocumentedExecutable.BlockTags;
+
+public class ExecutableMapTest {
+
+  private static DocumentedExecutable executable(int id, String methodName)
+      throws NoSuchMethodException {
+    return executable(id, Object.class, methodName);
+  }
+
+  private static DocumentedExecutable executable(int id, Class<?> type, String methodName)
+      throws NoSuchMethodException {
+    final BlockTags tags = new BlockTags(Collections.emptyList(), null, Collections.emptyList());
+    return new DocumentedExecutable(
+        id, type.getDeclaredMethod(methodName), Collections.emptyList(), tags);
+  }
+
+  @Test
+  public void keysAreInInsertionOrder() throws NoSuchMethodException {
+    final DocumentedExecutable hashCode = executable(0, "hashCode");
+    final DocumentedExecutable toString = executable(40, "toString");
+    final ExecutableMap<String> map = new ExecutableMap<>(1);
+    map.put(toString, "b");
+    map.put(hashCode, "a");
+    map.put(toString, "c");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.keys(), contains(toString, hashCode));
+    assertThat(map.get(hashCode), is("a"));
+    assertThat(map.get(toString), is("c"));
+    assertThat(map.get(executable(1, "hashCode")), is(nullValue()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void keysMustHaveDifferentIds() throws NoSuchMethodException {
+    final ExecutableMap<String> map = new ExecutableMap<>();
+    map.put(executable(0, "hashCode"), "a");
+    map.put(executable(0, "toString"), "b");
+  }
+
+  @Test
+  public void keysCanBelongToSeveralTypes() throws NoSuchMethodException {
+    final DocumentedExecutable objectHashCode = executable(0, Object.class, "hashCode");
+    final DocumentedExecutable stringHashCode = executable(0, String.class, "hashCode");
+    final DocumentedExecutable objectToString = executable(1, Object.class, "toString");
+    final ExecutableMap<String> map = new ExecutableMap<>();
+    map.put(objectHashCode, "a");
+    map.put(stringHashCode, "b");
+    map.put(objectToString, "c");
+
+    assertThat(map.size(), is(3));
+    assertThat(map.keys(), contains(objectHashCode, stringHashCode, objectToString));
+    assertThat(map.get(objectHashCode), is("a"));
+    assertThat(map.get(stringHashCode), is("b"));
+    assertThat(map.get(objectToString), is("c"));
+    assertThat(map.get(executable(1, String.class, "toString")), is(nullValue()));
+    assertThat(map.toMap().keySet(), contains(objectHashCode, stringHashCode, objectToString));
+    assertThat(map.toMap().get(stringHashCode), is("b"));
+  }
+}
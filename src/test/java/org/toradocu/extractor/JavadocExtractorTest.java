@@ -61,6 +61,13 @@ public class JavadocExtractorTest {
     assertThat(members.size(), is(18));
   }
 
+  @Test
+  public void executableMembersHaveDenseIds() {
+    for (int i = 0; i < members.size(); i++) {
+      assertThat(members.get(i).getId(), is(i));
+    }
+  }
+
   @Test
   public void constructorAClass1() throws ClassNotFoundException {
     DocumentedExecutable member = members.get(0);
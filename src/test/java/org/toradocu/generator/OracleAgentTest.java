@@ -0,0 +1,278 @@
+package org.toradocu.generator;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.fail;
+
+import com.beust.jcommander.JCommander;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javassist.bytecode.ClassFile;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Identifiers;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.Property;
+import randoop.condition.specification.ThrowsSpecification;
+
+/**
+ * Tests the oracle agent created by {@code AgentGenerator} on the example class example.AClass in
+ * src/test/resources/example: runs a JUnit test class with the agent in a new JVM, and checks that
+ * its test cases pass or fail as they would with the aspects.
+ */
+public class OracleAgentTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+  private static final String TARGET_CLASS = "example.AClass";
+  private static final String TEST_CLASS = "AgentTestCases";
+
+  /**
+   * The test class run with the agent. The class after it calls the target methods from outside the
+   * test class, and its calls are not checked.
+   */
+  private static final String TEST_CLASS_SOURCE =
+      String.join(
+          "\n",
+          "import example.AClass;",
+          "import org.junit.Test;",
+          "",
+          "public class AgentTestCases {",
+          "  @Test public void validResult() { new AClass(\"x\").checkNumberInLetter(7); }",
+          "  @Test public void expectedException() { new AClass(\"x\").checkNumberInLetter(-1); }",
+          "  @Test public void wrongResult() { new AClass(\"x\").checkArithmeticOp(3, 1); }",
+          "  @Test public void invalidInput() { new AClass(\"x\").checkArithmeticOp(3, -1); }",
+          "  @Test public void missingException() { new AClass(\"x\").baz(null); }",
+          "  @Test public void constructorInvalidInput() { new AClass((String) null); }",
+          "  @Test public void constructorMissingException() { new AClass(); }",
+          "  @Test public void uncheckedCalls() { Library.callTargets(); }",
+          "}",
+          "",
+          "class Library {",
+          "  static void callTargets() {",
+          "    new AClass().checkArithmeticOp(3, 1);",
+          "    new AClass(\"x\").baz(null);",
+          "  }",
+          "}");
+
+  @ClassRule public static TemporaryFolder folder = new TemporaryFolder();
+
+  private static File agentDir;
+  private static File testClassDir;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    final List<String> sourceFiles;
+    try (Stream<Path> files = Files.walk(Paths.get(EXAMPLE_SRC, "example"))) {
+      sourceFiles =
+          files
+              .filter(p -> p.getFileName().toString().endsWith(".java"))
+              .map(Path::toString)
+              .collect(toList());
+    }
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+    Toradocu.configuration = Configuration.INSTANCE;
+    JCommander.newBuilder()
+        .addObject(Configuration.INSTANCE)
+        .build()
+        .parse(
+            "--target-class",
+            TARGET_CLASS,
+            "--source-dir",
+            EXAMPLE_SRC,
+            "--class-dir",
+            EXAMPLE_SRC,
+            "--test-class",
+            TEST_CLASS);
+
+    testClassDir = folder.newFolder();
+    final Path testClassSource = testClassDir.toPath().resolve(TEST_CLASS + ".java");
+    Files.write(testClassSource, TEST_CLASS_SOURCE.getBytes(StandardCharsets.UTF_8));
+    if (!ToradocuJavaCompiler.run(
+        Collections.singletonList(testClassSource.toString()),
+        Arrays.asList("-cp", classpath(EXAMPLE_SRC)))) {
+      fail("Error(s) during compilation of the test class.");
+    }
+
+    agentDir = folder.newFolder();
+    AgentGenerator.createAgent(specifications(), agentDir.getPath());
+  }
+
+  @AfterClass
+  public static void removeTestClass() throws Exception {
+    // The configuration is shared with the other tests, which instrument no test class.
+    final Field testClass = Configuration.class.getDeclaredField("testClass");
+    testClass.setAccessible(true);
+    testClass.set(Configuration.INSTANCE, null);
+  }
+
+  private static String classpath(String... entries) {
+    final List<String> classpath = new ArrayList<>(Arrays.asList(entries));
+    classpath.add(System.getProperty("java.class.path"));
+    return String.join(File.pathSeparator, classpath);
+  }
+
+  private static OperationSpecification specification(DocumentedExecutable member) {
+    return new OperationSpecification(
+        Operation.getOperation(member.getExecutable()),
+        new Identifiers(
+            member.getParameters().stream().map(DocumentedParameter::getName).collect(toList()),
+            Configuration.RECEIVER,
+            Configuration.RETURN_VALUE));
+  }
+
+  /** Returns the specifications of the example class checked by the agent. */
+  private static ExecutableMap<OperationSpecification> specifications() throws Exception {
+    final List<DocumentedExecutable> members =
+        new JavadocExtractor().extract(TARGET_CLASS, EXAMPLE_SRC).getDocumentedExecutables();
+    final ExecutableMap<OperationSpecification> specifications = new ExecutableMap<>();
+    for (DocumentedExecutable member : members) {
+      final OperationSpecification specification = specification(member);
+      final String name = member.getName();
+      if (name.equals("checkNumberInLetter")) {
+        specification.addThrowsSpecifications(
+            Collections.singletonList(
+                new ThrowsSpecification(
+                    "@throws IllegalArgumentException if the number is less than zero",
+                    new Guard("", "args[0] < 0"),
+                    IllegalArgumentException.class.getName())));
+        specification.addReturnSpecifications(
+            Collections.singletonList(
+                new PostSpecification(
+                    "@return true if the number is greater than five",
+                    new Guard("", "true"),
+                    new Property("", "methodResultID == (args[0] > 5)"))));
+      } else if (name.equals("checkArithmeticOp")) {
+        specification.addParamSpecifications(
+            Collections.singletonList(
+                new PreSpecification("@param n2 non-negative", new Guard("", "args[1] >= 0"))));
+        // A wrong postcondition, which the calls with valid inputs violate.
+        specification.addReturnSpecifications(
+            Collections.singletonList(
+                new PostSpecification(
+                    "@return n1+n2",
+                    new Guard("", "true"),
+                    new Property("", "methodResultID == args[0] + args[1]"))));
+      } else if (name.equals("baz")) {
+        // baz never throws.
+        specification.addThrowsSpecifications(
+            Collections.singletonList(
+                new ThrowsSpecification(
+                    "@throws IllegalArgumentException if x is null",
+                    new Guard("", "args[0] == null"),
+                    IllegalArgumentException.class.getName())));
+      } else if (member.isConstructor() && member.getParameters().isEmpty()) {
+        // The constructor never throws.
+        specification.addThrowsSpecifications(
+            Collections.singletonList(
+                new ThrowsSpecification(
+                    "@throws NullPointerException always",
+                    new Guard("", "true"),
+                    NullPointerException.class.getName())));
+      } else if (member.isConstructor()) {
+        specification.addParamSpecifications(
+            Collections.singletonList(
+                new PreSpecification(
+                    "@param x must not be null", new Guard("", "args[0] != null"))));
+      } else {
+        continue;
+      }
+      specifications.put(member, specification);
+    }
+    return specifications;
+  }
+
+  /** Runs the test class with the agent, and returns the names of the failed test cases. */
+  private static List<String> runTestClass() throws IOException, InterruptedException {
+    final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    final Process process =
+        new ProcessBuilder(
+                java,
+                "-javaagent:" + new File(agentDir, "oracle-agent.jar").getPath(),
+                "-cp",
+                classpath(testClassDir.getPath(), EXAMPLE_SRC),
+                "org.junit.runner.JUnitCore",
+                TEST_CLASS)
+            .redirectErrorStream(true)
+            .start();
+    final String output;
+    try (Stream<String> lines =
+        new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))
+            .lines()) {
+      output = lines.collect(joining("\n"));
+    }
+    process.waitFor();
+    // JUnitCore reports each failure as "<n>) <test case>(<test class>)".
+    final Matcher failure =
+        Pattern.compile("^\\d+\\) (\\w+)\\(" + TEST_CLASS + "\\)$", Pattern.MULTILINE)
+            .matcher(output);
+    final List<String> failures = new ArrayList<>();
+    while (failure.find()) {
+      failures.add(failure.group(1));
+    }
+    // The test class has been loaded and all its test cases have run.
+    assertThat(output, output.contains("Tests run: 8,"), is(true));
+    return failures;
+  }
+
+  @Test
+  public void bundledJavassistIsRelocated() throws Exception {
+    try (JarFile agent = new JarFile(new File(agentDir, "oracle-agent.jar"))) {
+      assertThat(
+          agent.getEntry("org/toradocu/agent/javassist/ClassPool.class"), is(notNullValue()));
+      assertThat(
+          agent.stream().anyMatch(entry -> entry.getName().startsWith("javassist/")), is(false));
+      final ClassFile oracleAgent;
+      try (DataInputStream input =
+          new DataInputStream(agent.getInputStream(agent.getEntry("OracleAgent.class")))) {
+        oracleAgent = new ClassFile(input);
+      }
+      final Set<?> referencedClasses = oracleAgent.getConstPool().getClassNames();
+      assertThat(referencedClasses.contains("org/toradocu/agent/javassist/ClassPool"), is(true));
+      assertThat(referencedClasses.contains("javassist/ClassPool"), is(false));
+    }
+  }
+
+  @Test
+  public void testCasesBehaveAsWithTheAspects() throws Exception {
+    assertThat(
+        runTestClass(),
+        containsInAnyOrder("wrongResult", "missingException", "constructorMissingException"));
+  }
+}
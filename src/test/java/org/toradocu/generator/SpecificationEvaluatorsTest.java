@@ -0,0 +1,151 @@
+package org.toradocu.generator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Identifiers;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.Property;
+import randoop.condition.specification.ThrowsSpecification;
+
+/**
+ * Tests {@code SpecificationEvaluators} on the example class example.AClass in
+ * src/test/resources/example.
+ */
+public class SpecificationEvaluatorsTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+  private static final String TARGET_CLASS = "example.AClass";
+  private static List<DocumentedExecutable> members;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    final List<String> sourceFiles;
+    try (Stream<Path> files = Files.walk(Paths.get(EXAMPLE_SRC, "example"))) {
+      sourceFiles =
+          files
+              .filter(p -> p.getFileName().toString().endsWith(".java"))
+              .map(Path::toString)
+              .collect(toList());
+    }
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+    Configuration.INSTANCE.classDirs =
+        Collections.singletonList(Paths.get(EXAMPLE_SRC).toUri().toURL());
+    members = new JavadocExtractor().extract(TARGET_CLASS, EXAMPLE_SRC).getDocumentedExecutables();
+  }
+
+  private static DocumentedExecutable member(String name) {
+    return members.stream().filter(m -> m.getName().equals(name)).findFirst().get();
+  }
+
+  private static OperationSpecification specification(DocumentedExecutable member) {
+    return new OperationSpecification(
+        Operation.getOperation(member.getExecutable()),
+        new Identifiers(
+            member.getParameters().stream().map(DocumentedParameter::getName).collect(toList()),
+            Configuration.RECEIVER,
+            Configuration.RETURN_VALUE));
+  }
+
+  @Test
+  public void compilesTheSpecificationsOfAllTheOperations() throws Exception {
+    final DocumentedExecutable checkArithmeticOp = member("checkArithmeticOp");
+    final OperationSpecification checkArithmeticOpSpecification = specification(checkArithmeticOp);
+    checkArithmeticOpSpecification.addParamSpecifications(
+        Arrays.asList(
+            new PreSpecification("@param n1 positive", new Guard("", "args[0] > 0")),
+            new PreSpecification("@param n2 non-negative", new Guard("", "args[1] >= 0"))));
+    checkArithmeticOpSpecification.addThrowsSpecifications(
+        Arrays.asList(
+            new ThrowsSpecification(
+                "@throws IllegalArgumentException if n1 is not strictly positive",
+                new Guard("", "args[0] <= 0"),
+                IllegalArgumentException.class.getName()),
+            new ThrowsSpecification(
+                "@throws IllegalStateException if foo returns n2",
+                new Guard("", "receiverObjectID.foo(new Object[0]) == args[1]"),
+                IllegalStateException.class.getName())));
+    checkArithmeticOpSpecification.addReturnSpecifications(
+        Arrays.asList(
+            new PostSpecification(
+                "@return n1 if n2 is zero",
+                new Guard("", "args[1] == 0"),
+                new Property("", "methodResultID == args[0]")),
+            new PostSpecification(
+                "@return n1-n2", new Guard("", ""), new Property("", "methodResultID > 0"))));
+
+    final DocumentedExecutable baz = member("baz");
+    final OperationSpecification bazSpecification = specification(baz);
+    bazSpecification.addThrowsSpecifications(
+        Collections.singletonList(
+            new ThrowsSpecification(
+                "@throws IllegalArgumentException if x is null",
+                new Guard("", "args[0] == null"),
+                IllegalArgumentException.class.getName())));
+
+    final DocumentedExecutable paramIsEqual = member("paramIsEqual");
+    final ExecutableMap<OperationSpecification> specifications = new ExecutableMap<>();
+    specifications.put(checkArithmeticOp, checkArithmeticOpSpecification);
+    specifications.put(paramIsEqual, specification(paramIsEqual));
+    specifications.put(baz, bazSpecification);
+
+    final Class<?> aClass = checkArithmeticOp.getDeclaringClass();
+    final Map<Operation, SpecificationEvaluator> evaluators =
+        SpecificationEvaluators.compile(
+            specifications,
+            Collections.singletonList(new File(EXAMPLE_SRC)),
+            aClass.getClassLoader());
+    assertThat(
+        evaluators.keySet(),
+        contains(checkArithmeticOpSpecification.getOperation(), bazSpecification.getOperation()));
+
+    final Object receiver = aClass.getConstructor().newInstance();
+    final SpecificationEvaluator checkArithmeticOpEvaluator =
+        evaluators.get(checkArithmeticOpSpecification.getOperation());
+    assertThat(checkArithmeticOpEvaluator.pre(receiver, new Object[] {1, 2}), is(true));
+    assertThat(checkArithmeticOpEvaluator.pre(receiver, new Object[] {1, -2}), is(false));
+    assertThat(checkArithmeticOpEvaluator.pre(receiver, new Object[] {0, 2}), is(false));
+    assertThat(
+        checkArithmeticOpEvaluator.expectedExceptions(receiver, new Object[] {1, 2}), is(0L));
+    assertThat(
+        checkArithmeticOpEvaluator.expectedExceptions(receiver, new Object[] {0, 2}), is(1L));
+    assertThat(
+        checkArithmeticOpEvaluator.expectedExceptions(receiver, new Object[] {1, 0}), is(2L));
+    assertThat(checkArithmeticOpEvaluator.expectedExceptions(null, new Object[] {0, 0}), is(1L));
+    assertThat(checkArithmeticOpEvaluator.post(receiver, new Object[] {3, 0}, 3), is(true));
+    assertThat(checkArithmeticOpEvaluator.post(receiver, new Object[] {3, 0}, 2), is(false));
+    assertThat(checkArithmeticOpEvaluator.post(receiver, new Object[] {3, 1}, 2), is(true));
+    assertThat(checkArithmeticOpEvaluator.post(receiver, new Object[] {3, 1}, -1), is(false));
+
+    final SpecificationEvaluator bazEvaluator = evaluators.get(bazSpecification.getOperation());
+    assertThat(bazEvaluator.pre(receiver, new Object[] {null}), is(true));
+    assertThat(bazEvaluator.expectedExceptions(receiver, new Object[] {null}), is(1L));
+    assertThat(bazEvaluator.expectedExceptions(receiver, new Object[] {"x"}), is(0L));
+  }
+}
@@ -19,8 +19,19 @@ public class ToradocuJavaCompiler {
    * @return true if compilation does not produce any compilation error, false otherwise
    */
   public static boolean run(List<String> files) {
+    return run(files, null);
+  }
+
+  /**
+   * Compiles the given Java files using the system Java compiler with the given options.
+   *
+   * @param files Java files to compile
+   * @param options options of the compiler (e.g., {@code -cp}), or null for no options
+   * @return true if compilation does not produce any compilation error, false otherwise
+   */
+  public static boolean run(List<String> files, List<String> options) {
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-    final CompilationTask task = createCompilationTask(diagnostics, files);
+    final CompilationTask task = createCompilationTask(diagnostics, files, options);
     boolean compilationOK = task.call();
     if (!compilationOK) {
       printCompilationErrors(diagnostics);
@@ -29,13 +40,13 @@ public class ToradocuJavaCompiler {
   }
 
   private static CompilationTask createCompilationTask(
-      DiagnosticCollector<JavaFileObject> diagnostics, List<String> files) {
+      DiagnosticCollector<JavaFileObject> diagnostics, List<String> files, List<String> options) {
     JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
     StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
     final Iterable<? extends JavaFileObject> compilationUnit =
         fileManager.getJavaFileObjectsFromStrings(files);
 
-    return compiler.getTask(null, fileManager, diagnostics, null, null, compilationUnit);
+    return compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnit);
   }
 
   private static void printCompilationErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
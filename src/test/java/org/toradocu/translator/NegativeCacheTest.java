@@ -0,0 +1,112 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+
+public class NegativeCacheTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void compileExample() throws Exception {
+    final List<String> sourceFiles;
+    try (Stream<Path> files = Files.walk(Paths.get(EXAMPLE_SRC, "example"))) {
+      sourceFiles =
+          files
+              .filter(p -> p.getFileName().toString().endsWith(".java"))
+              .map(Path::toString)
+              .collect(toList());
+    }
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+    Configuration.INSTANCE.classDirs =
+        Collections.singletonList(Paths.get(EXAMPLE_SRC).toUri().toURL());
+  }
+
+  @Test
+  public void untranslatableCommentsArePersisted() throws IOException {
+    final File file = new File(folder.getRoot(), "negative-cache.txt");
+    NegativeCache cache = NegativeCache.open(file, false);
+    assertThat(cache.isUntranslatable("a"), is(false));
+    cache.record("a", false, 5_000_000);
+    cache.record("b", true, 1_000_000);
+    cache.close();
+
+    cache = NegativeCache.open(file, false);
+    assertThat(cache.isUntranslatable("a"), is(true));
+    assertThat(cache.isUntranslatable("b"), is(false));
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getSavedNanos(), is(5_000_000L));
+  }
+
+  @Test
+  public void refreshTranslatesRecordedCommentsAgain() throws IOException {
+    final File file = new File(folder.getRoot(), "negative-cache.txt");
+    NegativeCache cache = NegativeCache.open(file, false);
+    cache.record("a", false, 1);
+    cache.record("b", false, 1);
+    cache.close();
+
+    cache = NegativeCache.open(file, true);
+    assertThat(cache.isUntranslatable("a"), is(false));
+    cache.record("a", true, 1);
+    cache.close();
+
+    cache = NegativeCache.open(file, false);
+    assertThat(cache.isUntranslatable("a"), is(false));
+    assertThat(cache.isUntranslatable("b"), is(true));
+  }
+
+  @Test
+  public void editedParamCommentsMakeCommentsTranslatableAgain() throws Exception {
+    final DocumentedExecutable member =
+        new JavadocExtractor()
+            .extract("example.AClass", EXAMPLE_SRC)
+            .getDocumentedExecutables()
+            .stream()
+            .filter(m -> m.getName().equals("checkArithmeticOp"))
+            .findFirst()
+            .get();
+    final ThrowsTag tag = member.throwsTags().get(0);
+    try (NegativeCache cache =
+        NegativeCache.open(new File(folder.getRoot(), "negative-cache.txt"), false)) {
+      final String key = cache.keyOf(tag, member);
+      cache.record(key, false, 1);
+      assertThat(cache.isUntranslatable(cache.keyOf(tag, member)), is(true));
+
+      member.paramTags().get(0).setComment(new Comment("first number, the minuend"));
+      assertThat(cache.isUntranslatable(cache.keyOf(tag, member)), is(false));
+    }
+  }
+
+  @Test
+  public void disabledCacheRecordsNothing() {
+    final NegativeCache cache = NegativeCache.disabled();
+    assertThat(cache.isEnabled(), is(false));
+    assertThat(cache.isUntranslatable(null), is(false));
+  }
+}
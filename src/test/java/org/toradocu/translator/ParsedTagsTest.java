@@ -0,0 +1,75 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+
+public class ParsedTagsTest {
+
+  private static final List<String> PARAMETERS = Collections.singletonList("x");
+
+  private static BlockTag tag(String text) {
+    return new BlockTag(BlockTag.Kind.RETURN, new Comment(text)) {};
+  }
+
+  private static ParsedComment parsedComment(String text, List<String> parameterNames) {
+    return new ParsedComment(
+        parameterNames,
+        text,
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Collections.emptyList());
+  }
+
+  @Test
+  public void parsedCommentIsReusedUntilTheCommentChanges() {
+    final ParsedTags parsedTags = new ParsedTags();
+    final BlockTag tag = tag("true if x is null");
+    final ParsedComment parsedComment = parsedComment("true if x is null", PARAMETERS);
+    parsedTags.put(tag, parsedComment);
+    assertThat(parsedTags.get(tag, PARAMETERS), is(sameInstance(parsedComment)));
+    assertThat(parsedTags.get(tag, Collections.singletonList("y")), is(nullValue()));
+
+    tag.setComment(new Comment("true if x is null"));
+    assertThat(parsedTags.get(tag, PARAMETERS), is(sameInstance(parsedComment)));
+
+    tag.setComment(new Comment("true if x is empty"));
+    assertThat(parsedTags.get(tag, PARAMETERS), is(nullValue()));
+  }
+
+  @Test
+  public void tagsAreComparedByIdentity() {
+    final ParsedTags parsedTags = new ParsedTags();
+    final BlockTag tag = tag("true if x is null");
+    final BlockTag equalTag = tag("true if x is null");
+    parsedTags.put(tag, parsedComment("true if x is null", PARAMETERS));
+    assertThat(parsedTags.get(equalTag, PARAMETERS), is(nullValue()));
+  }
+
+  @Test
+  public void parsedTagIsReusedForTheTextOfItsComment() {
+    final BlockTag tag = tag("true if x is null");
+    final List<SemanticGraph> semanticGraphs = Parser.getSemanticGraphs(tag, null);
+    assertThat(
+        Parser.getSemanticGraphs(tag, "true if x is null", null), is(sameInstance(semanticGraphs)));
+  }
+
+  @Test
+  public void parsedTagIsNotReusedIfItsCommentMarksWordsAsCode() {
+    // Words marked as code are tagged differently, so the text must be parsed on its own.
+    final BlockTag tag = tag("the {@code long} value");
+    final List<SemanticGraph> semanticGraphs = Parser.getSemanticGraphs(tag, null);
+    assertThat(
+        Parser.getSemanticGraphs(tag, tag.getComment().getText(), null),
+        is(not(sameInstance(semanticGraphs))));
+  }
+}
@@ -0,0 +1,164 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+import com.beust.jcommander.JCommander;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ExecutableMap;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.ThrowsSpecification;
+
+/**
+ * Tests that comments whose sentences exceed the parsing limits ({@code --parser-max-tokens} and
+ * {@code --parser-timeout}) produce no specification without failing the translation, and that
+ * their results are not stored in the persistent caches.
+ */
+public class ParsingBudgetTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+  private static final String TARGET_CLASS = "example.AClass";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** The number of comments not found in the specification cache by the last translation. */
+  private long specificationCacheMisses;
+
+  @BeforeClass
+  public static void compileExample() throws Exception {
+    final List<String> sourceFiles;
+    try (Stream<Path> files = Files.walk(Paths.get(EXAMPLE_SRC, "example"))) {
+      sourceFiles =
+          files
+              .filter(p -> p.getFileName().toString().endsWith(".java"))
+              .map(Path::toString)
+              .collect(toList());
+    }
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+    Configuration.INSTANCE.classDirs =
+        Collections.singletonList(Paths.get(EXAMPLE_SRC).toUri().toURL());
+  }
+
+  @After
+  public void removeParsingLimits() {
+    setParsingLimits(0, 0);
+  }
+
+  private static void setParsingLimits(int maxTokens, long timeout) {
+    JCommander.newBuilder()
+        .addObject(Configuration.INSTANCE)
+        .build()
+        .parse(
+            "--target-class",
+            TARGET_CLASS,
+            "--source-dir",
+            EXAMPLE_SRC,
+            "--class-dir",
+            EXAMPLE_SRC,
+            "--parser-max-tokens",
+            String.valueOf(maxTokens),
+            "--parser-timeout",
+            String.valueOf(timeout));
+  }
+
+  /**
+   * Translates the comments of the example class with the given caches, and returns the non-empty
+   * conditions of the produced specifications.
+   */
+  private List<String> translate(File negativeCacheFile, File specificationCacheFile)
+      throws Exception {
+    final List<DocumentedExecutable> members =
+        new JavadocExtractor().extract(TARGET_CLASS, EXAMPLE_SRC).getDocumentedExecutables();
+    Parser.startRun();
+    final ExecutableMap<OperationSpecification> specifications;
+    try (NegativeCache negativeCache = NegativeCache.open(negativeCacheFile, false);
+        SpecificationCache specificationCache = SpecificationCache.open(specificationCacheFile)) {
+      specifications =
+          CommentTranslator.createIndexedSpecifications(members, negativeCache, specificationCache);
+      specificationCacheMisses = specificationCache.getMisses();
+    }
+    final List<String> conditions = new ArrayList<>();
+    for (DocumentedExecutable member : specifications.keys()) {
+      final OperationSpecification specification = specifications.get(member);
+      for (PreSpecification pre : specification.getPreSpecifications()) {
+        conditions.add(pre.getGuard().getConditionText());
+      }
+      for (ThrowsSpecification throwsSpecification : specification.getThrowsSpecifications()) {
+        conditions.add(throwsSpecification.getGuard().getConditionText());
+      }
+      for (PostSpecification post : specification.getPostSpecifications()) {
+        conditions.add(
+            post.getGuard().getConditionText() + " ? " + post.getProperty().getConditionText());
+      }
+    }
+    conditions.removeIf(String::isEmpty);
+    return conditions;
+  }
+
+  private List<String> translateWithFreshCaches() throws Exception {
+    return translate(
+        new File(folder.newFolder(), "negative-cache"),
+        new File(folder.newFolder(), "specification-cache"));
+  }
+
+  @Test
+  public void longSentencesAreNotTranslatedNorCached() throws Exception {
+    setParsingLimits(0, 0);
+    final List<String> unlimited = translateWithFreshCaches();
+
+    final File negativeCache = folder.newFile();
+    final File specificationCache = folder.newFile();
+    setParsingLimits(2, 0);
+    final List<String> limited = translate(negativeCache, specificationCache);
+    assertThat(limited.size(), lessThan(unlimited.size()));
+
+    // The comments that were too long have been translated again rather than read from the cache.
+    assertThat(translate(negativeCache, specificationCache), is(limited));
+    assertThat(specificationCacheMisses, greaterThan(0L));
+
+    setParsingLimits(0, 0);
+    assertThat(translate(negativeCache, specificationCache), is(unlimited));
+  }
+
+  @Test
+  public void interruptedParsingIsNotCached() throws Exception {
+    setParsingLimits(0, 0);
+    final List<String> unlimited = translateWithFreshCaches();
+
+    final File negativeCache = folder.newFile();
+    final File specificationCache = folder.newFile();
+    setParsingLimits(0, 1);
+    // Which sentences are parsed within 1 ms depends on the machine, but the longest ones of the
+    // example are not, and the comments containing them must not end up in the caches.
+    translate(negativeCache, specificationCache);
+    translate(negativeCache, specificationCache);
+    assertThat(specificationCacheMisses, greaterThan(0L));
+
+    setParsingLimits(0, 0);
+    assertThat(translate(negativeCache, specificationCache), is(unlimited));
+  }
+}
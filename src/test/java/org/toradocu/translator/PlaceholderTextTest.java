@@ -0,0 +1,285 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.Test;
+import org.toradocu.extractor.Comment;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.TagOutput;
+import org.toradocu.util.GsonInstance;
+
+public class PlaceholderTextTest {
+
+  /** Directory containing the goal output files whose comments are used as test inputs. */
+  private static final String GOAL_OUTPUT_DIR = "src/test/resources/goal-output";
+
+  @Test
+  public void testInequalities() {
+    PlaceholderText placeholderText = PlaceholderText.of("x must be greater than or equal to 0");
+    assertThat(placeholderText.getText(), is("x must be is INEQUALITY_0"));
+    assertThat(placeholderText.getInequalities(), is(Arrays.asList(" >= 0")));
+
+    placeholderText = PlaceholderText.of("if x == null or y < z");
+    assertThat(placeholderText.getText(), is("if x  is INEQUALITY_0 or y is INEQUALITY_1"));
+    assertThat(placeholderText.getInequalities(), is(Arrays.asList("== null", " < z")));
+  }
+
+  @Test
+  public void testInstanceOf() {
+    PlaceholderText placeholderText = PlaceholderText.of("if o is an instance of Foo");
+    assertThat(placeholderText.getText(), is("if o is  INEQUALITY_0"));
+    assertThat(placeholderText.getInequalities(), is(Arrays.asList(" instanceof Foo")));
+  }
+
+  @Test
+  public void testIgnoredText() {
+    PlaceholderText placeholderText = PlaceholderText.of("if 0 <= index < size is false");
+    assertThat(placeholderText.getText(), is("if 0 <= index < size is false"));
+    assertTrue(placeholderText.getInequalities().isEmpty());
+  }
+
+  @Test
+  public void testRemovePlaceholders() {
+    List<String> inequalities = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      inequalities.add(" < " + i);
+    }
+    assertThat(
+        PlaceholderText.removePlaceholders("x INEQUALITY_1 and y INEQUALITY_11", inequalities),
+        is("x < 1 and y < 11"));
+  }
+
+  /**
+   * Compares {@link PlaceholderText} with the previous implementation of placeholder insertion on
+   * every comment of the goal output files. Both implementations must produce the same text once
+   * placeholders are replaced with their inequalities, and the same placeholder text up to the
+   * numbering of placeholders. (The previous implementation could skip some numbers and add
+   * inequalities for which no placeholder was inserted.)
+   *
+   * <p>The previous implementation matched patterns against the original text but replaced the
+   * first match in the text with placeholders, which sometimes associated a placeholder with the
+   * wrong inequality. In these cases, the new implementation must restore the original text.
+   */
+  @Test
+  public void testSameResultsAsPreviousImplementation() throws IOException {
+    Set<String> comments = collectComments();
+    assertTrue(comments.size() > 1000);
+
+    int wrongPreviousResults = 0;
+    for (String commentText : comments) {
+      final String text = new Comment(commentText).getText();
+      final List<String> expectedInequalities = new ArrayList<>();
+      final String expectedText = previousAddPlaceholders(text, expectedInequalities);
+      final String expectedRestoredText =
+          PlaceholderText.removePlaceholders(expectedText, expectedInequalities);
+
+      PlaceholderText actual = PlaceholderText.of(text);
+      final String actualRestoredText =
+          PlaceholderText.removePlaceholders(actual.getText(), actual.getInequalities());
+      final String rewrittenText = previousRewrite(text);
+      if (!withoutAddedVerbs(expectedRestoredText).equals(withoutAddedVerbs(rewrittenText))) {
+        wrongPreviousResults++;
+        assertThat(
+            text, withoutAddedVerbs(actualRestoredText), is(withoutAddedVerbs(rewrittenText)));
+        continue;
+      }
+      assertThat(text, withoutNumbers(actual.getText()), is(withoutNumbers(expectedText)));
+      assertThat(text, actualRestoredText, is(expectedRestoredText));
+    }
+    assertTrue(wrongPreviousResults < comments.size() / 100);
+  }
+
+  private static String withoutNumbers(String placeholderText) {
+    return PlaceholderText.PLACEHOLDER.matcher(placeholderText).replaceAll(" INEQUALITY");
+  }
+
+  private static String withoutAddedVerbs(String text) {
+    return text.replace(" is", "").replaceAll("\\s", "");
+  }
+
+  private static Set<String> collectComments() throws IOException {
+    Type collectionType = new TypeToken<List<JsonOutput>>() {}.getType();
+    Set<String> comments = new LinkedHashSet<>();
+    try (Stream<Path> files = Files.walk(Paths.get(GOAL_OUTPUT_DIR))) {
+      for (Path file :
+          (Iterable<Path>) files.filter(p -> p.toString().endsWith(".json"))::iterator) {
+        List<JsonOutput> members;
+        try (Reader reader = Files.newBufferedReader(file)) {
+          members = GsonInstance.gson().fromJson(reader, collectionType);
+        }
+        for (JsonOutput member : members) {
+          List<TagOutput> tags = new ArrayList<>();
+          if (member.paramTags != null) tags.addAll(member.paramTags);
+          if (member.throwsTags != null) tags.addAll(member.throwsTags);
+          if (member.returnTag != null) tags.add(member.returnTag);
+          for (TagOutput tag : tags) {
+            if (tag.getComment() != null) comments.add(tag.getComment());
+          }
+        }
+      }
+    }
+    return comments;
+  }
+
+  // Previous implementation of Parser.addPlaceholders, kept to check that PlaceholderText gives
+  // the same results.
+
+  private static final String INEQUALITY_NUMBER_REGEX =
+      " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)";
+  private static final String INEQUALITY_NULL_REGEX = "([=]=?|!=) ?null";
+  private static final String GENERIC_TYPE_REGEX = " *(<T>)";
+  private static final String RANGE_VAR_REGEX =
+      " * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)";
+  private static final String INEQUALITY_VAR_REGEX =
+      " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?";
+  private static final String PLACEHOLDER_PREFIX = " INEQUALITY_";
+  private static final String INEQ_INSOF = "(?<!has )(?<!have )an (instance of)";
+  private static final String INEQ_INSOFPROCESSED = " instanceof +[^ \\.]*";
+  private static final String INEQ_THIS = "(?<!of) this\\.";
+
+  private static String findVerb(String placeholderText, int i) {
+    String[] possibleVerbs = {"is", "is not", "isn't", "are", "are not", "aren't"};
+    boolean containsVerb = false;
+    for (String possibleVerb : possibleVerbs) {
+      if (placeholderText.contains(possibleVerb + PLACEHOLDER_PREFIX + i)) {
+        containsVerb = true;
+        break;
+      }
+    }
+    if (!containsVerb) {
+      placeholderText =
+          placeholderText.replaceFirst(PLACEHOLDER_PREFIX + i, " is" + PLACEHOLDER_PREFIX + i);
+    }
+    return placeholderText;
+  }
+
+  private static String previousRewrite(String commentText) {
+    String text =
+        commentText
+            .replace("greater than or equal to", ">=")
+            .replace("greater or equal to", ">=")
+            .replace("≥", ">=")
+            .replace("less than or equal to", "<=")
+            .replace("lesser than or equal to", "<=")
+            .replace("lesser or equal to", "<=")
+            .replace("smaller than or equal to", "<=")
+            .replace("lower than or equal to", "<=")
+            .replace("≤", "<=")
+            .replace("greater than", ">")
+            .replace("smaller than", "<")
+            .replace("less than", "<")
+            .replace("lesser than", "<")
+            .replace("lower than", "<")
+            .replace("equal to", "==");
+
+    java.util.regex.Matcher matcherInstanceOf = Pattern.compile(INEQ_INSOF).matcher(text);
+    while (matcherInstanceOf.find()) {
+      text = text.replaceFirst(INEQ_INSOF, " instanceof");
+    }
+    return text;
+  }
+
+  private static String previousAddPlaceholders(String commentText, List<String> inequalities) {
+    ArrayList<String> contentToIgnore = new ArrayList<>();
+    String text =
+        commentText
+            .replace("greater than or equal to", ">=")
+            .replace("greater or equal to", ">=")
+            .replace("≥", ">=")
+            .replace("less than or equal to", "<=")
+            .replace("lesser than or equal to", "<=")
+            .replace("lesser or equal to", "<=")
+            .replace("smaller than or equal to", "<=")
+            .replace("lower than or equal to", "<=")
+            .replace("≤", "<=")
+            .replace("greater than", ">")
+            .replace("smaller than", "<")
+            .replace("less than", "<")
+            .replace("lesser than", "<")
+            .replace("lower than", "<")
+            .replace("equal to", "==");
+
+    java.util.regex.Matcher matcherInstanceOf = Pattern.compile(INEQ_INSOF).matcher(text);
+    java.util.regex.Matcher matcherThis = Pattern.compile(INEQ_THIS).matcher(text);
+    java.util.regex.Matcher matcherGeneric = Pattern.compile(GENERIC_TYPE_REGEX).matcher(text);
+    java.util.regex.Matcher matcherRangeVar = Pattern.compile(RANGE_VAR_REGEX).matcher(text);
+    java.util.regex.Matcher matcherVarComp = Pattern.compile(INEQUALITY_VAR_REGEX).matcher(text);
+    java.util.regex.Matcher matcherIneqNumber =
+        Pattern.compile(INEQUALITY_NUMBER_REGEX).matcher(text);
+    java.util.regex.Matcher matcherIneqNull = Pattern.compile(INEQUALITY_NULL_REGEX).matcher(text);
+
+    while (matcherInstanceOf.find()) {
+      text = text.replaceFirst(INEQ_INSOF, " instanceof");
+    }
+
+    java.util.regex.Matcher matcherIOfProcessed =
+        Pattern.compile(INEQ_INSOFPROCESSED).matcher(text);
+    String placeholderText = text;
+    int i = 0;
+
+    while (matcherIOfProcessed.find()) {
+      inequalities.add(text.substring(matcherIOfProcessed.start(), matcherIOfProcessed.end()));
+      placeholderText = placeholderText.replaceFirst(INEQ_INSOFPROCESSED, PLACEHOLDER_PREFIX + i++);
+    }
+
+    while (matcherThis.find()) {
+      inequalities.add(text.substring(matcherThis.start(), matcherThis.end()));
+      placeholderText = placeholderText.replaceFirst(INEQ_THIS, PLACEHOLDER_PREFIX + i);
+      placeholderText = findVerb(placeholderText, i);
+      i++;
+    }
+
+    while (matcherGeneric.find()) {
+      placeholderText = placeholderText.replaceFirst(GENERIC_TYPE_REGEX, "IGNORE_ME");
+      contentToIgnore.add(matcherGeneric.group(0));
+    }
+
+    while (matcherRangeVar.find()) {
+      placeholderText = placeholderText.replaceFirst(RANGE_VAR_REGEX, "IGNORE_ME");
+      contentToIgnore.add(matcherRangeVar.group(0));
+    }
+
+    while (matcherIneqNumber.find()) {
+      inequalities.add(text.substring(matcherIneqNumber.start(), matcherIneqNumber.end()));
+      placeholderText =
+          placeholderText.replaceFirst(INEQUALITY_NUMBER_REGEX, PLACEHOLDER_PREFIX + i);
+      placeholderText = findVerb(placeholderText, i);
+      i++;
+    }
+
+    while (matcherIneqNull.find()) {
+      inequalities.add(text.substring(matcherIneqNull.start(), matcherIneqNull.end()));
+      placeholderText = placeholderText.replaceFirst(INEQUALITY_NULL_REGEX, PLACEHOLDER_PREFIX + i);
+      placeholderText = findVerb(placeholderText, i);
+      i++;
+    }
+
+    while (matcherVarComp.find()) {
+      inequalities.add(text.substring(matcherVarComp.start(), matcherVarComp.end()));
+      placeholderText = placeholderText.replaceFirst(INEQUALITY_VAR_REGEX, PLACEHOLDER_PREFIX + i);
+      placeholderText = findVerb(placeholderText, i);
+      i++;
+    }
+
+    for (String ignoredString : contentToIgnore) {
+      placeholderText = placeholderText.replaceFirst("IGNORE_ME", ignoredString);
+    }
+    return placeholderText;
+  }
+}
@@ -0,0 +1,90 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.ThrowsSpecification;
+
+/** Tests {@code SpecificationCache} on the example class example.AClass in src/test/resources. */
+public class SpecificationCacheTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+  private static final String TARGET_CLASS = "example.AClass";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void compileExample() throws Exception {
+    final List<String> sourceFiles;
+    try (Stream<Path> files = Files.walk(Paths.get(EXAMPLE_SRC, "example"))) {
+      sourceFiles =
+          files
+              .filter(p -> p.getFileName().toString().endsWith(".java"))
+              .map(Path::toString)
+              .collect(toList());
+    }
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+    Configuration.INSTANCE.classDirs =
+        Collections.singletonList(Paths.get(EXAMPLE_SRC).toUri().toURL());
+  }
+
+  private static DocumentedExecutable member(String name) throws Exception {
+    return new JavadocExtractor()
+        .extract(TARGET_CLASS, EXAMPLE_SRC)
+        .getDocumentedExecutables()
+        .stream()
+        .filter(m -> m.getName().equals(name))
+        .findFirst()
+        .get();
+  }
+
+  @Test
+  public void editedParamCommentsInvalidateTheOtherTags() throws Exception {
+    final DocumentedExecutable member = member("checkArithmeticOp");
+    final ThrowsTag tag = member.throwsTags().get(0);
+    final File file = new File(folder.getRoot(), "specification-cache");
+    try (SpecificationCache cache = SpecificationCache.open(file)) {
+      final String key = cache.keyOf(tag, member);
+      cache.put(
+          key,
+          tag,
+          Collections.singletonList(
+              new ThrowsSpecification(
+                  tag.toString(),
+                  new Guard("", "args[0] <= 0"),
+                  IllegalArgumentException.class.getName())));
+      assertThat(cache.get(key, tag, ThrowsSpecification.class), is(not(nullValue())));
+
+      // The comment of the @throws tag is the same, but the identifiers of n2 may have changed.
+      member.paramTags().get(1).setComment(new Comment("second number, the subtrahend"));
+      final String newKey = cache.keyOf(tag, member);
+      assertThat(newKey, is(not(key)));
+      assertThat(cache.get(newKey, tag, ThrowsSpecification.class), is(nullValue()));
+      assertThat(cache.getMisses(), is(1L));
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+
+public class TranslationKindTest {
+
+  @Test
+  public void comparisonsAreClassified() {
+    assertThat(
+        TranslationKind.of("==" + Configuration.RECEIVER), is(TranslationKind.RECEIVER_EQUALITY));
+    assertThat(TranslationKind.of("==true"), is(TranslationKind.BOOLEAN_EQUALITY));
+    assertThat(TranslationKind.of("==false"), is(TranslationKind.BOOLEAN_EQUALITY));
+    assertThat(TranslationKind.of("==null"), is(TranslationKind.NULL_EQUALITY));
+    assertThat(TranslationKind.of("==0"), is(TranslationKind.VALUE_EQUALITY));
+    assertThat(TranslationKind.of("<=args[1]"), is(TranslationKind.ORDERING));
+    assertThat(TranslationKind.of(">0"), is(TranslationKind.ORDERING));
+  }
+
+  @Test
+  public void otherTranslationsAreClassified() {
+    assertThat(TranslationKind.of(".equals(args[1])"), is(TranslationKind.EQUALS_INVOCATION));
+    assertThat(TranslationKind.of("!=null"), is(TranslationKind.OTHER));
+    assertThat(TranslationKind.of(".isEmpty()"), is(TranslationKind.OTHER));
+  }
+}
@@ -0,0 +1,90 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TypeMetadataTest {
+
+  @Test
+  public void metadataIsComputedOnce() {
+    assertThat(TypeMetadata.of(String.class), is(sameInstance(TypeMetadata.of(String.class))));
+  }
+
+  @Test
+  public void booleanMethodsAreSortedByName() {
+    final List<String> names =
+        TypeMetadata.of(String.class)
+            .getBooleanMethods()
+            .stream()
+            .map(Member::getName)
+            .collect(Collectors.toList());
+    final List<String> sortedNames = new ArrayList<>(names);
+    sortedNames.sort(String::compareTo);
+
+    assertThat(names, is(sortedNames));
+    assertThat(names, hasItem("isEmpty"));
+    assertThat(names, not(hasItem("length")));
+  }
+
+  @Test
+  public void staticBooleanMethodsTakeTheGivenParameterType() throws NoSuchMethodException {
+    final List<Method> methods =
+        TypeMetadata.of(Character.class).getStaticBooleanMethods(char.class);
+
+    assertThat(methods, hasItem(Character.class.getMethod("isDigit", char.class)));
+    assertThat(methods, not(hasItem(Character.class.getMethod("isDigit", int.class))));
+    assertThat(
+        methods.stream().map(m -> m.getParameterTypes()[0]).collect(Collectors.toList()),
+        everyItem(is(char.class)));
+  }
+
+  @Test
+  public void staticBooleanMethodsOfOtherParameterTypesTakeNoParameters()
+      throws NoSuchMethodException {
+    final TypeMetadata metadata = TypeMetadata.of(StaticMethods.class);
+
+    assertThat(
+        metadata.getStaticBooleanMethods(String.class),
+        containsInAnyOrder(
+            StaticMethods.class.getMethod("ready"),
+            StaticMethods.class.getMethod("isValid", String.class)));
+    assertThat(
+        metadata.getStaticBooleanMethods(Integer.class),
+        contains(StaticMethods.class.getMethod("ready")));
+  }
+
+  @Test
+  public void returnTypeOfConstructorIsItsClass() throws NoSuchMethodException {
+    final TypeMetadata metadata = TypeMetadata.of(StringBuilder.class);
+    assertThat(
+        metadata.getReturnType(StringBuilder.class.getConstructor()), is(StringBuilder.class));
+    assertThat(metadata.getReturnType(StringBuilder.class.getMethod("length")), is(int.class));
+  }
+
+  public static class StaticMethods {
+    public static boolean ready() {
+      return true;
+    }
+
+    public static boolean isValid(String s) {
+      return s != null;
+    }
+
+    public static boolean equal(String s, String t) {
+      return s.equals(t);
+    }
+  }
+}
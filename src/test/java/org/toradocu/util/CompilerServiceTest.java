@@ -0,0 +1,63 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.mdkt.compiler.CompilationException;
+
+public class CompilerServiceTest {
+
+  private static final File COLLECTIONS_JAR =
+      new File("src/test/resources/bin/commons-collections4-4.1.jar");
+
+  @Test
+  public void compilesAgainstTheClasspath() throws Exception {
+    try (CompilerService service =
+        new CompilerService(Collections.singletonList(COLLECTIONS_JAR))) {
+      for (int i = 0; i < 3; i++) {
+        service.compile(
+            "GeneratedSpecs",
+            "import org.apache.commons.collections4.CollectionUtils;\n"
+                + "public class GeneratedSpecs {\n"
+                + "  boolean check(java.util.List<String> list) {\n"
+                + "    return CollectionUtils.isEmpty(list) || list.size() > "
+                + i
+                + ";\n"
+                + "  }\n"
+                + "}\n");
+      }
+    }
+  }
+
+  @Test(expected = CompilationException.class)
+  public void failsWhenAClassIsNotOnTheClasspath() throws Exception {
+    try (CompilerService service = new CompilerService(Collections.emptyList())) {
+      service.compile(
+          "GeneratedSpecs",
+          "import org.apache.commons.collections4.CollectionUtils;\n"
+              + "public class GeneratedSpecs {}\n");
+    }
+  }
+
+  @Test
+  public void compilesAllTheSourcesTogether() throws Exception {
+    final Map<String, String> sources = new LinkedHashMap<>();
+    sources.put("Checks", "public class Checks { static class Nested {} }\n");
+    sources.put("UsesChecks", "public class UsesChecks { Checks checks; }\n");
+    sources.put("Broken", "public class Broken { int x = \"\"; }\n");
+    sources.put("UsesBroken", "public class UsesBroken { Broken broken; }\n");
+    final Map<String, String> errors = new HashMap<>();
+    try (CompilerService service = new CompilerService(Collections.emptyList())) {
+      final Map<String, byte[]> classes = service.compileAll(sources, errors);
+      assertThat(classes.keySet(), containsInAnyOrder("Checks", "Checks$Nested", "UsesChecks"));
+      // UsesBroken is left out when compiled again without Broken.
+      assertThat(errors.keySet(), containsInAnyOrder("Broken", "UsesBroken"));
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ComplianceCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void resultsArePersisted() throws IOException {
+    final File file = new File(folder.getRoot(), "cache");
+    final List<File> classpath = Collections.singletonList(folder.newFolder("classes"));
+    try (ComplianceCache cache = ComplianceCache.open(file)) {
+      assertThat(cache.get(classpath, "class A {}"), is(nullValue()));
+      cache.put(classpath, "class A {}", Optional.empty());
+      cache.put(classpath, "class B {", Optional.of("reached end of file while parsing"));
+    }
+    try (ComplianceCache cache = ComplianceCache.open(file)) {
+      assertThat(cache.get(classpath, "class A {}"), is(Optional.empty()));
+      assertThat(
+          cache.get(classpath, "class B {"), is(Optional.of("reached end of file while parsing")));
+      assertThat(cache.get(classpath, "class C {}"), is(nullValue()));
+      assertThat(cache.toString(), is("2 entries, 2 hits, 1 misses"));
+    }
+  }
+
+  @Test
+  public void changedClasspathInvalidatesResults() throws IOException {
+    final File file = new File(folder.getRoot(), "cache");
+    final File classes = folder.newFolder("classes");
+    final List<File> classpath = Collections.singletonList(classes);
+    try (ComplianceCache cache = ComplianceCache.open(file)) {
+      cache.put(classpath, "class A {}", Optional.empty());
+    }
+    Files.write(new File(classes, "B.class").toPath(), new byte[] {1, 2, 3});
+    try (ComplianceCache cache = ComplianceCache.open(file)) {
+      assertThat(cache.get(classpath, "class A {}"), is(nullValue()));
+    }
+  }
+
+  @Test
+  public void disabledCacheStoresNothing() {
+    final ComplianceCache cache = ComplianceCache.disabled();
+    final List<File> classpath = Collections.emptyList();
+    cache.put(classpath, "class A {}", Optional.empty());
+    assertThat(cache.isEnabled(), is(false));
+    assertThat(cache.get(classpath, "class A {}"), is(nullValue()));
+  }
+}
@@ -0,0 +1,137 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.util.ConditionTypeChecker.Verdict;
+
+public class ConditionTypeCheckerTest {
+
+  private static Method startsWith;
+  private static List<DocumentedParameter> startsWithParameters;
+
+  @BeforeClass
+  public static void setUp() throws NoSuchMethodException {
+    startsWith = String.class.getMethod("startsWith", String.class);
+    startsWithParameters = parameters(startsWith, "prefix");
+  }
+
+  private static List<DocumentedParameter> parameters(Executable executable, String... names) {
+    List<DocumentedParameter> parameters = new ArrayList<>();
+    for (int i = 0; i < names.length; i++) {
+      parameters.add(new DocumentedParameter(executable.getParameters()[i], names[i]));
+    }
+    return parameters;
+  }
+
+  private static Verdict checkStartsWith(String condition) {
+    return ConditionTypeChecker.check(startsWith, startsWithParameters, false, condition);
+  }
+
+  @Test
+  public void simpleConditionsAreWellTyped() throws NoSuchMethodException {
+    assertThat(checkStartsWith("args[0]==null"), is(Verdict.WELL_TYPED));
+    assertThat(checkStartsWith("(args[0].isEmpty())==false"), is(Verdict.WELL_TYPED));
+    assertThat(
+        checkStartsWith("receiverObjectID.length()>args[0].length() || args[0]==null"),
+        is(Verdict.WELL_TYPED));
+
+    final Method subList = ArrayList.class.getMethod("subList", int.class, int.class);
+    assertThat(
+        ConditionTypeChecker.check(
+            subList,
+            parameters(subList, "from", "to"),
+            true,
+            "args[0]>args[1]",
+            "methodResultID.isEmpty()"),
+        is(Verdict.WELL_TYPED));
+  }
+
+  @Test
+  public void obviousErrorsAreIllTyped() {
+    assertThat(checkStartsWith("args[0]<0"), is(Verdict.ILL_TYPED));
+    assertThat(checkStartsWith("args[0].size()==0"), is(Verdict.ILL_TYPED));
+    assertThat(checkStartsWith("args[1]==null"), is(Verdict.ILL_TYPED));
+    assertThat(checkStartsWith("args[0].length()"), is(Verdict.ILL_TYPED));
+    assertThat(checkStartsWith("args[0].isEmpty()==0"), is(Verdict.ILL_TYPED));
+  }
+
+  @Test
+  public void otherConditionsAreUndecided() {
+    assertThat(checkStartsWith("args[0] instanceof Comparable"), is(Verdict.UNDECIDED));
+    assertThat(checkStartsWith("args[0].indexOf(32)>0"), is(Verdict.UNDECIDED));
+    assertThat(checkStartsWith("methodResultID==null"), is(Verdict.UNDECIDED));
+    assertThat(checkStartsWith("args[0]=="), is(Verdict.UNDECIDED));
+  }
+
+  @Test
+  public void callsOfMethodsWithCheckedExceptionsAreUndecided() throws NoSuchMethodException {
+    final Method renameTo = File.class.getMethod("renameTo", File.class);
+    assertThat(
+        ConditionTypeChecker.check(
+            renameTo, parameters(renameTo, "dest"), false, "args[0].getCanonicalPath()==null"),
+        is(Verdict.UNDECIDED));
+    final Method read = InputStream.class.getMethod("read");
+    assertThat(
+        ConditionTypeChecker.check(
+            read, new ArrayList<>(), false, "receiverObjectID.available()==0"),
+        is(Verdict.UNDECIDED));
+    // Unchecked exceptions do not need to be declared by the compiled method.
+    final Method isOpen = Resource.class.getMethod("isOpen", Resource.class);
+    assertThat(
+        ConditionTypeChecker.check(
+            isOpen, parameters(isOpen, "resource"), false, "args[0].isClosed()"),
+        is(Verdict.WELL_TYPED));
+  }
+
+  @Test
+  public void concatenationWithUnknownOperandIsUndecided() {
+    assertThat(
+        checkStartsWith("(args[0].indexOf(32) + args[0].toCharArray())==null"),
+        is(Verdict.UNDECIDED));
+    assertThat(
+        checkStartsWith("(args[0].toCharArray() + args[0].indexOf(32))==null"),
+        is(Verdict.UNDECIDED));
+    assertThat(
+        checkStartsWith("(args[0].length() + args[0].toCharArray())==null"), is(Verdict.ILL_TYPED));
+  }
+
+  @Test
+  public void typeVariablesBoundedByWrappersAreUnboxed() throws NoSuchMethodException {
+    final Method isPositive = Bounded.class.getMethod("isPositive", Integer.class, Boolean.class);
+    final List<DocumentedParameter> isPositiveParameters =
+        parameters(isPositive, "value", "strict");
+    assertThat(
+        ConditionTypeChecker.check(isPositive, isPositiveParameters, false, "args[0] < 0"),
+        is(Verdict.WELL_TYPED));
+    assertThat(
+        ConditionTypeChecker.check(
+            isPositive, isPositiveParameters, false, "args[0] + 1 > 0 && args[1]"),
+        is(Verdict.WELL_TYPED));
+  }
+
+  public static class Resource {
+    public boolean isClosed() throws IllegalStateException {
+      return false;
+    }
+
+    public static boolean isOpen(Resource resource) {
+      return !resource.isClosed();
+    }
+  }
+
+  public static class Bounded {
+    public static <T extends Integer, B extends Boolean> boolean isPositive(T value, B strict) {
+      return strict ? value > 0 : value >= 0;
+    }
+  }
+}
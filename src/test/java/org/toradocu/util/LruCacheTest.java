@@ -0,0 +1,71 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class LruCacheTest {
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() {
+    LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    assertThat(cache.get("a"), is(1)); // "b" is now the least recently used entry.
+    cache.put("c", 3);
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.get("a"), is(1));
+    assertThat(cache.get("b"), is(nullValue()));
+    assertThat(cache.get("c"), is(3));
+  }
+
+  @Test
+  public void valuesAreComputedOnce() {
+    LruCache<String, Integer> cache = new LruCache<>(10);
+    AtomicInteger computations = new AtomicInteger();
+
+    assertThat(cache.computeIfAbsent("abc", k -> computations.incrementAndGet()), is(1));
+    assertThat(cache.computeIfAbsent("abc", k -> computations.incrementAndGet()), is(1));
+    assertThat(computations.get(), is(1));
+
+    cache.clear();
+    assertThat(cache.computeIfAbsent("abc", k -> computations.incrementAndGet()), is(2));
+  }
+
+  @Test
+  public void leastRecentlyUsedEntriesAreEvictedToRespectMaxWeight() {
+    LruCache<String, String> cache = new LruCache<>(10, 5, String::length, false);
+    cache.put("a", "aa");
+    cache.put("b", "bbb");
+    cache.put("c", "cc"); // Total weight would be 7: "a" is evicted.
+    cache.put("d", "dddddd"); // Weight 6 exceeds the maximum: not cached.
+
+    assertThat(cache.get("a"), is(nullValue()));
+    assertThat(cache.get("b"), is("bbb"));
+    assertThat(cache.get("c"), is("cc"));
+    assertThat(cache.get("d"), is(nullValue()));
+
+    LruCache.Statistics statistics = cache.getStatistics();
+    assertThat(statistics.getSize(), is(2));
+    assertThat(statistics.getWeight(), is(5L));
+    assertThat(statistics.getHits(), is(2L));
+    assertThat(statistics.getMisses(), is(2L));
+    assertThat(statistics.getEvictions(), is(2L));
+  }
+
+  @Test
+  public void softValuesAreCached() {
+    LruCache<String, Integer> cache = new LruCache<>(10, Long.MAX_VALUE, v -> 1, true);
+    cache.put("a", 1);
+    assertThat(cache.get("a"), is(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void capacityMustBePositive() {
+    new LruCache<String, Integer>(0);
+  }
+}
@@ -0,0 +1,138 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedKeyValueStoreTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void entriesArePersisted() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("store");
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.get("a"), is(nullValue()));
+      store.put("a", "1");
+      store.put("b", "è");
+      assertThat(store.get("a"), is("1"));
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(2));
+      assertThat(store.get("a"), is("1"));
+      assertThat(store.get("b"), is("è"));
+      store.put("c", "3");
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(3));
+      assertThat(store.get("c"), is("3"));
+    }
+  }
+
+  @Test
+  public void removalsArePersisted() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("store");
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      store.put("a", "1");
+      store.put("b", "2");
+      store.put("c", "3");
+      store.remove("c");
+      assertThat(store.get("c"), is(nullValue()));
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(2));
+      store.remove("a");
+      store.remove("d");
+      assertThat(store.size(), is(1));
+      assertThat(store.get("a"), is(nullValue()));
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(1));
+      assertThat(store.get("a"), is(nullValue()));
+      assertThat(store.get("b"), is("2"));
+      store.put("a", "4");
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(2));
+      assertThat(store.get("a"), is("4"));
+    }
+  }
+
+  @Test
+  public void supersededRecordsAreCompacted() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("store");
+    final String value = new String(new char[1000]).replace('\0', 'x');
+    for (int i = 0; i < 10; i++) {
+      try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+        store.put("a", value + i);
+      }
+    }
+    assertThat(Files.size(file), lessThan(3000L));
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(1));
+      assertThat(store.get("a"), is(value + 9));
+    }
+  }
+
+  @Test
+  public void staleEntriesAreReclaimed() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("store");
+    final String value = new String(new char[1000]).replace('\0', 'x');
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file, 30, day(0))) {
+      store.put("a", value + "a");
+      store.put("b", value + "b");
+      store.put("c", value + "c");
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file, 30, day(20))) {
+      assertThat(store.get("a"), is(value + "a"));
+    }
+    final long size = Files.size(file);
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file, 30, day(40))) {
+      assertThat(store.size(), is(3));
+    }
+    // b and c have not been used for 40 days: they take two thirds of the file and are reclaimed.
+    assertThat(Files.size(file), lessThan(size / 2));
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file, 30, day(40))) {
+      assertThat(store.size(), is(1));
+      assertThat(store.get("a"), is(value + "a"));
+      assertThat(store.get("b"), is(nullValue()));
+      assertThat(store.get("c"), is(nullValue()));
+    }
+  }
+
+  @Test
+  public void truncatedRecordIsDiscarded() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("store");
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      store.put("a", "1");
+    }
+    Files.write(file, new byte[] {0, 0, 0, 5, 'b'}, StandardOpenOption.APPEND);
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(1));
+      assertThat(store.get("b"), is(nullValue()));
+      store.put("c", "3");
+    }
+    try (MappedKeyValueStore store = MappedKeyValueStore.open(file)) {
+      assertThat(store.size(), is(2));
+      assertThat(store.get("a"), is("1"));
+      assertThat(store.get("c"), is("3"));
+    }
+  }
+
+  private static Clock day(int day) {
+    return Clock.fixed(Instant.EPOCH.plus(day, ChronoUnit.DAYS), ZoneOffset.UTC);
+  }
+}